@@ -76,6 +76,7 @@ public class DMLOptions {
 	public LineageCachePolicy   linCachePolicy= LineageCachePolicy.COSTNSIZE; // lineage cache eviction policy
 	public boolean              lineage_estimate = false;         // whether estimate reuse benefits
 	public boolean              lineage_debugger = false;         // whether enable lineage debugger
+	public boolean              lineage_binary = false;           // whether write lineage traces in binary format
 	public boolean              fedWorker     = false;
 	public int                  fedWorkerPort = -1;
 	public boolean              fedMonitoring = false;
@@ -166,6 +167,8 @@ public class DMLOptions {
 							dmlOptions.lineage_estimate = lineageType.equalsIgnoreCase("estimate");
 						else if (lineageType.equalsIgnoreCase("debugger"))
 							dmlOptions.lineage_debugger = lineageType.equalsIgnoreCase("debugger");							
+						else if (lineageType.equalsIgnoreCase("binary"))
+							dmlOptions.lineage_binary = lineageType.equalsIgnoreCase("binary");
 						else
 							throw new org.apache.commons.cli.ParseException(
 								"Invalid argument specified for -lineage option: " + lineageType);
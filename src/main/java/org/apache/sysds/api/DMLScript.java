@@ -64,6 +64,7 @@ import org.apache.sysds.runtime.DMLScriptException;
 import org.apache.sysds.runtime.codegen.CodegenUtils;
 import org.apache.sysds.runtime.controlprogram.Program;
 import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
 import org.apache.sysds.runtime.controlprogram.context.SparkExecutionContext;
@@ -145,6 +146,8 @@ public class DMLScript
 	public static boolean     LINEAGE_ESTIMATE           = DMLOptions.defaultOptions.lineage_estimate;
 	// Enable/disable lineage debugger
 	public static boolean     LINEAGE_DEBUGGER           = DMLOptions.defaultOptions.lineage_debugger;
+	// Enable/disable the compact binary format of written lineage traces
+	public static boolean     LINEAGE_BINARY             = DMLOptions.defaultOptions.lineage_binary;
 	// Set accelerator
 	public static boolean           USE_ACCELERATOR      = DMLOptions.defaultOptions.gpu;
 	public static boolean           FORCE_ACCELERATOR    = DMLOptions.defaultOptions.forceGPU;
@@ -281,6 +284,7 @@ public class DMLScript
 			LINEAGE_POLICY        = dmlOptions.linCachePolicy;
 			LINEAGE_ESTIMATE      = dmlOptions.lineage_estimate;
 			LINEAGE_DEBUGGER      = dmlOptions.lineage_debugger;
+			LINEAGE_BINARY        = dmlOptions.lineage_binary;
 			SEED                  = dmlOptions.seed;
 
 
@@ -535,6 +539,17 @@ public class DMLScript
 		DMLScript.USE_LOCAL_SPARK_CONFIG |= dmlconf.getBooleanValue(DMLConfig.USE_LOCAL_SPARK_CONFIG);
 		DMLScript.FLOATING_POINT_PRECISION = dmlconf.getTextValue(DMLConfig.FLOATING_POINT_PRECISION);
 		org.apache.sysds.runtime.matrix.data.LibMatrixCUDA.resetFloatingPointPrecision();
+		org.apache.sysds.runtime.matrix.data.LibMatrixFP32.resetEnabledOpcodes();
+		org.apache.sysds.runtime.matrix.data.LibMatrixVector.reset();
+		org.apache.sysds.runtime.controlprogram.caching.CachePrefetcher.resetLookahead();
+		org.apache.sysds.runtime.lineage.LineageCacheEviction.resetAsyncEviction();
+		String policy = dmlconf.getTextValue(DMLConfig.CACHING_BUFFER_POLICY).trim().toUpperCase();
+		try {
+			CacheableData.CACHING_BUFFER_POLICY = RPolicy.valueOf(policy);
+		}
+		catch(IllegalArgumentException ex) {
+			throw new RuntimeException("Incorrect value (" + policy + ") for the configuration:" + DMLConfig.CACHING_BUFFER_POLICY);
+		}
 		if(DMLScript.FLOATING_POINT_PRECISION.equals("double")) {
 			DMLScript.EVICTION_SHADOW_BUFFER_MAX_BYTES = 0;
 		}
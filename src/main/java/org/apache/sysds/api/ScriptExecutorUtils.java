@@ -36,6 +36,7 @@ import org.apache.sysds.runtime.instructions.gpu.context.GPUContextPool;
 import org.apache.sysds.runtime.instructions.gpu.context.GPUObject;
 import org.apache.sysds.runtime.lineage.LineageEstimatorStatistics;
 import org.apache.sysds.runtime.lineage.LineageGPUCacheEviction;
+import org.apache.sysds.runtime.lineage.LineageSpeculator;
 import org.apache.sysds.utils.Statistics;
 
 public class ScriptExecutorUtils {
@@ -86,6 +87,8 @@ public class ScriptExecutorUtils {
 				gCtxs.get(0).initializeThread();
 				ec.setGPUContexts(gCtxs);
 			}
+			if (DMLScript.LINEAGE)
+				LineageSpeculator.start();
 			rtprog.execute(ec);
 		} catch (Throwable e) {
 			throw e;
@@ -119,14 +122,18 @@ public class ScriptExecutorUtils {
 			}
 			if( ConfigurationManager.isCodegenEnabled() )
 				SpoofCompiler.cleanupCodeGenerator();
+			if (DMLScript.LINEAGE)
+				LineageSpeculator.stop();
 			
 			// display statistics (incl caching stats if enabled)
 			Statistics.stopRunTimer();
 			System.out.println(Statistics.display(statisticsMaxHeavyHitters > 0 ?
 					statisticsMaxHeavyHitters : DMLScript.STATISTICS_COUNT));
 			
-			if (DMLScript.LINEAGE_ESTIMATE)
+			if (DMLScript.LINEAGE_ESTIMATE) {
 				System.out.println(LineageEstimatorStatistics.displayLineageEstimates());
+				LineageSpeculator.saveHistory();
+			}
 		}
 	}
 
@@ -41,6 +41,7 @@ import org.apache.sysds.runtime.controlprogram.caching.FrameObject;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysds.runtime.data.DenseBlockQuantized.QuantType;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.instructions.cp.BooleanObject;
 import org.apache.sysds.runtime.instructions.cp.Data;
@@ -48,6 +49,7 @@ import org.apache.sysds.runtime.instructions.cp.DoubleObject;
 import org.apache.sysds.runtime.instructions.cp.IntObject;
 import org.apache.sysds.runtime.instructions.cp.ScalarObject;
 import org.apache.sysds.runtime.instructions.cp.StringObject;
+import org.apache.sysds.runtime.matrix.data.LibMatrixQuantize;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.meta.MatrixCharacteristics;
 import org.apache.sysds.runtime.meta.MetaDataFormat;
@@ -309,6 +311,21 @@ public class PreparedScript implements ConfigurableAPI
 		}
 	}
 
+	/**
+	 * Binds a quantized matrix object to a registered input variable.
+	 * This is intended for read-only model weights (e.g., the right-hand
+	 * side of matrix multiplications), which are then kept in 1 or 2 bytes
+	 * per value and dequantized on the fly by the consuming operations.
+	 * 
+	 * @param varname input variable name
+	 * @param matrix matrix represented as a MatrixBlock
+	 * @param type quantization type
+	 * @param reuse if {@code true}, preserve value over multiple {@code executeScript} calls
+	 */
+	public void setMatrix(String varname, MatrixBlock matrix, QuantType type, boolean reuse) {
+		setMatrix(varname, LibMatrixQuantize.quantize(matrix, type, true), reuse);
+	}
+
 	/**
 	 * Binds a frame object to a registered input variable.
 	 * 
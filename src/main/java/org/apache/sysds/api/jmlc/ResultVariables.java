@@ -30,6 +30,7 @@ import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.instructions.cp.Data;
 import org.apache.sysds.runtime.instructions.cp.ListObject;
 import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.DataConverter;
 
@@ -95,7 +96,8 @@ public class ResultVariables
 		MatrixObject mo = (MatrixObject)dat;
 		MatrixBlock mb = mo.acquireRead();
 		mo.release();
-		return mb;
+		//FP32, quantized, or off-heap blocks are returned as FP64 heap blocks
+		return LibMatrixFP32.toFP64(mb);
 	}
 	
 	/**
@@ -88,8 +88,18 @@ public class DMLConfig
 	public static final String COMPRESSED_COST_MODEL= "sysds.compressed.costmodel";
 	public static final String COMPRESSED_TRANSPOSE = "sysds.compressed.transpose";
 	public static final String COMPRESSED_TRANSFORMENCODE = "sysds.compressed.transformencode";
+	public static final String COMPRESSED_FAIL_ON_DECOMPRESS = "sysds.compressed.failondecompress"; // boolean: error on decompression fallbacks
+	public static final String COMPRESSED_PIPELINED = "sysds.compressed.pipelined"; // boolean: overlap co-coding, transpose and encoding
 	public static final String NATIVE_BLAS          = "sysds.native.blas";
 	public static final String NATIVE_BLAS_DIR      = "sysds.native.blas.directory";
+	public static final String VECTOR_API           = "sysds.cp.vectorapi"; // none, auto (if jdk.incubator.vector available)
+	public static final String STRASSEN_THRESHOLD   = "sysds.cp.strassen.threshold"; // min dimension for Strassen-Winograd mm, -1 disabled
+	public static final String STRASSEN_APPROX      = "sysds.cp.strassen.approx"; // boolean, allow multi-level recursion (reduced accuracy)
+	public static final String CP_FP32              = "sysds.cp.fp32"; // none, all, or comma-separated opcodes with FP32 outputs
+	public static final String OFFHEAP_THRESHOLD    = "sysds.cp.offheap.threshold"; // min size in MB of off-heap dense blocks, -1 disabled
+	public static final String OFFHEAP_LIMIT        = "sysds.cp.offheap.limit"; // max total size in MB of off-heap dense blocks, -1 unlimited
+	public static final String SPARSE_SELL          = "sysds.cp.sparse.sell"; // boolean: SELL-C-sigma conversion of reused sparse matmult inputs
+	public static final String SPARSE_ADVISOR       = "sysds.cp.sparse.advisor"; // boolean: cost-based sparse format selection
 	public static final String DAG_LINEARIZATION    = "sysds.compile.linearization";
 	public static final String CODEGEN              = "sysds.codegen.enabled"; //boolean
 	public static final String CODEGEN_API          = "sysds.codegen.api"; // see SpoofCompiler.API
@@ -107,8 +117,17 @@ public class DMLConfig
 	public static final String LOCAL_SPARK_NUM_THREADS = "sysds.local.spark.number.threads"; // the number of threads allowed to be used in the local spark configuration, default is * to enable use of all threads.
 	public static final String LINEAGECACHESPILL    = "sysds.lineage.cachespill"; // boolean: whether to spill cache entries to disk
 	public static final String COMPILERASSISTED_RW  = "sysds.lineage.compilerassisted"; // boolean: whether to apply compiler assisted rewrites
+	public static final String LINEAGE_PERSIST_DIR  = "sysds.lineage.persist.dir"; // local directory of the persistent lineage cache, empty disables it
+	public static final String LINEAGE_PERSIST_LIMIT = "sysds.lineage.persist.limit"; // max size of the persistent lineage cache in MB
+	public static final String LINEAGE_PERSIST_MINTIME = "sysds.lineage.persist.mintime"; // min compute time in ms of persisted intermediates
+	public static final String LINEAGE_ASYNC_EVICTION = "sysds.lineage.async.eviction"; // evict from the lineage cache in a background thread
+	public static final String LINEAGE_SPECULATE_FILE = "sysds.lineage.speculate.file"; // local history file for speculative precomputation, empty disables it
+	public static final String LINEAGE_SPECULATE_TOPK = "sysds.lineage.speculate.topk"; // max number of speculatively precomputed intermediates
 	public static final String BUFFERPOOL_LIMIT     = "sysds.caching.bufferpoollimit"; // max buffer pool size in percentage
 	public static final String MEMORY_MANAGER       = "sysds.caching.memorymanager"; // static or unified memory manager
+	public static final String CACHING_BUFFER_POLICY = "sysds.caching.bufferpool.policy"; // eviction policy of the buffer pool (fifo, lru, lru_k, arc, cost)
+	public static final String CACHING_MMAP         = "sysds.caching.mmap"; // boolean: raw eviction format w/ memory-mapped restore
+	public static final String CACHING_PREFETCH     = "sysds.caching.prefetch.lookahead"; // number of instructions scanned for prefetching evicted inputs, 0 disabled
 	
 	// Fraction of available memory to use. The available memory is computer when the GPUContext is created
 	// to handle the tradeoff on calling cudaMemGetInfo too often.
@@ -173,6 +192,8 @@ public class DMLConfig
 		_defaultVals.put(COMPRESSED_COST_MODEL,  "AUTO");
 		_defaultVals.put(COMPRESSED_TRANSPOSE,   "auto");
 		_defaultVals.put(COMPRESSED_TRANSFORMENCODE, "false");
+		_defaultVals.put(COMPRESSED_FAIL_ON_DECOMPRESS, "false");
+		_defaultVals.put(COMPRESSED_PIPELINED,   "false");
 		_defaultVals.put(DAG_LINEARIZATION,      DagLinearizer.DEPTH_FIRST.name());
 		_defaultVals.put(CODEGEN,                "false" );
 		_defaultVals.put(CODEGEN_API,            GeneratorAPI.JAVA.name() );
@@ -182,10 +203,27 @@ public class DMLConfig
 		_defaultVals.put(CODEGEN_LITERALS,       "1" );
 		_defaultVals.put(NATIVE_BLAS,            "none" );
 		_defaultVals.put(NATIVE_BLAS_DIR,        "none" );
+		_defaultVals.put(VECTOR_API,             "none" );
+		_defaultVals.put(STRASSEN_THRESHOLD,     "-1" );
+		_defaultVals.put(STRASSEN_APPROX,        "false" );
+		_defaultVals.put(CP_FP32,                "none" );
+		_defaultVals.put(OFFHEAP_THRESHOLD,      "-1" );
+		_defaultVals.put(OFFHEAP_LIMIT,          "-1" );
+		_defaultVals.put(SPARSE_SELL,            "false" );
+		_defaultVals.put(SPARSE_ADVISOR,         "false" );
 		_defaultVals.put(LINEAGECACHESPILL,      "true" );
 		_defaultVals.put(COMPILERASSISTED_RW,    "true" );
+		_defaultVals.put(LINEAGE_PERSIST_DIR,    "" );
+		_defaultVals.put(LINEAGE_PERSIST_LIMIT,  "4096" );
+		_defaultVals.put(LINEAGE_PERSIST_MINTIME, "100" );
+		_defaultVals.put(LINEAGE_ASYNC_EVICTION, "false" );
+		_defaultVals.put(LINEAGE_SPECULATE_FILE, "" );
+		_defaultVals.put(LINEAGE_SPECULATE_TOPK, "3" );
 		_defaultVals.put(BUFFERPOOL_LIMIT,       "15"); // % of total heap
 		_defaultVals.put(MEMORY_MANAGER,         "static"); // static/unified partitioning of heap
+		_defaultVals.put(CACHING_BUFFER_POLICY,  "fifo" );
+		_defaultVals.put(CACHING_MMAP,           "false" );
+		_defaultVals.put(CACHING_PREFETCH,       "0" );
 		_defaultVals.put(PRINT_GPU_MEMORY_INFO,  "false" );
 		_defaultVals.put(EVICTION_SHADOW_BUFFERSIZE,  "0.0" );
 		_defaultVals.put(STATS_MAX_WRAP_LEN,     "30" );
@@ -455,12 +493,14 @@ public class DMLConfig
 	public String getConfigInfo()  {
 		String[] tmpConfig = new String[] { 
 			LOCAL_TMP_DIR,SCRATCH_SPACE,OPTIMIZATION_LEVEL, DEFAULT_BLOCK_SIZE,
-			CP_PARALLEL_OPS, CP_PARALLEL_IO, PARALLEL_ENCODE, NATIVE_BLAS, NATIVE_BLAS_DIR,
-			COMPRESSED_LINALG, COMPRESSED_LOSSY, COMPRESSED_VALID_COMPRESSIONS, COMPRESSED_OVERLAPPING,
+			CP_PARALLEL_OPS, CP_PARALLEL_IO, PARALLEL_ENCODE, NATIVE_BLAS, NATIVE_BLAS_DIR, VECTOR_API,
+			STRASSEN_THRESHOLD, STRASSEN_APPROX, CP_FP32, OFFHEAP_THRESHOLD, OFFHEAP_LIMIT, SPARSE_SELL, SPARSE_ADVISOR, COMPRESSED_LINALG, COMPRESSED_LOSSY, COMPRESSED_VALID_COMPRESSIONS, COMPRESSED_OVERLAPPING,
 			COMPRESSED_SAMPLING_RATIO, COMPRESSED_SOFT_REFERENCE_COUNT,
-			COMPRESSED_COCODE, COMPRESSED_TRANSPOSE, COMPRESSED_TRANSFORMENCODE, DAG_LINEARIZATION,
+			COMPRESSED_COCODE, COMPRESSED_TRANSPOSE, COMPRESSED_TRANSFORMENCODE, COMPRESSED_FAIL_ON_DECOMPRESS, COMPRESSED_PIPELINED, DAG_LINEARIZATION,
 			CODEGEN, CODEGEN_API, CODEGEN_COMPILER, CODEGEN_OPTIMIZER, CODEGEN_PLANCACHE, CODEGEN_LITERALS,
-			STATS_MAX_WRAP_LEN, LINEAGECACHESPILL, COMPILERASSISTED_RW, BUFFERPOOL_LIMIT, MEMORY_MANAGER,
+			STATS_MAX_WRAP_LEN, LINEAGECACHESPILL, COMPILERASSISTED_RW,
+			LINEAGE_PERSIST_DIR, LINEAGE_PERSIST_LIMIT, LINEAGE_PERSIST_MINTIME, LINEAGE_ASYNC_EVICTION,
+			LINEAGE_SPECULATE_FILE, LINEAGE_SPECULATE_TOPK, BUFFERPOOL_LIMIT, MEMORY_MANAGER, CACHING_BUFFER_POLICY, CACHING_MMAP, CACHING_PREFETCH,
 			PRINT_GPU_MEMORY_INFO, AVAILABLE_GPUS, SYNCHRONIZE_GPU, EAGER_CUDA_FREE, GPU_RULE_BASED_PLACEMENT,
 			FLOATING_POINT_PRECISION, GPU_EVICTION_POLICY, LOCAL_SPARK_NUM_THREADS, EVICTION_SHADOW_BUFFERSIZE,
 			GPU_MEMORY_ALLOCATOR, GPU_MEMORY_UTILIZATION_FACTOR, USE_SSL_FEDERATED_COMMUNICATION,
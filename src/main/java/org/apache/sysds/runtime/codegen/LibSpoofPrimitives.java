@@ -30,6 +30,7 @@ import org.apache.sysds.runtime.matrix.data.LibMatrixDNN;
 import org.apache.sysds.runtime.matrix.data.LibMatrixDNNIm2Col;
 import org.apache.sysds.runtime.matrix.data.LibMatrixDNNPooling;
 import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixVector;
 import org.apache.sysds.runtime.matrix.data.LibMatrixDNN.PoolingType;
 
 /**
@@ -306,6 +307,9 @@ public class LibSpoofPrimitives
 	 * @return sum value
 	 */
 	public static double vectSum(double[] a, int ai, int len) { 
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null )
+			return simd.vectSum(a, ai, len);
 		double val = 0;
 		final int bn = len%8;
 		
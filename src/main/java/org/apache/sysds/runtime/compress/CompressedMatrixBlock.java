@@ -40,6 +40,7 @@ import org.apache.commons.math3.random.Well1024a;
 import org.apache.sysds.common.Opcodes;
 import org.apache.sysds.common.Types.CorrectionLocationType;
 import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
 import org.apache.sysds.lops.MMTSJ.MMTSJType;
 import org.apache.sysds.lops.MapMultChain.ChainType;
 import org.apache.sysds.runtime.DMLRuntimeException;
@@ -53,6 +54,7 @@ import org.apache.sysds.runtime.compress.colgroup.dictionary.IDictionary;
 import org.apache.sysds.runtime.compress.lib.CLALibAppend;
 import org.apache.sysds.runtime.compress.lib.CLALibBinaryCellOp;
 import org.apache.sysds.runtime.compress.lib.CLALibCMOps;
+import org.apache.sysds.runtime.compress.lib.CLALibCTable;
 import org.apache.sysds.runtime.compress.lib.CLALibCompAgg;
 import org.apache.sysds.runtime.compress.lib.CLALibDecompress;
 import org.apache.sysds.runtime.compress.lib.CLALibMMChain;
@@ -79,6 +81,7 @@ import org.apache.sysds.runtime.instructions.spark.data.IndexedMatrixValue;
 import org.apache.sysds.runtime.matrix.data.CTableMap;
 import org.apache.sysds.runtime.matrix.data.IJV;
 import org.apache.sysds.runtime.matrix.data.LibMatrixDatagen;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
 import org.apache.sysds.runtime.matrix.data.MatrixValue;
@@ -99,6 +102,7 @@ import org.apache.sysds.runtime.util.CommonThreadPool;
 import org.apache.sysds.runtime.util.IndexRange;
 import org.apache.sysds.utils.DMLCompressionStatistics;
 import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
+import org.apache.sysds.utils.stats.Timing;
 
 public class CompressedMatrixBlock extends MatrixBlock {
 	private static final Log LOG = LogFactory.getLog(CompressedMatrixBlock.class.getName());
@@ -791,9 +795,8 @@ public class CompressedMatrixBlock extends MatrixBlock {
 
 	@Override
 	public MatrixBlock binaryOperationsInPlace(BinaryOperator op, MatrixValue thatValue) {
-		printDecompressWarning("binaryOperationsInPlace", (MatrixBlock) thatValue);
 		MatrixBlock left = new MatrixBlock();
-		left.copy(getUncompressed());
+		left.copy(getUncompressed("binaryOperationsInPlace"));
 		MatrixBlock right = getUncompressed(thatValue);
 		left.binaryOperationsInPlace(op, right);
 		return left;
@@ -802,8 +805,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	@Override
 	public void incrementalAggregate(AggregateOperator aggOp, MatrixValue correction, MatrixValue newWithCorrection,
 		boolean deep) {
-		printDecompressWarning("IncrementalAggregate not supported");
-		MatrixBlock left = getUncompressed();
+		MatrixBlock left = getUncompressed("IncrementalAggregate not supported");
 		MatrixBlock correctionMatrixBlock = getUncompressed(correction);
 		MatrixBlock newWithCorrectionMatrixBlock = getUncompressed(newWithCorrection);
 
@@ -812,16 +814,14 @@ public class CompressedMatrixBlock extends MatrixBlock {
 
 	@Override
 	public void incrementalAggregate(AggregateOperator aggOp, MatrixValue newWithCorrection) {
-		printDecompressWarning("IncrementalAggregate not supported");
-		MatrixBlock left = getUncompressed();
+		MatrixBlock left = getUncompressed("IncrementalAggregate not supported");
 		MatrixBlock newWithCorrectionMatrixBlock = getUncompressed(newWithCorrection);
 		left.incrementalAggregate(aggOp, newWithCorrectionMatrixBlock);
 	}
 
 	@Override
 	public void permutationMatrixMultOperations(MatrixValue m2Val, MatrixValue out1Val, MatrixValue out2Val, int k) {
-		printDecompressWarning("permutationMatrixMultOperations", (MatrixBlock) m2Val);
-		MatrixBlock left = getUncompressed();
+		MatrixBlock left = getUncompressed("permutationMatrixMultOperations", k);
 		MatrixBlock right = getUncompressed(m2Val);
 		left.permutationMatrixMultOperations(right, out1Val, out2Val, k);
 	}
@@ -829,23 +829,20 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	@Override
 	public MatrixBlock leftIndexingOperations(MatrixBlock rhsMatrix, int rl, int ru, int cl, int cu, MatrixBlock ret,
 		UpdateType update) {
-		printDecompressWarning("leftIndexingOperations");
-		MatrixBlock left = getUncompressed();
+		MatrixBlock left = getUncompressed("leftIndexingOperations");
 		MatrixBlock right = getUncompressed(rhsMatrix);
 		return left.leftIndexingOperations(right, rl, ru, cl, cu, ret, update);
 	}
 
 	@Override
 	public MatrixBlock leftIndexingOperations(ScalarObject scalar, int rl, int cl, MatrixBlock ret, UpdateType update) {
-		printDecompressWarning("leftIndexingOperations");
-		MatrixBlock tmp = getUncompressed();
+		MatrixBlock tmp = getUncompressed("leftIndexingOperations");
 		return tmp.leftIndexingOperations(scalar, rl, cl, ret, update);
 	}
 
 	@Override
 	public MatrixBlock zeroOutOperations(MatrixValue result, IndexRange range) {
-		printDecompressWarning("zeroOutOperations");
-		MatrixBlock tmp = getUncompressed();
+		MatrixBlock tmp = getUncompressed("zeroOutOperations");
 		return tmp.zeroOutOperations(result, range);
 	}
 
@@ -856,14 +853,13 @@ public class CompressedMatrixBlock extends MatrixBlock {
 
 	@Override
 	public CM_COV_Object cmOperations(CMOperator op, MatrixBlock weights) {
-		printDecompressWarning("cmOperations");
 		MatrixBlock right = getUncompressed(weights);
 		if(isEmpty())
 			return super.cmOperations(op, right);
 		AColGroup grp = _colGroups.get(0);
 		if(grp instanceof ColGroupUncompressed)
 			return ((ColGroupUncompressed) grp).getData().cmOperations(op, right);
-		return getUncompressed().cmOperations(op, right);
+		return getUncompressed("cmOperations").cmOperations(op, right);
 	}
 
 	@Override
@@ -888,8 +884,7 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	@Override
 	public MatrixBlock uaggouterchainOperations(MatrixBlock mbLeft, MatrixBlock mbRight, MatrixBlock mbOut,
 		BinaryOperator bOp, AggregateUnaryOperator uaggOp) {
-		printDecompressWarning("uaggouterchainOperations");
-		MatrixBlock left = getUncompressed();
+		MatrixBlock left = getUncompressed("uaggouterchainOperations");
 		MatrixBlock right = getUncompressed(mbRight);
 		return left.uaggouterchainOperations(left, right, mbOut, bOp, uaggOp);
 	}
@@ -897,69 +892,57 @@ public class CompressedMatrixBlock extends MatrixBlock {
 	@Override
 	public MatrixBlock groupedAggOperations(MatrixValue tgt, MatrixValue wghts, MatrixValue ret, int ngroups,
 		Operator op, int k) {
-		printDecompressWarning("groupedAggOperations");
-		MatrixBlock left = getUncompressed();
+		MatrixBlock left = getUncompressed("groupedAggOperations", k);
 		MatrixBlock right = getUncompressed(wghts);
 		return left.groupedAggOperations(left, right, ret, ngroups, op, k);
 	}
 
 	@Override
 	public MatrixBlock removeEmptyOperations(MatrixBlock ret, boolean rows, boolean emptyReturn, MatrixBlock select) {
-		printDecompressWarning("removeEmptyOperations");
-		MatrixBlock tmp = getUncompressed();
+		MatrixBlock tmp = getUncompressed("removeEmptyOperations");
 		return tmp.removeEmptyOperations(ret, rows, emptyReturn, select);
 	}
 
 	@Override
 	public void ctableOperations(Operator op, double scalar, MatrixValue that, CTableMap resultMap,
 		MatrixBlock resultBlock) {
-		printDecompressWarning("ctableOperations Var 1");
-		MatrixBlock left = getUncompressed();
-		MatrixBlock right = getUncompressed(that);
-		left.ctableOperations(op, scalar, right, resultMap, resultBlock);
+		MatrixBlock right = getUncompressed(that, "ctableOperations Var 1 weights");
+		CLALibCTable.ctable(this, scalar, right, resultMap, resultBlock);
 	}
 
 	@Override
 	public void ctableOperations(Operator op, double scalar, double scalar2, CTableMap resultMap,
 		MatrixBlock resultBlock) {
-		printDecompressWarning("ctableOperations Var 2");
-		MatrixBlock tmp = getUncompressed();
-		tmp.ctableOperations(op, scalar, scalar2, resultMap, resultBlock);
+		CLALibCTable.ctable(this, scalar, scalar2, resultMap, resultBlock);
 	}
 
 	@Override
 	public void ctableOperations(Operator op, MatrixIndexes ix1, double scalar, boolean left, int brlen,
 		CTableMap resultMap, MatrixBlock resultBlock) {
-		printDecompressWarning("ctableOperations Var 3");
-		MatrixBlock tmp = getUncompressed();
-		tmp.ctableOperations(op, ix1, scalar, left, brlen, resultMap, resultBlock);
+		CLALibCTable.ctable(this, ix1, scalar, left, brlen, resultMap, resultBlock);
 	}
 
 	@Override
 	public void ctableOperations(Operator op, MatrixValue that, double scalar, boolean ignoreZeros, CTableMap resultMap,
 		MatrixBlock resultBlock) {
-		printDecompressWarning("ctableOperations Var 4");
-		MatrixBlock left = getUncompressed();
-		MatrixBlock right = getUncompressed(that);
-		left.ctableOperations(op, right, scalar, ignoreZeros, resultMap, resultBlock);
+		MatrixBlock right = getUncompressed(that, "ctableOperations Var 4 right");
+		CLALibCTable.ctable(this, right, scalar, ignoreZeros, resultMap, resultBlock);
 	}
 
 	@Override
 	public MatrixBlock ctableSeqOperations(MatrixValue thatMatrix, double thatScalar, MatrixBlock resultBlock,
 		boolean updateClen) {
-		printDecompressWarning("ctableOperations Var 5");
-		MatrixBlock left = getUncompressed();
-		MatrixBlock right = getUncompressed(thatMatrix);
-		return left.ctableSeqOperations(right, thatScalar, resultBlock, updateClen);
+		// the sequence (this) only contributes its number of rows
+		MatrixBlock right = getUncompressed(thatMatrix, "ctableOperations Var 5 right");
+		return LibMatrixReorg.fusedSeqRexpand(getNumRows(), right, thatScalar, resultBlock, updateClen, 1);
 	}
 
 	@Override
 	public void ctableOperations(Operator op, MatrixValue that, MatrixValue that2, CTableMap resultMap,
 		MatrixBlock resultBlock) {
-		MatrixBlock left = getUncompressed("ctableOperations Var 7");
-		MatrixBlock right1 = getUncompressed(that);
-		MatrixBlock right2 = getUncompressed(that2);
-		left.ctableOperations(op, right1, right2, resultMap, resultBlock);
+		MatrixBlock right1 = getUncompressed(that, "ctableOperations Var 7 right");
+		MatrixBlock right2 = getUncompressed(that2, "ctableOperations Var 7 weights");
+		CLALibCTable.ctable(this, right1, right2, resultMap, resultBlock);
 	}
 
 	@Override
@@ -1026,29 +1009,58 @@ public class CompressedMatrixBlock extends MatrixBlock {
 			ConfigurationManager.isParallelMatrixOperations() ? InfrastructureAnalyzer.getLocalParallelism() : 1);
 	}
 
+	/**
+	 * Get the uncompressed version of this matrix, to execute an operation that is not supported on compressed input.
+	 * Fallbacks with a named operation are recorded in the compression statistics per operation and column group
+	 * type, and raise an exception instead if the configuration sysds.compressed.failondecompress is set.
+	 * 
+	 * @param operation The unsupported operation, or null if the decompression is not a fallback
+	 * @param k         The parallelization degree
+	 * @return The uncompressed matrix
+	 */
 	public MatrixBlock getUncompressed(String operation, int k) {
 		final MatrixBlock d_compressed = getCachedDecompressed();
-		if(d_compressed != null)
+		if(d_compressed != null) {
+			if(operation != null)
+				DMLCompressionStatistics.addDecompressFallback(fallbackName(operation), getGroupTypes(), 0, true);
 			return d_compressed;
+		}
+		if(operation == null)
+			return isEmpty() ? new MatrixBlock(getNumRows(), getNumColumns(), true) : decompress(k);
+
 		// Print warning if we do not have a cached decompressed version.
-		if(operation != null)
-			printDecompressWarning(operation);
+		printDecompressWarning(operation);
+		if(ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.COMPRESSED_FAIL_ON_DECOMPRESS))
+			throw new DMLCompressionException("Decompression not allowed (" + DMLConfig.COMPRESSED_FAIL_ON_DECOMPRESS
+				+ "), unsupported compressed operation: " + operation);
+
+		final Timing time = new Timing(true);
+		final MatrixBlock ret = isEmpty() ? new MatrixBlock(getNumRows(), getNumColumns(), true) : decompress(k);
+		DMLCompressionStatistics.addDecompressFallback(fallbackName(operation), getGroupTypes(), time.stop(), false);
+		return ret;
+	}
 
-		if(isEmpty())
-			return new MatrixBlock(getNumRows(), getNumColumns(), true);
+	private Set<String> getGroupTypes() {
+		final Set<String> types = new HashSet<>();
+		for(AColGroup g : _colGroups)
+			types.add(g.getCompType().name());
+		return types;
+	}
 
-		return this.decompress(k);
+	/**
+	 * Remove the numbers from a fallback message, such that messages including sizes or dimensions are grouped.
+	 * 
+	 * @param operation The fallback message
+	 * @return The name to record the fallback under
+	 */
+	private static String fallbackName(String operation) {
+		return operation.replaceAll("[0-9]+(\\.[0-9]+)?", "#");
 	}
 
 	private static void printDecompressWarning(String operation) {
 		LOG.warn("Decompressing because: " + operation);
 	}
 
-	private static void printDecompressWarning(String operation, MatrixBlock m2) {
-		if(isCompressed(m2))
-			printDecompressWarning(operation);
-	}
-
 	@Override
 	public boolean isShallowSerialize(boolean inclConvert) {
 		return true;
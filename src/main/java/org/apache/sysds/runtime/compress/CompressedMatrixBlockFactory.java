@@ -19,11 +19,14 @@
 
 package org.apache.sysds.runtime.compress;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -52,6 +55,8 @@ import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.DependencyTask;
+import org.apache.sysds.runtime.util.DependencyThreadPool;
 import org.apache.sysds.utils.DMLCompressionStatistics;
 import org.apache.sysds.utils.stats.Timing;
 
@@ -85,6 +90,12 @@ public class CompressedMatrixBlockFactory {
 	private AComEst informationExtractor;
 	/** Compression information gathered through the sampling, used for the actual compression decided */
 	private CompressedSizeInfo compressionGroups;
+	/** If the co-coding is overlapped with transposition and encoding of the column groups */
+	private boolean pipelined;
+	/** The in-memory size of the column groups encoded so far in the pipelined compression */
+	private final AtomicLong encodedSize = new AtomicLong();
+	/** Flag set by the pipelined encoding if the groups encoded so far are already larger than the input */
+	private volatile boolean encodeAborted = false;
 
 	private CompressedMatrixBlockFactory(MatrixBlock mb, int k, CompressionSettingsBuilder compSettings,
 		ACostEstimate costEstimator) {
@@ -292,17 +303,20 @@ public class CompressedMatrixBlockFactory {
 			return createEmpty();
 
 		res = new CompressedMatrixBlock(mb); // copy metadata and allocate soft reference
+		pipelined = compSettings.pipelined && k > 1 && mb.getNumColumns() > 1 && !(mb instanceof CompressedMatrixBlock);
 
 		classifyPhase();
 		if(compressionGroups == null)
 			return abortCompression();
 
-		// clear extra data from analysis
-		compressionGroups.clearMaps();
-		informationExtractor.clearNNZ();
+		if(!pipelined) {
+			// clear extra data from analysis
+			compressionGroups.clearMaps();
+			informationExtractor.clearNNZ();
 
-		transposePhase();
-		compressPhase();
+			transposePhase();
+			compressPhase();
+		}
 		finalizePhase();
 
 		if(res == null)
@@ -335,7 +349,9 @@ public class CompressedMatrixBlockFactory {
 		final double threshold = _stats.estimatedCostCols / scale;
 
 		if(threshold < _stats.originalCost) {
-			if(nCols > 1)
+			if(pipelined)
+				pipelinedPhase();
+			else if(nCols > 1)
 				coCodePhase();
 			else // LOG a short cocode phase (since there is one column we don't cocode)
 				logPhase();
@@ -362,6 +378,10 @@ public class CompressedMatrixBlockFactory {
 		compressionGroups = CoCoderFactory.findCoCodesByPartitioning(informationExtractor, compressionGroups, k,
 			costEstimator, compSettings);
 
+		coCodeCheck();
+	}
+
+	private void coCodeCheck() {
 		_stats.estimatedSizeCoCoded = compressionGroups.memoryEstimate();
 		_stats.estimatedCostCoCoded = costEstimator.getCost(compressionGroups);
 
@@ -383,30 +403,149 @@ public class CompressedMatrixBlockFactory {
 		}
 	}
 
+	/**
+	 * Co-code, transpose and encode as overlapping tasks. The empty, constant and incompressable columns do not take
+	 * part in co-coding, and are encoded from the input while the remaining columns are co-coded in this thread. The
+	 * transposition is decided upfront and executed concurrently as well. The threads are split between the
+	 * transposition and the co-coding with the encoding of the filtered groups, such that the concurrent stages together
+	 * do not use more than k threads. Once co-coding finishes, the co-coded groups are encoded with all k threads as
+	 * individual tasks that account their actual size, aborting the compression as soon as the encoded groups are
+	 * larger than the input.
+	 */
+	private void pipelinedPhase() {
+		// The number of groups only matter in the heuristic for sparse inputs of less than 10000 rows, that never
+		// qualify for transposition, therefore we can decide before co-coding.
+		final boolean transpose = !compSettings.transposed && haveMemoryToTranspose() && transposeHeuristics();
+		final int kTranspose = transpose ? Math.max(1, k / 2) : 0;
+		final int kCoCode = Math.max(1, k - kTranspose);
+		final DependencyThreadPool pool = new DependencyThreadPool(kCoCode);
+		try {
+			final List<CompressedSizeInfoColGroup> filtered = CoCoderFactory
+				.filterEmptyConstOrIncompressable(compressionGroups);
+
+			final List<Callable<?>> tasks = new ArrayList<>(filtered.size());
+			final MatrixBlock in = mb;
+			for(CompressedSizeInfoColGroup g : filtered)
+				tasks.add(() -> encode(in, g));
+			final List<Future<Future<?>>> first = pool.submitAll(DependencyThreadPool.createDependencyTasks(tasks, null));
+			// the transposition runs outside the pool with its own share of the threads
+			final Future<MatrixBlock> transposed = transpose ? //
+				CommonThreadPool.getDynamicPool().submit(() -> transpose(in, kTranspose)) : null;
+
+			final List<CompressedSizeInfoColGroup> coCoded = compressionGroups.getInfo().isEmpty() ? //
+				new ArrayList<>() : CoCoderFactory.findCoCodesByPartitioning(informationExtractor, compressionGroups,
+					kCoCode, costEstimator, compSettings).getInfo();
+			compressionGroups = new CompressedSizeInfo(new ArrayList<>(coCoded));
+			compressionGroups.getInfo().addAll(filtered);
+			coCodeCheck();
+			if(compressionGroups == null)
+				encodeAborted = true; // skip the filtered groups not yet encoded.
+
+			// wait for the first tasks before changing the transposed flag they use
+			final List<AColGroup> groups = new ArrayList<>();
+			for(Future<Future<?>> f : first)
+				groups.add((AColGroup) f.get().get());
+			// keep the input untransposed to return it if aborting.
+			final MatrixBlock t = transposed != null ? transposed.get() : in;
+			if(compressionGroups == null)
+				return;
+			compSettings.transposed |= transpose;
+
+			// clear extra data from analysis
+			compressionGroups.clearMaps();
+			informationExtractor.clearNNZ();
+			logPhase();
+
+			if(coCoded.size() >= k) {
+				final List<DependencyTask<?>> encodeTasks = new ArrayList<>(coCoded.size());
+				final MatrixBlock tIn = t;
+				for(CompressedSizeInfoColGroup g : coCoded) {
+					final DependencyTask<?> task = DependencyThreadPool.createDependencyTask(() -> encode(tIn, g));
+					// start the assumed big jobs first.
+					task.setPriority(g.getNumVals());
+					encodeTasks.add(task);
+				}
+				final DependencyThreadPool encodePool = new DependencyThreadPool(k);
+				try {
+					for(Object r : encodePool.submitAllAndWait(encodeTasks))
+						groups.add((AColGroup) r);
+				}
+				finally {
+					encodePool.shutdown();
+				}
+			}
+			else if(!coCoded.isEmpty()) {
+				// few groups, parallelize inside the encoding of each group instead.
+				for(AColGroup g : ColGroupFactory.compressColGroups(t, new CompressedSizeInfo(coCoded), compSettings,
+					costEstimator, k))
+					groups.add(account(g));
+			}
+
+			if(encodeAborted) {
+				compressionGroups = null;
+				LOG.info("Aborting while encoding, because the encoded groups are larger than the original size: "
+					+ encodedSize.get() + " > " + _stats.originalSize);
+				return;
+			}
+
+			res.allocateColGroupList(groups);
+			_stats.compressedInitialSize = res.getInMemorySize();
+			logPhase();
+		}
+		catch(Exception e) {
+			throw new DMLCompressionException("Failed pipelined compression", e);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private AColGroup encode(MatrixBlock in, CompressedSizeInfoColGroup g) {
+		if(encodeAborted)
+			return null;
+		final CompressedSizeInfo csi = new CompressedSizeInfo(g);
+		return account(ColGroupFactory.compressColGroups(in, csi, compSettings, costEstimator, 1).get(0));
+	}
+
+	private AColGroup account(AColGroup g) {
+		final long size = encodedSize.addAndGet(g.estimateInMemorySize());
+		// same condition as the final compression ratio check
+		if(size > _stats.originalSize && size > _stats.denseSize / 100)
+			encodeAborted = true;
+		return g;
+	}
+
+	private static MatrixBlock transpose(MatrixBlock in, int k) {
+		final boolean sparse = in.isInSparseFormat();
+		final MatrixBlock ret = LibMatrixReorg.transpose(in,
+			new MatrixBlock(in.getNumColumns(), in.getNumRows(), sparse), k, true);
+		ret.evalSparseFormatInMemory();
+		return ret;
+	}
+
+	private boolean haveMemoryToTranspose() {
+		return Runtime.getRuntime().freeMemory() - (mb.estimateSizeInMemory() * 2) > 0;
+	}
+
 	private void transposePhase() {
-		final boolean haveMemory = Runtime.getRuntime().freeMemory() - (mb.estimateSizeInMemory() * 2) > 0;
-		if(!compSettings.transposed && haveMemory) {
-			transposeHeuristics();
+		if(!compSettings.transposed && haveMemoryToTranspose()) {
+			compSettings.transposed = transposeHeuristics();
 			if(compSettings.transposed) {
-				boolean sparse = mb.isInSparseFormat();
-				mb = LibMatrixReorg.transpose(mb, new MatrixBlock(mb.getNumColumns(), mb.getNumRows(), sparse), k, true);
-				mb.evalSparseFormatInMemory();
+				mb = transpose(mb, k);
 			}
 		}
 
 		logPhase();
 	}
 
-	private void transposeHeuristics() {
+	private boolean transposeHeuristics() {
 		switch(compSettings.transposeInput) {
 			case "true":
-				compSettings.transposed = true;
-				break;
+				return true;
 			case "false":
-				compSettings.transposed = false;
-				break;
+				return false;
 			default:
-				compSettings.transposed = transposeHeuristics(compressionGroups.getNumberColGroups() , mb);
+				return transposeHeuristics(compressionGroups.getNumberColGroups(), mb);
 		}
 	}
 
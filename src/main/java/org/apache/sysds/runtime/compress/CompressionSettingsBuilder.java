@@ -55,6 +55,7 @@ public class CompressionSettingsBuilder {
 	private double minimumCompressionRatio = 1.0;
 	private boolean isInSparkInstruction = false;
 	private SORT_TYPE sdcSortType = SORT_TYPE.MATERIALIZE;
+	private boolean pipelined = false;
 
 	public CompressionSettingsBuilder() {
 
@@ -68,6 +69,7 @@ public class CompressionSettingsBuilder {
 		columnPartitioner = PartitionerType.valueOf(conf.getTextValue(DMLConfig.COMPRESSED_COCODE));
 		costType = CostType.valueOf(conf.getTextValue(DMLConfig.COMPRESSED_COST_MODEL));
 		transposeInput = conf.getTextValue(DMLConfig.COMPRESSED_TRANSPOSE);
+		pipelined = conf.getBooleanValue(DMLConfig.COMPRESSED_PIPELINED);
 		seed = DMLScript.SEED;
 
 	}
@@ -90,6 +92,7 @@ public class CompressionSettingsBuilder {
 		this.maxColGroupCoCode = that.maxColGroupCoCode;
 		this.coCodePercentage = that.coCodePercentage;
 		this.minimumSampleSize = that.minimumSampleSize;
+		this.pipelined = that.pipelined;
 		return this;
 	}
 
@@ -325,6 +328,17 @@ public class CompressionSettingsBuilder {
 		return this;
 	}
 
+	/**
+	 * Overlap the co-coding with the transposition and encoding of the column groups in multi-threaded compression.
+	 * 
+	 * @param pipelined A boolean specifying if the compression phases should be pipelined
+	 * @return The CompressionSettingsBuilder
+	 */
+	public CompressionSettingsBuilder setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+		return this;
+	}
+
 	/**
 	 * Create the CompressionSettings object to use in the compression.
 	 * 
@@ -334,6 +348,6 @@ public class CompressionSettingsBuilder {
 		return new CompressionSettings(samplingRatio, samplePower, allowSharedDictionary, transposeInput, seed, lossy,
 			validCompressions, sortValuesByLength, columnPartitioner, maxColGroupCoCode, coCodePercentage,
 			minimumSampleSize, maxSampleSize, estimationType, costType, minimumCompressionRatio, isInSparkInstruction,
-			sdcSortType);
+			sdcSortType, pipelined);
 	}
 }
@@ -0,0 +1,522 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.runtime.compress.colgroup.ADictBasedColGroup;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.AOffsetsGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupConst;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupEmpty;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupSDC;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupUncompressed;
+import org.apache.sysds.runtime.compress.colgroup.IContainDefaultTuple;
+import org.apache.sysds.runtime.compress.colgroup.IMapToDataGroup;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.IDictionary;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.compress.colgroup.indexes.IColIndex;
+import org.apache.sysds.runtime.compress.colgroup.mapping.AMapToData;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory;
+import org.apache.sysds.runtime.compress.colgroup.offset.AIterator;
+import org.apache.sysds.runtime.compress.colgroup.offset.AOffset;
+import org.apache.sysds.runtime.compress.colgroup.offset.OffsetFactory;
+import org.apache.sysds.runtime.compress.colgroup.scheme.CompressionScheme;
+import org.apache.sysds.runtime.compress.colgroup.scheme.ICLAScheme;
+import org.apache.sysds.runtime.compress.utils.IntArrayList;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Incremental compression of a stream of row batches that are appended (rbind) to a compressed matrix.
+ *
+ * New batches are encoded against the compression scheme of the current compressed block, which extends the
+ * dictionaries only if new values show up. The encoded batches are kept pending and concatenated with the current
+ * column groups on {@link #getCompressed()}. The mappings and offsets of DDC and SDC groups are accumulated in
+ * geometrically growing buffers, such that each call only encodes the pending rows and the existing rows are copied
+ * once in bulk into the returned groups. If
+ * the in-memory size per row drifts more than the configured threshold from the size after the last full compression
+ * (e.g., because of growing dictionaries or columns that are no longer constant), a recompression including
+ * co-coding is started in the background and swapped in once finished.
+ */
+public class IncrementalCompressor {
+	private static final Log LOG = LogFactory.getLog(IncrementalCompressor.class.getName());
+
+	/** Default relative increase of the size per row that triggers a background recompression */
+	public static final double DEFAULT_DRIFT = 0.2;
+
+	private final int _k;
+	private final double _drift;
+	private final int _nCol;
+	private final List<Batch> _pending = new ArrayList<>();
+
+	private CompressedMatrixBlock _block;
+	private CompressionScheme _scheme;
+	/** Growable encodings of the current column groups, null if not (yet) accumulated */
+	private Accumulator[] _acc;
+	private int _nRow;
+	private long _nnz;
+	/** Size per row after the last full compression */
+	private double _baseSize;
+
+	private Future<CompressedMatrixBlock> _recompress;
+	private int _recompressRows;
+
+	public IncrementalCompressor(MatrixBlock initial, int k) {
+		this(initial, k, DEFAULT_DRIFT);
+	}
+
+	/**
+	 * Create an incremental compressor starting from the given matrix.
+	 *
+	 * @param initial The initial matrix, compressed if not already compressed
+	 * @param k       The parallelization degree for encoding appended batches
+	 * @param drift   The relative increase of the size per row that triggers a background recompression
+	 */
+	public IncrementalCompressor(MatrixBlock initial, int k, double drift) {
+		_k = k;
+		_drift = drift;
+		_nCol = initial.getNumColumns();
+		setBlock(compress(initial, k));
+		_baseSize = sizePerRow(_block);
+	}
+
+	/**
+	 * Encode and append a batch of rows. The batch is encoded with the current compression scheme, that is updated in
+	 * case of new distinct values.
+	 *
+	 * @param batch The rows to append
+	 */
+	public synchronized void append(MatrixBlock batch) {
+		if(batch.getNumColumns() != _nCol)
+			throw new DMLCompressionException(
+				"Invalid number of columns in appended batch: " + batch.getNumColumns() + " vs " + _nCol);
+		if(batch.getNumRows() == 0)
+			return;
+		if(batch instanceof CompressedMatrixBlock)
+			batch = CompressedMatrixBlock.getUncompressed(batch, "Incremental compressed append", _k);
+		if(batch.getNonZeros() < 0)
+			batch.recomputeNonZeros();
+		final CompressedMatrixBlock enc = _scheme.updateAndEncode(batch, _k);
+		_pending.add(new Batch(enc.getColGroups(), batch.getNumRows()));
+		_nRow += batch.getNumRows();
+		_nnz += batch.getNonZeros();
+	}
+
+	/**
+	 * Get the compressed matrix containing all appended rows so far.
+	 *
+	 * @return The compressed matrix
+	 */
+	public synchronized CompressedMatrixBlock getCompressed() {
+		combinePending();
+		if(_recompress != null) {
+			if(_recompress.isDone())
+				swapRecompressed();
+		}
+		else if(sizePerRow(_block) > (1 + _drift) * _baseSize)
+			startRecompress();
+		return _block;
+	}
+
+	public synchronized int getNumRows() {
+		return _nRow;
+	}
+
+	public synchronized boolean isRecompressing() {
+		return _recompress != null;
+	}
+
+	private void setBlock(CompressedMatrixBlock block) {
+		final List<AColGroup> groups = new ArrayList<>(block.getColGroups());
+		final int nRow = block.getNumRows();
+		final ICLAScheme[] schemes = new ICLAScheme[groups.size()];
+		boolean changed = false;
+		for(int i = 0; i < groups.size(); i++) {
+			schemes[i] = getScheme(groups.get(i));
+			if(schemes[i] == null) {
+				// no scheme support (e.g., frame of reference or OLE), fall back to an uncompressed group
+				AColGroup g = combineUncompressed(new AColGroup[] {groups.get(i)}, new int[] {0, nRow}, nRow);
+				groups.set(i, g);
+				schemes[i] = g.getCompressionScheme();
+				changed = true;
+			}
+		}
+		_block = changed ? new CompressedMatrixBlock(nRow, _nCol, block.getNonZeros(), false, groups) : block;
+		_scheme = new CompressionScheme(schemes);
+		_acc = new Accumulator[groups.size()];
+		_nRow = nRow;
+		_nnz = block.getNonZeros();
+	}
+
+	private static ICLAScheme getScheme(AColGroup g) {
+		try {
+			return g.getCompressionScheme();
+		}
+		catch(Exception e) {
+			return null;
+		}
+	}
+
+	private void combinePending() {
+		if(_pending.isEmpty())
+			return;
+
+		final List<AColGroup> groups = _block.getColGroups();
+		final int[] offsets = new int[_pending.size() + 2];
+		offsets[1] = _block.getNumRows();
+		for(int j = 0; j < _pending.size(); j++)
+			offsets[j + 2] = offsets[j + 1] + _pending.get(j).nRow;
+
+		final List<AColGroup> ret = new ArrayList<>(groups.size());
+		boolean fallback = false;
+		for(int i = 0; i < groups.size(); i++) {
+			final AColGroup[] pieces = new AColGroup[_pending.size() + 1];
+			pieces[0] = groups.get(i);
+			for(int j = 0; j < _pending.size(); j++)
+				pieces[j + 1] = _pending.get(j).groups.get(i);
+			AColGroup g = combine(i, pieces, offsets);
+			if(g == null) {
+				_acc[i] = null;
+				g = combineUncompressed(pieces, offsets, _nRow);
+				fallback = true;
+			}
+			ret.add(g);
+		}
+		_pending.clear();
+
+		final CompressedMatrixBlock block = new CompressedMatrixBlock(_nRow, _nCol, _nnz, false, ret);
+		if(fallback) // refresh the scheme of groups that fell back to uncompressed
+			setBlock(block);
+		else
+			_block = block;
+	}
+
+	private AColGroup combine(int i, AColGroup[] pieces, int[] offsets) {
+		if(allSame(pieces))
+			return pieces[0];
+		for(AColGroup g : pieces)
+			if(g instanceof ColGroupDDC)
+				return combineDDC(i, pieces, offsets);
+		for(AColGroup g : pieces)
+			if(isSDC(g))
+				return combineSDC(i, pieces, offsets);
+		return null;
+	}
+
+	/**
+	 * Get the accumulator of the i-th column group if it encodes all rows of the current group with a dictionary that is
+	 * a prefix of the given dictionary, otherwise a new empty accumulator.
+	 */
+	private Accumulator getAccumulator(int i, AColGroup current, int nRow, IDictionary dict, double[] def, int nCol) {
+		final Accumulator acc = _acc[i];
+		if(acc != null && acc.group == current && acc.nRow == nRow && Arrays.equals(acc.def, def) &&
+			isPrefix(acc.dict, dict, nCol))
+			return acc;
+		return new Accumulator(def);
+	}
+
+	/**
+	 * Indicates if the given group is an offset-based group with a dictionary of non-default tuples (e.g., SDC). Constant
+	 * and empty groups also implement AOffsetsGroup but are handled as tuples that cover all rows of a piece.
+	 */
+	private static boolean isSDC(AColGroup g) {
+		return g instanceof AOffsetsGroup && g instanceof IContainDefaultTuple && g instanceof ADictBasedColGroup &&
+			!(g instanceof ColGroupConst) && !(g instanceof ColGroupEmpty);
+	}
+
+	private static boolean allSame(AColGroup[] pieces) {
+		final AColGroup first = pieces[0];
+		for(int j = 1; j < pieces.length; j++) {
+			final AColGroup g = pieces[j];
+			if(first instanceof ColGroupEmpty && g instanceof ColGroupEmpty)
+				continue;
+			else if(first instanceof ColGroupConst && g instanceof ColGroupConst &&
+				((ColGroupConst) first).getDictionary().equals(((ColGroupConst) g).getDictionary()))
+				continue;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Concatenate the mappings of DDC groups encoded against a growing dictionary. Constant and empty pieces are
+	 * encoded with the index of their tuple.
+	 */
+	private AColGroup combineDDC(int i, AColGroup[] pieces, int[] offsets) {
+		final int nCol = pieces[0].getNumCols();
+		final int nRow = offsets[pieces.length];
+		final IDictionary dict = largestDictionary(pieces, nCol);
+		final int nVals = dict.getNumberOfValues(nCol);
+		final Accumulator acc = getAccumulator(i, pieces[0], offsets[1], dict, null, nCol);
+		// only encode the rows not yet contained in the accumulator
+		final int start = acc.group != null ? 1 : 0;
+		acc.ensure(nRow, nVals);
+		final AMapToData map = acc.map;
+		for(int j = start; j < pieces.length; j++) {
+			final AColGroup g = pieces[j];
+			if(g instanceof ColGroupDDC) {
+				final ColGroupDDC d = (ColGroupDDC) g;
+				if(!isPrefix(d.getDictionary(), dict, nCol))
+					return null;
+				map.set(offsets[j], offsets[j + 1], 0, d.getMapToData());
+			}
+			else {
+				final int id = findTuple(dict, getTuple(g, nCol), nCol);
+				if(id < 0)
+					return null;
+				for(int r = offsets[j]; r < offsets[j + 1]; r++)
+					map.set(r, id);
+			}
+		}
+		final AColGroup ret = ColGroupDDC.create(pieces[0].getColIndices(), dict, map.slice(0, nRow).resize(nVals),
+			null);
+		_acc[i] = acc.update(ret, dict, nRow);
+		return ret;
+	}
+
+	/**
+	 * Concatenate the offsets and mappings of SDC groups with a common default tuple encoded against a growing
+	 * dictionary. Empty and constant pieces (e.g., batches with only default values) are only supported if they equal
+	 * the default tuple.
+	 */
+	private AColGroup combineSDC(int i, AColGroup[] pieces, int[] offsets) {
+		final int nCol = pieces[0].getNumCols();
+		final int nRow = offsets[pieces.length];
+		double[] def = null;
+		for(AColGroup g : pieces)
+			if(isSDC(g)) {
+				def = ((IContainDefaultTuple) g).getDefaultTuple();
+				break;
+			}
+		if(def == null)
+			return null;
+
+		final IDictionary dict = largestDictionary(pieces, nCol);
+		final int nVals = dict.getNumberOfValues(nCol);
+		final Accumulator acc = getAccumulator(i, pieces[0], offsets[1], dict, def, nCol);
+		// only encode the rows not yet contained in the accumulator
+		final int start = acc.group != null ? 1 : 0;
+		final IntArrayList offs = acc.offs;
+		int n = offs.size();
+		for(int j = start; j < pieces.length; j++) {
+			final AColGroup g = pieces[j];
+			if(isSDC(g)) {
+				if(!Arrays.equals(def, ((IContainDefaultTuple) g).getDefaultTuple()) ||
+					!isPrefix(((ADictBasedColGroup) g).getDictionary(), dict, nCol))
+					return null;
+				final AOffset off = ((AOffsetsGroup) g).getOffsets();
+				final AMapToData m = (g instanceof IMapToDataGroup) ? ((IMapToDataGroup) g).getMapToData() : null;
+				acc.ensure(n + off.getSize(), nVals);
+				final AIterator it = off.getIterator();
+				final int last = off.getOffsetToLast();
+				while(true) {
+					offs.appendValue(it.value() + offsets[j]);
+					acc.map.set(n++, m != null ? m.getIndex(it.getDataIndex()) : 0);
+					if(it.value() >= last)
+						break;
+					it.next();
+				}
+			}
+			else if(!Arrays.equals(def, getTuple(g, nCol)))
+				return null;
+		}
+		final AColGroup ret;
+		if(n == 0)
+			ret = ColGroupConst.create(pieces[0].getColIndices(), def);
+		else {
+			acc.ensure(n, nVals);
+			final AMapToData map = acc.map.slice(0, n).resize(nVals);
+			final AOffset off = OffsetFactory.createOffset(offs);
+			ret = ColGroupSDC.create(pieces[0].getColIndices(), nRow, dict, def, off, map, null);
+		}
+		_acc[i] = acc.update(ret, dict, nRow);
+		return ret;
+	}
+
+	private static IDictionary largestDictionary(AColGroup[] pieces, int nCol) {
+		IDictionary ret = null;
+		for(AColGroup g : pieces)
+			if(g instanceof ColGroupDDC || isSDC(g)) {
+				final IDictionary d = ((ADictBasedColGroup) g).getDictionary();
+				if(ret == null || d.getNumberOfValues(nCol) > ret.getNumberOfValues(nCol))
+					ret = d;
+			}
+		return ret;
+	}
+
+	private static boolean isPrefix(IDictionary a, IDictionary b, int nCol) {
+		if(a == b)
+			return true;
+		final int nVals = a.getNumberOfValues(nCol);
+		if(nVals > b.getNumberOfValues(nCol))
+			return false;
+		for(int r = 0; r < nVals; r++)
+			for(int c = 0; c < nCol; c++)
+				if(a.getValue(r, c, nCol) != b.getValue(r, c, nCol))
+					return false;
+		return true;
+	}
+
+	private static double[] getTuple(AColGroup g, int nCol) {
+		if(g instanceof ColGroupConst)
+			return ((ColGroupConst) g).getValues();
+		else if(g instanceof ColGroupEmpty)
+			return new double[nCol];
+		return null;
+	}
+
+	private static int findTuple(IDictionary dict, double[] tuple, int nCol) {
+		if(tuple == null)
+			return -1;
+		final int nVals = dict.getNumberOfValues(nCol);
+		for(int i = 0; i < nVals; i++) {
+			boolean eq = true;
+			for(int c = 0; c < nCol && eq; c++)
+				eq = dict.getValue(i, c, nCol) == tuple[c];
+			if(eq)
+				return i;
+		}
+		return -1;
+	}
+
+	/** Decompress the given pieces into a single uncompressed column group. */
+	private static AColGroup combineUncompressed(AColGroup[] pieces, int[] offsets, int nRow) {
+		final IColIndex cols = pieces[0].getColIndices();
+		final IColIndex target = ColIndexFactory.create(cols.size());
+		final MatrixBlock mb = new MatrixBlock(nRow, cols.size(), false);
+		mb.allocateDenseBlock();
+		for(int j = 0; j < pieces.length; j++)
+			pieces[j].copyAndSet(target).decompressToDenseBlock(mb.getDenseBlock(), 0, offsets[j + 1] - offsets[j],
+				offsets[j], 0);
+		mb.recomputeNonZeros();
+		mb.examSparsity();
+		return ColGroupUncompressed.create(mb, cols);
+	}
+
+	private void startRecompress() {
+		final CompressedMatrixBlock snapshot = _block;
+		_recompressRows = snapshot.getNumRows();
+		LOG.debug("Starting background recompression of " + _recompressRows + " rows");
+		// single-threaded to not compete with the ingestion
+		_recompress = CommonThreadPool.getDynamicPool().submit(() -> compress(snapshot.decompress(1), 1));
+	}
+
+	private void swapRecompressed() {
+		final CompressedMatrixBlock c;
+		try {
+			c = _recompress.get();
+		}
+		catch(Exception e) {
+			throw new DMLCompressionException("Failed background recompression", e);
+		}
+		finally {
+			_recompress = null;
+		}
+
+		if(sizePerRow(c) >= sizePerRow(_block)) {
+			// recompression did not pay off, reset the baseline to avoid repeated attempts
+			_baseSize = sizePerRow(_block);
+			return;
+		}
+
+		final CompressedMatrixBlock old = _block;
+		final int nRow = _nRow;
+		setBlock(c);
+		if(nRow > _recompressRows) {
+			// re-encode the rows appended since the recompression started with the new scheme
+			MatrixBlock tail = old.slice(_recompressRows, nRow - 1);
+			append(CompressedMatrixBlock.getUncompressed(tail, "Incremental compressed append tail", _k));
+			combinePending();
+		}
+		_baseSize = sizePerRow(_block);
+	}
+
+	private static CompressedMatrixBlock compress(MatrixBlock mb, int k) {
+		if(mb instanceof CompressedMatrixBlock && !((CompressedMatrixBlock) mb).isOverlapping())
+			return (CompressedMatrixBlock) mb;
+		if(mb instanceof CompressedMatrixBlock)
+			mb = ((CompressedMatrixBlock) mb).decompress(k);
+		MatrixBlock ret = CompressedMatrixBlockFactory.compress(mb, k).getLeft();
+		if(ret instanceof CompressedMatrixBlock && !((CompressedMatrixBlock) ret).isOverlapping())
+			return (CompressedMatrixBlock) ret;
+		return CompressedMatrixBlockFactory.genUncompressedCompressedMatrixBlock(mb);
+	}
+
+	private static double sizePerRow(CompressedMatrixBlock mb) {
+		return (double) mb.getInMemorySize() / Math.max(1, mb.getNumRows());
+	}
+
+	/**
+	 * Encoding of all rows of a column group in buffers with spare capacity, such that appended rows are encoded once
+	 * and the buffers are only reallocated if full or if the dictionary outgrows the mapping type. The returned groups
+	 * copy the used range, since they must not change with later appends.
+	 */
+	private static class Accumulator {
+		/** The default tuple of SDC groups, null for DDC groups */
+		private final double[] def;
+		/** The offsets of the non-default rows of SDC groups */
+		private final IntArrayList offs;
+		/** The last returned group encoded by this accumulator */
+		private AColGroup group;
+		private IDictionary dict;
+		private AMapToData map;
+		private int nRow;
+
+		private Accumulator(double[] def) {
+			this.def = def;
+			this.offs = def != null ? new IntArrayList() : null;
+		}
+
+		private void ensure(int size, int nVals) {
+			if(map != null && map.size() >= size && map.getUpperBoundValue() >= nVals - 1)
+				return;
+			final int cap = map == null ? size : Math.max(size, map.size() < size ? 2 * map.size() : map.size());
+			// avoid zero and bit maps that cannot be extended to new values
+			final AMapToData ret = MapToFactory.create(cap, Math.max(nVals, 3));
+			if(map != null)
+				ret.set(0, map.size(), 0, map);
+			map = ret;
+		}
+
+		private Accumulator update(AColGroup group, IDictionary dict, int nRow) {
+			this.group = group;
+			this.dict = dict;
+			this.nRow = nRow;
+			return this;
+		}
+	}
+
+	private static class Batch {
+		private final List<AColGroup> groups;
+		private final int nRow;
+
+		private Batch(List<AColGroup> groups, int nRow) {
+			this.groups = groups;
+			this.nRow = nRow;
+		}
+	}
+}
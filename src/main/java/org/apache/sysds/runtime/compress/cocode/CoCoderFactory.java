@@ -62,65 +62,78 @@ public interface CoCoderFactory {
 		// Use column group partitioner to create partitions of columns
 		AColumnCoCoder co = createColumnGroupPartitioner(cs.columnPartitioner, est, costEstimator, cs);
 
+		// filter out empty, const and incompressable columns.
+		final List<CompressedSizeInfoColGroup> filtered = filterEmptyConstOrIncompressable(colInfos);
+
+		// cocode remaining groups
+		if(filtered.isEmpty() || !colInfos.compressionInfo.isEmpty())
+			colInfos = co.coCodeColumns(colInfos, k);
+
+		// add the filtered groups back
+		if(!filtered.isEmpty())
+			colInfos.compressionInfo.addAll(filtered);
+		return colInfos;
+	}
+
+	/**
+	 * Remove the empty, constant and incompressable columns from the given column information, and return them combined
+	 * into at most one group of each type. These groups do not need to be co-coded, and can therefore be compressed
+	 * while the remaining columns are co-coded.
+	 * 
+	 * @param colInfos The information gathered on the individual columns, modified to only contain the remaining groups.
+	 * @return The combined empty, constant and incompressable groups in that order.
+	 */
+	public static List<CompressedSizeInfoColGroup> filterEmptyConstOrIncompressable(CompressedSizeInfo colInfos) {
+		final List<CompressedSizeInfoColGroup> ret = new ArrayList<>();
 		// Find out if any of the groups are empty.
-		final boolean containsEmptyConstOrIncompressable = containsEmptyConstOrIncompressable(colInfos);
-
-		// if there are no empty or const columns then try cocode algorithms for all columns
-		if(!containsEmptyConstOrIncompressable)
-			return co.coCodeColumns(colInfos, k);
-		else {
-			// filtered empty groups
-			final List<IColIndex> emptyCols = new ArrayList<>();
-			// filtered const groups
-			final List<IColIndex> constCols = new ArrayList<>();
-			// incompressable groups
-			final List<IColIndex> incompressable = new ArrayList<>();
-			// filtered groups -- in the end starting with all groups
-			final List<CompressedSizeInfoColGroup> groups = new ArrayList<>();
-
-			final int nRow = colInfos.compressionInfo.get(0).getNumRows();
-
-			// filter groups
-			for(int i = 0; i < colInfos.compressionInfo.size(); i++) {
-				CompressedSizeInfoColGroup g = colInfos.compressionInfo.get(i);
-				if(g.isEmpty())
-					emptyCols.add(g.getColumns());
-				else if(g.isConst())
-					constCols.add(g.getColumns());
-				else if(g.isIncompressable())
-					incompressable.add(g.getColumns());
-				else
-					groups.add(g);
-			}
-
-			// overwrite groups.
-			colInfos.compressionInfo = groups;
-
-			// cocode remaining groups
-			if(!groups.isEmpty()) {
-				colInfos = co.coCodeColumns(colInfos, k);
-			}
-
-			// add empty
-			if(emptyCols.size() > 0) {
-				final IColIndex idx = ColIndexFactory.combineIndexes(emptyCols);
-				colInfos.compressionInfo.add(new CompressedSizeInfoColGroup(idx, nRow, CompressionType.EMPTY));
-			}
-
-			// add const
-			if(constCols.size() > 0) {
-				final IColIndex idx = ColIndexFactory.combineIndexes(constCols);
-				colInfos.compressionInfo.add(new CompressedSizeInfoColGroup(idx, nRow, CompressionType.CONST));
-			}
-
-			if(incompressable.size() > 0) {
-				final IColIndex idx = ColIndexFactory.combineIndexes(incompressable);
-				colInfos.compressionInfo.add(new CompressedSizeInfoColGroup(idx, nRow, CompressionType.UNCOMPRESSED));
-			}
-
-			return colInfos;
+		if(!containsEmptyConstOrIncompressable(colInfos))
+			return ret;
+
+		// filtered empty groups
+		final List<IColIndex> emptyCols = new ArrayList<>();
+		// filtered const groups
+		final List<IColIndex> constCols = new ArrayList<>();
+		// incompressable groups
+		final List<IColIndex> incompressable = new ArrayList<>();
+		// filtered groups -- in the end starting with all groups
+		final List<CompressedSizeInfoColGroup> groups = new ArrayList<>();
+
+		final int nRow = colInfos.compressionInfo.get(0).getNumRows();
+
+		// filter groups
+		for(int i = 0; i < colInfos.compressionInfo.size(); i++) {
+			CompressedSizeInfoColGroup g = colInfos.compressionInfo.get(i);
+			if(g.isEmpty())
+				emptyCols.add(g.getColumns());
+			else if(g.isConst())
+				constCols.add(g.getColumns());
+			else if(g.isIncompressable())
+				incompressable.add(g.getColumns());
+			else
+				groups.add(g);
+		}
+
+		// overwrite groups.
+		colInfos.compressionInfo = groups;
+
+		// add empty
+		if(emptyCols.size() > 0) {
+			final IColIndex idx = ColIndexFactory.combineIndexes(emptyCols);
+			ret.add(new CompressedSizeInfoColGroup(idx, nRow, CompressionType.EMPTY));
+		}
 
+		// add const
+		if(constCols.size() > 0) {
+			final IColIndex idx = ColIndexFactory.combineIndexes(constCols);
+			ret.add(new CompressedSizeInfoColGroup(idx, nRow, CompressionType.CONST));
 		}
+
+		if(incompressable.size() > 0) {
+			final IColIndex idx = ColIndexFactory.combineIndexes(incompressable);
+			ret.add(new CompressedSizeInfoColGroup(idx, nRow, CompressionType.UNCOMPRESSED));
+		}
+
+		return ret;
 	}
 
 	private static boolean containsEmptyConstOrIncompressable(CompressedSizeInfo colInfos) {
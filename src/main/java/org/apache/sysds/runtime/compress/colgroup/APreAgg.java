@@ -61,6 +61,8 @@ public abstract class APreAgg extends AColGroupValue {
 			tsmmAPreAgg((APreAgg) other, result);
 		else if(other instanceof ColGroupUncompressed)
 			tsmmColGroupUncompressed((ColGroupUncompressed) other, result);
+		else if(other instanceof ColGroupDeltaBP)
+			tsmmColGroupUncompressed(((ColGroupDeltaBP) other).toUncompressed(), result);
 		else
 			throw new DMLCompressionException("Unsupported column group type " + other.getClass().getSimpleName());
 
@@ -73,6 +75,8 @@ public abstract class APreAgg extends AColGroupValue {
 			leftMultByColGroupValue((APreAgg) lhs, result);
 		else if(lhs instanceof ColGroupUncompressed)
 			leftMultByUncompressedColGroup((ColGroupUncompressed) lhs, result);
+		else if(lhs instanceof ColGroupDeltaBP)
+			leftMultByUncompressedColGroup(((ColGroupDeltaBP) lhs).toUncompressed(), result);
 		else
 			throw new DMLCompressionException(
 				"Not supported left multiplication with A ColGroup of type: " + lhs.getClass().getSimpleName());
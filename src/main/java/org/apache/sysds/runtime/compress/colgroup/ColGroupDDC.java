@@ -59,7 +59,6 @@ import org.apache.sysds.runtime.data.SparseRow;
 import org.apache.sysds.runtime.functionobjects.Builtin;
 import org.apache.sysds.runtime.functionobjects.Minus;
 import org.apache.sysds.runtime.functionobjects.Plus;
-import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysds.runtime.matrix.operators.RightScalarOperator;
@@ -133,33 +132,28 @@ public class ColGroupDDC extends APreAgg implements IMapToDataGroup {
 		final int idxSize = _colIndexes.size();
 		if(db.isContiguous()) {
 			final int nColOut = db.getDim(1);
+			final double[] c = db.values(0);
+			final int offT = (rl + offR) * nColOut + offC;
+			// specialized kernels on the mapping, to avoid the virtual getIndex call per cell.
 			if(idxSize == 1 && nColOut == 1)
 				decompressToDenseBlockDenseDictSingleColOutContiguous(db, rl, ru, offR, offC, values);
 			else if(idxSize == 1)
-				decompressToDenseBlockDenseDictSingleColContiguous(db, rl, ru, offR, offC, values);
+				_data.decompressToRangeSingleCol(c, rl, ru, offT + _colIndexes.get(0), nColOut, values);
 			else if(idxSize == nColOut) // offC == 0 implied
-				decompressToDenseBlockDenseDictAllColumnsContiguous(db, rl, ru, offR, values, idxSize);
-			else if(offC == 0 && offR == 0)
-				decompressToDenseBlockDenseDictNoOff(db, rl, ru, values);
-			else if(offC == 0)
-				decompressToDenseBlockDenseDictNoColOffset(db, rl, ru, offR, values, idxSize, nColOut);
-			else
-				decompressToDenseBlockDenseDictGeneric(db, rl, ru, offR, offC, values, idxSize);
+				_data.decompressToRangeAllCols(c, rl, ru, offT, idxSize, values);
+			else if(idxSize == 2)
+				_data.decompressToRangeTwoCols(c, rl, ru, offT, nColOut, _colIndexes.get(0), _colIndexes.get(1), values);
+			else {
+				final int[] cols = new int[idxSize];
+				for(int i = 0; i < idxSize; i++)
+					cols[i] = _colIndexes.get(i);
+				_data.decompressToRangeCols(c, rl, ru, offT, nColOut, cols, values);
+			}
 		}
 		else
 			decompressToDenseBlockDenseDictGeneric(db, rl, ru, offR, offC, values, idxSize);
 	}
 
-	private final void decompressToDenseBlockDenseDictSingleColContiguous(DenseBlock db, int rl, int ru, int offR,
-		int offC, double[] values) {
-		final double[] c = db.values(0);
-		final int nCols = db.getDim(1);
-		final int colOff = _colIndexes.get(0) + offC;
-		for(int i = rl, offT = (rl + offR) * nCols + colOff; i < ru; i++, offT += nCols)
-			c[offT] += values[_data.getIndex(i)];
-
-	}
-
 	@Override
 	public AMapToData getMapToData() {
 		return _data;
@@ -177,37 +171,6 @@ public class ColGroupDDC extends APreAgg implements IMapToDataGroup {
 
 	}
 
-	private final void decompressToDenseBlockDenseDictAllColumnsContiguous(DenseBlock db, int rl, int ru, int offR,
-		double[] values, int nCol) {
-		final double[] c = db.values(0);
-		for(int r = rl; r < ru; r++) {
-			final int start = _data.getIndex(r) * nCol;
-			final int offStart = (offR + r) * nCol;
-			LibMatrixMult.vectAdd(values, c, start, offStart, nCol);
-		}
-	}
-
-	private final void decompressToDenseBlockDenseDictNoColOffset(DenseBlock db, int rl, int ru, int offR,
-		double[] values, int nCol, int colOut) {
-		int off = (rl + offR) * colOut;
-		for(int i = rl, offT = rl + offR; i < ru; i++, off += colOut) {
-			final double[] c = db.values(offT);
-			final int rowIndex = _data.getIndex(i) * nCol;
-			_colIndexes.decompressVec(nCol, c, off, values, rowIndex);
-		}
-	}
-
-	private final void decompressToDenseBlockDenseDictNoOff(DenseBlock db, int rl, int ru, double[] values) {
-		final int nCol = _colIndexes.size();
-		final int nColU = db.getDim(1);
-		final double[] c = db.values(0);
-		for(int i = rl; i < ru; i++) {
-			final int off = i * nColU;
-			final int rowIndex = _data.getIndex(i) * nCol;
-			_colIndexes.decompressVec(nCol, c, off, values, rowIndex);
-		}
-	}
-
 	private final void decompressToDenseBlockDenseDictGeneric(DenseBlock db, int rl, int ru, int offR, int offC,
 		double[] values, int nCol) {
 		for(int i = rl, offT = rl + offR; i < ru; i++, offT++) {
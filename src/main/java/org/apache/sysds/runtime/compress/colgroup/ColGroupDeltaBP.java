@@ -0,0 +1,1011 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress.colgroup;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupUtils.P;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.compress.colgroup.indexes.IColIndex;
+import org.apache.sysds.runtime.compress.colgroup.scheme.ICLAScheme;
+import org.apache.sysds.runtime.compress.cost.ComputationCostEstimator;
+import org.apache.sysds.runtime.compress.estim.CompressedSizeInfoColGroup;
+import org.apache.sysds.runtime.compress.estim.EstimationFactors;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.data.SparseBlockMCSR;
+import org.apache.sysds.runtime.functionobjects.Builtin;
+import org.apache.sysds.runtime.functionobjects.Divide;
+import org.apache.sysds.runtime.functionobjects.Minus;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.functionobjects.ValueFunction;
+import org.apache.sysds.runtime.instructions.cp.CM_COV_Object;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.CMOperator;
+import org.apache.sysds.runtime.matrix.operators.LeftScalarOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysds.runtime.matrix.operators.UnaryOperator;
+
+/**
+ * Column group for monotone or slowly changing integral columns such as timestamps, sequence ids or cumulative sums.
+ * 
+ * The column is cut into blocks of 128 rows. Each block stores its first value (frame of reference) and the deltas
+ * between consecutive rows, bit packed with the minimal width after subtracting the smallest delta of the block. Per
+ * block minimum, maximum and sum are kept next to the packed words, such that sum, min, max and predicates like
+ * containsValue can be answered on the summaries or skip whole blocks without unpacking.
+ * 
+ * The encoded values are integral, and the decompressed value is raw * scale + shift, which allows plus, minus,
+ * multiply and divide by scalars to be applied without touching the packed data.
+ */
+public class ColGroupDeltaBP extends AColGroupCompressed {
+
+	private static final long serialVersionUID = 4185320517926710471L;
+
+	/** Log2 of the number of rows per packed block */
+	public static final int LOG_BLOCK = 7;
+	/** Number of rows per packed block */
+	public static final int BLOCK = 1 << LOG_BLOCK;
+	/** The largest absolute value supported, to guarantee exact conversion and non overflowing deltas */
+	private static final long MAX_ABS = 1L << 52;
+	/** The number of rows scanned to estimate the compressed size */
+	private static final int ESTIMATE_ROWS = BLOCK * 64;
+
+	/** The packed data, shared between groups that only differ in scale and shift */
+	private final Packed _data;
+	/** The scale applied to the decoded integral values */
+	private final double _scale;
+	/** The shift applied to the decoded integral values */
+	private final double _shift;
+
+	private ColGroupDeltaBP(IColIndex colIndexes, Packed data, double scale, double shift) {
+		super(colIndexes);
+		if(colIndexes.size() != 1)
+			throw new DMLCompressionException("Invalid DeltaBP group with multiple columns: " + colIndexes);
+		_data = data;
+		_scale = scale;
+		_shift = shift;
+	}
+
+	/**
+	 * Create a bit packed delta column group from the values of a single column.
+	 * 
+	 * @param colIndexes The column index of the group
+	 * @param values     The values of the column
+	 * @return A DeltaBP group, constant or empty group, or null if the values are not integral
+	 */
+	public static AColGroup create(IColIndex colIndexes, double[] values) {
+		return create(colIndexes, values, values.length);
+	}
+
+	private static AColGroup create(IColIndex colIndexes, double[] values, int nRows) {
+		final long[] raw = toRaw(values, nRows);
+		if(raw == null)
+			return null;
+		boolean constant = true;
+		for(int i = 1; i < nRows && constant; i++)
+			constant = raw[i] == raw[0];
+		if(constant)
+			return ColGroupConst.create(colIndexes, (double) raw[0]);
+		return new ColGroupDeltaBP(colIndexes, Packed.encode(raw, nRows), 1, 0);
+	}
+
+	/**
+	 * Compress a single column of the input into a bit packed delta group.
+	 * 
+	 * @param colIndexes The column index to compress
+	 * @param in         The input matrix block
+	 * @param transposed If the input is transposed
+	 * @return A compressed group or null if the column is not integral
+	 */
+	public static AColGroup compress(IColIndex colIndexes, MatrixBlock in, boolean transposed) {
+		final int nRows = transposed ? in.getNumColumns() : in.getNumRows();
+		final double[] values = extract(in, colIndexes.get(0), transposed, nRows);
+		return create(colIndexes, values, nRows);
+	}
+
+	/**
+	 * Estimate the in memory size of compressing the given column with bit packed deltas, based on a prefix of the
+	 * rows.
+	 * 
+	 * @param in         The input matrix block
+	 * @param col        The column to estimate
+	 * @param transposed If the input is transposed
+	 * @return The estimated size in bytes or -1 if the column cannot be encoded
+	 */
+	public static long estimateInMemorySize(MatrixBlock in, int col, boolean transposed) {
+		final int nRows = transposed ? in.getNumColumns() : in.getNumRows();
+		final int nSample = Math.min(nRows, ESTIMATE_ROWS);
+		final long[] raw = toRaw(extract(in, col, transposed, nSample), nSample);
+		if(raw == null)
+			return -1;
+		long bits = 0;
+		for(int s = 0; s < nSample; s += BLOCK)
+			bits += (long) (Math.min(nSample, s + BLOCK) - s - 1) * Packed.blockBits(raw, s, Math.min(nSample, s + BLOCK));
+		final long words = (long) Math.ceil((double) bits / 64 * nRows / nSample);
+		return ColGroupSizes.estimateInMemorySizeDeltaBP(nRows, words);
+	}
+
+	/**
+	 * Get the number of packed blocks used for the given number of rows.
+	 * 
+	 * @param nRows The number of rows
+	 * @return The number of blocks
+	 */
+	public static int getNumBlocks(int nRows) {
+		return (nRows + BLOCK - 1) >> LOG_BLOCK;
+	}
+
+	private static double[] extract(MatrixBlock in, int col, boolean transposed, int ru) {
+		final double[] ret = new double[ru];
+		if(in.isEmpty())
+			return ret;
+		else if(transposed && in.isInSparseFormat()) {
+			final SparseBlock sb = in.getSparseBlock();
+			if(sb.isEmpty(col))
+				return ret;
+			final int apos = sb.pos(col);
+			final int alen = sb.size(col) + apos;
+			final int[] aix = sb.indexes(col);
+			final double[] avals = sb.values(col);
+			for(int j = apos; j < alen && aix[j] < ru; j++)
+				ret[aix[j]] = avals[j];
+		}
+		else if(transposed) {
+			final DenseBlock db = in.getDenseBlock();
+			System.arraycopy(db.values(col), db.pos(col), ret, 0, ru);
+		}
+		else if(in.isInSparseFormat()) {
+			final SparseBlock sb = in.getSparseBlock();
+			for(int r = 0; r < ru; r++)
+				ret[r] = sb.get(r, col);
+		}
+		else {
+			final DenseBlock db = in.getDenseBlock();
+			for(int r = 0; r < ru; r++)
+				ret[r] = db.values(r)[db.pos(r) + col];
+		}
+		return ret;
+	}
+
+	private static long[] toRaw(double[] values, int nRows) {
+		final long[] raw = new long[nRows];
+		for(int i = 0; i < nRows; i++) {
+			final double v = values[i];
+			if(v != Math.rint(v) || Math.abs(v) >= MAX_ABS)
+				return null;
+			raw[i] = (long) v;
+		}
+		return raw;
+	}
+
+	/**
+	 * Get the number of rows encoded in this group.
+	 * 
+	 * @return The number of rows
+	 */
+	public int getNumRows() {
+		return _data._nRows;
+	}
+
+	/**
+	 * Get the number of 64 bit words used for the packed deltas.
+	 * 
+	 * @return The number of packed words
+	 */
+	public int getNumPackedWords() {
+		return _data._packed.length;
+	}
+
+	private double getRawMin() {
+		return _scale >= 0 ? _data.min() * _scale + _shift : _data.max() * _scale + _shift;
+	}
+
+	private double getRawMax() {
+		return _scale >= 0 ? _data.max() * _scale + _shift : _data.min() * _scale + _shift;
+	}
+
+	@Override
+	public CompressionType getCompType() {
+		return CompressionType.DeltaBP;
+	}
+
+	@Override
+	protected ColGroupType getColGroupType() {
+		return ColGroupType.DeltaBP;
+	}
+
+	@Override
+	public double getIdx(int r, int colIdx) {
+		return _data.get(r) * _scale + _shift;
+	}
+
+	@Override
+	public int getNumValues() {
+		// the number of distinct values is not tracked, the number of rows is an upper bound.
+		return _data._nRows;
+	}
+
+	@Override
+	public void decompressToDenseBlock(DenseBlock db, int rl, int ru, int offR, int offC) {
+		final long[] tmp = new long[BLOCK];
+		final int col = _colIndexes.get(0) + offC;
+		final boolean contiguous = db.isContiguous();
+		final double[] cc = contiguous ? db.values(0) : null;
+		final int nColOut = db.getDim(1);
+		for(int b = rl >> LOG_BLOCK; b <= (ru - 1) >> LOG_BLOCK; b++) {
+			final int s = b << LOG_BLOCK;
+			final int from = Math.max(rl, s);
+			final int to = Math.min(ru, s + BLOCK);
+			_data.decode(b, tmp, to - s);
+			if(contiguous) {
+				for(int r = from, off = (from + offR) * nColOut + col; r < to; r++, off += nColOut)
+					cc[off] += tmp[r - s] * _scale + _shift;
+			}
+			else {
+				for(int r = from; r < to; r++) {
+					final int offT = r + offR;
+					db.values(offT)[db.pos(offT) + col] += tmp[r - s] * _scale + _shift;
+				}
+			}
+		}
+	}
+
+	@Override
+	public void decompressToSparseBlock(SparseBlock sb, int rl, int ru, int offR, int offC) {
+		final long[] tmp = new long[BLOCK];
+		final int col = _colIndexes.get(0) + offC;
+		for(int b = rl >> LOG_BLOCK; b <= (ru - 1) >> LOG_BLOCK; b++) {
+			final int s = b << LOG_BLOCK;
+			final int to = Math.min(ru, s + BLOCK);
+			_data.decode(b, tmp, to - s);
+			for(int r = Math.max(rl, s); r < to; r++) {
+				final double v = tmp[r - s] * _scale + _shift;
+				if(v != 0)
+					sb.append(r + offR, col, v);
+			}
+		}
+	}
+
+	@Override
+	public void decompressToDenseBlockTransposed(DenseBlock db, int rl, int ru) {
+		toUncompressed().decompressToDenseBlockTransposed(db, rl, ru);
+	}
+
+	@Override
+	public void decompressToSparseBlockTransposed(SparseBlockMCSR sb, int nColOut) {
+		toUncompressed().decompressToSparseBlockTransposed(sb, nColOut);
+	}
+
+	/**
+	 * Decompress this group into an uncompressed column group with the same column index.
+	 * 
+	 * @return The uncompressed column group
+	 */
+	public ColGroupUncompressed toUncompressed() {
+		final int nRows = _data._nRows;
+		final MatrixBlock mb = new MatrixBlock(nRows, 1, false);
+		mb.allocateDenseBlock();
+		copyAndSet(ColIndexFactory.create(1)).decompressToDenseBlock(mb.getDenseBlock(), 0, nRows);
+		mb.recomputeNonZeros();
+		return new ColGroupUncompressed(mb, _colIndexes);
+	}
+
+	@Override
+	public AColGroup scalarOperation(ScalarOperator op) {
+		final double[] ab = affine(op.fn, op.getConstant(), op instanceof LeftScalarOperator);
+		if(ab != null) {
+			final AColGroup ret = affine(ab[0], ab[1]);
+			if(ret != null)
+				return ret;
+		}
+		return toUncompressed().scalarOperation(op);
+	}
+
+	@Override
+	public AColGroup binaryRowOpLeft(BinaryOperator op, double[] v, boolean isRowSafe) {
+		return binaryRowOp(op, v, isRowSafe, true);
+	}
+
+	@Override
+	public AColGroup binaryRowOpRight(BinaryOperator op, double[] v, boolean isRowSafe) {
+		return binaryRowOp(op, v, isRowSafe, false);
+	}
+
+	private AColGroup binaryRowOp(BinaryOperator op, double[] v, boolean isRowSafe, boolean left) {
+		final double[] ab = affine(op.fn, v[_colIndexes.get(0)], left);
+		if(ab != null) {
+			final AColGroup ret = affine(ab[0], ab[1]);
+			if(ret != null)
+				return ret;
+		}
+		final ColGroupUncompressed uc = toUncompressed();
+		return left ? uc.binaryRowOpLeft(op, v, isRowSafe) : uc.binaryRowOpRight(op, v, isRowSafe);
+	}
+
+	/**
+	 * Get the operation as a * x + b if it is affine in x.
+	 * 
+	 * @param fn   The value function
+	 * @param s    The scalar argument
+	 * @param left If the scalar is the left argument
+	 * @return The pair {a, b} or null if not affine
+	 */
+	private static double[] affine(ValueFunction fn, double s, boolean left) {
+		if(fn instanceof Plus)
+			return new double[] {1, s};
+		else if(fn instanceof Minus)
+			return left ? new double[] {-1, s} : new double[] {1, -s};
+		else if(fn instanceof Multiply)
+			return new double[] {s, 0};
+		else if(fn instanceof Divide && !left && s != 0)
+			return new double[] {1 / s, 0};
+		else
+			return null;
+	}
+
+	private AColGroup affine(double a, double b) {
+		final double scale = _scale * a;
+		final double shift = _shift * a + b;
+		if(!Double.isFinite(scale) || !Double.isFinite(shift))
+			return null;
+		else if(scale == 0)
+			return ColGroupConst.create(_colIndexes, shift);
+		else
+			return new ColGroupDeltaBP(_colIndexes, _data, scale, shift);
+	}
+
+	@Override
+	public AColGroup unaryOperation(UnaryOperator op) {
+		return toUncompressed().unaryOperation(op);
+	}
+
+	@Override
+	protected double computeMxx(double c, Builtin builtin) {
+		return builtin.execute(c, builtin.getBuiltinCode() == Builtin.BuiltinCode.MAX ? getRawMax() : getRawMin());
+	}
+
+	@Override
+	protected void computeColMxx(double[] c, Builtin builtin) {
+		final int col = _colIndexes.get(0);
+		c[col] = computeMxx(c[col], builtin);
+	}
+
+	@Override
+	protected void computeRowMxx(double[] c, Builtin builtin, int rl, int ru, double[] preAgg) {
+		final long[] tmp = new long[BLOCK];
+		for(int b = rl >> LOG_BLOCK; b <= (ru - 1) >> LOG_BLOCK; b++) {
+			final int s = b << LOG_BLOCK;
+			final int to = Math.min(ru, s + BLOCK);
+			_data.decode(b, tmp, to - s);
+			for(int r = Math.max(rl, s); r < to; r++)
+				c[r] = builtin.execute(c[r], tmp[r - s] * _scale + _shift);
+		}
+	}
+
+	@Override
+	protected void computeSum(double[] c, int nRows) {
+		c[0] += sum();
+	}
+
+	@Override
+	public void computeColSums(double[] c, int nRows) {
+		c[_colIndexes.get(0)] += sum();
+	}
+
+	private double sum() {
+		double raw = 0;
+		for(long s : _data._sum)
+			raw += s;
+		return raw * _scale + _data._nRows * _shift;
+	}
+
+	@Override
+	protected void computeSumSq(double[] c, int nRows) {
+		c[0] += sumSq();
+	}
+
+	@Override
+	protected void computeColSumsSq(double[] c, int nRows) {
+		c[_colIndexes.get(0)] += sumSq();
+	}
+
+	private double sumSq() {
+		final long[] tmp = new long[BLOCK];
+		final int nRows = _data._nRows;
+		double ret = 0;
+		for(int b = 0, s = 0; s < nRows; b++, s += BLOCK) {
+			final int len = Math.min(nRows - s, BLOCK);
+			_data.decode(b, tmp, len);
+			for(int j = 0; j < len; j++) {
+				final double v = tmp[j] * _scale + _shift;
+				ret += v * v;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Compute row sums or row sums of squares.
+	 * 
+	 * The pre aggregate is the power to apply to each value, 1 for sum and 2 for sum of squares.
+	 */
+	@Override
+	protected void computeRowSums(double[] c, int rl, int ru, double[] preAgg) {
+		final boolean square = preAgg[0] == 2;
+		final long[] tmp = new long[BLOCK];
+		for(int b = rl >> LOG_BLOCK; b <= (ru - 1) >> LOG_BLOCK; b++) {
+			final int s = b << LOG_BLOCK;
+			final int to = Math.min(ru, s + BLOCK);
+			_data.decode(b, tmp, to - s);
+			for(int r = Math.max(rl, s); r < to; r++) {
+				final double v = tmp[r - s] * _scale + _shift;
+				c[r] += square ? v * v : v;
+			}
+		}
+	}
+
+	@Override
+	protected void computeProduct(double[] c, int nRows) {
+		c[0] = containsValue(0) ? 0 : c[0] * product();
+	}
+
+	@Override
+	protected void computeColProduct(double[] c, int nRows) {
+		final int col = _colIndexes.get(0);
+		c[col] = containsValue(0) ? 0 : c[col] * product();
+	}
+
+	private double product() {
+		final long[] tmp = new long[BLOCK];
+		final int nRows = _data._nRows;
+		double ret = 1;
+		for(int b = 0, s = 0; s < nRows; b++, s += BLOCK) {
+			final int len = Math.min(nRows - s, BLOCK);
+			_data.decode(b, tmp, len);
+			for(int j = 0; j < len; j++)
+				ret *= tmp[j] * _scale + _shift;
+		}
+		return ret;
+	}
+
+	@Override
+	protected void computeRowProduct(double[] c, int rl, int ru, double[] preAgg) {
+		final long[] tmp = new long[BLOCK];
+		for(int b = rl >> LOG_BLOCK; b <= (ru - 1) >> LOG_BLOCK; b++) {
+			final int s = b << LOG_BLOCK;
+			final int to = Math.min(ru, s + BLOCK);
+			_data.decode(b, tmp, to - s);
+			for(int r = Math.max(rl, s); r < to; r++)
+				c[r] *= tmp[r - s] * _scale + _shift;
+		}
+	}
+
+	@Override
+	protected double[] preAggSumRows() {
+		return new double[] {1};
+	}
+
+	@Override
+	protected double[] preAggSumSqRows() {
+		return new double[] {2};
+	}
+
+	@Override
+	protected double[] preAggProductRows() {
+		return null;
+	}
+
+	@Override
+	protected double[] preAggBuiltinRows(Builtin builtin) {
+		return null;
+	}
+
+	@Override
+	public double getSum(int nRows) {
+		return sum();
+	}
+
+	@Override
+	public boolean containsValue(double pattern) {
+		final long raw = toRawValue(pattern);
+		return raw != Long.MIN_VALUE && _data.count(raw, true) > 0;
+	}
+
+	@Override
+	public long getNumberNonZeros(int nRows) {
+		final long zero = toRawValue(0);
+		return zero == Long.MIN_VALUE ? _data._nRows : _data._nRows - _data.count(zero, false);
+	}
+
+	/**
+	 * Get the raw integral value that decompresses to exactly the given value.
+	 * 
+	 * @param v The decompressed value
+	 * @return The raw value, or Long.MIN_VALUE if no raw value decompresses to v
+	 */
+	private long toRawValue(double v) {
+		final double r = Math.rint((v - _shift) / _scale);
+		if(Double.isNaN(r) || Math.abs(r) >= MAX_ABS || (long) r * _scale + _shift != v)
+			return Long.MIN_VALUE;
+		return (long) r;
+	}
+
+	@Override
+	public AColGroup replace(double pattern, double replace) {
+		if(!containsValue(pattern))
+			return this;
+		return toUncompressed().replace(pattern, replace);
+	}
+
+	@Override
+	public AColGroup rightMultByMatrix(MatrixBlock right, IColIndex allCols, int k) {
+		return toUncompressed().rightMultByMatrix(right, allCols, k);
+	}
+
+	@Override
+	protected void tsmm(double[] result, int numColumns, int nRows) {
+		final int col = _colIndexes.get(0);
+		result[col * numColumns + col] += sumSq();
+	}
+
+	@Override
+	public void leftMultByMatrixNoPreAgg(MatrixBlock matrix, MatrixBlock result, int rl, int ru, int cl, int cu) {
+		final double[] vals = new double[cu - cl];
+		copyAndSet(ColIndexFactory.create(1)).decompressToDenseBlock(new MatrixBlock(cu - cl, 1, vals).getDenseBlock(),
+			cl, cu, -cl, 0);
+		final double[] retV = result.getDenseBlockValues();
+		final int nColRet = result.getNumColumns();
+		final int col = _colIndexes.get(0);
+		if(matrix.isInSparseFormat()) {
+			final SparseBlock sb = matrix.getSparseBlock();
+			for(int r = rl; r < ru; r++) {
+				if(sb.isEmpty(r))
+					continue;
+				final int apos = sb.pos(r);
+				final int alen = sb.size(r) + apos;
+				final int[] aix = sb.indexes(r);
+				final double[] avals = sb.values(r);
+				double v = 0;
+				for(int j = apos; j < alen; j++)
+					if(aix[j] >= cl && aix[j] < cu)
+						v += avals[j] * vals[aix[j] - cl];
+				retV[r * nColRet + col] += v;
+			}
+		}
+		else {
+			final DenseBlock db = matrix.getDenseBlock();
+			for(int r = rl; r < ru; r++) {
+				final double[] mV = db.values(r);
+				final int off = db.pos(r);
+				double v = 0;
+				for(int c = cl; c < cu; c++)
+					v += mV[off + c] * vals[c - cl];
+				retV[r * nColRet + col] += v;
+			}
+		}
+	}
+
+	@Override
+	public void leftMultByAColGroup(AColGroup lhs, MatrixBlock result, int nRows) {
+		if(lhs instanceof ColGroupDeltaBP)
+			lhs = ((ColGroupDeltaBP) lhs).toUncompressed();
+		toUncompressed().leftMultByAColGroup(lhs, result, nRows);
+	}
+
+	@Override
+	public void tsmmAColGroup(AColGroup other, MatrixBlock result) {
+		if(other instanceof ColGroupDeltaBP)
+			other = ((ColGroupDeltaBP) other).toUncompressed();
+		toUncompressed().tsmmAColGroup(other, result);
+	}
+
+	@Override
+	protected AColGroup sliceSingleColumn(int idx) {
+		return copyAndSet(ColIndexFactory.create(1));
+	}
+
+	@Override
+	protected AColGroup sliceMultiColumns(int idStart, int idEnd, IColIndex outputCols) {
+		return copyAndSet(outputCols);
+	}
+
+	@Override
+	public AColGroup sliceRows(int rl, int ru) {
+		final long[] raw = new long[ru - rl];
+		final long[] tmp = new long[BLOCK];
+		for(int b = rl >> LOG_BLOCK; b <= (ru - 1) >> LOG_BLOCK; b++) {
+			final int s = b << LOG_BLOCK;
+			final int from = Math.max(rl, s);
+			final int to = Math.min(ru, s + BLOCK);
+			_data.decode(b, tmp, to - s);
+			System.arraycopy(tmp, from - s, raw, from - rl, to - from);
+		}
+		boolean constant = true;
+		for(int i = 1; i < raw.length && constant; i++)
+			constant = raw[i] == raw[0];
+		if(constant)
+			return ColGroupConst.create(_colIndexes, raw[0] * _scale + _shift);
+		return new ColGroupDeltaBP(_colIndexes, Packed.encode(raw, raw.length), _scale, _shift);
+	}
+
+	@Override
+	public CM_COV_Object centralMoment(CMOperator op, int nRows) {
+		return toUncompressed().centralMoment(op, nRows);
+	}
+
+	@Override
+	public AColGroup rexpandCols(int max, boolean ignore, boolean cast, int nRows) {
+		return toUncompressed().rexpandCols(max, ignore, cast, nRows);
+	}
+
+	@Override
+	public double getCost(ComputationCostEstimator e, int nRows) {
+		// every row is unpacked for row wise operations, but aggregates are answered from the block summaries.
+		return e.getCost(nRows, nRows, 1, nRows, 1.0);
+	}
+
+	@Override
+	public AColGroup append(AColGroup g) {
+		if(!(g instanceof ColGroupDeltaBP) || !_colIndexes.equals(g._colIndexes))
+			return null;
+		return appendNInternal(new AColGroup[] {this, g}, 0, 0);
+	}
+
+	@Override
+	protected AColGroup appendNInternal(AColGroup[] g, int blen, int rlen) {
+		int nRows = 0;
+		for(int i = 0; i < g.length; i++) {
+			if(!(g[i] instanceof ColGroupDeltaBP) || !_colIndexes.equals(g[i]._colIndexes))
+				return null;
+			nRows += ((ColGroupDeltaBP) g[i]).getNumRows();
+		}
+		final double[] values = new double[nRows];
+		final MatrixBlock mb = new MatrixBlock(nRows, 1, values);
+		final IColIndex single = ColIndexFactory.create(1);
+		for(int i = 0, off = 0; i < g.length; i++) {
+			final int n = ((ColGroupDeltaBP) g[i]).getNumRows();
+			g[i].copyAndSet(single).decompressToDenseBlock(mb.getDenseBlock(), 0, n, off, 0);
+			off += n;
+		}
+		return create(_colIndexes, values);
+	}
+
+	@Override
+	public ICLAScheme getCompressionScheme() {
+		return null;
+	}
+
+	@Override
+	public AColGroup recompress() {
+		return this;
+	}
+
+	@Override
+	public CompressedSizeInfoColGroup getCompressionInfo(int nRow) {
+		return new CompressedSizeInfoColGroup(_colIndexes, new EstimationFactors(nRow, nRow), estimateInMemorySize(),
+			CompressionType.DeltaBP);
+	}
+
+	@Override
+	public boolean sameIndexStructure(AColGroupCompressed that) {
+		return false;
+	}
+
+	@Override
+	public AColGroup copyAndSet(IColIndex colIndexes) {
+		return new ColGroupDeltaBP(colIndexes, _data, _scale, _shift);
+	}
+
+	@Override
+	protected AColGroup fixColIndexes(IColIndex newColIndex, int[] reordering) {
+		return copyAndSet(newColIndex);
+	}
+
+	@Override
+	public AColGroup reduceCols() {
+		return this;
+	}
+
+	@Override
+	public double getSparsity() {
+		return 1.0;
+	}
+
+	@Override
+	protected void sparseSelection(MatrixBlock selection, P[] points, MatrixBlock ret, int rl, int ru) {
+		toUncompressed().sparseSelection(selection, points, ret, rl, ru);
+	}
+
+	@Override
+	protected void denseSelection(MatrixBlock selection, P[] points, MatrixBlock ret, int rl, int ru) {
+		toUncompressed().denseSelection(selection, points, ret, rl, ru);
+	}
+
+	@Override
+	public AColGroup[] splitReshape(int multiplier, int nRow, int nColOrg) {
+		return toUncompressed().splitReshape(multiplier, nRow, nColOrg);
+	}
+
+	@Override
+	public long estimateInMemorySize() {
+		return ColGroupSizes.estimateInMemorySizeDeltaBP(_data._nRows, _data._packed.length);
+	}
+
+	@Override
+	public void write(DataOutput out) throws IOException {
+		super.write(out);
+		out.writeDouble(_scale);
+		out.writeDouble(_shift);
+		final int nBlocks = _data._base.length;
+		for(int b = 0; b < nBlocks; b++) {
+			out.writeLong(_data._base[b]);
+			out.writeLong(_data._minDelta[b]);
+			out.writeByte(_data._bits[b]);
+		}
+		for(long w : _data._packed)
+			out.writeLong(w);
+	}
+
+	public static ColGroupDeltaBP read(DataInput in, int nRows) throws IOException {
+		final IColIndex cols = ColIndexFactory.read(in);
+		final double scale = in.readDouble();
+		final double shift = in.readDouble();
+		final int nBlocks = getNumBlocks(nRows);
+		final long[] base = new long[nBlocks];
+		final long[] minDelta = new long[nBlocks];
+		final byte[] bits = new byte[nBlocks];
+		for(int b = 0; b < nBlocks; b++) {
+			base[b] = in.readLong();
+			minDelta[b] = in.readLong();
+			bits[b] = in.readByte();
+		}
+		final long[] packed = new long[Packed.offsets(nRows, bits)[nBlocks]];
+		for(int i = 0; i < packed.length; i++)
+			packed[i] = in.readLong();
+		return new ColGroupDeltaBP(cols, new Packed(nRows, base, minDelta, bits, packed), scale, shift);
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		long ret = super.getExactSizeOnDisk();
+		ret += 16; // scale and shift
+		ret += 17L * _data._base.length; // base, minDelta and bits
+		ret += 8L * _data._packed.length;
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(super.toString());
+		sb.append(String.format("\n%15s%d", "Rows: ", _data._nRows));
+		sb.append(String.format("\n%15s%d", "Blocks: ", _data._base.length));
+		sb.append(String.format("\n%15s%d", "Words: ", _data._packed.length));
+		sb.append(String.format("\n%15s%f", "Scale: ", _scale));
+		sb.append(String.format("\n%15s%f", "Shift: ", _shift));
+		return sb.toString();
+	}
+
+	/**
+	 * The bit packed deltas and block summaries of a column.
+	 * 
+	 * Block b covers rows [b * 128, min(nRows, (b + 1) * 128)). The deltas between consecutive rows of a block minus
+	 * the smallest delta are stored with _bits[b] bits each, starting in word _off[b] of _packed. A width of zero means
+	 * all deltas are equal and no words are used.
+	 */
+	private static final class Packed implements Serializable {
+		private static final long serialVersionUID = -6290185527162834590L;
+
+		private final int _nRows;
+		private final long[] _base;
+		private final long[] _minDelta;
+		private final byte[] _bits;
+		private final long[] _packed;
+		private final int[] _off;
+		private final long[] _min;
+		private final long[] _max;
+		private final long[] _sum;
+
+		private Packed(int nRows, long[] base, long[] minDelta, byte[] bits, long[] packed) {
+			_nRows = nRows;
+			_base = base;
+			_minDelta = minDelta;
+			_bits = bits;
+			_packed = packed;
+			_off = offsets(nRows, bits);
+			if(_off[bits.length] != packed.length)
+				throw new DMLCompressionException("Invalid packed DeltaBP data length: " + packed.length);
+			final int nBlocks = base.length;
+			_min = new long[nBlocks];
+			_max = new long[nBlocks];
+			_sum = new long[nBlocks];
+			final long[] tmp = new long[BLOCK];
+			for(int b = 0; b < nBlocks; b++) {
+				final int len = Math.min(BLOCK, nRows - (b << LOG_BLOCK));
+				decode(b, tmp, len);
+				long mn = tmp[0], mx = tmp[0], sum = 0;
+				for(int j = 0; j < len; j++) {
+					mn = Math.min(mn, tmp[j]);
+					mx = Math.max(mx, tmp[j]);
+					sum += tmp[j];
+				}
+				_min[b] = mn;
+				_max[b] = mx;
+				_sum[b] = sum;
+			}
+		}
+
+		private static Packed encode(long[] raw, int nRows) {
+			final int nBlocks = getNumBlocks(nRows);
+			final long[] base = new long[nBlocks];
+			final long[] minDelta = new long[nBlocks];
+			final byte[] bits = new byte[nBlocks];
+			for(int b = 0; b < nBlocks; b++) {
+				final int s = b << LOG_BLOCK;
+				final int e = Math.min(nRows, s + BLOCK);
+				base[b] = raw[s];
+				minDelta[b] = minDelta(raw, s, e);
+				bits[b] = (byte) blockBits(raw, s, e);
+			}
+			final int[] off = offsets(nRows, bits);
+			final long[] packed = new long[off[nBlocks]];
+			for(int b = 0; b < nBlocks; b++) {
+				final int nb = bits[b];
+				if(nb == 0)
+					continue;
+				final int s = b << LOG_BLOCK;
+				final int e = Math.min(nRows, s + BLOCK);
+				final long md = minDelta[b];
+				int w = off[b];
+				int sh = 0;
+				for(int i = s + 1; i < e; i++) {
+					final long v = raw[i] - raw[i - 1] - md;
+					packed[w] |= v << sh;
+					final int end = sh + nb;
+					if(end > 64)
+						packed[w + 1] |= v >>> (64 - sh);
+					if(end >= 64) {
+						w++;
+						sh = end - 64;
+					}
+					else
+						sh = end;
+				}
+			}
+			return new Packed(nRows, base, minDelta, bits, packed);
+		}
+
+		private static long minDelta(long[] raw, int s, int e) {
+			long mn = e - s > 1 ? Long.MAX_VALUE : 0;
+			for(int i = s + 1; i < e; i++)
+				mn = Math.min(mn, raw[i] - raw[i - 1]);
+			return mn;
+		}
+
+		private static int blockBits(long[] raw, int s, int e) {
+			final long mn = minDelta(raw, s, e);
+			long range = 0;
+			for(int i = s + 1; i < e; i++)
+				range |= raw[i] - raw[i - 1] - mn;
+			return 64 - Long.numberOfLeadingZeros(range);
+		}
+
+		private static int[] offsets(int nRows, byte[] bits) {
+			final int[] off = new int[bits.length + 1];
+			for(int b = 0; b < bits.length; b++) {
+				final long nDelta = Math.min(BLOCK, nRows - (b << LOG_BLOCK)) - 1;
+				off[b + 1] = off[b] + (int) ((nDelta * bits[b] + 63) >>> 6);
+			}
+			return off;
+		}
+
+		/**
+		 * Unpack the first len rows of block b into tmp. The loop is branch light and works on a fixed size block to
+		 * let the JIT unroll and vectorize the prefix sum.
+		 * 
+		 * @param b   The block to decode
+		 * @param tmp The output buffer of at least len entries
+		 * @param len The number of rows to decode
+		 */
+		private void decode(int b, long[] tmp, int len) {
+			long v = _base[b];
+			final long md = _minDelta[b];
+			final int nb = _bits[b];
+			tmp[0] = v;
+			if(nb == 0) {
+				for(int j = 1; j < len; j++)
+					tmp[j] = v += md;
+				return;
+			}
+			final long mask = (1L << nb) - 1;
+			final long[] packed = _packed;
+			int w = _off[b];
+			int sh = 0;
+			for(int j = 1; j < len; j++) {
+				long d = packed[w] >>> sh;
+				final int end = sh + nb;
+				if(end > 64)
+					d |= packed[w + 1] << (64 - sh);
+				v += (d & mask) + md;
+				tmp[j] = v;
+				if(end >= 64) {
+					w++;
+					sh = end - 64;
+				}
+				else
+					sh = end;
+			}
+		}
+
+		private long get(int r) {
+			final int b = r >> LOG_BLOCK;
+			final int j = r & (BLOCK - 1);
+			if(_bits[b] == 0)
+				return _base[b] + j * _minDelta[b];
+			final long[] tmp = new long[j + 1];
+			decode(b, tmp, j + 1);
+			return tmp[j];
+		}
+
+		private long min() {
+			long mn = Long.MAX_VALUE;
+			for(long m : _min)
+				mn = Math.min(mn, m);
+			return mn;
+		}
+
+		private long max() {
+			long mx = Long.MIN_VALUE;
+			for(long m : _max)
+				mx = Math.max(mx, m);
+			return mx;
+		}
+
+		/**
+		 * Count the occurrences of a raw value, skipping all blocks whose range does not contain it.
+		 * 
+		 * @param raw   The raw value to count
+		 * @param first If the count can stop at the first occurrence
+		 * @return The number of occurrences
+		 */
+		private long count(long raw, boolean first) {
+			final long[] tmp = new long[BLOCK];
+			long count = 0;
+			for(int b = 0; b < _base.length; b++) {
+				if(raw < _min[b] || raw > _max[b])
+					continue;
+				final int len = Math.min(BLOCK, _nRows - (b << LOG_BLOCK));
+				decode(b, tmp, len);
+				for(int j = 0; j < len; j++)
+					if(tmp[j] == raw)
+						count++;
+				if(first && count > 0)
+					return count;
+			}
+			return count;
+		}
+	}
+}
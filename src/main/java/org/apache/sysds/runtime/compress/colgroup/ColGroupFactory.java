@@ -274,6 +274,11 @@ public class ColGroupFactory {
 			return directCompressDDC(colIndexes, cg);
 		else if(ct == CompressionType.LinearFunctional)
 			return compressLinearFunctional(colIndexes, in, cs);
+		else if(ct == CompressionType.DeltaBP) {
+			AColGroup g = ColGroupDeltaBP.compress(colIndexes, in, t);
+			// the estimate is based on a prefix, fall back if later rows are not integral.
+			return g != null ? g : directCompressDDC(colIndexes, cg);
+		}
 		else if(ct == CompressionType.DDCFOR) {
 			AColGroup g = directCompressDDC(colIndexes, cg);
 			if(g instanceof ColGroupDDC)
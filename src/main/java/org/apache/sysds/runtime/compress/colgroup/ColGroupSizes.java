@@ -129,4 +129,25 @@ public interface ColGroupSizes {
 		size += 4; // _numRows
 		return size;
 	}
+
+	/**
+	 * Estimate the in memory size of a bit packed delta column group.
+	 *
+	 * @param nRows  The number of rows in the group
+	 * @param nWords The number of 64 bit words used for the packed deltas
+	 * @return The estimated size in bytes
+	 */
+	public static long estimateInMemorySizeDeltaBP(int nRows, long nWords) {
+		final int nBlocks = ColGroupDeltaBP.getNumBlocks(nRows);
+		long size = estimateInMemorySizeGroup(1, true);
+		size += 16; // scale and shift
+		size += 8; // reference to packed data
+		size += 16 + 4 + 8 * 8; // packed data object header, number of rows and array references
+		size += 4 * MemoryEstimates.longArrayCost(nBlocks); // base, minDelta, min and max
+		size += MemoryEstimates.byteArrayCost(nBlocks); // bit widths
+		size += MemoryEstimates.intArrayCost(nBlocks + 1); // word offsets
+		size += MemoryEstimates.longArrayCost(nBlocks); // block sums
+		size += MemoryEstimates.longArrayCost(nWords); // packed deltas
+		return size;
+	}
 }
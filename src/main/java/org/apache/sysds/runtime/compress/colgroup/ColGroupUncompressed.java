@@ -615,6 +615,8 @@ public class ColGroupUncompressed extends AColGroup {
 			leftMultByAColGroupUncompressed((ColGroupUncompressed) lhs, result);
 		else if(lhs instanceof APreAgg)
 			leftMultByAPreAggColGroup((APreAgg) lhs, result);
+		else if(lhs instanceof ColGroupDeltaBP)
+			leftMultByAColGroupUncompressed(((ColGroupDeltaBP) lhs).toUncompressed(), result);
 		else
 			throw new DMLCompressionException("Not supported leftMult colgroup type: " + lhs.getClass().getSimpleName());
 	}
@@ -973,6 +973,82 @@ public abstract class AMapToData implements Serializable {
 			decompressToRangeNoOffBy8(c, rc, values);
 	}
 
+	/**
+	 * Decompress a single column into a row major dense output, adding the dictionary values of the rows rl to ru.
+	 * 
+	 * @param c       The output values
+	 * @param rl      The row to start from
+	 * @param ru      The row to end at (not inclusive)
+	 * @param offT    The offset in c of row rl and the output column
+	 * @param nColOut The number of columns in the output, the distance between rows in c
+	 * @param values  The dictionary values of the column
+	 */
+	public void decompressToRangeSingleCol(double[] c, int rl, int ru, int offT, int nColOut, double[] values) {
+		for(int i = rl; i < ru; i++, offT += nColOut)
+			c[offT] += values[getIndex(i)];
+	}
+
+	/**
+	 * Decompress two columns into a row major dense output, adding the dictionary values of the rows rl to ru.
+	 * 
+	 * @param c       The output values
+	 * @param rl      The row to start from
+	 * @param ru      The row to end at (not inclusive)
+	 * @param offT    The offset in c of row rl, including any column offset
+	 * @param nColOut The number of columns in the output, the distance between rows in c
+	 * @param c0      The first output column
+	 * @param c1      The second output column
+	 * @param values  The row major dictionary values of the two columns
+	 */
+	public void decompressToRangeTwoCols(double[] c, int rl, int ru, int offT, int nColOut, int c0, int c1,
+		double[] values) {
+		for(int i = rl; i < ru; i++, offT += nColOut) {
+			final int v = getIndex(i) * 2;
+			c[offT + c0] += values[v];
+			c[offT + c1] += values[v + 1];
+		}
+	}
+
+	/**
+	 * Decompress any number of columns into a row major dense output, adding the dictionary values of the rows rl to
+	 * ru.
+	 * 
+	 * @param c       The output values
+	 * @param rl      The row to start from
+	 * @param ru      The row to end at (not inclusive)
+	 * @param offT    The offset in c of row rl, including any column offset
+	 * @param nColOut The number of columns in the output, the distance between rows in c
+	 * @param cols    The output columns
+	 * @param values  The row major dictionary values of the columns
+	 */
+	public void decompressToRangeCols(double[] c, int rl, int ru, int offT, int nColOut, int[] cols, double[] values) {
+		final int nCol = cols.length;
+		for(int i = rl; i < ru; i++, offT += nColOut) {
+			final int v = getIndex(i) * nCol;
+			for(int j = 0; j < nCol; j++)
+				c[offT + cols[j]] += values[v + j];
+		}
+	}
+
+	/**
+	 * Decompress into a row major dense output that have the same columns as the dictionary, adding the dictionary
+	 * values of the rows rl to ru.
+	 * 
+	 * @param c      The output values
+	 * @param rl     The row to start from
+	 * @param ru     The row to end at (not inclusive)
+	 * @param offT   The offset in c of row rl
+	 * @param nCol   The number of columns in both the output and the dictionary
+	 * @param values The row major dictionary values
+	 */
+	public void decompressToRangeAllCols(double[] c, int rl, int ru, int offT, int nCol, double[] values) {
+		for(int i = rl; i < ru; i++, offT += nCol) {
+			final int v = getIndex(i) * nCol;
+			for(int j = 0; j < nCol; j++)
+				c[offT + j] += values[v + j];
+		}
+	}
+
 	/**
 	 * Split this mapping into x smaller mappings according to round robin.
 	 * 
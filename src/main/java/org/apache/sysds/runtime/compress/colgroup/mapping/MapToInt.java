@@ -314,7 +314,7 @@ public class MapToInt extends AMapToData {
 	@Override
 	public void decompressToRangeOff(double[] c, int rl, int ru, int offR, double[] values) {
 		for(int i = rl, offT = rl + offR; i < ru; i++, offT++)
-			c[offT] += values[getIndex(i)];
+			c[offT] += values[_data[i]];
 	}
 
 	@Override
@@ -322,8 +322,70 @@ public class MapToInt extends AMapToData {
 		// OVERWRITTEN FOR JIT COMPILE!
 		final int h = (ru - rl) % 8;
 		for(int rc = rl; rc < rl + h; rc++)
-			c[rc] += values[getIndex(rc)];
+			c[rc] += values[_data[rc]];
 		for(int rc = rl + h; rc < ru; rc += 8)
 			decompressToRangeNoOffBy8(c, rc, values);
 	}
+
+	@Override
+	protected void decompressToRangeNoOffBy8(double[] c, int r, double[] values) {
+		c[r] += values[_data[r]];
+		c[r + 1] += values[_data[r + 1]];
+		c[r + 2] += values[_data[r + 2]];
+		c[r + 3] += values[_data[r + 3]];
+		c[r + 4] += values[_data[r + 4]];
+		c[r + 5] += values[_data[r + 5]];
+		c[r + 6] += values[_data[r + 6]];
+		c[r + 7] += values[_data[r + 7]];
+	}
+
+	@Override
+	public void decompressToRangeSingleCol(double[] c, int rl, int ru, int offT, int nColOut, double[] values) {
+		// OVERWRITTEN FOR JIT COMPILE!
+		final int h = (ru - rl) % 4;
+		int i = rl;
+		for(; i < rl + h; i++, offT += nColOut)
+			c[offT] += values[_data[i]];
+		final int s2 = nColOut * 2, s3 = nColOut * 3, s4 = nColOut * 4;
+		for(; i < ru; i += 4, offT += s4) {
+			c[offT] += values[_data[i]];
+			c[offT + nColOut] += values[_data[i + 1]];
+			c[offT + s2] += values[_data[i + 2]];
+			c[offT + s3] += values[_data[i + 3]];
+		}
+	}
+
+	@Override
+	public void decompressToRangeTwoCols(double[] c, int rl, int ru, int offT, int nColOut, int c0, int c1,
+		double[] values) {
+		// OVERWRITTEN FOR JIT COMPILE!
+		final int o0 = offT + c0;
+		final int o1 = offT + c1;
+		for(int i = rl, off = 0; i < ru; i++, off += nColOut) {
+			final int v = _data[i] * 2;
+			c[o0 + off] += values[v];
+			c[o1 + off] += values[v + 1];
+		}
+	}
+
+	@Override
+	public void decompressToRangeCols(double[] c, int rl, int ru, int offT, int nColOut, int[] cols, double[] values) {
+		// OVERWRITTEN FOR JIT COMPILE!
+		final int nCol = cols.length;
+		for(int i = rl; i < ru; i++, offT += nColOut) {
+			final int v = _data[i] * nCol;
+			for(int j = 0; j < nCol; j++)
+				c[offT + cols[j]] += values[v + j];
+		}
+	}
+
+	@Override
+	public void decompressToRangeAllCols(double[] c, int rl, int ru, int offT, int nCol, double[] values) {
+		// OVERWRITTEN FOR JIT COMPILE!
+		for(int i = rl; i < ru; i++, offT += nCol) {
+			final int v = _data[i] * nCol;
+			for(int j = 0; j < nCol; j++)
+				c[offT + j] += values[v + j];
+		}
+	}
 }
@@ -32,6 +32,8 @@ public class SchemeFactory {
 				break;
 			case DeltaDDC:
 				break;
+			case DeltaBP:
+				break;
 			case CONST:
 				// const is automatically empty if no data is provided.
 			case EMPTY:
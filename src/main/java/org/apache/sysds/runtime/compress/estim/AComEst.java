@@ -29,6 +29,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.runtime.compress.CompressionSettings;
 import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup.CompressionType;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDeltaBP;
 import org.apache.sysds.runtime.compress.colgroup.indexes.IColIndex;
 import org.apache.sysds.runtime.compress.colgroup.indexes.SingleIndex;
 import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
@@ -255,7 +257,7 @@ public abstract class AComEst {
 		if(!_cs.transposed && !_data.isEmpty() && _data.isInSparseFormat())
 			nnzCols = LibMatrixReorg.countNnzPerColumn(_data);
 		for(int col = 0; col < clen; col++)
-			ret.add(getColGroupInfo(new SingleIndex(col)));
+			ret.add(getSingleColumnInfo(col));
 		return ret;
 	}
 
@@ -288,7 +290,7 @@ public abstract class AComEst {
 				final int end = Math.min(clen, col + blkz);
 				tasks.add(pool.submit(() -> {
 					for(int c = start; c < end; c++)
-						res[c] = getColGroupInfo(new SingleIndex(c));
+						res[c] = getSingleColumnInfo(c);
 					return null;
 				}));
 			}
@@ -306,6 +308,23 @@ public abstract class AComEst {
 		}
 	}
 
+	/**
+	 * Get the compression info of a single column, additionally considering bit packed delta encoding if it is a valid
+	 * compression type and smaller than the best dictionary based encoding.
+	 * 
+	 * @param col The column to estimate
+	 * @return The compression info of the column
+	 */
+	private CompressedSizeInfoColGroup getSingleColumnInfo(int col) {
+		final CompressedSizeInfoColGroup g = getColGroupInfo(new SingleIndex(col));
+		if(!_cs.validCompressions.contains(CompressionType.DeltaBP) || g.isEmpty() || g.isConst())
+			return g;
+		final long size = ColGroupDeltaBP.estimateInMemorySize(_data, col, _cs.transposed);
+		if(size < 0 || size >= g.getMinSize())
+			return g;
+		return new CompressedSizeInfoColGroup(g.getColumns(), g.getFacts(), size, CompressionType.DeltaBP, g.getMap());
+	}
+
 	@Override
 	public String toString() {
 		return this.getClass().getSimpleName();
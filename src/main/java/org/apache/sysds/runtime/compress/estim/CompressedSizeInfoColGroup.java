@@ -206,6 +206,10 @@ public class CompressedSizeInfoColGroup {
 		return _facts.tupleSparsity;
 	}
 
+	public EstimationFactors getFacts() {
+		return _facts;
+	}
+
 	public IEncode getMap() {
 		return _map;
 	}
@@ -252,6 +256,9 @@ public class CompressedSizeInfoColGroup {
 				return ColGroupSizes.estimateInMemorySizeLinearFunctional(numCols, contiguousColumns);
 			case DeltaDDC:
 				throw new NotImplementedException();
+			case DeltaBP:
+				// only estimated for single columns on the input data, see AComEst.
+				return -1;
 			case DDC:
 				nv = fact.numVals + (fact.numOffs < fact.numRows ? 1 : 0);
 				return ColGroupSizes.estimateInMemorySizeDDC(numCols, contiguousColumns, nv, fact.numRows,
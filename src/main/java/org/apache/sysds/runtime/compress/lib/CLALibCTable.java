@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress.lib;
+
+import java.util.List;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupConst;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
+import org.apache.sysds.runtime.compress.colgroup.dictionary.IDictionary;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.functionobjects.CTable;
+import org.apache.sysds.runtime.matrix.data.CTableMap;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
+
+/**
+ * Contingency tables (ctable) with a compressed first input.
+ * 
+ * The ctable operations are sparse-unsafe cell-wise aggregations over the first input. Instead of decompressing the
+ * entire input, the compressed matrix is streamed in cache sized blocks of rows through a reused buffer. For a single
+ * column DDC or constant group with scalar second and third inputs, the table is computed directly from the
+ * dictionary and the counts of each distinct value.
+ */
+public final class CLALibCTable {
+
+	private CLALibCTable() {
+		// private constructor
+	}
+
+	/**
+	 * D = ctable(A,v2,W)
+	 * 
+	 * @param a           The compressed first input
+	 * @param v2          The scalar second input
+	 * @param w           The weights
+	 * @param resultMap   The result map (if resultBlock is null)
+	 * @param resultBlock The result block
+	 */
+	public static void ctable(CompressedMatrixBlock a, double v2, MatrixBlock w, CTableMap resultMap,
+		MatrixBlock resultBlock) {
+		final CTable ctable = CTable.getCTableFnObject();
+		forEachCell(a, (r, c, v1) -> ctable.execute(v1, v2, w.get(r, c), false, resultMap, resultBlock));
+		finish(resultBlock);
+	}
+
+	/**
+	 * D = ctable(A,v2,w)
+	 * 
+	 * @param a           The compressed first input
+	 * @param v2          The scalar second input
+	 * @param w           The scalar weight
+	 * @param resultMap   The result map (if resultBlock is null)
+	 * @param resultBlock The result block
+	 */
+	public static void ctable(CompressedMatrixBlock a, double v2, double w, CTableMap resultMap,
+		MatrixBlock resultBlock) {
+		final CTable ctable = CTable.getCTableFnObject();
+		final List<AColGroup> groups = a.getColGroups();
+		if(a.getNumColumns() == 1 && groups.size() == 1 && !a.isOverlapping() &&
+			(groups.get(0) instanceof ColGroupDDC || groups.get(0) instanceof ColGroupConst)) {
+			// histogram of the distinct values
+			final AColGroup g = groups.get(0);
+			if(g instanceof ColGroupConst)
+				ctable.execute(((ColGroupConst) g).getValues()[0], v2, w * a.getNumRows(), false, resultMap,
+					resultBlock);
+			else {
+				final IDictionary dict = ((ColGroupDDC) g).getDictionary();
+				final int[] counts = ((ColGroupDDC) g).getCounts();
+				for(int i = 0; i < counts.length; i++)
+					if(counts[i] > 0)
+						ctable.execute(dict.getValue(i), v2, w * counts[i], false, resultMap, resultBlock);
+			}
+		}
+		else
+			forEachCell(a, (r, c, v1) -> ctable.execute(v1, v2, w, false, resultMap, resultBlock));
+		finish(resultBlock);
+	}
+
+	/**
+	 * D = ctable(seq,A,w) or ctable(A,seq,w) where the sequence is the row index.
+	 * 
+	 * @param a           The compressed matrix input
+	 * @param ix1         The block index of the input
+	 * @param w           The scalar weight
+	 * @param left        If the sequence is the first input
+	 * @param blen        The block size
+	 * @param resultMap   The result map (if resultBlock is null)
+	 * @param resultBlock The result block
+	 */
+	public static void ctable(CompressedMatrixBlock a, MatrixIndexes ix1, double w, boolean left, int blen,
+		CTableMap resultMap, MatrixBlock resultBlock) {
+		final CTable ctable = CTable.getCTableFnObject();
+		final int offset = (int) ((ix1.getRowIndex() - 1) * blen);
+		if(left)
+			forEachCell(a, (r, c, v1) -> ctable.execute(offset + r + 1, v1, w, false, resultMap, resultBlock));
+		else
+			forEachCell(a, (r, c, v1) -> ctable.execute(v1, offset + r + 1, w, false, resultMap, resultBlock));
+		finish(resultBlock);
+	}
+
+	/**
+	 * D = ctable(A,B,w)
+	 * 
+	 * @param a           The compressed first input
+	 * @param b           The second input
+	 * @param w           The scalar weight
+	 * @param ignoreZeros If zero pairs are ignored
+	 * @param resultMap   The result map (if resultBlock is null)
+	 * @param resultBlock The result block
+	 */
+	public static void ctable(CompressedMatrixBlock a, MatrixBlock b, double w, boolean ignoreZeros,
+		CTableMap resultMap, MatrixBlock resultBlock) {
+		final CTable ctable = CTable.getCTableFnObject();
+		forEachCell(a, (r, c, v1) -> ctable.execute(v1, b.get(r, c), w, ignoreZeros, resultMap, resultBlock));
+		finish(resultBlock);
+	}
+
+	/**
+	 * D = ctable(A,B,W)
+	 * 
+	 * @param a           The compressed first input
+	 * @param b           The second input
+	 * @param w           The weights
+	 * @param resultMap   The result map (if resultBlock is null)
+	 * @param resultBlock The result block
+	 */
+	public static void ctable(CompressedMatrixBlock a, MatrixBlock b, MatrixBlock w, CTableMap resultMap,
+		MatrixBlock resultBlock) {
+		final CTable ctable = CTable.getCTableFnObject();
+		forEachCell(a, (r, c, v1) -> ctable.execute(v1, b.get(r, c), w.get(r, c), false, resultMap, resultBlock));
+		finish(resultBlock);
+	}
+
+	private static void forEachCell(CompressedMatrixBlock a, CellFunction f) {
+		final int nRow = a.getNumRows();
+		final int nCol = a.getNumColumns();
+		final List<AColGroup> groups = CLALibDecompress.filterForRowBlocks(a.getColGroups(), nCol);
+		final int blklen = CLALibDecompress.cacheBlockSize(nCol);
+		final MatrixBlock buffer = new MatrixBlock(Math.min(blklen, nRow), nCol, false);
+		buffer.allocateDenseBlock();
+		final DenseBlock db = buffer.getDenseBlock();
+		for(int rl = 0; rl < nRow; rl += blklen) {
+			final int ru = Math.min(rl + blklen, nRow);
+			CLALibDecompress.decompressRowBlock(groups, db, rl, ru);
+			for(int r = rl; r < ru; r++) {
+				final double[] vals = db.values(r - rl);
+				final int off = db.pos(r - rl);
+				for(int c = 0; c < nCol; c++)
+					f.apply(r, c, vals[off + c]);
+			}
+		}
+	}
+
+	private static void finish(MatrixBlock resultBlock) {
+		// maintain nnz (if necessary)
+		if(resultBlock != null)
+			resultBlock.recomputeNonZeros();
+	}
+
+	private interface CellFunction {
+		void apply(int r, int c, double v);
+	}
+}
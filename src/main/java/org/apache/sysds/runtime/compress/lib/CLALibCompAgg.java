@@ -78,7 +78,11 @@ public class CLALibCompAgg {
 	public static MatrixBlock aggregateUnary(CompressedMatrixBlock inputMatrix, MatrixBlock result,
 		AggregateUnaryOperator op, int blen, MatrixIndexes indexesIn, boolean inCP) {
 		try {
-			if(!supported(op) || inputMatrix.isEmpty())
+			if(!supported(op) && op.indexFn instanceof ReduceCol && !inputMatrix.isEmpty() &&
+				inputMatrix.getCachedDecompressed() == null)
+				// e.g., rowIndexMax, rowIndexMin, rowVars
+				return rowBlockAggregate(inputMatrix, result, op, blen, indexesIn, inCP);
+			else if(!supported(op) || inputMatrix.isEmpty())
 				return fallbackToUncompressed(inputMatrix, result, op, blen, indexesIn, inCP);
 
 			if(isRowSum(op, inCP))
@@ -187,6 +191,69 @@ public class CLALibCompAgg {
 		return result;
 	}
 
+	/**
+	 * Row aggregate of an operator that is not supported on compressed column groups. Since each output row only
+	 * depends on the same input row, the input is decompressed in cache sized blocks of rows into a reused buffer, that
+	 * is aggregated with the uncompressed kernels, instead of allocating the entire decompressed matrix.
+	 */
+	private static MatrixBlock rowBlockAggregate(CompressedMatrixBlock inputMatrix, MatrixBlock result,
+		AggregateUnaryOperator op, int blen, MatrixIndexes indexesIn, boolean inCP) throws Exception {
+		final int nRow = inputMatrix.getNumRows();
+		final int nCol = inputMatrix.getNumColumns();
+		final int k = op.getNumThreads();
+		final List<AColGroup> groups = CLALibDecompress.filterForRowBlocks(inputMatrix.getColGroups(), nCol);
+		final AggregateUnaryOperator opS = new AggregateUnaryOperator(op.aggOp, op.indexFn, 1);
+		final int blklen = CLALibDecompress.cacheBlockSize(nCol);
+		final int nBlocks = (nRow + blklen - 1) / blklen;
+		final MatrixBlock[] partials = new MatrixBlock[nBlocks];
+
+		if(k <= 1 || nBlocks == 1)
+			rowBlockAggregateRange(groups, partials, opS, blen, indexesIn, inCP, nRow, nCol, blklen, 0, nBlocks);
+		else {
+			final ExecutorService pool = CommonThreadPool.get(k);
+			try {
+				final int blkPerTask = Math.max((nBlocks + k - 1) / k, 1);
+				final List<Future<?>> tasks = new ArrayList<>();
+				for(int b = 0; b < nBlocks; b += blkPerTask) {
+					final int bl = b;
+					final int bu = Math.min(b + blkPerTask, nBlocks);
+					tasks.add(pool.submit(() -> rowBlockAggregateRange(groups, partials, opS, blen, indexesIn, inCP,
+						nRow, nCol, blklen, bl, bu)));
+				}
+				for(Future<?> t : tasks)
+					t.get();
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+
+		final int nColOut = partials[0].getNumColumns();
+		result = allocateOutput(result, new CellIndex(nRow, nColOut));
+		for(int b = 0; b < nBlocks; b++) {
+			final int rl = b * blklen;
+			result.copy(rl, rl + partials[b].getNumRows() - 1, 0, nColOut - 1, partials[b], false);
+		}
+		result.recomputeNonZeros(k);
+		result.examSparsity(k);
+		return result;
+	}
+
+	private static void rowBlockAggregateRange(List<AColGroup> groups, MatrixBlock[] partials,
+		AggregateUnaryOperator op, int blen, MatrixIndexes indexesIn, boolean inCP, int nRow, int nCol, int blklen,
+		int bl, int bu) {
+		final MatrixBlock buffer = new MatrixBlock(Math.min(blklen, nRow), nCol, false);
+		for(int b = bl; b < bu; b++) {
+			final int rl = b * blklen;
+			final int ru = Math.min(rl + blklen, nRow);
+			buffer.reset(ru - rl, nCol, false);
+			buffer.allocateDenseBlock();
+			CLALibDecompress.decompressRowBlock(groups, buffer.getDenseBlock(), rl, ru);
+			buffer.recomputeNonZeros();
+			partials[b] = buffer.aggregateUnaryOperations(op, null, blen, indexesIn, inCP);
+		}
+	}
+
 	private static MatrixBlock fallbackToUncompressed(CompressedMatrixBlock inputMatrix, MatrixBlock result,
 		AggregateUnaryOperator op, int blen, MatrixIndexes indexesIn, boolean inCP) {
 		return inputMatrix.getUncompressed("Unary aggregate " + op + " not supported yet.", op.getNumThreads())
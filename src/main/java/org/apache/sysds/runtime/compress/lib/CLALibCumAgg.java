@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.compress.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.functionobjects.Builtin;
+import org.apache.sysds.runtime.functionobjects.Builtin.BuiltinCode;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.functionobjects.ValueFunction;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Cumulative aggregates (cumsum, cumprod, cummin, cummax) of compressed matrices.
+ * 
+ * The compressed input is decompressed in cache sized blocks of rows directly into the dense output, and the running
+ * aggregate is computed while the block is still in cache. In parallel each thread processes a contiguous range of
+ * rows, and the carries between the ranges are applied afterwards.
+ */
+public final class CLALibCumAgg {
+
+	private CLALibCumAgg() {
+		// private constructor
+	}
+
+	/**
+	 * Get if the unary operator is a cumulative aggregate supported on compressed input.
+	 * 
+	 * @param op The unary operator
+	 * @return If supported
+	 */
+	public static boolean isSupported(UnaryOperator op) {
+		return Builtin.isBuiltinCode(op.fn, BuiltinCode.CUMSUM, BuiltinCode.CUMPROD, BuiltinCode.CUMMIN,
+			BuiltinCode.CUMMAX);
+	}
+
+	/**
+	 * Compute the cumulative aggregate over the rows of a compressed matrix.
+	 * 
+	 * @param m  The compressed input
+	 * @param op The cumulative unary operator, see isSupported
+	 * @return The uncompressed result
+	 */
+	public static MatrixBlock cumAgg(CompressedMatrixBlock m, UnaryOperator op) {
+		final int nRow = m.getNumRows();
+		final int nCol = m.getNumColumns();
+		final int k = op.getNumThreads();
+		final ValueFunction fn = getFunction(((Builtin) op.fn).getBuiltinCode());
+		final List<AColGroup> groups = CLALibDecompress.filterForRowBlocks(m.getColGroups(), nCol);
+
+		final MatrixBlock ret = new MatrixBlock(nRow, nCol, false);
+		ret.allocateDenseBlock();
+		final DenseBlock db = ret.getDenseBlock();
+
+		final int blklen = Math.max((nRow + k - 1) / k, CLALibDecompress.cacheBlockSize(nCol));
+		if(k <= 1 || blklen >= nRow)
+			cumAggRange(groups, db, fn, nCol, 0, nRow);
+		else
+			cumAggParallel(groups, db, fn, nRow, nCol, blklen, k);
+
+		ret.recomputeNonZeros(k);
+		ret.examSparsity(k);
+		return ret;
+	}
+
+	private static void cumAggParallel(List<AColGroup> groups, DenseBlock db, ValueFunction fn, int nRow, int nCol,
+		int blklen, int k) {
+		final ExecutorService pool = CommonThreadPool.get(k);
+		try {
+			// local cumulative aggregates per range of rows
+			final List<Future<?>> tasks = new ArrayList<>();
+			for(int r = 0; r < nRow; r += blklen) {
+				final int rl = r;
+				final int ru = Math.min(r + blklen, nRow);
+				tasks.add(pool.submit(() -> cumAggRange(groups, db, fn, nCol, rl, ru)));
+			}
+			for(Future<?> t : tasks)
+				t.get();
+
+			// sequentially finalize the last row of each range, that is the carry into the next range
+			for(int r = blklen; r < nRow; r += blklen) {
+				final int last = Math.min(r + blklen, nRow) - 1;
+				combineRow(fn, db.values(r - 1), db.pos(r - 1), db.values(last), db.pos(last), nCol);
+			}
+
+			// apply the carries to the remaining rows of each range
+			tasks.clear();
+			for(int r = blklen; r < nRow; r += blklen) {
+				final int rl = r;
+				final int ru = Math.min(r + blklen, nRow) - 1;
+				tasks.add(pool.submit(() -> applyCarry(db, fn, nCol, rl, ru)));
+			}
+			for(Future<?> t : tasks)
+				t.get();
+		}
+		catch(Exception e) {
+			throw new DMLCompressionException("Failed parallel compressed cumulative aggregate", e);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static void cumAggRange(List<AColGroup> groups, DenseBlock db, ValueFunction fn, int nCol, int rl,
+		int ru) {
+		final int blklen = CLALibDecompress.cacheBlockSize(nCol);
+		for(int bl = rl; bl < ru; bl += blklen) {
+			final int bu = Math.min(bl + blklen, ru);
+			for(AColGroup g : groups)
+				g.decompressToDenseBlock(db, bl, bu, 0, 0);
+			for(int r = Math.max(bl, rl + 1); r < bu; r++)
+				combineRow(fn, db.values(r - 1), db.pos(r - 1), db.values(r), db.pos(r), nCol);
+		}
+	}
+
+	private static void applyCarry(DenseBlock db, ValueFunction fn, int nCol, int rl, int ru) {
+		final double[] carry = db.values(rl - 1);
+		final int carryOff = db.pos(rl - 1);
+		for(int r = rl; r < ru; r++)
+			combineRow(fn, carry, carryOff, db.values(r), db.pos(r), nCol);
+	}
+
+	private static void combineRow(ValueFunction fn, double[] a, int aOff, double[] b, int bOff, int nCol) {
+		for(int j = 0; j < nCol; j++)
+			b[bOff + j] = fn.execute(a[aOff + j], b[bOff + j]);
+	}
+
+	private static ValueFunction getFunction(BuiltinCode code) {
+		switch(code) {
+			case CUMSUM:
+				return Plus.getPlusFnObject();
+			case CUMPROD:
+				return Multiply.getMultiplyFnObject();
+			case CUMMIN:
+				return Builtin.getBuiltinFnObject(BuiltinCode.MIN);
+			case CUMMAX:
+				return Builtin.getBuiltinFnObject(BuiltinCode.MAX);
+			default:
+				throw new DMLCompressionException("Unsupported cumulative aggregate: " + code);
+		}
+	}
+}
@@ -157,8 +157,13 @@ public final class CLALibDecompress {
 			else
 				throw new NotImplementedException();
 		}
-		for(AColGroup g : groups)
-			g.decompressToDenseBlock(ret, rl, ru, rowOffset, colOffset);
+		// decompress all groups in cache sized blocks of rows
+		final int blklen = cacheBlockSize(ret.getDim(1));
+		for(int b = rl; b < ru; b += blklen) {
+			final int e = Math.min(b + blklen, ru);
+			for(AColGroup g : groups)
+				g.decompressToDenseBlock(ret, b, e, rowOffset, colOffset);
+		}
 	}
 
 	private static void decompressToDenseBlockParallel(DenseBlock ret, List<AColGroup> groups, int rowOffset,
@@ -297,9 +302,10 @@ public final class CLALibDecompress {
 		int blklen, double[] constV, double eps, boolean overlapping) {
 		final DenseBlock db = ret.getDenseBlock();
 		final int nCol = ret.getNumColumns();
-		for(int i = 0; i < rlen; i += blklen) {
+		final int blkz = Math.min(blklen, cacheBlockSize(nCol));
+		for(int i = 0; i < rlen; i += blkz) {
 			final int rl = i;
-			final int ru = Math.min(i + blklen, rlen);
+			final int ru = Math.min(i + blkz, rlen);
 			for(AColGroup grp : filteredGroups)
 				grp.decompressToDenseBlock(db, rl, ru);
 			if(constV != null)
@@ -375,6 +381,48 @@ public final class CLALibDecompress {
 		}
 	}
 
+	/**
+	 * Get the number of rows to decompress at a time, such that the output rows of all groups stay in the L2 cache.
+	 * 
+	 * @param nCol The number of columns in the output
+	 * @return The number of rows in each block
+	 */
+	public static int cacheBlockSize(int nCol) {
+		return Math.max(32768 / nCol, 128);
+	}
+
+	/**
+	 * Prepare the column groups for repeated decompression of row blocks, by combining all constant contributions into
+	 * a single constant group.
+	 * 
+	 * @param groups The column groups of a compressed matrix
+	 * @param nCol   The number of columns in the compressed matrix
+	 * @return The groups to decompress row blocks from
+	 */
+	public static List<AColGroup> filterForRowBlocks(List<AColGroup> groups, int nCol) {
+		if(!CLALibUtils.shouldPreFilter(groups))
+			return groups;
+		final double[] constV = new double[nCol];
+		final List<AColGroup> filteredGroups = CLALibUtils.filterGroups(groups, constV);
+		filteredGroups.add(ColGroupConst.create(constV));
+		return filteredGroups;
+	}
+
+	/**
+	 * Decompress the rows rl to ru into the first rows of the given dense block, overwriting previous content.
+	 * 
+	 * @param groups The column groups, see filterForRowBlocks
+	 * @param db     The dense block to decompress into, with at least ru - rl rows
+	 * @param rl     The row to start at
+	 * @param ru     The row to end at (not inclusive)
+	 */
+	public static void decompressRowBlock(List<AColGroup> groups, DenseBlock db, int rl, int ru) {
+		for(int i = 0; i < ru - rl; i++)
+			db.fillRow(i, 0);
+		for(AColGroup g : groups)
+			g.decompressToDenseBlock(db, rl, ru, -rl, 0);
+	}
+
 	/**
 	 * Get a small epsilon from the constant group.
 	 * 
@@ -414,7 +462,7 @@ public final class CLALibDecompress {
 			_eps = eps;
 			_rl = rl;
 			_ru = ru;
-			_blklen = Math.max(32768 / ret.getNumColumns(), 128);
+			_blklen = cacheBlockSize(ret.getNumColumns());
 			_constV = constV;
 		}
 
@@ -459,7 +507,7 @@ public final class CLALibDecompress {
 			_eps = eps;
 			_rl = rl;
 			_ru = ru;
-			_blklen = Math.max(32768 / ret.getNumColumns(), 128);
+			_blklen = cacheBlockSize(ret.getNumColumns());
 			_constV = constV;
 		}
 
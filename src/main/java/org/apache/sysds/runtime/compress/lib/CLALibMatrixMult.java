@@ -96,10 +96,9 @@ public final class CLALibMatrixMult {
 	private static MatrixBlock doubleCompressedMatrixMultiply(CompressedMatrixBlock m1, CompressedMatrixBlock m2,
 		MatrixBlock ret, int k, boolean transposeLeft, boolean transposeRight) {
 		if(!transposeLeft && !transposeRight) {
-			// If both are not transposed, decompress the right hand side. to enable
-			// compressed overlapping output.
-			LOG.warn("Matrix decompression from multiplying two compressed matrices.");
-			return matrixMultiply(m1, CompressedMatrixBlock.getUncompressed(m2), ret, k, transposeLeft, transposeRight);
+			// If both are not transposed, join the column groups of the left side with the rows of the right side,
+			// that only decompresses the rows of the right side that match the columns of each left column group.
+			return CLALibRightMultBy.rightMultByMatrix(m1, m2, ret, k);
 		}
 		else if(transposeLeft && !transposeRight) {
 			if(m1.getNumColumns() > m2.getNumColumns()) {
@@ -37,6 +37,7 @@ import org.apache.sysds.runtime.compress.colgroup.ColGroupConst;
 import org.apache.sysds.runtime.compress.colgroup.ColGroupDDC;
 import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
 import org.apache.sysds.runtime.compress.colgroup.indexes.IColIndex;
+import org.apache.sysds.runtime.data.DenseBlock;
 import org.apache.sysds.runtime.functionobjects.Plus;
 import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
@@ -71,9 +72,6 @@ public final class CLALibRightMultBy {
 			return ret;
 		}
 		else {
-			if(m2 instanceof CompressedMatrixBlock)
-				m2 = ((CompressedMatrixBlock) m2).getUncompressed("Uncompressed right side of right MM", k);
-
 			if(!allowOverlap) {
 				LOG.trace("Overlapping output not allowed in call to Right MM");
 				return RMM(m1, m2, k);
@@ -116,8 +114,7 @@ public final class CLALibRightMultBy {
 
 		if(constV != null) {
 			final MatrixBlock cb = new MatrixBlock(1, constV.length, constV);
-			final MatrixBlock cbRet = new MatrixBlock(1, that.getNumColumns(), false);
-			LibMatrixMult.matrixMult(cb, that, cbRet);
+			final MatrixBlock cbRet = constMult(cb, that, new MatrixBlock(1, that.getNumColumns(), false), k);
 			if(!cbRet.isEmpty())
 				addConstant(cbRet, retCg);
 		}
@@ -181,8 +178,7 @@ public final class CLALibRightMultBy {
 
 		if(constV != null) {
 			MatrixBlock constVMB = new MatrixBlock(1, constV.length, constV);
-			MatrixBlock mmTemp = new MatrixBlock(1, cr, false);
-			LibMatrixMult.matrixMult(constVMB, that, mmTemp);
+			MatrixBlock mmTemp = constMult(constVMB, that, new MatrixBlock(1, cr, false), k);
 			constV = mmTemp.isEmpty() ? null : mmTemp.getDenseBlockValues();
 		}
 
@@ -205,7 +201,7 @@ public final class CLALibRightMultBy {
 		boolean containsNull = false;
 		final IColIndex allCols = ColIndexFactory.create(that.getNumColumns());
 		for(AColGroup g : filteredGroups) {
-			AColGroup retG = g.rightMultByMatrix(that, allCols, 1);
+			AColGroup retG = rightMultByMatrix(g, that, allCols, 1);
 			if(retG != null)
 				retCg.add(retG);
 			else
@@ -239,6 +235,52 @@ public final class CLALibRightMultBy {
 		return containsNull;
 	}
 
+	private static AColGroup rightMultByMatrix(AColGroup g, MatrixBlock that, IColIndex allCols, int k) {
+		if(!(that instanceof CompressedMatrixBlock))
+			return g.rightMultByMatrix(that, allCols, k);
+		// compressed right side: only decompress the rows joined with the column indexes of this group,
+		// and multiply them into the dictionary of a shallow copy with the column indexes 0..n-1.
+		final IColIndex cols = g.getColIndices();
+		final MatrixBlock slice = sliceRows((CompressedMatrixBlock) that, cols);
+		if(slice.isEmpty())
+			return null;
+		return g.copyAndSet(ColIndexFactory.create(cols.size())).rightMultByMatrix(slice, allCols, k);
+	}
+
+	/**
+	 * Decompress the given rows of a compressed matrix into a small matrix block, where contiguous runs of rows are
+	 * decompressed together to amortize the lookups into the column group index structures.
+	 * 
+	 * @param that The compressed matrix
+	 * @param rows The sorted row indexes to extract
+	 * @return A [rows.size() x that.getNumColumns()] matrix block
+	 */
+	public static MatrixBlock sliceRows(CompressedMatrixBlock that, IColIndex rows) {
+		final int n = rows.size();
+		final MatrixBlock ret = new MatrixBlock(n, that.getNumColumns(), false);
+		ret.allocateDenseBlock();
+		final DenseBlock db = ret.getDenseBlock();
+		for(AColGroup h : that.getColGroups()) {
+			for(int i = 0; i < n;) {
+				final int s = rows.get(i);
+				int e = i + 1;
+				while(e < n && rows.get(e) == s + e - i)
+					e++;
+				h.decompressToDenseBlock(db, s, s + e - i, i - s, 0);
+				i = e;
+			}
+		}
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	private static MatrixBlock constMult(MatrixBlock constRow, MatrixBlock that, MatrixBlock ret, int k) {
+		if(that instanceof CompressedMatrixBlock)
+			return CLALibLeftMultBy.leftMultByMatrix((CompressedMatrixBlock) that, constRow, ret, k);
+		return LibMatrixMult.matrixMult(constRow, that, ret);
+	}
+
 	private static class RightMatrixMultTask implements Callable<AColGroup> {
 		private final AColGroup _colGroup;
 		private final MatrixBlock _b;
@@ -255,7 +297,7 @@ public final class CLALibRightMultBy {
 		@Override
 		public AColGroup call() {
 			try {
-				return _colGroup.rightMultByMatrix(_b, _allCols, _k);
+				return rightMultByMatrix(_colGroup, _b, _allCols, _k);
 			}
 			catch(Exception e) {
 				throw new DMLRuntimeException(e);
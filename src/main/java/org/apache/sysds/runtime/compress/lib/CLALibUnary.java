@@ -46,6 +46,8 @@ public final class CLALibUnary {
 		// early aborts:
 		if(m.isEmpty())
 			return new MatrixBlock(r, c, 0).unaryOperations(op, result);
+		else if(CLALibCumAgg.isSupported(op)) // cumsum/cumprod/cummin/cummax, also valid if overlapping
+			return CLALibCumAgg.cumAgg(m, op);
 		else if(overlapping) {
 			// when in overlapping state it is guaranteed that there is no infinites, NA, or NANs.
 			if(Builtin.isBuiltinCode(op.fn, BuiltinCode.ISINF, BuiltinCode.ISNA, BuiltinCode.ISNAN))
@@ -64,7 +66,7 @@ public final class CLALibUnary {
 			return new MatrixBlock(r, c, 0); // avoid unnecessary allocation
 		else if(LibMatrixAgg.isSupportedUnaryOperator(op)) {
 			String message = "Unary Op not supported: " + op.fn.getClass().getSimpleName();
-			// e.g., cumsum/cumprod/cummin/cumax/cumsumprod
+			// e.g., cumsumprod
 			return m.getUncompressed(message, op.getNumThreads()).unaryOperations(op, null);
 		}
 		else {
@@ -36,6 +36,7 @@ import org.apache.sysds.parser.StatementBlock;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.DMLScriptException;
 import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CachePrefetcher;
 import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
@@ -189,7 +190,11 @@ public abstract class ProgramBlock implements ParseInfo {
 	}
 
 	protected void executeInstructions(ArrayList<Instruction> inst, ExecutionContext ec) {
+		int lookahead = CachePrefetcher.getLookahead();
 		for(int i = 0; i < inst.size(); i++) {
+			// async restore of evicted inputs of upcoming instructions
+			if(lookahead > 0)
+				CachePrefetcher.prefetch(inst, i, lookahead, ec);
 			// indexed access required due to dynamic add
 			Instruction currInst = inst.get(i);
 			// execute instruction
@@ -31,6 +31,7 @@ import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.common.Types.ValueType;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.DMLScriptException;
+import org.apache.sysds.runtime.controlprogram.caching.CachePrefetcher;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.instructions.Instruction;
@@ -123,6 +124,9 @@ public class WhileProgramBlock extends ProgramBlock
 					// create a new dedup map, if needed, to trace this iteration
 					ec.getLineage().createDedupPatch(this, ec);
 				
+				//async restore of evicted inputs of the loop body
+				CachePrefetcher.prefetch(_childBlocks, ec);
+				
 				//execute all child blocks
 				for (int i=0 ; i < _childBlocks.size() ; i++) {
 					_childBlocks.get(i).execute(ec);
@@ -42,12 +42,18 @@ public class ByteBuffer
 	private volatile boolean _shallow;
 	private volatile boolean _matrix;
 	private final long _size;
+	private final double _cost;
 	
 	protected byte[]     _bdata = null; //sparse matrix
 	protected CacheBlock<?> _cdata = null; //dense matrix/frame
 	
 	public ByteBuffer( long size ) {
+		this(size, size);
+	}
+	
+	public ByteBuffer( long size, double cost ) {
 		_size = size;
+		_cost = cost;
 		_serialized = false;
 	}
 
@@ -123,6 +129,16 @@ public class ByteBuffer
 		return _size;
 	}
 
+	/**
+	 * Returns the estimated cost of restoring the evicted buffer,
+	 * used by cost-aware eviction policies.
+	 * 
+	 * @return restore cost in byte-equivalents
+	 */
+	public double getRestoreCost() {
+		return _cost;
+	}
+
 	public boolean isShallow() {
 		return _shallow;
 	}
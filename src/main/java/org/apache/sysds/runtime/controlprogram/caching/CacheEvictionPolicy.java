@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.apache.sysds.runtime.frame.data.FrameBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Eviction policy of the buffer pool's eviction queue, which determines the
+ * order in which buffered entries are evicted to the local file system. All
+ * methods are called under the lock of the eviction queue.
+ * <p>
+ * Custom policies can be plugged in via {@link CacheEvictionQueue#setPolicy}.
+ */
+public abstract class CacheEvictionPolicy
+{
+	/**
+	 * Registers a new buffer pool entry.
+	 *
+	 * @param key file name of the entry
+	 * @param bbuff buffer of the entry
+	 */
+	public abstract void insert(String key, ByteBuffer bbuff);
+
+	/**
+	 * Registers a read of an existing buffer pool entry.
+	 *
+	 * @param key file name of the entry
+	 */
+	public abstract void access(String key);
+
+	/**
+	 * Registers a read of an entry that is not in the buffer pool
+	 * (e.g., previously evicted to the local file system).
+	 *
+	 * @param key file name of the entry
+	 */
+	public void miss(String key) {
+		//do nothing by default
+	}
+
+	/**
+	 * Unregisters a deleted entry (e.g., on rmvar), which is
+	 * not expected to be reused.
+	 *
+	 * @param key file name of the entry
+	 */
+	public abstract void remove(String key);
+
+	/**
+	 * Selects and unregisters the next entry to evict.
+	 *
+	 * @param pinned keys of entries that must not be evicted, or null
+	 * @return key of the evicted entry, or null if no entry can be evicted
+	 */
+	public abstract String evict(Collection<String> pinned);
+
+	/**
+	 * Unregisters all entries.
+	 */
+	public abstract void clear();
+
+	public static CacheEvictionPolicy create(RPolicy policy) {
+		switch( policy ) {
+			case FIFO:   return new QueuePolicy(false);
+			case LRU:    return new QueuePolicy(true);
+			case LRU_K:  return new CacheEvictionPolicyLRUK(2);
+			case ARC:    return new CacheEvictionPolicyARC();
+			case COST:   return new CacheEvictionPolicyCost();
+			default:
+				throw new DMLRuntimeException("Unsupported eviction policy: " + policy);
+		}
+	}
+
+	/**
+	 * Estimates the relative cost of restoring the given cache block from the
+	 * local file system, which is proportional to its serialized size and
+	 * weighted by the deserialization effort of its representation.
+	 *
+	 * @param cb cache block
+	 * @param size size of the buffer pool entry in bytes
+	 * @return restore cost in byte-equivalents
+	 */
+	public static double getRestoreCost(CacheBlock<?> cb, long size) {
+		double weight = 1; //dense: read only
+		if( cb instanceof CompressedMatrixBlock )
+			weight = 1.5; //deserialization of column groups
+		else if( cb instanceof MatrixBlock && ((MatrixBlock) cb).isInSparseFormat() )
+			weight = 2; //deserialization of sparse rows
+		else if( cb instanceof FrameBlock )
+			weight = 3; //deserialization of string columns
+		return weight * size;
+	}
+
+	/**
+	 * FIFO and LRU eviction via an insertion- or access-ordered linked map.
+	 */
+	private static class QueuePolicy extends CacheEvictionPolicy {
+		private final LinkedHashMap<String, Boolean> _queue;
+
+		private QueuePolicy(boolean lru) {
+			_queue = new LinkedHashMap<>(16, 0.75f, lru);
+		}
+
+		@Override
+		public void insert(String key, ByteBuffer bbuff) {
+			_queue.put(key, Boolean.TRUE);
+		}
+
+		@Override
+		public void access(String key) {
+			_queue.get(key); //reorder if access-ordered
+		}
+
+		@Override
+		public void remove(String key) {
+			_queue.remove(key);
+		}
+
+		@Override
+		public String evict(Collection<String> pinned) {
+			Iterator<String> iter = _queue.keySet().iterator();
+			while( iter.hasNext() ) {
+				String key = iter.next();
+				if( pinned == null || !pinned.contains(key) ) {
+					iter.remove();
+					return key;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public void clear() {
+			_queue.clear();
+		}
+	}
+}
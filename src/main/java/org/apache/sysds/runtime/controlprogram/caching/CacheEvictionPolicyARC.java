@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adaptive replacement cache (ARC) eviction, adapted to variable-sized
+ * entries. Entries are maintained in two LRU lists of entries accessed once
+ * (T1) and multiple times (T2), and evicted keys are remembered in two ghost
+ * lists (B1, B2). Reads of ghost entries adapt the target size of T1 towards
+ * recency (B1) or frequency (B2), and re-inserted ghost entries enter T2.
+ * All sizes are in bytes, where the capacity is the observed maximum size of
+ * the buffer pool.
+ */
+public class CacheEvictionPolicyARC extends CacheEvictionPolicy
+{
+	private final LinkedHashMap<String, Long> _t1 = new LinkedHashMap<>();
+	private final LinkedHashMap<String, Long> _t2 = new LinkedHashMap<>();
+	private final LinkedHashMap<String, Long> _b1 = new LinkedHashMap<>();
+	private final LinkedHashMap<String, Long> _b2 = new LinkedHashMap<>();
+	//restored ghost entries, which enter T2 on re-insert
+	private final Set<String> _promoted = new HashSet<>();
+	private long _t1Size, _t2Size, _b1Size, _b2Size;
+	private long _capacity = 0;
+	private double _p = 0; //target size of T1
+
+	@Override
+	public void insert(String key, ByteBuffer bbuff) {
+		if( _t1.containsKey(key) || _t2.containsKey(key) ) {
+			access(key);
+			return;
+		}
+		long size = bbuff.getSize();
+		if( _promoted.remove(key) || adapt(key) ) {
+			_t2.put(key, size);
+			_t2Size += size;
+		}
+		else {
+			_t1.put(key, size);
+			_t1Size += size;
+		}
+		_capacity = Math.max(_capacity, _t1Size + _t2Size);
+		trimGhosts();
+	}
+
+	@Override
+	public void access(String key) {
+		//move to most recently used position of T2
+		Long size = _t1.remove(key);
+		if( size != null )
+			_t1Size -= size;
+		else if( (size = _t2.remove(key)) != null )
+			_t2Size -= size;
+		else
+			return;
+		_t2.put(key, size);
+		_t2Size += size;
+	}
+
+	@Override
+	public void miss(String key) {
+		if( adapt(key) )
+			_promoted.add(key);
+	}
+
+	@Override
+	public void remove(String key) {
+		Long size;
+		if( (size = _t1.remove(key)) != null )
+			_t1Size -= size;
+		else if( (size = _t2.remove(key)) != null )
+			_t2Size -= size;
+		else if( (size = _b1.remove(key)) != null )
+			_b1Size -= size;
+		else if( (size = _b2.remove(key)) != null )
+			_b2Size -= size;
+		_promoted.remove(key);
+	}
+
+	@Override
+	public String evict(Collection<String> pinned) {
+		boolean fromT1 = _t1Size > 0 && (_t1Size > _p || _t2Size == 0);
+		String key = fromT1 ? evict(_t1, _b1, true, pinned) : evict(_t2, _b2, false, pinned);
+		if( key == null ) //all entries of the selected list pinned
+			key = fromT1 ? evict(_t2, _b2, false, pinned) : evict(_t1, _b1, true, pinned);
+		return key;
+	}
+
+	@Override
+	public void clear() {
+		_t1.clear();
+		_t2.clear();
+		_b1.clear();
+		_b2.clear();
+		_promoted.clear();
+		_t1Size = _t2Size = _b1Size = _b2Size = 0;
+		_p = 0;
+	}
+
+	public double getTargetSize() {
+		return _p;
+	}
+
+	private boolean adapt(String key) {
+		Long size;
+		if( (size = _b1.remove(key)) != null ) {
+			//hit in recency ghost list -> grow T1
+			_b1Size -= size;
+			double delta = Math.max((double) _b2Size / Math.max(_b1Size, 1), 1) * size;
+			_p = Math.min(_p + delta, _capacity);
+			return true;
+		}
+		else if( (size = _b2.remove(key)) != null ) {
+			//hit in frequency ghost list -> shrink T1
+			_b2Size -= size;
+			double delta = Math.max((double) _b1Size / Math.max(_b2Size, 1), 1) * size;
+			_p = Math.max(_p - delta, 0);
+			return true;
+		}
+		return false;
+	}
+
+	private String evict(LinkedHashMap<String, Long> list, LinkedHashMap<String, Long> ghost, boolean t1, Collection<String> pinned) {
+		Iterator<Map.Entry<String, Long>> iter = list.entrySet().iterator();
+		while( iter.hasNext() ) {
+			Map.Entry<String, Long> e = iter.next();
+			if( pinned != null && pinned.contains(e.getKey()) )
+				continue;
+			iter.remove();
+			long size = e.getValue();
+			ghost.put(e.getKey(), size);
+			if( t1 ) {
+				_t1Size -= size;
+				_b1Size += size;
+			}
+			else {
+				_t2Size -= size;
+				_b2Size += size;
+			}
+			trimGhosts();
+			return e.getKey();
+		}
+		return null;
+	}
+
+	private void trimGhosts() {
+		//bound the recency side (T1+B1) by c and the total by 2c
+		while( !_b1.isEmpty() && _t1Size + _b1Size > _capacity )
+			_b1Size -= removeFirst(_b1);
+		while( !_b2.isEmpty() && _t1Size + _t2Size + _b1Size + _b2Size > 2 * _capacity )
+			_b2Size -= removeFirst(_b2);
+	}
+
+	private static long removeFirst(LinkedHashMap<String, Long> list) {
+		Iterator<Long> iter = list.values().iterator();
+		long size = iter.next();
+		iter.remove();
+		return size;
+	}
+}
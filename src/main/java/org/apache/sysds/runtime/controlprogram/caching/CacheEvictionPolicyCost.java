@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Cost-aware eviction via greedy-dual-size-frequency (GDSF), which evicts the
+ * entry with the smallest priority L + freq * cost / size, where cost is the
+ * estimated restore cost (see {@link CacheEvictionPolicy#getRestoreCost}) plus
+ * a constant seek cost, and L is the priority of the last evicted entry (which
+ * ages entries that are not reused). Hence, small entries that are expensive
+ * to restore and frequently reused entries (e.g., loop invariants, whose access
+ * counts are retained across evictions) are kept in the buffer pool, while
+ * large, cheap, once-used intermediates are evicted first.
+ */
+public class CacheEvictionPolicyCost extends CacheEvictionPolicy
+{
+	private static final int MAX_RETAINED = 1024;
+	private static final double SEEK_COST = 64 * 1024; //in byte-equivalents
+
+	private final Map<String, Entry> _entries = new HashMap<>();
+	private final TreeSet<Entry> _queue = new TreeSet<>();
+	//access counts of evicted entries (insertion-ordered for bounded size)
+	private final Map<String, Integer> _retained = new LinkedHashMap<>();
+	private double _age = 0;
+	private long _seq = 0;
+
+	@Override
+	public void insert(String key, ByteBuffer bbuff) {
+		if( _entries.containsKey(key) ) {
+			access(key);
+			return;
+		}
+		//restored entries keep their access count (incl. the read miss)
+		Integer freq = _retained.remove(key);
+		Entry e = new Entry(key, Math.max(bbuff.getSize(), 1),
+			bbuff.getRestoreCost() + SEEK_COST, (freq != null) ? freq : 1);
+		e.update(_age, ++_seq);
+		_entries.put(key, e);
+		_queue.add(e);
+	}
+
+	@Override
+	public void access(String key) {
+		Entry e = _entries.get(key);
+		if( e == null )
+			return;
+		_queue.remove(e);
+		e.touch(_age, ++_seq);
+		_queue.add(e);
+	}
+
+	@Override
+	public void miss(String key) {
+		//record the access of an evicted entry
+		_retained.computeIfPresent(key, (k, v) -> v + 1);
+	}
+
+	@Override
+	public void remove(String key) {
+		Entry e = _entries.remove(key);
+		if( e != null )
+			_queue.remove(e);
+		_retained.remove(key);
+	}
+
+	@Override
+	public String evict(Collection<String> pinned) {
+		Iterator<Entry> iter = _queue.iterator();
+		while( iter.hasNext() ) {
+			Entry e = iter.next();
+			if( pinned == null || !pinned.contains(e._key) ) {
+				iter.remove();
+				_entries.remove(e._key);
+				_age = Math.max(_age, e._priority);
+				retain(e);
+				return e._key;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		_entries.clear();
+		_queue.clear();
+		_retained.clear();
+		_age = 0;
+	}
+
+	private void retain(Entry e) {
+		_retained.put(e._key, e._freq);
+		if( _retained.size() > MAX_RETAINED ) {
+			Iterator<String> iter = _retained.keySet().iterator();
+			iter.next();
+			iter.remove();
+		}
+	}
+
+	private static class Entry implements Comparable<Entry> {
+		private final String _key;
+		private final long _size;
+		private final double _cost;
+		private int _freq;
+		private double _priority;
+		private long _seq;
+
+		private Entry(String key, long size, double cost, int freq) {
+			_key = key;
+			_size = size;
+			_cost = cost;
+			_freq = freq;
+		}
+
+		private void touch(double age, long seq) {
+			_freq++;
+			update(age, seq);
+		}
+
+		private void update(double age, long seq) {
+			_priority = age + _freq * _cost / _size;
+			_seq = seq;
+		}
+
+		@Override
+		public int compareTo(Entry o) {
+			//smallest priority first, then least recently used
+			int ret = Double.compare(_priority, o._priority);
+			return (ret != 0) ? ret : Long.compare(_seq, o._seq);
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * LRU-K eviction, which evicts the entry with the oldest K-th most recent
+ * access (i.e., the largest backward K-distance). Entries with less than K
+ * accesses have infinite backward K-distance and are evicted first in LRU
+ * order. In contrast to LRU, entries that are repeatedly reused (e.g., loop
+ * invariants) are not evicted by a scan over many once-used entries.
+ * Access histories of evicted entries are retained for a limited number of
+ * entries, such that restored and re-inserted entries keep their history.
+ */
+public class CacheEvictionPolicyLRUK extends CacheEvictionPolicy
+{
+	private static final int MAX_RETAINED = 1024;
+
+	private final int _k;
+	private final Map<String, Entry> _entries = new HashMap<>();
+	private final TreeSet<Entry> _queue = new TreeSet<>();
+	//access histories of evicted entries (insertion-ordered for bounded size)
+	private final Map<String, long[]> _retained = new LinkedHashMap<>();
+	private long _clock = 0;
+
+	public CacheEvictionPolicyLRUK(int k) {
+		_k = Math.max(k, 1);
+	}
+
+	@Override
+	public void insert(String key, ByteBuffer bbuff) {
+		Entry e = _entries.get(key);
+		if( e != null ) {
+			access(key);
+			return;
+		}
+		//restored entries keep their history (incl. the read miss)
+		long[] hist = _retained.remove(key);
+		e = new Entry(key, (hist != null) ? hist : new long[_k]);
+		if( hist == null )
+			e.touch(++_clock);
+		_entries.put(key, e);
+		_queue.add(e);
+	}
+
+	@Override
+	public void access(String key) {
+		Entry e = _entries.get(key);
+		if( e == null )
+			return;
+		_queue.remove(e);
+		e.touch(++_clock);
+		_queue.add(e);
+	}
+
+	@Override
+	public void miss(String key) {
+		//record the access of an evicted entry
+		long[] hist = _retained.get(key);
+		if( hist != null )
+			Entry.touch(hist, ++_clock);
+	}
+
+	@Override
+	public void remove(String key) {
+		Entry e = _entries.remove(key);
+		if( e != null )
+			_queue.remove(e);
+		_retained.remove(key);
+	}
+
+	@Override
+	public String evict(Collection<String> pinned) {
+		Iterator<Entry> iter = _queue.iterator();
+		while( iter.hasNext() ) {
+			Entry e = iter.next();
+			if( pinned == null || !pinned.contains(e._key) ) {
+				iter.remove();
+				_entries.remove(e._key);
+				retain(e);
+				return e._key;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		_entries.clear();
+		_queue.clear();
+		_retained.clear();
+	}
+
+	private void retain(Entry e) {
+		_retained.put(e._key, e._hist);
+		if( _retained.size() > MAX_RETAINED ) {
+			Iterator<String> iter = _retained.keySet().iterator();
+			iter.next();
+			iter.remove();
+		}
+	}
+
+	private static class Entry implements Comparable<Entry> {
+		private final String _key;
+		private final long[] _hist; //access times, most recent first
+
+		private Entry(String key, long[] hist) {
+			_key = key;
+			_hist = hist;
+		}
+
+		private void touch(long time) {
+			touch(_hist, time);
+		}
+
+		private static void touch(long[] hist, long time) {
+			System.arraycopy(hist, 0, hist, 1, hist.length - 1);
+			hist[0] = time;
+		}
+
+		@Override
+		public int compareTo(Entry o) {
+			//oldest K-th access first (0 if less than K accesses),
+			//then least recently used (access times are unique)
+			int ret = Long.compare(_hist[_hist.length - 1], o._hist[o._hist.length - 1]);
+			return (ret != 0) ? ret : Long.compare(_hist[0], o._hist[0]);
+		}
+	}
+}
@@ -19,46 +19,100 @@
 
 package org.apache.sysds.runtime.controlprogram.caching;
 
-import java.util.Iterator;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.sysds.api.DMLScript;
+
 public class CacheEvictionQueue extends LinkedHashMap<String, ByteBuffer>
 {
 	/**
 	 * Extended LinkedHashMap with convenience methods for adding and removing
-	 * last/first entries.
+	 * entries, where the order of eviction is determined by a pluggable
+	 * eviction policy (by default according to CACHING_BUFFER_POLICY).
 	 *
 	 */
 	private static final long serialVersionUID = -5208333402581364859L;
 
+	private transient CacheEvictionPolicy _policy;
+
+	public CacheEvictionQueue() {
+		this(CacheEvictionPolicy.create(CacheableData.CACHING_BUFFER_POLICY));
+	}
+
+	public CacheEvictionQueue(CacheEvictionPolicy policy) {
+		_policy = policy;
+	}
+
+	public CacheEvictionPolicy getPolicy() {
+		return _policy;
+	}
+
+	/**
+	 * Replaces the eviction policy, and registers all existing
+	 * entries in insertion order with the new policy.
+	 *
+	 * @param policy eviction policy
+	 */
+	public void setPolicy(CacheEvictionPolicy policy) {
+		_policy = policy;
+		for( Map.Entry<String, ByteBuffer> e : entrySet() )
+			_policy.insert(e.getKey(), e.getValue());
+	}
+
 	public void addLast( String fname, ByteBuffer bbuff ) {
-		//put entry into eviction queue w/ 'addLast' semantics
+		//put entry into eviction queue and register with policy
 		put(fname, bbuff);
+		_policy.insert(fname, bbuff);
 	}
 
-	public Map.Entry<String, ByteBuffer> removeFirst()
-	{
-		//move iterator to first entry
-		Iterator<Map.Entry<String, ByteBuffer>> iter = entrySet().iterator();
-		Map.Entry<String, ByteBuffer> entry = iter.next();
+	/**
+	 * Registers a read of a buffered entry.
+	 *
+	 * @param fname file name
+	 */
+	public void access( String fname ) {
+		_policy.access(fname);
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPolicyHits();
+	}
 
-		//remove current iterator entry
-		iter.remove();
+	/**
+	 * Registers a read of an entry that is not buffered.
+	 *
+	 * @param fname file name
+	 */
+	public void miss( String fname ) {
+		_policy.miss(fname);
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPolicyMisses();
+	}
 
-		return entry;
+	public Map.Entry<String, ByteBuffer> removeFirst() {
+		return removeFirstUnpinned(null);
 	}
 
 	public Map.Entry<String, ByteBuffer> removeFirstUnpinned(List<String> pinnedList) {
-		//move iterator to first entry
-		Iterator<Map.Entry<String, ByteBuffer>> iter = entrySet().iterator();
-		var entry = iter.next();
-		while (pinnedList.contains(entry.getKey()))
-			entry = iter.next();
-
-		//remove current iterator entry
-		iter.remove();
-		return entry;
+		String fname = _policy.evict(pinnedList);
+		if( fname == null )
+			return null;
+		ByteBuffer bbuff = super.remove(fname);
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPolicyEvictions();
+		return new SimpleEntry<>(fname, bbuff);
+	}
+
+	@Override
+	public ByteBuffer remove( Object fname ) {
+		_policy.remove((String) fname);
+		return super.remove(fname);
+	}
+
+	@Override
+	public void clear() {
+		_policy.clear();
+		super.clear();
 	}
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockOffHeap;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Raw eviction format for dense matrix blocks, which allows restoring evicted
+ * blocks without copy or deserialization. The file consists of a fixed-size header
+ * (big endian, starting with a magic number that cannot be a valid number of rows
+ * of the default serialization format) followed by rlen*clen doubles in row-major
+ * order and native byte order, aligned to {@link #ALIGNMENT} bytes. Restored blocks
+ * are copy-on-write memory-mapped views (see {@link DenseBlockOffHeap#map}), which
+ * are consumed as-is by the off-heap kernels and converted at the instruction
+ * boundary otherwise. Sparse blocks use the default serialization because the
+ * array-based sparse blocks cannot wrap mapped buffers.
+ */
+public class CacheMappedIO
+{
+	public static final int MAGIC = 0xCAFE5D5D; //negative int
+	public static final int ALIGNMENT = 64;
+	private static final int HEADER_SIZE = ALIGNMENT;
+	private static final int TYPE_DENSE = 1;
+	private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+	private CacheMappedIO() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if the given cache block can be written in the raw format.
+	 *
+	 * @param cb cache block
+	 * @return true if non-empty dense FP64 matrix block
+	 */
+	public static boolean isApplicable(CacheBlock<?> cb) {
+		if( !(cb instanceof MatrixBlock) || cb instanceof CompressedMatrixBlock )
+			return false;
+		MatrixBlock mb = (MatrixBlock) cb;
+		if( mb.isEmptyBlock(false) || mb.getNumRows() == 0 || mb.getNumColumns() == 0 )
+			return false;
+		return !mb.isInSparseFormat() && (mb.getDenseBlock() instanceof DenseBlockOffHeap
+			|| mb.getDenseBlock().isNumeric(ValueType.FP64));
+	}
+
+	/**
+	 * Indicates if the given file was written in the raw format.
+	 *
+	 * @param fname file name
+	 * @return true if the file starts with the magic number
+	 * @throws IOException if IOException occurs
+	 */
+	public static boolean isMapped(String fname) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ) ) {
+			return isMapped(channel);
+		}
+	}
+
+	/**
+	 * Indicates if the file of the given open channel was written in the raw
+	 * format, without changing the channel position.
+	 *
+	 * @param channel file channel
+	 * @return true if the file starts with the magic number
+	 * @throws IOException if IOException occurs
+	 */
+	public static boolean isMapped(FileChannel channel) throws IOException {
+		if( channel.size() < HEADER_SIZE )
+			return false;
+		ByteBuffer header = ByteBuffer.allocate(4);
+		channel.read(header, 0);
+		return !header.hasRemaining() && header.getInt(0) == MAGIC;
+	}
+
+	/**
+	 * Writes the given dense matrix block in the raw format. An existing
+	 * file is deleted first (instead of truncated) because its contents might
+	 * still be mapped by a previously restored block.
+	 *
+	 * @param fname file name
+	 * @param mb dense matrix block
+	 * @throws IOException if IOException occurs
+	 */
+	public static void writeMatrixBlock(String fname, MatrixBlock mb) throws IOException {
+		Path path = Paths.get(fname);
+		Files.deleteIfExists(path);
+		final int m = mb.getNumRows(), n = mb.getNumColumns();
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer buff = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+			//write header
+			buff.order(ByteOrder.BIG_ENDIAN);
+			buff.putInt(MAGIC).putInt(TYPE_DENSE)
+				.putInt(m).putInt(n).putLong(mb.getNonZeros());
+			while( buff.position() < HEADER_SIZE )
+				buff.put((byte) 0);
+			buff.order(ByteOrder.nativeOrder());
+			//write raw values
+			if( mb.getDenseBlock() instanceof DenseBlockOffHeap ) {
+				DenseBlockOffHeap dblock = (DenseBlockOffHeap) mb.getDenseBlock();
+				double[] row = new double[n];
+				for( int i = 0; i < m; i++ ) {
+					dblock.getRow(i, row, 0);
+					writeDoubles(channel, buff, row, 0, n);
+				}
+			}
+			else {
+				DenseBlock dblock = mb.getDenseBlock();
+				if( dblock.isContiguous() )
+					writeDoubles(channel, buff, dblock.valuesAt(0), 0, m * n);
+				else
+					for( int i = 0; i < m; i++ )
+						writeDoubles(channel, buff, dblock.values(i), dblock.pos(i), n);
+			}
+			flush(channel, buff);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+
+	/**
+	 * Reads a matrix block written in the raw format as a memory-mapped view.
+	 *
+	 * @param fname file name
+	 * @return matrix block
+	 * @throws IOException if IOException occurs
+	 */
+	public static MatrixBlock readMatrixBlock(String fname) throws IOException {
+		try( FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ) ) {
+			return readMatrixBlock(channel);
+		}
+	}
+
+	/**
+	 * Reads a matrix block written in the raw format from the given open channel
+	 * as a memory-mapped view, which remains valid after the channel is closed.
+	 *
+	 * @param channel file channel
+	 * @return matrix block
+	 * @throws IOException if IOException occurs
+	 */
+	public static MatrixBlock readMatrixBlock(FileChannel channel) throws IOException {
+		ByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if( header.getInt(0) != MAGIC )
+			throw new IOException("Invalid raw cache file.");
+		final int type = header.getInt(4);
+		final int m = header.getInt(8), n = header.getInt(12);
+		final long nnz = header.getLong(16);
+		if( type != TYPE_DENSE )
+			throw new IOException("Unsupported raw cache file type: " + type);
+		MatrixBlock ret = new MatrixBlock(m, n, DenseBlockOffHeap.map(channel, HEADER_SIZE, m, n));
+		ret.setNonZeros(nnz);
+		return ret;
+	}
+
+	private static void writeDoubles(FileChannel channel, ByteBuffer buff, double[] a, int ai, int len) throws IOException {
+		for( int i = ai; i < ai + len; ) {
+			if( buff.remaining() < 8 )
+				flush(channel, buff);
+			DoubleBuffer dbuff = buff.asDoubleBuffer();
+			int blen = Math.min(dbuff.remaining(), ai + len - i);
+			dbuff.put(a, i, blen);
+			buff.position(buff.position() + blen * 8);
+			i += blen;
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buff) throws IOException {
+		buff.flip();
+		while( buff.hasRemaining() )
+			channel.write(buff);
+		buff.clear();
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.controlprogram.caching;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
+import org.apache.sysds.runtime.controlprogram.ProgramBlock;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.cp.BuiltinNaryCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.CPOperand;
+import org.apache.sysds.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.instructions.cp.FunctionCallCPInstruction;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Lookahead prefetching of evicted instruction inputs. While executing an
+ * instruction stream, the prefetcher scans a window of upcoming instructions
+ * (and the first block of loop bodies before each iteration), and restores
+ * evicted inputs from the buffer pool or local file system in the background
+ * (see {@link CacheableData#prefetchFromCache()}). This overlaps restore I/O
+ * and deserialization with computation, which reduces stall times of
+ * out-of-core iterative algorithms.
+ */
+public class CachePrefetcher
+{
+	private static final Log LOG = LogFactory.getLog(CachePrefetcher.class.getName());
+
+	//pending prefetches to avoid redundant tasks
+	private static final Set<CacheableData<?>> _pending = Collections.newSetFromMap(new ConcurrentHashMap<>());
+	//cached lookahead window size, parsed on first use (-1: not parsed)
+	private static volatile int _lookahead = -1;
+
+	private CachePrefetcher() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Gets the number of upcoming instructions scanned for prefetching.
+	 *
+	 * @return lookahead window size, 0 if disabled
+	 */
+	public static int getLookahead() {
+		if( !CacheableData.isCachingActive() )
+			return 0;
+		int lookahead = _lookahead;
+		if( lookahead < 0 ) {
+			DMLConfig conf = ConfigurationManager.getDMLConfig();
+			lookahead = (conf == null) ? 0 : Math.max(conf.getIntValue(DMLConfig.CACHING_PREFETCH), 0);
+			_lookahead = lookahead;
+		}
+		return lookahead;
+	}
+
+	/**
+	 * Resets the cached lookahead window size, which is read again from the
+	 * configuration on the next call of {@link #getLookahead()}.
+	 */
+	public static void resetLookahead() {
+		_lookahead = -1;
+	}
+
+	/**
+	 * Issues prefetches for the inputs of the instructions that enter the
+	 * lookahead window before executing instruction pos, i.e., the entire
+	 * window for the first instruction and instruction pos+lookahead otherwise.
+	 *
+	 * @param inst instruction stream
+	 * @param pos position of the next instruction to execute
+	 * @param lookahead lookahead window size
+	 * @param ec execution context
+	 */
+	public static void prefetch(List<Instruction> inst, int pos, int lookahead, ExecutionContext ec) {
+		int start = (pos == 0) ? 1 : pos + lookahead;
+		int end = Math.min(pos + lookahead + 1, inst.size());
+		for( int i = start; i < end; i++ )
+			prefetch(inst.get(i), ec);
+	}
+
+	/**
+	 * Issues prefetches for the inputs of the first instructions of the given
+	 * loop body, which is called before each loop iteration.
+	 *
+	 * @param body child blocks of a loop
+	 * @param ec execution context
+	 */
+	public static void prefetch(List<ProgramBlock> body, ExecutionContext ec) {
+		int lookahead = getLookahead();
+		if( lookahead <= 0 || body.isEmpty() || !(body.get(0) instanceof BasicProgramBlock) )
+			return;
+		List<Instruction> inst = ((BasicProgramBlock) body.get(0)).getInstructions();
+		for( int i = 0; i < Math.min(lookahead, inst.size()); i++ )
+			prefetch(inst.get(i), ec);
+	}
+
+	private static void prefetch(Instruction inst, ExecutionContext ec) {
+		CPOperand[] inputs = getInputs(inst);
+		if( inputs == null )
+			return;
+		for( CPOperand in : inputs ) {
+			if( in == null || in.isLiteral() || !in.isMatrix() && !in.isFrame() )
+				continue;
+			Data dat = ec.getVariables().get(in.getName());
+			if( !(dat instanceof CacheableData) )
+				continue;
+			CacheableData<?> cd = (CacheableData<?>) dat;
+			//cheap unsynchronized probe, checked again in the prefetch
+			if( !cd.isCached(false) || !_pending.add(cd) )
+				continue;
+			try {
+				CommonThreadPool.getDynamicPool().submit(() -> {
+					try {
+						cd.prefetchFromCache();
+					}
+					finally {
+						_pending.remove(cd);
+					}
+				});
+			}
+			catch(Exception ex) {
+				_pending.remove(cd);
+				LOG.debug("Failed to issue prefetch: " + ex.getMessage());
+			}
+		}
+	}
+
+	private static CPOperand[] getInputs(Instruction inst) {
+		//note: variable instructions (e.g., rmvar, cpvar) are excluded
+		//because they don't access the data
+		if( inst instanceof ComputationCPInstruction )
+			return ((ComputationCPInstruction) inst).getInputs();
+		else if( inst instanceof BuiltinNaryCPInstruction )
+			return ((BuiltinNaryCPInstruction) inst).getInputs();
+		else if( inst instanceof FunctionCallCPInstruction )
+			return ((FunctionCallCPInstruction) inst).getInputs();
+		return null;
+	}
+}
@@ -41,6 +41,15 @@ public class CacheStatistics
 	private static final LongAdder _numHitsHDFS     = new LongAdder();
 	private static final LongAdder _numHitsLin      = new LongAdder();
 
+	//prefetch statistics (async restore of evicted blocks)
+	private static final LongAdder _numPrefetches   = new LongAdder();
+	private static final LongAdder _numHitsPrefetch = new LongAdder();
+
+	//eviction policy statistics (buffer pool reads and evictions)
+	private static final LongAdder _numPolicyHits   = new LongAdder();
+	private static final LongAdder _numPolicyMisses = new LongAdder();
+	private static final LongAdder _numPolicyEvicts = new LongAdder();
+
 	//write statistics caching
 	private static final LongAdder _numWritesBPool = new LongAdder();
 	private static final LongAdder _numWritesFS     = new LongAdder();
@@ -59,6 +68,11 @@ public class CacheStatistics
 		_numHitsFSBuff.reset();
 		_numHitsFS.reset();
 		_numHitsHDFS.reset();
+		_numPrefetches.reset();
+		_numHitsPrefetch.reset();
+		_numPolicyHits.reset();
+		_numPolicyMisses.reset();
+		_numPolicyEvicts.reset();
 		
 		_numWritesBPool.reset();
 		_numWritesFS.reset();
@@ -131,6 +145,46 @@ public class CacheStatistics
 		return _numHitsLin.longValue();
 	}
 
+	public static void incrementPrefetches() {
+		_numPrefetches.increment();
+	}
+
+	public static long getPrefetches() {
+		return _numPrefetches.longValue();
+	}
+
+	public static void incrementPrefetchHits() {
+		_numHitsPrefetch.increment();
+	}
+
+	public static long getPrefetchHits() {
+		return _numHitsPrefetch.longValue();
+	}
+
+	public static void incrementPolicyHits() {
+		_numPolicyHits.increment();
+	}
+
+	public static long getPolicyHits() {
+		return _numPolicyHits.longValue();
+	}
+
+	public static void incrementPolicyMisses() {
+		_numPolicyMisses.increment();
+	}
+
+	public static long getPolicyMisses() {
+		return _numPolicyMisses.longValue();
+	}
+
+	public static void incrementPolicyEvictions() {
+		_numPolicyEvicts.increment();
+	}
+
+	public static long getPolicyEvictions() {
+		return _numPolicyEvicts.longValue();
+	}
+
 	public static void incrementBPoolWrites() {
 		_numWritesBPool.increment();
 	}
@@ -226,6 +280,34 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static String displayPrefetches() {
+		long num = _numPrefetches.longValue();
+		long hits = _numHitsPrefetch.longValue();
+		StringBuilder sb = new StringBuilder();
+		sb.append(num);
+		sb.append("/");
+		sb.append(hits);
+		sb.append("/");
+		sb.append(String.format("%.3f", (num > 0) ? (double)hits/num : 0));
+		
+		return sb.toString();
+	}
+	
+	public static String displayPolicy() {
+		long hits = _numPolicyHits.longValue();
+		long misses = _numPolicyMisses.longValue();
+		StringBuilder sb = new StringBuilder();
+		sb.append(hits);
+		sb.append("/");
+		sb.append(misses);
+		sb.append("/");
+		sb.append(_numPolicyEvicts.longValue());
+		sb.append("/");
+		sb.append(String.format("%.3f", (hits + misses > 0) ? (double)hits/(hits + misses) : 0));
+		
+		return sb.toString();
+	}
+	
 	public static String displayWrites() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numWritesLin.longValue());
@@ -53,6 +53,7 @@ import org.apache.sysds.runtime.io.FileFormatProperties;
 import org.apache.sysds.runtime.io.IOUtilFunctions;
 import org.apache.sysds.runtime.io.ReaderWriterFederated;
 import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
 import org.apache.sysds.runtime.meta.DataCharacteristics;
 import org.apache.sysds.runtime.meta.MatrixCharacteristics;
 import org.apache.sysds.runtime.meta.MetaData;
@@ -209,6 +210,7 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 	private String  _cacheFileName = null; //local eviction file name
 	private boolean _requiresLocalWrite = false; //flag if local write for read obj
 	private boolean _isAcquireFromEmpty = false; //flag if read from status empty 
+	private long _prefetchSize = 0; //buffer pool charge if restored into cache by prefetch
 	
 	//spark-specific handles
 	//note: we use the abstraction of LineageObjects for two reasons: (1) to keep track of cleanup
@@ -540,8 +542,11 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 			throw new DMLRuntimeException("MatrixObject not available to read.");
 
 		//get object from cache
+		boolean prefetched = _prefetchSize > 0;
 		if( _data == null )
 			getCache();
+		boolean prefetchHit = prefetched && _data != null;
+		releasePrefetch();
 
 		if (OptimizerUtils.isUMMEnabled())
 			//track and make space in the UMM
@@ -603,6 +608,8 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 					_requiresLocalWrite = !writeStatus.booleanValue();
 				}
 				
+				//register as owner of potentially shared off-heap memory
+				LibMatrixOffHeap.retain(_data);
 				setDirty(false);
 			}
 			catch (IOException e) {
@@ -610,6 +617,10 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 			}
 			_isAcquireFromEmpty = true;
 		}
+		else if( prefetchHit && DMLScript.STATISTICS ) {
+			//restore already accounted by the prefetch
+			CacheStatistics.incrementPrefetchHits();
+		}
 		else if( _data!=null && DMLScript.STATISTICS ) {
 			CacheStatistics.incrementMemHits();
 		}
@@ -660,6 +671,9 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 		if (! isAvailableToModify ())
 			throw new DMLRuntimeException("CacheableData not available to modify.");
 		
+		//register new data before clearing old data (which might be the same)
+		LibMatrixOffHeap.retain(newData);
+		
 		//clear old data
 		clearData();
 		
@@ -781,7 +795,8 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 			  ||(_data!=null && !isCachingActive()) )) //additional condition for JMLC
 			freeEvictedBlob();
 
-		// clear the in-memory data
+		// clear the in-memory data (and free off-heap memory)
+		LibMatrixOffHeap.release(_data);
 		_data = null;
 		clearCache();
 		setCacheLineage(null);
@@ -905,6 +920,7 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 						_data = readBlobFromRDD( getRDDHandle(), new MutableBoolean() );
 					else if(!federatedWrite)
 						_data = readBlobFromFederated( getFedMapping() );
+					LibMatrixOffHeap.retain(_data);
 					setDirty(false);
 					refreshMetaData(); //e.g., after unknown csv read
 				}
@@ -1024,6 +1040,7 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 		//check for success
 		if (_data == null)
 			throw new DMLRuntimeException (cacheFilePathAndName + " : Restore failed.");
+		LibMatrixOffHeap.retain(_data);
 		
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Restoring matrix - COMPLETED ... " + (System.currentTimeMillis()-begin) + " msec.");
@@ -1031,6 +1048,42 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 
 	protected abstract T readBlobFromCache(String fname)
 		throws IOException;
+
+	/**
+	 * Restores an evicted data blob from the buffer pool or local file system
+	 * into the soft reference cache, without pinning it. A subsequent acquire
+	 * then finds the data in memory, which allows overlapping the restore with
+	 * other computation. The prefetched data is charged to the buffer pool
+	 * until it is acquired or dropped from the cache. Data with pending
+	 * lineage-based reconstruction, without local eviction file, or exceeding
+	 * the buffer pool limit is not prefetched, and neither is data managed by
+	 * the unified memory manager.
+	 * 
+	 * @return true if the data blob was restored
+	 */
+	public synchronized boolean prefetchFromCache() {
+		if( !isCachingActive() || OptimizerUtils.isUMMEnabled() || !isCached(false)
+			|| _data != null || (_cache != null && _cache.get() != null) || hasValidLineage() )
+			return false;
+		try {
+			T data = readBlobFromCache(getCacheFilePathAndName());
+			if( data == null )
+				return false;
+			long size = data.getInMemorySize();
+			if( !LazyWriteBuffer.reservePrefetch(size) )
+				return false;
+			releasePrefetch();
+			_cache = new SoftReference<>(data);
+			_prefetchSize = size;
+		}
+		catch(IOException e) {
+			LOG.debug("Prefetch of " + getDebugName() + " failed: " + e.getMessage());
+			return false;
+		}
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementPrefetches();
+		return true;
+	}
 	
 	/**
 	 * Low-level cache I/O method that deletes the file containing the
@@ -1344,8 +1397,10 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 	 * referenced cache block.  
 	 */
 	protected void createCache( ) {
-		if( _cache == null || _cache.get() == null )
+		if( _cache == null || _cache.get() == null ) {
 			_cache = new SoftReference<>( _data );
+			releasePrefetch();
+		}
 	}
 
 	/**
@@ -1356,6 +1411,7 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 		if( _cache != null ) {
 			_data = _cache.get();
 		}
+		releasePrefetch();
 	}
 	
 	/** Clears the cache soft reference if existing. */
@@ -1364,6 +1420,15 @@ public abstract class CacheableData<T extends CacheBlock<?>> extends Data
 			_cache.clear();
 			_cache = null;
 		}
+		releasePrefetch();
+	}
+	
+	/** Releases the buffer pool charge of prefetched data if existing. */
+	private void releasePrefetch() {
+		if( _prefetchSize > 0 ) {
+			LazyWriteBuffer.releasePrefetch(_prefetchSize);
+			_prefetchSize = 0;
+		}
 	}
 
 	protected void updateStatusPinned(boolean add) {
@@ -33,8 +33,11 @@ public class LazyWriteBuffer {
 	protected static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
 
 	public enum RPolicy {
-		FIFO, //first-in, first-out eviction
-		LRU   //least recently used eviction
+		FIFO,  //first-in, first-out eviction
+		LRU,   //least recently used eviction
+		LRU_K, //largest backward K-distance eviction (K=2)
+		ARC,   //adaptive replacement cache eviction
+		COST   //cost-aware (size, restore cost, frequency) eviction
 	}
 	
 	//global size limit in bytes
@@ -43,6 +46,9 @@ public class LazyWriteBuffer {
 	//current size in bytes
 	private static long _size;
 	
+	//size in bytes of prefetched, not yet acquired blocks (included in _size)
+	private static long _sizePrefetched;
+	
 	//eviction queue of <filename,buffer> pairs (implemented via linked hash map
 	//for (1) queue semantics and (2) constant time get/insert/delete operations)
 	private static CacheEvictionQueue _mQueue;
@@ -66,7 +72,8 @@ public class LazyWriteBuffer {
 		//handle caching/eviction if it fits in the write buffer
 		if(!requiresWrite) {
 			//create byte buffer handle (no block allocation yet)
-			ByteBuffer bbuff = new ByteBuffer( lSize );
+			ByteBuffer bbuff = new ByteBuffer( lSize,
+				CacheEvictionPolicy.getRestoreCost(cb, lSize) );
 			
 			// modify buffer pool
 			synchronized(_mQueue) {
@@ -103,6 +110,8 @@ public class LazyWriteBuffer {
 		while(_size + lSize > _limit && !_mQueue.isEmpty()) {
 			// remove first entry from eviction queue
 			Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
+			if(entry == null)
+				break;
 			String ftmp = entry.getKey();
 			ByteBuffer tmp = entry.getValue();
 
@@ -120,6 +129,46 @@ public class LazyWriteBuffer {
 		return numEvicted;
 	}
 
+	/**
+	 * Charges the in-memory size of a block restored by prefetching to the
+	 * buffer pool, evicting serialized blocks to make room if necessary.
+	 * 
+	 * @param lSize in-memory size of the prefetched block
+	 * @return true if the size was charged, false if the prefetched blocks
+	 *   would exceed the buffer pool limit
+	 * @throws IOException if IOException occurs
+	 */
+	public static boolean reservePrefetch(long lSize)
+		throws IOException
+	{
+		int numEvicted = 0;
+		synchronized( _mQueue ) {
+			if( _sizePrefetched + lSize > _limit )
+				return false;
+			numEvicted += evict(lSize);
+			_size += lSize;
+			_sizePrefetched += lSize;
+		}
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementFSWrites(numEvicted);
+		return true;
+	}
+	
+	/**
+	 * Releases the buffer pool charge of a prefetched block, once the block
+	 * is acquired or dropped from the soft reference cache.
+	 * 
+	 * @param lSize in-memory size of the prefetched block
+	 */
+	public static void releasePrefetch(long lSize) {
+		synchronized( _mQueue ) {
+			//robustness for re-initialized buffer pools
+			lSize = Math.min(lSize, _sizePrefetched);
+			_size -= lSize;
+			_sizePrefetched -= lSize;
+		}
+	}
+
 	public static void deleteBlock(String fname)
 	{
 		boolean requiresDelete = true;
@@ -152,13 +201,10 @@ public class LazyWriteBuffer {
 			ldata = _mQueue.get(fname);
 			
 			//modify eviction order (accordingly to access)
-			if(CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU
-				&& ldata != null )
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
-			}
+			if( ldata != null )
+				_mQueue.access(fname);
+			else
+				_mQueue.miss(fname);
 		}
 		
 		//deserialize or read from FS if required
@@ -183,6 +229,7 @@ public class LazyWriteBuffer {
 		_fClean = new CacheMaintenanceService();
 		_limit = OptimizerUtils.getBufferPoolLimit();
 		_size = 0;
+		_sizePrefetched = 0;
 	}
 
 	public static void cleanup() {
@@ -265,6 +312,8 @@ public class LazyWriteBuffer {
 		{
 			//remove first entry from eviction queue
 			Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
+			if( entry == null )
+				break;
 			ByteBuffer tmp = entry.getValue();
 			
 			if( tmp != null ) {
@@ -21,6 +21,7 @@ package org.apache.sysds.runtime.controlprogram.caching;
 
 import java.io.IOException;
 import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.List;
 import java.util.concurrent.Future;
 
@@ -31,6 +32,7 @@ import org.apache.sysds.common.Types.DataType;
 import org.apache.sysds.common.Types.FileFormat;
 import org.apache.sysds.common.Types.ValueType;
 import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
 import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.hops.fedplanner.FTypes.FType;
 import org.apache.sysds.lops.Lop;
@@ -42,12 +44,18 @@ import org.apache.sysds.runtime.controlprogram.federated.FederatedRange;
 import org.apache.sysds.runtime.controlprogram.federated.FederatedResponse;
 import org.apache.sysds.runtime.controlprogram.federated.FederationMap;
 import org.apache.sysds.runtime.controlprogram.federated.FederationUtils;
+import org.apache.sysds.runtime.data.SparseBlockCSC;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.data.SparseBlockFormatAdvisor;
+import org.apache.sysds.runtime.data.SparseBlockFormatAdvisor.AccessType;
+import org.apache.sysds.runtime.data.SparseBlockSELL;
 import org.apache.sysds.runtime.instructions.fed.InitFEDInstruction;
 import org.apache.sysds.runtime.instructions.spark.data.RDDObject;
 import org.apache.sysds.runtime.io.FileFormatProperties;
 import org.apache.sysds.runtime.io.ReaderWriterFederated;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageRecomputeUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.meta.DataCharacteristics;
 import org.apache.sysds.runtime.meta.MatrixCharacteristics;
@@ -89,6 +97,16 @@ public class MatrixObject extends CacheableData<MatrixBlock> {
 	private String _partitionCacheName = null; // name of cache block
 	private MatrixBlock _partitionInMemory = null;
 
+	// reuse tracking of sparse matrix-vector inputs (see registerSpMV)
+	private WeakReference<MatrixBlock> _spmvBlock = null;
+	private int _spmvCount = 0;
+
+	// lazily converted column-major copy for column accesses (see getCachedTranspose)
+	private WeakReference<MatrixBlock> _cscBlock = null;
+	private SoftReference<SparseBlockCSC> _cscCache = null;
+	private long _cscNnz = -1;
+	private int _cscCount = 0;
+
 	/**
 	 * Constructor that takes the value type and the HDFS filename.
 	 * 
@@ -175,6 +193,98 @@ public class MatrixObject extends CacheableData<MatrixBlock> {
 		return _markForLinCache;
 	}
 
+	/**
+	 * Registers the use of the given acquired matrix block as left-hand-side input of a
+	 * sparse matrix-vector, skinny matrix-matrix, or mmchain operation. On repeated use of
+	 * the same block (e.g., in loops), its sparse block is converted into the SELL-C-sigma
+	 * format with dedicated kernels, if enabled and the padding overhead is bounded.
+	 * 
+	 * @param mb acquired matrix block of this matrix object
+	 */
+	public synchronized void registerSpMV(MatrixBlock mb) {
+		if(mb == null || !mb.isInSparseFormat() || mb.isEmptyBlock(false)
+			|| mb.getSparseBlock() instanceof SparseBlockSELL
+			|| !ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.SPARSE_SELL))
+			return;
+		// reset counter on new data (e.g., after updates)
+		if(_spmvBlock == null || _spmvBlock.get() != mb) {
+			_spmvBlock = new WeakReference<>(mb);
+			_spmvCount = 0;
+		}
+		if(++_spmvCount >= 2 && mb.getNonZeros() <= Integer.MAX_VALUE
+			&& SparseBlockSELL.isPaddingBounded(mb.getSparseBlock(), 1.5))
+			mb.setSparseBlock(new SparseBlockSELL(mb.getSparseBlock()));
+	}
+
+	/**
+	 * Gets the transpose of the given acquired sparse matrix block from a lazily created
+	 * and cached column-major (CSC) copy, which avoids repeated transposes of inputs with
+	 * column access (e.g., t(X) or t(X)%*%y in loops). The CSC copy is created on the
+	 * second column access of the same block, if the sparse format advisor is enabled
+	 * and the copy fits into the local memory budget, and softly referenced to allow
+	 * garbage collection under memory pressure. The cached copy is included in the data
+	 * size of this matrix object. A shared transpose reuses the arrays of the cached copy
+	 * and thus must only be used as a transient input that is never updated; transposes
+	 * that become variables (e.g., outputs of t(X)) are deep copies of the cached copy.
+	 * 
+	 * @param mb acquired matrix block of this matrix object
+	 * @param shared if true, share the arrays of the cached copy, otherwise copy them
+	 * @return transposed matrix block, or null if not applicable
+	 */
+	public synchronized MatrixBlock getCachedTranspose(MatrixBlock mb, boolean shared) {
+		if(mb == null || !mb.isInSparseFormat() || mb.isEmptyBlock(false) || _updateType.isInPlace()
+			|| mb.getNonZeros() > Integer.MAX_VALUE || !isSparseAdvisorEnabled())
+			return null;
+		// reset on new data (e.g., after updates or restore)
+		if(_cscBlock == null || _cscBlock.get() != mb || _cscNnz != mb.getNonZeros()) {
+			_cscBlock = new WeakReference<>(mb);
+			_cscCache = null;
+			_cscNnz = mb.getNonZeros();
+			_cscCount = 0;
+		}
+		SparseBlockCSC csc = (_cscCache != null) ? _cscCache.get() : null;
+		if(csc == null) {
+			if(++_cscCount < 2 || mb.getInMemorySize() + SparseBlockCSR.estimateSizeInMemory(
+				mb.getNumColumns(), mb.getNonZeros()) > OptimizerUtils.getLocalMemBudget())
+				return null;
+			csc = (SparseBlockCSC) SparseBlockFormatAdvisor
+				.convert(mb.getSparseBlock(), mb.getNumColumns(), AccessType.COLUMN);
+			_cscCache = new SoftReference<>(csc);
+		}
+		// CSC of X is the CSR of t(X), shared w/o copy or copied via array copies
+		int nnz = (int) csc.size();
+		SparseBlockCSR csr = new SparseBlockCSR(csc.colPointers(), csc.indexes(), csc.values(), nnz);
+		MatrixBlock ret = new MatrixBlock(mb.getNumColumns(), mb.getNumRows(), true);
+		ret.setSparseBlock(shared ? csr : new SparseBlockCSR(csr));
+		ret.setNonZeros(nnz);
+		return ret;
+	}
+
+	@Override
+	public long getDataSize() {
+		// include the softly cached column-major copy, if still available
+		SparseBlockCSC csc = (_cscCache != null) ? _cscCache.get() : null;
+		return super.getDataSize() + ((csc != null) ? csc.getExactSizeInMemory() : 0);
+	}
+
+	private static boolean isSparseAdvisorEnabled() {
+		return ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.SPARSE_ADVISOR);
+	}
+
+	/**
+	 * Converts the sparse block of a read matrix into the row-major sparse format with
+	 * minimal memory (e.g., DCSR for hyper-sparse inputs), if the advisor is enabled.
+	 * 
+	 * @param mb read matrix block
+	 */
+	private void adviseSparseFormat(MatrixBlock mb) {
+		if(!mb.isInSparseFormat() || mb.isEmptyBlock(false) || mb instanceof CompressedMatrixBlock
+			|| _updateType.isInPlace() || !isSparseAdvisorEnabled())
+			return;
+		mb.setSparseBlock(SparseBlockFormatAdvisor
+			.convert(mb.getSparseBlock(), mb.getNumColumns(), AccessType.ROW));
+	}
+
 	@Override
 	public void updateDataCharacteristics(DataCharacteristics dc) {
 		_metaData.getDataCharacteristics().set(dc);
@@ -456,6 +566,9 @@ public class MatrixObject extends CacheableData<MatrixBlock> {
 		if(newData == null)
 			throw new IOException("Unable to load matrix from file: " + fname);
 
+		if(!isFederated())
+			adviseSparseFormat(newData);
+
 		if(LOG.isTraceEnabled())
 			LOG.trace("Reading Completed: " + (System.currentTimeMillis() - begin) + " msec.");
 
@@ -558,7 +671,7 @@ public class MatrixObject extends CacheableData<MatrixBlock> {
 			FileFormat fmt = (ofmt != null ? FileFormat.safeValueOf(ofmt) : iimd.getFileFormat());
 			if( fmt == FileFormat.BINARY && fprop != null )
 				mc = new MatrixCharacteristics(mc).setBlocksize(fprop.getBlocksize());
-			DataConverter.writeMatrixToHDFS(_data, fname, fmt, mc, rep, fprop, _diag);
+			DataConverter.writeMatrixToHDFS(LibMatrixFP32.toFP64(_data), fname, fmt, mc, rep, fprop, _diag);
 
 			if(LOG.isTraceEnabled())
 				LOG.trace("Writing matrix to HDFS (" + fname + ") - COMPLETED... "
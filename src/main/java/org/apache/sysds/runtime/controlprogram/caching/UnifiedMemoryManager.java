@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Unified Memory Manager - Initial Design
@@ -113,6 +114,10 @@ public class UnifiedMemoryManager
 	// This increases if the input is available in the cache.
 	private static long _pinnedVirtualMemSize = 0;
 
+	// Size of off-heap (direct) memory held by dense blocks, which is
+	// accounted separately because it does not count against the heap
+	private static final AtomicLong _offHeapSize = new AtomicLong(0);
+
 	//---------------- OPERATION MEMORY MAINTENANCE -------------------//
 
 	// Make space for and track a cache block to be pinned in operation memory
@@ -248,6 +253,35 @@ public class UnifiedMemoryManager
 		}
 	}
 
+	//---------------- OFF-HEAP MEMORY MAINTENANCE -------------------//
+
+	/**
+	 * Reserves off-heap memory for a dense block if the total size
+	 * stays within the given limit.
+	 *
+	 * @param size size in bytes
+	 * @param limit max total off-heap size in bytes, -1 for unlimited
+	 * @return true if the memory was reserved
+	 */
+	public static boolean reserveOffHeap(long size, long limit) {
+		long cur = _offHeapSize.get();
+		while( limit < 0 || cur + size <= limit ) {
+			if( _offHeapSize.compareAndSet(cur, cur + size) )
+				return true;
+			cur = _offHeapSize.get();
+		}
+		return false;
+	}
+
+	// Gives previously reserved off-heap memory back
+	public static void releaseOffHeap(long size) {
+		_offHeapSize.addAndGet(-size);
+	}
+
+	public static long getOffHeapSize() {
+		return _offHeapSize.get();
+	}
+
 	// Reads a cached object. This is called from cacheabledata implementations
 	public static CacheBlock<?> readBlock(String fname, boolean matrix)
 		throws IOException
@@ -261,13 +295,10 @@ public class UnifiedMemoryManager
 			ldata = _mQueue.get(fname);
 
 			//modify eviction order (accordingly to access)
-			if (CacheableData.CACHING_BUFFER_POLICY == LazyWriteBuffer.RPolicy.LRU
-				&& ldata != null)
-			{
-				//reinsert entry at end of eviction queue
-				_mQueue.remove (fname);
-				_mQueue.addLast (fname, ldata);
-			}
+			if( ldata != null )
+				_mQueue.access(fname);
+			else
+				_mQueue.miss(fname);
 		}
 
 		//deserialize or read from FS if required
@@ -306,6 +337,8 @@ public class UnifiedMemoryManager
 				while (getUMMFree() < reqSpace && !_mQueue.isEmpty()) {
 					//remove first unpinned entry from eviction queue
 					var entry = _mQueue.removeFirstUnpinned(_pinnedEntries);
+					if (entry == null)
+						throw new DMLRuntimeException("No unpinned entries to evict.");
 					String ftmp = entry.getKey();
 					ByteBuffer bb = entry.getValue();
 
@@ -345,7 +378,8 @@ public class UnifiedMemoryManager
 		if( !requiresWrite )
 		{
 			// Create byte buffer handle (no block allocation yet)
-			ByteBuffer bbuff = new ByteBuffer( lSize );
+			ByteBuffer bbuff = new ByteBuffer( lSize,
+				CacheEvictionPolicy.getRestoreCost(cb, lSize) );
 
 			// Modify buffer pool
 			synchronized( _mQueue )
@@ -425,6 +459,8 @@ public class UnifiedMemoryManager
 		{
 			//remove first entry from eviction queue
 			Map.Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
+			if( entry == null )
+				break;
 			ByteBuffer tmp = entry.getValue();
 
 			if( tmp != null ) {
@@ -55,6 +55,7 @@ import org.apache.sysds.runtime.lineage.LineageCacheConfig;
 import org.apache.sysds.runtime.lineage.LineageDebugger;
 import org.apache.sysds.runtime.lineage.LineageGPUCacheEviction;
 import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.data.Pair;
 import org.apache.sysds.runtime.meta.DataCharacteristics;
@@ -343,11 +344,26 @@ public class ExecutionContext {
 	 * @return matrix block
 	 */
 	public MatrixBlock getMatrixInput(String varName) {
-		return getMatrixObject(varName).acquireRead();
+		return getMatrixInput(varName, false);
 	}
 	
 	public MatrixBlock getMatrixInput(CPOperand input) {
-		return getMatrixObject(input.getName()).acquireRead();
+		return getMatrixInput(input.getName(), false);
+	}
+
+	/**
+	 * Pins a matrix variable into memory and returns the internal matrix block.
+	 * Single-precision (FP32), quantized, and off-heap dense blocks are only returned
+	 * as-is for callers with dedicated kernels, and otherwise converted to a temporary
+	 * FP64 heap block.
+	 *
+	 * @param varName variable name
+	 * @param allowFP32 true if the caller handles FP32, quantized, and off-heap dense blocks
+	 * @return matrix block
+	 */
+	public MatrixBlock getMatrixInput(String varName, boolean allowFP32) {
+		MatrixBlock mb = getMatrixObject(varName).acquireRead();
+		return allowFP32 ? mb : LibMatrixFP32.toFP64(mb);
 	}
 
 	/**
@@ -91,6 +91,7 @@ import org.apache.sysds.runtime.instructions.spark.utils.RDDAggregateUtils;
 import org.apache.sysds.runtime.instructions.spark.utils.SparkUtils;
 import org.apache.sysds.runtime.io.IOUtilFunctions;
 import org.apache.sysds.runtime.io.InputOutputInfo;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixCell;
 import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
@@ -455,7 +456,7 @@ public class SparkExecutionContext extends ExecutionContext
 				fromFile = true;
 			}
 			else { //default case
-				MatrixBlock mb = mo.acquireRead(); //pin matrix in memory
+				MatrixBlock mb = LibMatrixFP32.toFP64(mo.acquireRead()); //pin matrix in memory
 				rdd = toMatrixJavaPairRDD(sc, mb, mo.getBlocksize(), numParts, inclEmpty);
 				mo.release(); //unpin matrix
 				_parRDDs.registerRDD(rdd.id(), OptimizerUtils.estimatePartitionedSizeExactSparsity(dc), true);
@@ -727,7 +728,7 @@ public class SparkExecutionContext extends ExecutionContext
 				int blen = mo.getBlocksize();
 
 				//create partitioned matrix block and release memory consumed by input
-				MatrixBlock mb = mo.acquireRead();
+				MatrixBlock mb = LibMatrixFP32.toFP64(mo.acquireRead());
 				PartitionedBlock<MatrixBlock> pmb = new PartitionedBlock<>(mb, blen);
 				mo.release();
 
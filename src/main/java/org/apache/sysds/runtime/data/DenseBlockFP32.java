@@ -25,6 +25,7 @@ import org.apache.sysds.common.Types.ValueType;
 import org.apache.sysds.common.Warnings;
 import org.apache.sysds.runtime.util.DataConverter;
 import org.apache.sysds.runtime.util.UtilFunctions;
+import org.apache.sysds.utils.MemoryEstimates;
 
 public class DenseBlockFP32 extends DenseBlockDRB
 {
@@ -86,6 +87,13 @@ public class DenseBlockFP32 extends DenseBlockDRB
 		_odims = odims;
 	}
 
+	public static double estimateMemory(long nrows, long ncols) {
+		if( (double)nrows * ncols > Long.MAX_VALUE )
+			return Long.MAX_VALUE;
+		return DenseBlock.estimateMemory(nrows, ncols)
+			+ MemoryEstimates.floatArrayCost(nrows * ncols);
+	}
+
 	@Override
 	public long capacity() {
 		return (_data!=null) ? _data.length : -1;
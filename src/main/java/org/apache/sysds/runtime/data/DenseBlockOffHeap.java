@@ -0,0 +1,564 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.data;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.UnifiedMemoryManager;
+import org.apache.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Dense block of a 2D FP64 matrix stored in off-heap (direct) memory, which supports
+ * matrices beyond 2^31 cells and keeps large intermediates out of the Java heap and
+ * thus out of GC pause times. The data is organized in row-aligned direct buffers of
+ * up to 1GB, but exposed as one block per row. There is no array access: values(r)
+ * and valuesAt(r) throw an exception, because writes into copies would be lost
+ * silently. Updates are only possible via the set methods, and kernels with off-heap
+ * fast paths use the bulk row accessors {@link #getRow} and {@link #setRow}.
+ * <p>
+ * Off-heap memory is accounted in the {@link UnifiedMemoryManager} and freed either
+ * explicitly via {@link #release()} once all owners (see {@link #retain()}) released
+ * the block, or when the block is garbage collected. Blocks created via
+ * {@link #map(FileChannel, long, int, int)} are instead backed by a private
+ * memory-mapped file region, which is not accounted and unmapped on free.
+ */
+public class DenseBlockOffHeap extends DenseBlock
+{
+	private static final long serialVersionUID = -2894521063381542037L;
+	private static final Log LOG = LogFactory.getLog(DenseBlockOffHeap.class.getName());
+
+	//max size of an individual direct buffer in bytes
+	public static long MAX_BUFFER_SIZE = 1L << 30;
+
+	private static final Cleaner CLEANER = Cleaner.create();
+	private static final Object UNSAFE;
+	private static final Method INVOKE_CLEANER;
+
+	static {
+		Object unsafe = null;
+		Method invokeCleaner = null;
+		try {
+			//explicit deallocation of direct buffers (Java 9+)
+			Class<?> clazz = Class.forName("sun.misc.Unsafe");
+			Field field = clazz.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			unsafe = field.get(null);
+			invokeCleaner = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+		}
+		catch(Exception ex) {
+			LOG.debug("Explicit deallocation of direct buffers not available: " + ex.getMessage());
+		}
+		UNSAFE = unsafe;
+		INVOKE_CLEANER = invokeCleaner;
+	}
+
+	private transient DoubleBuffer[] _views;
+	private transient Deallocator _dealloc;
+	private transient Cleaner.Cleanable _cleanable;
+	private final AtomicInteger _refCount = new AtomicInteger(0);
+	private final long _limit; //max total off-heap size, -1 unlimited
+	private int _blen; //rows per buffer
+
+	public DenseBlockOffHeap(int[] dims) {
+		this(dims, -1);
+	}
+
+	/**
+	 * Creates an off-heap dense block, if the total size of off-heap memory
+	 * stays within the given limit.
+	 *
+	 * @param dims dimensions
+	 * @param limit max total off-heap size in bytes, -1 for unlimited
+	 */
+	public DenseBlockOffHeap(int[] dims, long limit) {
+		super(dims);
+		if( dims.length != 2 )
+			throw new DMLRuntimeException("Off-heap dense blocks only support 2D matrices.");
+		_limit = limit;
+		reset(_rlen, _odims, 0);
+	}
+
+	private DenseBlockOffHeap(int[] dims, FileChannel channel, long offset) throws IOException {
+		super(dims);
+		_limit = -1;
+		_blen = getBlockSize(_odims[0]);
+		int numBuffers = UtilFunctions.toInt(Math.max(1, ((long) _rlen + _blen - 1) / _blen));
+		_dealloc = new Deallocator(new ByteBuffer[numBuffers], 0);
+		_views = new DoubleBuffer[numBuffers];
+		try {
+			for( int i = 0; i < numBuffers; i++ ) {
+				long len = (long) Math.min(_blen, _rlen - i * _blen) * _odims[0] * 8;
+				long off = offset + (long) i * _blen * _odims[0] * 8;
+				ByteBuffer buff = channel.map(MapMode.PRIVATE, off, len).order(ByteOrder.nativeOrder());
+				_dealloc._buffers[i] = buff;
+				_views[i] = buff.asDoubleBuffer();
+			}
+		}
+		catch(IOException ex) {
+			_dealloc.run();
+			_views = null;
+			throw ex;
+		}
+		_cleanable = CLEANER.register(this, _dealloc);
+	}
+
+	/**
+	 * Creates a dense block over a file region of rlen x clen doubles in native
+	 * byte order, without copying or parsing the data. The region is mapped
+	 * copy-on-write, i.e., updates are private to the block and the file can be
+	 * deleted or replaced while the block is in use.
+	 *
+	 * @param channel file channel
+	 * @param offset byte offset of the first value
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 * @return dense block
+	 * @throws IOException if the mapping fails
+	 */
+	public static DenseBlockOffHeap map(FileChannel channel, long offset, int rlen, int clen) throws IOException {
+		return new DenseBlockOffHeap(new int[] {rlen, clen}, channel, offset);
+	}
+
+	/**
+	 * Gets the size of the off-heap memory required for the given dimensions.
+	 *
+	 * @param nrows number of rows
+	 * @param ncols number of columns
+	 * @return size in bytes
+	 */
+	public static long getOffHeapSize(long nrows, long ncols) {
+		return nrows * ncols * 8;
+	}
+
+	public long getOffHeapSize() {
+		return getOffHeapSize(_rlen, _odims[0]);
+	}
+
+	/**
+	 * Registers an additional owner of this block (e.g., a cacheable data object).
+	 */
+	public void retain() {
+		_refCount.incrementAndGet();
+	}
+
+	/**
+	 * Unregisters an owner of this block and frees the off-heap memory once the
+	 * last owner released the block. Releases without a matching retain (i.e.,
+	 * from holders that never registered) are ignored, which leaves such blocks
+	 * to the garbage collector instead of freeing memory other holders still use.
+	 *
+	 * @return true if the off-heap memory was freed
+	 */
+	public boolean release() {
+		int cnt;
+		do {
+			cnt = _refCount.get();
+			if( cnt <= 0 )
+				return false;
+		} while( !_refCount.compareAndSet(cnt, cnt - 1) );
+		if( cnt > 1 )
+			return false;
+		free();
+		return true;
+	}
+
+	/**
+	 * Frees the off-heap memory. Any subsequent access fails.
+	 */
+	public synchronized void free() {
+		_views = null;
+		if( _cleanable != null )
+			_cleanable.clean();
+		_cleanable = null;
+		_dealloc = null;
+	}
+
+	public boolean isReleased() {
+		return _views == null;
+	}
+
+	/**
+	 * Copies row r into the given array.
+	 *
+	 * @param r row index
+	 * @param c output array
+	 * @param cix output offset
+	 */
+	public void getRow(int r, double[] c, int cix) {
+		getRow(r, 0, _odims[0], c, cix);
+	}
+
+	/**
+	 * Copies the column range [cl,cu) of row r into the given array.
+	 *
+	 * @param r row index
+	 * @param cl column lower index
+	 * @param cu column upper index (exclusive)
+	 * @param c output array
+	 * @param cix output offset
+	 */
+	public void getRow(int r, int cl, int cu, double[] c, int cix) {
+		DoubleBuffer buff = getView(r).duplicate();
+		buff.position((r % _blen) * _odims[0] + cl);
+		buff.get(c, cix, cu - cl);
+	}
+
+	/**
+	 * Copies len values of the given array into row r, starting at column cl.
+	 *
+	 * @param r row index
+	 * @param cl column lower index
+	 * @param a input array
+	 * @param aix input offset
+	 * @param len number of values
+	 */
+	public void setRow(int r, int cl, double[] a, int aix, int len) {
+		DoubleBuffer buff = getView(r).duplicate();
+		buff.position((r % _blen) * _odims[0] + cl);
+		buff.put(a, aix, len);
+	}
+
+	@Override
+	protected void allocateBlock(int bix, int length) {
+		ByteBuffer buff = ByteBuffer.allocateDirect(length * 8).order(ByteOrder.nativeOrder());
+		_dealloc._buffers[bix] = buff;
+		_views[bix] = buff.asDoubleBuffer();
+	}
+
+	@Override
+	public synchronized void reset(int rlen, int[] odims, double v) {
+		//newly allocated direct buffers are zero-initialized
+		if( !resetNoFillIntern(rlen, odims) || v != 0 )
+			set(v);
+	}
+
+	@Override
+	public synchronized void resetNoFill(int rlen, int[] odims) {
+		resetNoFillIntern(rlen, odims);
+	}
+
+	private boolean resetNoFillIntern(int rlen, int[] odims) {
+		long len = (long) rlen * odims[0];
+		boolean alloc = _views == null || len > capacity() || _blen != getBlockSize(odims[0]);
+		if( alloc )
+			free();
+		_rlen = rlen;
+		_odims = odims;
+		if( alloc )
+			allocate();
+		return alloc;
+	}
+
+	private void allocate() {
+		_blen = getBlockSize(_odims[0]);
+		int numBuffers = UtilFunctions.toInt(Math.max(1, ((long) _rlen + _blen - 1) / _blen));
+		long size = getOffHeapSize(_rlen, _odims[0]);
+		if( !UnifiedMemoryManager.reserveOffHeap(size, _limit) )
+			throw new DMLRuntimeException("Failed to reserve "+size+" bytes of off-heap memory.");
+		_dealloc = new Deallocator(new ByteBuffer[numBuffers], size);
+		_views = new DoubleBuffer[numBuffers];
+		try {
+			for( int i = 0; i < numBuffers; i++ )
+				allocateBlock(i, Math.min(_blen, _rlen - i * _blen) * _odims[0]);
+		}
+		catch(OutOfMemoryError ex) {
+			_dealloc.run();
+			_views = null;
+			throw new DMLRuntimeException("Failed to allocate "+size+" bytes of off-heap memory: "+ex.getMessage());
+		}
+		_cleanable = CLEANER.register(this, _dealloc);
+	}
+
+	private static int getBlockSize(int ncol) {
+		return (int) Math.max(1, MAX_BUFFER_SIZE / 8 / Math.max(ncol, 1));
+	}
+
+	private DoubleBuffer getView(int r) {
+		DoubleBuffer[] views = _views;
+		if( views == null )
+			throw new DMLRuntimeException("Access to released off-heap dense block.");
+		return views[r / _blen];
+	}
+
+	@Override
+	public int numBlocks() {
+		return _rlen;
+	}
+
+	@Override
+	public int blockSize() {
+		return 1;
+	}
+
+	@Override
+	public int blockSize(int bix) {
+		return 1;
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	public boolean isNumeric(ValueType vt) {
+		//no direct array access to FP64 values
+		return false;
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return false;
+	}
+
+	@Override
+	public boolean isContiguous(int rl, int ru) {
+		return false;
+	}
+
+	@Override
+	public int size(int bix) {
+		return _odims[0];
+	}
+
+	@Override
+	public long capacity() {
+		if( _views == null )
+			return -1;
+		long cap = 0;
+		for( DoubleBuffer buff : _views )
+			cap += buff.capacity();
+		return cap;
+	}
+
+	@Override
+	protected long computeNnz(int bix, int start, int length) {
+		DoubleBuffer buff = getView(bix);
+		int off = (bix % _blen) * _odims[0] + start;
+		long nnz = 0;
+		for( int i = off; i < off + length; i++ )
+			nnz += (buff.get(i) != 0) ? 1 : 0;
+		return nnz;
+	}
+
+	@Override
+	public long countNonZeros() {
+		return countNonZeros(0, _rlen, 0, _odims[0]);
+	}
+
+	@Override
+	public int countNonZeros(int r) {
+		return (int) computeNnz(r, 0, _odims[0]);
+	}
+
+	@Override
+	public long countNonZeros(int rl, int ru, int cl, int cu) {
+		long nnz = 0;
+		for( int i = rl; i < ru; i++ )
+			nnz += computeNnz(i, cl, cu - cl);
+		return nnz;
+	}
+
+	@Override
+	public double[] values(int r) {
+		throw new DMLRuntimeException("No array access to off-heap dense blocks, use getRow/setRow.");
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		return values(bix);
+	}
+
+	@Override
+	public int index(int r) {
+		return r;
+	}
+
+	@Override
+	public int pos(int r) {
+		return 0;
+	}
+
+	@Override
+	public int pos(int r, int c) {
+		return c;
+	}
+
+	@Override
+	public int pos(int[] ix) {
+		return ix[ix.length - 1];
+	}
+
+	@Override
+	public void incr(int r, int c) {
+		incr(r, c, 1);
+	}
+
+	@Override
+	public void incr(int r, int c, double delta) {
+		set(r, c, get(r, c) + delta);
+	}
+
+	@Override
+	public void fillBlock(int bix, int fromIndex, int toIndex, double v) {
+		DoubleBuffer buff = getView(bix);
+		int off = (bix % _blen) * _odims[0];
+		for( int i = off + fromIndex; i < off + toIndex; i++ )
+			buff.put(i, v);
+	}
+
+	@Override
+	public void fillRow(int r, double v) {
+		fillBlock(r, 0, _odims[0], v);
+	}
+
+	@Override
+	protected void setInternal(int bix, int ix, double v) {
+		getView(bix).put((bix % _blen) * _odims[0] + ix, v);
+	}
+
+	@Override
+	public DenseBlock set(double v) {
+		for( int i = 0; i < _rlen; i++ )
+			fillRow(i, v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int rl, int ru, int cl, int cu, double v) {
+		for( int i = rl; i < ru; i++ )
+			fillBlock(i, cl, cu, v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int r, int c, double v) {
+		setInternal(r, c, v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int r, double[] v) {
+		setRow(r, 0, v, 0, _odims[0]);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(DenseBlock db) {
+		final int n = _odims[0];
+		final boolean fp64 = db.isNumeric(ValueType.FP64);
+		double[] tmp = fp64 ? null : new double[n];
+		for( int i = 0; i < _rlen; i++ ) {
+			if( fp64 )
+				setRow(i, 0, db.values(i), db.pos(i), n);
+			else {
+				for( int j = 0; j < n; j++ )
+					tmp[j] = db.get(i, j);
+				setRow(i, 0, tmp, 0, n);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, double v) {
+		setInternal(ix[0], pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, long v) {
+		setInternal(ix[0], pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, String v) {
+		setInternal(ix[0], pos(ix), Double.parseDouble(v));
+		return this;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return getView(r).get((r % _blen) * _odims[0] + c);
+	}
+
+	@Override
+	public double get(int[] ix) {
+		return get(ix[0], pos(ix));
+	}
+
+	@Override
+	public String getString(int[] ix) {
+		return String.valueOf(get(ix));
+	}
+
+	@Override
+	public long getLong(int[] ix) {
+		return UtilFunctions.toLong(get(ix));
+	}
+
+	/**
+	 * Deallocation of the direct buffers and off-heap memory accounting, which
+	 * must not reference the dense block to allow its garbage collection.
+	 */
+	private static class Deallocator implements Runnable {
+		private final ByteBuffer[] _buffers;
+		private final long _size;
+		private final AtomicBoolean _done = new AtomicBoolean(false);
+
+		private Deallocator(ByteBuffer[] buffers, long size) {
+			_buffers = buffers;
+			_size = size;
+		}
+
+		@Override
+		public void run() {
+			if( !_done.compareAndSet(false, true) )
+				return;
+			for( int i = 0; i < _buffers.length; i++ ) {
+				if( _buffers[i] != null && INVOKE_CLEANER != null ) {
+					try {
+						INVOKE_CLEANER.invoke(UNSAFE, _buffers[i]);
+					}
+					catch(Exception ex) {
+						LOG.debug("Failed to free direct buffer: " + ex.getMessage());
+					}
+				}
+				_buffers[i] = null;
+			}
+			UnifiedMemoryManager.releaseOffHeap(_size);
+		}
+	}
+}
@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.data;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.common.Warnings;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.util.UtilFunctions;
+import org.apache.sysds.utils.MemoryEstimates;
+
+/**
+ * Dense block of a quantized 2D matrix, intended for read-mostly data such as
+ * model weights. Values are stored either as symmetric INT8 with per-row or
+ * per-column scale factors (value = q * scale), or as bfloat16 (the upper 16 bits
+ * of a FP32 value, rounded to nearest even). All accessors dequantize on the fly;
+ * updates are quantized with the existing scale factors and thus lossy.
+ * <p>
+ * Consumers of the FP64 array API ({@link #values(int)}, {@link #valuesAt(int)}) get
+ * a dequantized copy of the entire block, which is indexed by {@link #pos(int)} as for
+ * any single-block dense block. This copy is soft-referenced and reused until the next
+ * update, and updates via the returned array are not reflected in the block.
+ */
+public class DenseBlockQuantized extends DenseBlockDRB
+{
+	private static final long serialVersionUID = -1793215069447632301L;
+
+	public enum QuantType {
+		INT8, //1 byte per value, w/ per-row or per-column scales
+		BF16, //2 bytes per value
+	}
+
+	private final QuantType _type;
+	private final boolean _colScales;
+	private byte[] _i8;
+	private short[] _bf16;
+	private double[] _scales;
+	//dequantized FP64 copy for the array API, invalidated on updates
+	private transient SoftReference<double[]> _dequant;
+
+	private DenseBlockQuantized(int[] dims, QuantType type, boolean colScales) {
+		super(dims);
+		if( dims.length != 2 )
+			throw new DMLRuntimeException("Quantized dense blocks only support 2D matrices.");
+		_type = type;
+		_colScales = colScales;
+		reset(_rlen, _odims, 0);
+	}
+
+	/**
+	 * Creates a quantized dense block from the given dense block.
+	 *
+	 * @param in input dense block (any numeric value type)
+	 * @param type quantization type
+	 * @param colScales if true, use per-column scale factors, otherwise per-row (INT8 only)
+	 * @return quantized dense block
+	 */
+	public static DenseBlockQuantized create(DenseBlock in, QuantType type, boolean colScales) {
+		final int m = in.numRows(), n = in.getDim(1);
+		DenseBlockQuantized ret = new DenseBlockQuantized(new int[] {m, n}, type, colScales);
+		if( type == QuantType.INT8 ) {
+			//symmetric scale factors from max absolute values
+			double[] scales = ret._scales;
+			Arrays.fill(scales, 0);
+			for( int i = 0; i < m; i++ )
+				for( int j = 0; j < n; j++ ) {
+					int six = colScales ? j : i;
+					scales[six] = Math.max(scales[six], Math.abs(in.get(i, j)));
+				}
+			for( int i = 0; i < scales.length; i++ )
+				scales[i] = (scales[i] == 0) ? 1 : scales[i] / Byte.MAX_VALUE;
+		}
+		for( int i = 0, ix = 0; i < m; i++ )
+			for( int j = 0; j < n; j++, ix++ )
+				ret.setInternal(0, ix, in.get(i, j));
+		return ret;
+	}
+
+	public QuantType getQuantType() {
+		return _type;
+	}
+
+	/**
+	 * Indicates if the scale factors are maintained per column or per row.
+	 *
+	 * @return true for per-column scale factors
+	 */
+	public boolean hasColumnScales() {
+		return _colScales;
+	}
+
+	/**
+	 * Gets the scale factors of INT8 quantization.
+	 *
+	 * @return per-row or per-column scale factors, or null for BF16
+	 */
+	public double[] getScales() {
+		return _scales;
+	}
+
+	/**
+	 * Computes c[ci:ci+n] += aval * q[r, :] over the raw quantized values, i.e.,
+	 * without applying the scale factors.
+	 *
+	 * @param aval scalar multiplier
+	 * @param r row index
+	 * @param c output array
+	 * @param ci output offset
+	 */
+	public void vectMultiplyAddRaw(double aval, int r, double[] c, int ci) {
+		final int n = _odims[0];
+		final int off = r * n;
+		if( _type == QuantType.INT8 ) {
+			final byte[] q = _i8;
+			for( int j = 0; j < n; j++ )
+				c[ci + j] += aval * q[off + j];
+		}
+		else {
+			final short[] q = _bf16;
+			for( int j = 0; j < n; j++ )
+				c[ci + j] += aval * fromBF16(q[off + j]);
+		}
+	}
+
+	public double estimateMemory() {
+		return estimateMemory(_rlen, _odims[0], _type);
+	}
+
+	public static double estimateMemory(long nrows, long ncols, QuantType type) {
+		if( (double)nrows * ncols > Long.MAX_VALUE )
+			return Long.MAX_VALUE;
+		return DenseBlock.estimateMemory(nrows, ncols) + ((type == QuantType.INT8) ?
+			MemoryEstimates.byteArrayCost(nrows * ncols) + MemoryEstimates.doubleArrayCost(Math.max(nrows, ncols)) :
+			MemoryEstimates.charArrayCost(nrows * ncols));
+	}
+
+	@Override
+	protected void allocateBlock(int bix, int length) {
+		if( _type == QuantType.INT8 ) {
+			_i8 = new byte[length];
+			_scales = new double[_colScales ? _odims[0] : _rlen];
+			Arrays.fill(_scales, 1);
+		}
+		else
+			_bf16 = new short[length];
+	}
+
+	@Override
+	public void reset(int rlen, int[] odims, double v) {
+		int len = rlen * odims[0];
+		_dequant = null;
+		_rlen = rlen;
+		_odims = odims;
+		if( len > capacity() || (_scales != null && _scales.length != (_colScales ? odims[0] : rlen)) )
+			allocateBlock(0, len);
+		if( _scales != null && v != 0 )
+			Arrays.fill(_scales, Math.abs(v) / Byte.MAX_VALUE);
+		fillBlock(0, 0, len, v);
+	}
+
+	@Override
+	public void resetNoFill(int rlen, int[] odims) {
+		reset(rlen, odims, 0);
+	}
+
+	@Override
+	public boolean isNumeric() {
+		return true;
+	}
+
+	@Override
+	public boolean isNumeric(ValueType vt) {
+		return false;
+	}
+
+	@Override
+	public long capacity() {
+		return (_type == QuantType.INT8) ?
+			(_i8 != null ? _i8.length : -1) :
+			(_bf16 != null ? _bf16.length : -1);
+	}
+
+	@Override
+	protected long computeNnz(int bix, int start, int length) {
+		long nnz = 0;
+		for( int i = start; i < start + length; i++ )
+			nnz += (getInternal(i) != 0) ? 1 : 0;
+		return nnz;
+	}
+
+	@Override
+	public double[] values(int r) {
+		return getDequantized();
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		return getDequantized();
+	}
+
+	@Override
+	public int index(int r) {
+		return 0;
+	}
+
+	@Override
+	public void incr(int r, int c) {
+		incr(r, c, 1);
+	}
+
+	@Override
+	public void incr(int r, int c, double delta) {
+		int ix = pos(r, c);
+		setInternal(0, ix, getInternal(ix) + delta);
+	}
+
+	@Override
+	public void fillBlock(int bix, int fromIndex, int toIndex, double v) {
+		for( int i = fromIndex; i < toIndex; i++ )
+			setInternal(bix, i, v);
+	}
+
+	@Override
+	public void fillRow(int r, double v) {
+		int start = pos(r);
+		fillBlock(0, start, start + _odims[0], v);
+	}
+
+	@Override
+	protected void setInternal(int bix, int ix, double v) {
+		_dequant = null;
+		if( _type == QuantType.INT8 ) {
+			long q = Math.round(v / _scales[scaleIndex(ix)]);
+			_i8[ix] = (byte) Math.max(-Byte.MAX_VALUE, Math.min(Byte.MAX_VALUE, q));
+		}
+		else
+			_bf16[ix] = toBF16(v);
+	}
+
+	@Override
+	public DenseBlock set(int r, int c, double v) {
+		setInternal(0, pos(r, c), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(DenseBlock db) {
+		for( int i = 0; i < _rlen; i++ )
+			for( int j = 0; j < _odims[0]; j++ )
+				set(i, j, db.get(i, j));
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int r, double[] v) {
+		int ix = pos(r);
+		for( int j = 0; j < _odims[0]; j++ )
+			setInternal(0, ix + j, v[j]);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, double v) {
+		setInternal(0, pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, long v) {
+		setInternal(0, pos(ix), v);
+		return this;
+	}
+
+	@Override
+	public DenseBlock set(int[] ix, String v) {
+		setInternal(0, pos(ix), Double.parseDouble(v));
+		return this;
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return getInternal(pos(r, c));
+	}
+
+	@Override
+	public double get(int[] ix) {
+		return getInternal(pos(ix));
+	}
+
+	@Override
+	public String getString(int[] ix) {
+		return String.valueOf(get(ix));
+	}
+
+	@Override
+	public long getLong(int[] ix) {
+		return UtilFunctions.toLong(get(ix));
+	}
+
+	private double[] getDequantized() {
+		SoftReference<double[]> ref = _dequant;
+		double[] ret = (ref != null) ? ref.get() : null;
+		if( ret == null ) {
+			int len = _rlen * _odims[0];
+			Warnings.warnFullFP64Conversion(len);
+			ret = new double[len];
+			for( int i = 0; i < len; i++ )
+				ret[i] = getInternal(i);
+			_dequant = new SoftReference<>(ret);
+		}
+		return ret;
+	}
+
+	private double getInternal(int ix) {
+		return (_type == QuantType.INT8) ?
+			_i8[ix] * _scales[scaleIndex(ix)] :
+			fromBF16(_bf16[ix]);
+	}
+
+	private int scaleIndex(int ix) {
+		return _colScales ? ix % _odims[0] : ix / _odims[0];
+	}
+
+	private static short toBF16(double v) {
+		final float f = (float) v;
+		final int bits = Float.floatToRawIntBits(f);
+		if( Float.isNaN(f) ) //preserve NaN (quiet bit)
+			return (short) ((bits >>> 16) | 0x40);
+		//round to nearest even
+		return (short) ((bits + 0x7FFF + ((bits >>> 16) & 1)) >>> 16);
+	}
+
+	private static double fromBF16(short v) {
+		return Float.intBitsToFloat((v & 0xFFFF) << 16);
+	}
+}
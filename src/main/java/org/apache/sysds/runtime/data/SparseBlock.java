@@ -54,6 +54,7 @@ public abstract class SparseBlock implements Serializable, Block
 		DCSR, // double compressed sparse rows
 		MCSR, // modified compressed sparse rows (update-friendly)
 		MCSC, // modified compressed sparse column
+		SELL, // sliced ELLPACK w/ row sorting (SELL-C-sigma, read-only)
 	}
 	
 	
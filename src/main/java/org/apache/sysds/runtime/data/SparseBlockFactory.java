@@ -72,6 +72,7 @@ public abstract class SparseBlockFactory{
 			case DCSR: return new SparseBlockDCSR(sblock);
 			case MCSC: return new SparseBlockMCSC(sblock, clen);
 			case CSC: return new SparseBlockCSC(sblock, clen);
+			case SELL: return new SparseBlockSELL(sblock);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
@@ -84,7 +85,11 @@ public abstract class SparseBlockFactory{
 	public static SparseBlock.Type getSparseBlockType(SparseBlock sblock) {
 		return (sblock instanceof SparseBlockMCSR) ? SparseBlock.Type.MCSR :
 			(sblock instanceof SparseBlockCSR) ? SparseBlock.Type.CSR : 
-			(sblock instanceof SparseBlockCOO) ? SparseBlock.Type.COO : null;
+			(sblock instanceof SparseBlockCOO) ? SparseBlock.Type.COO :
+			(sblock instanceof SparseBlockDCSR) ? SparseBlock.Type.DCSR :
+			(sblock instanceof SparseBlockCSC) ? SparseBlock.Type.CSC :
+			(sblock instanceof SparseBlockMCSC) ? SparseBlock.Type.MCSC :
+			(sblock instanceof SparseBlockSELL) ? SparseBlock.Type.SELL : null;
 	}
 
 	public static long estimateSizeSparseInMemory(SparseBlock.Type type, long nrows, long ncols, double sparsity) {
@@ -95,6 +100,7 @@ public abstract class SparseBlockFactory{
 			case COO: return SparseBlockCOO.estimateSizeInMemory(nrows, ncols, sparsity);
 			case DCSR: return SparseBlockDCSR.estimateSizeInMemory(nrows, ncols, sparsity);
 			case MCSC: return SparseBlockMCSC.estimateSizeInMemory(nrows, ncols, sparsity);
+			case SELL: return SparseBlockSELL.estimateSizeInMemory(nrows, ncols, sparsity);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.data;
+
+import org.apache.sysds.utils.MemoryEstimates;
+
+/**
+ * Cost-based selection of sparse block formats. The advisor analyzes the
+ * distribution of non-zeros of a given sparse block (empty-row fraction,
+ * row-length mean and variance), and recommends a format for the dominant
+ * access pattern of its consumers:
+ * <ul>
+ * <li>UPDATE (e.g., in-place left indexing): MCSR</li>
+ * <li>COLUMN (e.g., t(X) or t(X)%*%y): CSC</li>
+ * <li>ROW (read-only, row-wise kernels): the row-major format among CSR,
+ * DCSR, and COO with minimal memory, where DCSR and COO are only considered
+ * for blocks with many empty rows because their row lookups require binary
+ * searches, and COO only for short rows of low variance.</li>
+ * </ul>
+ */
+public class SparseBlockFormatAdvisor
+{
+	public enum AccessType {
+		ROW,
+		COLUMN,
+		UPDATE,
+	}
+
+	//min fraction of empty rows for formats w/ row lookups (DCSR, COO)
+	public static final double MIN_EMPTY_ROWS = 0.5;
+	//max mean and coefficient of variation of row lengths for COO
+	public static final double MAX_COO_ROW_MEAN = 2;
+	public static final double MAX_COO_ROW_CV = 1;
+	//min relative memory savings to justify a conversion
+	public static final double MIN_SAVINGS = 0.1;
+
+	private SparseBlockFormatAdvisor() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Recommends a sparse block format for the given sparse block and access pattern.
+	 * For row accesses, the current format is kept unless another row-major format
+	 * reduces the memory by more than {@link #MIN_SAVINGS}.
+	 *
+	 * @param sblock sparse block
+	 * @param clen number of columns
+	 * @param access dominant access pattern of consumers
+	 * @return recommended sparse block type
+	 */
+	public static SparseBlock.Type getRecommendedType(SparseBlock sblock, int clen, AccessType access) {
+		switch( access ) {
+			case UPDATE: return SparseBlock.Type.MCSR;
+			case COLUMN: return SparseBlock.Type.CSC;
+			default: //ROW
+		}
+		SparseBlockStats stats = analyze(sblock, clen);
+		SparseBlock.Type current = SparseBlockFactory.getSparseBlockType(sblock);
+		SparseBlock.Type best = SparseBlock.Type.CSR;
+		if( stats.getEmptyRowFraction() >= MIN_EMPTY_ROWS ) {
+			if( estimateSize(SparseBlock.Type.DCSR, stats) < estimateSize(best, stats) )
+				best = SparseBlock.Type.DCSR;
+			if( stats.getRowMean() <= MAX_COO_ROW_MEAN && stats.getRowCV() <= MAX_COO_ROW_CV
+				&& estimateSize(SparseBlock.Type.COO, stats) < estimateSize(best, stats) )
+				best = SparseBlock.Type.COO;
+		}
+		//keep current row-major format if savings are marginal
+		if( current != null && current != best && (current == SparseBlock.Type.MCSR
+			|| current == SparseBlock.Type.CSR || current == SparseBlock.Type.DCSR
+			|| current == SparseBlock.Type.COO) && estimateSize(best, stats)
+			>= (1 - MIN_SAVINGS) * estimateSize(current, stats) )
+			return current;
+		return best;
+	}
+
+	/**
+	 * Analyzes the non-zero distribution of the given sparse block.
+	 *
+	 * @param sblock sparse block
+	 * @param clen number of columns
+	 * @return statistics of the non-zero distribution
+	 */
+	public static SparseBlockStats analyze(SparseBlock sblock, int clen) {
+		final int rlen = sblock.numRows();
+		long nnz = 0, nnzr = 0, nnzr1 = 0;
+		double sumSq = 0;
+		for( int i = 0; i < rlen; i++ ) {
+			int len = sblock.size(i);
+			if( len == 0 ) continue;
+			nnz += len;
+			nnzr++;
+			nnzr1 += (len == 1) ? 1 : 0;
+			sumSq += (double) len * len;
+		}
+		return new SparseBlockStats(rlen, clen, nnz, nnzr, nnzr1, sumSq);
+	}
+
+	/**
+	 * Estimates the in-memory size of a sparse block of the given type
+	 * and non-zero distribution, which accounts for empty rows and
+	 * single-value rows in contrast to the sparsity-based estimates.
+	 *
+	 * @param type sparse block type
+	 * @param stats statistics of the non-zero distribution
+	 * @return memory estimate in bytes
+	 */
+	public static long estimateSize(SparseBlock.Type type, SparseBlockStats stats) {
+		final long nnz = stats.getNonZeros();
+		final long nnzr = stats.getNonEmptyRows();
+		double size = 16 + 4 * 4; //object and int fields
+		switch( type ) {
+			case MCSR:
+				size += MemoryEstimates.objectArrayCost(stats.getNumRows());
+				//single values as scalar rows, otherwise vectors w/ min capacity
+				size += stats.getSingleValueRows() * (16 + 4 + 8);
+				size += (nnzr - stats.getSingleValueRows()) * (16 + 8
+					+ MemoryEstimates.intArrayCost(0) + MemoryEstimates.doubleArrayCost(0));
+				size += 12 * Math.max(nnz - stats.getSingleValueRows(),
+					(nnzr - stats.getSingleValueRows()) * SparseRowVector.initialCapacity);
+				break;
+			case CSR:
+				size += MemoryEstimates.intArrayCost(stats.getNumRows() + 1);
+				size += MemoryEstimates.intArrayCost(nnz);
+				size += MemoryEstimates.doubleArrayCost(nnz);
+				break;
+			case DCSR:
+				size += MemoryEstimates.intArrayCost(nnzr);
+				size += MemoryEstimates.intArrayCost(nnzr + 1);
+				size += MemoryEstimates.intArrayCost(nnz);
+				size += MemoryEstimates.doubleArrayCost(nnz);
+				break;
+			case COO:
+				size += 2 * MemoryEstimates.intArrayCost(nnz);
+				size += MemoryEstimates.doubleArrayCost(nnz);
+				break;
+			case CSC:
+				size += MemoryEstimates.intArrayCost(stats.getNumCols() + 1);
+				size += MemoryEstimates.intArrayCost(nnz);
+				size += MemoryEstimates.doubleArrayCost(nnz);
+				break;
+			default:
+				throw new RuntimeException("Unsupported sparse block type: "+type);
+		}
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Converts the given sparse block into the recommended format for the
+	 * given access pattern, if it differs from the current format.
+	 *
+	 * @param sblock sparse block
+	 * @param clen number of columns
+	 * @param access dominant access pattern of consumers
+	 * @return sparse block in recommended format (or the input if unchanged)
+	 */
+	public static SparseBlock convert(SparseBlock sblock, int clen, AccessType access) {
+		SparseBlock.Type type = getRecommendedType(sblock, clen, access);
+		return SparseBlockFactory.copySparseBlock(type, sblock, false, clen);
+	}
+
+	/**
+	 * Statistics of the non-zero distribution of a sparse block.
+	 */
+	public static class SparseBlockStats {
+		private final int _rlen;
+		private final int _clen;
+		private final long _nnz;
+		private final long _nnzr;
+		private final long _nnzr1;
+		private final double _sumSq;
+
+		private SparseBlockStats(int rlen, int clen, long nnz, long nnzr, long nnzr1, double sumSq) {
+			_rlen = rlen;
+			_clen = clen;
+			_nnz = nnz;
+			_nnzr = nnzr;
+			_nnzr1 = nnzr1;
+			_sumSq = sumSq;
+		}
+
+		public int getNumRows() {
+			return _rlen;
+		}
+
+		public int getNumCols() {
+			return _clen;
+		}
+
+		public long getNonZeros() {
+			return _nnz;
+		}
+
+		public long getNonEmptyRows() {
+			return _nnzr;
+		}
+
+		public long getSingleValueRows() {
+			return _nnzr1;
+		}
+
+		public double getEmptyRowFraction() {
+			return (_rlen > 0) ? 1 - (double) _nnzr / _rlen : 0;
+		}
+
+		/**
+		 * @return mean length of non-empty rows
+		 */
+		public double getRowMean() {
+			return (_nnzr > 0) ? (double) _nnz / _nnzr : 0;
+		}
+
+		/**
+		 * @return variance of the length of non-empty rows
+		 */
+		public double getRowVariance() {
+			double mean = getRowMean();
+			return (_nnzr > 0) ? Math.max(_sumSq / _nnzr - mean * mean, 0) : 0;
+		}
+
+		/**
+		 * @return coefficient of variation of the length of non-empty rows
+		 */
+		public double getRowCV() {
+			double mean = getRowMean();
+			return (mean > 0) ? Math.sqrt(getRowVariance()) / mean : 0;
+		}
+
+		@Override
+		public String toString() {
+			return "SparseBlockStats: rlen=" + _rlen + ", clen=" + _clen + ", nnz=" + _nnz
+				+ ", emptyRows=" + getEmptyRowFraction() + ", rowMean=" + getRowMean() + ", rowCV=" + getRowCV();
+		}
+	}
+}
@@ -0,0 +1,776 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.data;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.apache.sysds.utils.MemoryEstimates;
+
+/**
+ * SparseBlock implementation in the sliced ELLPACK format SELL-C-sigma, which targets
+ * bandwidth-bound sparse matrix-vector and skinny matrix-matrix products over read-only
+ * operands. Rows are sorted by decreasing number of non-zeros within windows of sigma
+ * rows, and consecutive chunks of C (sorted) rows form slices. Each slice is stored
+ * column-major and padded to its longest row, i.e., the j-th non-zero of the l-th row
+ * of slice s resides at position slicePtr[s] + j*C + l, which allows processing C rows
+ * in lockstep with contiguous accesses and a single loop bound per slice. Padding
+ * entries have value 0 and column index 0.
+ * <p>
+ * The row-wise accessors of the SparseBlock API are supported but materialize the
+ * requested row (with pos(r)=0), and updates rewrite the affected slice. Hence, this
+ * format should only be used for read-only operands with dedicated kernels.
+ */
+public class SparseBlockSELL extends SparseBlock
+{
+	private static final long serialVersionUID = -2283741617339270447L;
+
+	public static final int DEFAULT_C = 8;
+	public static final int DEFAULT_SIGMA = 32 * DEFAULT_C;
+
+	private final int _c;        // slice height (rows per slice)
+	private final int _sigma;    // sorting window (multiple of C)
+	private int _rlen;           // number of rows
+	private int[] _perm;         // layout position -> row index
+	private int[] _iperm;        // row index -> layout position
+	private int[] _len;          // number of non-zeros per layout position
+	private int[] _ptr;          // slice pointers (size: numSlices+1)
+	private int[] _indexes;      // padded column indexes
+	private double[] _values;    // padded values
+	private int _size = 0;       // actual nnz
+
+	//single-row cache for row-wise accessors (indexes/values)
+	private transient volatile MaterializedRow _row = null;
+
+	public SparseBlockSELL(int rlen) {
+		this(rlen, DEFAULT_C, DEFAULT_SIGMA);
+	}
+
+	public SparseBlockSELL(int rlen, int c, int sigma) {
+		_c = c;
+		_sigma = getSigma(c, sigma);
+		_rlen = rlen;
+		_perm = new int[rlen];
+		for( int i = 0; i < rlen; i++ )
+			_perm[i] = i;
+		_iperm = _perm.clone();
+		_len = new int[rlen];
+		_ptr = new int[getNumSlices() + 1];
+		_indexes = new int[0];
+		_values = new double[0];
+	}
+
+	/**
+	 * Copy constructor sparse block abstraction.
+	 *
+	 * @param sblock sparse block to copy
+	 */
+	public SparseBlockSELL(SparseBlock sblock) {
+		this(sblock, DEFAULT_C, DEFAULT_SIGMA);
+	}
+
+	/**
+	 * Copy constructor sparse block abstraction with custom slice height and sorting window.
+	 *
+	 * @param sblock sparse block to copy
+	 * @param c slice height
+	 * @param sigma sorting window (rounded up to a multiple of c)
+	 */
+	public SparseBlockSELL(SparseBlock sblock, int c, int sigma) {
+		long size = sblock.size();
+		if( size > Integer.MAX_VALUE )
+			throw new RuntimeException("SparseBlockSELL supports nnz<=Integer.MAX_VALUE but got "+size);
+		_c = c;
+		_sigma = getSigma(c, sigma);
+		_rlen = sblock.numRows();
+		_size = (int) size;
+
+		//sort rows by decreasing length within sigma windows (stable)
+		_perm = new int[_rlen];
+		_iperm = new int[_rlen];
+		_len = new int[_rlen];
+		long[] keys = new long[Math.min(_sigma, _rlen)];
+		for( int wl = 0; wl < _rlen; wl += _sigma ) {
+			int wu = Math.min(wl + _sigma, _rlen);
+			for( int i = wl; i < wu; i++ )
+				keys[i - wl] = ((long) (Integer.MAX_VALUE - sblock.size(i)) << 32) | i;
+			Arrays.sort(keys, 0, wu - wl);
+			for( int p = wl; p < wu; p++ ) {
+				int r = (int) keys[p - wl];
+				_perm[p] = r;
+				_iperm[r] = p;
+				_len[p] = sblock.size(r);
+			}
+		}
+
+		//compute slice pointers of padded slices
+		_ptr = new int[getNumSlices() + 1];
+		long total = 0;
+		for( int s = 0; s < getNumSlices(); s++ ) {
+			total += (long) _c * getMaxLength(s);
+			if( total > Integer.MAX_VALUE )
+				throw new RuntimeException("SparseBlockSELL supports padded nnz<=Integer.MAX_VALUE but got "+total);
+			_ptr[s + 1] = (int) total;
+		}
+
+		//copy non-zeros into column-major slices
+		_indexes = new int[(int) total];
+		_values = new double[(int) total];
+		for( int p = 0; p < _rlen; p++ ) {
+			int r = _perm[p];
+			if( sblock.isEmpty(r) )
+				continue;
+			int apos = sblock.pos(r);
+			int[] aix = sblock.indexes(r);
+			double[] avals = sblock.values(r);
+			for( int j = 0, off = offset(p); j < _len[p]; j++, off += _c ) {
+				_indexes[off] = aix[apos + j];
+				_values[off] = avals[apos + j];
+			}
+		}
+	}
+
+	/**
+	 * Get the estimated in-memory size of the sparse block in SELL-C-sigma
+	 * with the given dimensions w/o accounting for padding.
+	 *
+	 * @param nrows number of rows
+	 * @param ncols number of columns
+	 * @param sparsity sparsity ratio
+	 * @return memory estimate
+	 */
+	public static long estimateSizeInMemory(long nrows, long ncols, double sparsity) {
+		double lnnz = Math.max(INIT_CAPACITY, Math.ceil(sparsity*nrows*ncols));
+
+		//32B overhead per array, 3 int arrays in nrows, int/double arr in nnz
+		double size = 16 + 4 * 4 + 8;                          // object, 4x int field, 1 ref
+		size += 3 * MemoryEstimates.intArrayCost(nrows);       // perm, iperm, len
+		size += MemoryEstimates.intArrayCost(nrows / DEFAULT_C + 2); // slice pointers
+		size += MemoryEstimates.intArrayCost((long) lnnz);     // column indexes
+		size += MemoryEstimates.doubleArrayCost((long) lnnz);  // values
+
+		//robustness for long overflows
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Indicates if the padding overhead of SELL-C-sigma for the given sparse block is
+	 * below the given ratio of padded entries to non-zeros.
+	 *
+	 * @param sblock sparse block
+	 * @param maxPadding max ratio of padded entries to non-zeros
+	 * @return true if the padding overhead is acceptable
+	 */
+	public static boolean isPaddingBounded(SparseBlock sblock, double maxPadding) {
+		final int rlen = sblock.numRows();
+		long padded = 0;
+		int[] lens = new int[Math.min(DEFAULT_SIGMA, rlen)];
+		for( int wl = 0; wl < rlen; wl += DEFAULT_SIGMA ) {
+			int wu = Math.min(wl + DEFAULT_SIGMA, rlen);
+			for( int i = wl; i < wu; i++ )
+				lens[i - wl] = sblock.size(i);
+			Arrays.sort(lens, 0, wu - wl);
+			//slices of C rows in decreasing order (padded to first row)
+			for( int i = wu - wl - 1; i >= 0; i -= DEFAULT_C )
+				padded += (long) DEFAULT_C * lens[i];
+		}
+		return padded <= maxPadding * Math.max(sblock.size(), 1);
+	}
+
+	@Override
+	public long getExactSizeInMemory() {
+		double size = 16 + 4 * 4 + 8;
+		size += 3 * MemoryEstimates.intArrayCost(_rlen);
+		size += MemoryEstimates.intArrayCost(_ptr.length);
+		size += MemoryEstimates.intArrayCost(_indexes.length);
+		size += MemoryEstimates.doubleArrayCost(_values.length);
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+
+	///////////////////
+	//SELL-C-sigma specific accessors for kernels
+
+	public int getSliceHeight() {
+		return _c;
+	}
+
+	public int getSortingWindow() {
+		return _sigma;
+	}
+
+	public int getNumSlices() {
+		return (_rlen + _c - 1) / _c;
+	}
+
+	/**
+	 * Gets the first slice that contains rows of the row range [rl, ru),
+	 * which is aligned with the sorting windows.
+	 *
+	 * @param rl row lower bound (inclusive)
+	 * @return slice lower bound (inclusive)
+	 */
+	public int getSliceLower(int rl) {
+		return rl / _sigma * _sigma / _c;
+	}
+
+	/**
+	 * Gets the upper bound of slices that contain rows of the row range [rl, ru),
+	 * which is aligned with the sorting windows.
+	 *
+	 * @param ru row upper bound (exclusive)
+	 * @return slice upper bound (exclusive)
+	 */
+	public int getSliceUpper(int ru) {
+		long pu = Math.min(((long) ru + _sigma - 1) / _sigma * _sigma, _rlen);
+		return (int) ((pu + _c - 1) / _c);
+	}
+
+	public int[] slicePointers() {
+		return _ptr;
+	}
+
+	/**
+	 * Get the row lengths in layout order (i.e., of the permuted rows).
+	 *
+	 * @return number of non-zeros per layout position
+	 */
+	public int[] rowLengths() {
+		return _len;
+	}
+
+	/**
+	 * Get the row permutation from layout positions to row indexes.
+	 *
+	 * @return row index per layout position
+	 */
+	public int[] permutation() {
+		return _perm;
+	}
+
+	/**
+	 * Get the padded column index array of all slices, which might have
+	 * spare capacity beyond the last slice pointer.
+	 *
+	 * @return column index array
+	 */
+	public int[] indexes() {
+		return _indexes;
+	}
+
+	/**
+	 * Get the padded value array of all slices, which might have
+	 * spare capacity beyond the last slice pointer.
+	 *
+	 * @return value array
+	 */
+	public double[] values() {
+		return _values;
+	}
+
+	///////////////////
+	//SparseBlock implementation
+
+	@Override
+	public void allocate(int r) {
+		//do nothing everything preallocated
+	}
+
+	@Override
+	public void allocate(int r, int nnz) {
+		//do nothing everything preallocated
+	}
+
+	@Override
+	public void allocate(int r, int ennz, int maxnnz) {
+		//do nothing everything preallocated
+	}
+
+	@Override
+	public void compact(int r) {
+		//do nothing everything preallocated
+	}
+
+	@Override
+	public int numRows() {
+		return _rlen;
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return false;
+	}
+
+	@Override
+	public boolean isContiguous() {
+		return false;
+	}
+
+	@Override
+	public boolean isAllocated(int r) {
+		return true;
+	}
+
+	@Override
+	public void reset() {
+		if( _size > 0 ) {
+			Arrays.fill(_len, 0);
+			Arrays.fill(_ptr, 0);
+			_indexes = new int[0];
+			_values = new double[0];
+			_size = 0;
+			_row = null;
+		}
+	}
+
+	@Override
+	public void reset(int ennz, int maxnnz) {
+		reset();
+	}
+
+	@Override
+	public void reset(int r, int ennz, int maxnnz) {
+		if( !isEmpty(r) )
+			setRow(r, new SparseRowVector());
+	}
+
+	@Override
+	public long size() {
+		return _size;
+	}
+
+	@Override
+	public int size(int r) {
+		return _len[_iperm[r]];
+	}
+
+	@Override
+	public long size(int rl, int ru) {
+		long ret = 0;
+		for( int i = rl; i < ru; i++ )
+			ret += size(i);
+		return ret;
+	}
+
+	@Override
+	public long size(int rl, int ru, int cl, int cu) {
+		long nnz = 0;
+		for( int i = rl; i < ru; i++ ) {
+			if( isEmpty(i) ) continue;
+			int start = posFIndexGTE(i, cl);
+			int end = posFIndexGTE(i, cu);
+			nnz += (start != -1) ? (end != -1 ? end : size(i)) - start : 0;
+		}
+		return nnz;
+	}
+
+	@Override
+	public boolean isEmpty(int r) {
+		return size(r) == 0;
+	}
+
+	@Override
+	public boolean checkValidity(int rlen, int clen, long nnz, boolean strict) {
+		//1. correct meta data
+		if( rlen < 0 || clen < 0 || rlen != _rlen )
+			throw new RuntimeException("Invalid block dimensions: "+rlen+" "+clen);
+
+		//2. correct array lengths and non-zeros
+		if( _size != nnz || _ptr.length != getNumSlices() + 1
+			|| _indexes.length < _ptr[getNumSlices()] || _values.length != _indexes.length )
+			throw new RuntimeException("Incorrect array lengths.");
+		long lnnz = 0;
+		for( int p = 0; p < _rlen; p++ )
+			lnnz += _len[p];
+		if( lnnz != nnz )
+			throw new RuntimeException("Incorrect number of non-zeros: "+lnnz+" vs "+nnz);
+
+		//3. valid permutation and slices
+		for( int p = 0; p < _rlen; p++ )
+			if( _iperm[_perm[p]] != p )
+				throw new RuntimeException("Invalid row permutation at position: "+p);
+		for( int s = 0; s < getNumSlices(); s++ )
+			if( _ptr[s + 1] - _ptr[s] < _c * getMaxLength(s) || (_ptr[s + 1] - _ptr[s]) % _c != 0 )
+				throw new RuntimeException("Invalid slice pointers at slice: "+s);
+		for( int p = 1; p < _rlen; p++ )
+			if( p % _c != 0 && _len[p - 1] < _len[p] )
+				throw new RuntimeException("Unsorted row lengths within slice at position: "+p);
+
+		//4. sorted column indexes and non-zero values per row
+		for( int p = 0; p < _rlen; p++ ) {
+			for( int j = 0, off = offset(p); j < _len[p]; j++, off += _c ) {
+				if( _indexes[off] < 0 || _indexes[off] >= clen || (j > 0 && _indexes[off - _c] >= _indexes[off]) )
+					throw new RuntimeException("Wrong sparse row ordering, row " + _perm[p] + " at pos: " + j);
+				if( _values[off] == 0 && strict )
+					throw new RuntimeException("The values are expected to be non zeros but zero at row: "
+						+ _perm[p] + ", pos: " + j);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int[] indexes(int r) {
+		return getRow(r).indexes;
+	}
+
+	@Override
+	public double[] values(int r) {
+		return getRow(r).values;
+	}
+
+	@Override
+	public int pos(int r) {
+		return 0;
+	}
+
+	@Override
+	public boolean set(int r, int c, double v) {
+		int j = search(r, c);
+		if( j >= 0 && v != 0 ) { //in-place update
+			_values[offset(_iperm[r]) + j * _c] = v;
+			_row = null;
+			return false;
+		}
+		SparseRowVector row = getRowVector(r);
+		boolean ret = row.set(c, v);
+		if( ret )
+			setRow(r, row);
+		return ret;
+	}
+
+	@Override
+	public void set(int r, SparseRow row, boolean deep) {
+		setRow(r, row);
+	}
+
+	@Override
+	public boolean add(int r, int c, double v) {
+		if( v == 0 )
+			return false;
+		int j = search(r, c);
+		if( j >= 0 ) { //in-place update
+			_values[offset(_iperm[r]) + j * _c] += v;
+			_row = null;
+			return false;
+		}
+		SparseRowVector row = getRowVector(r);
+		boolean ret = row.add(c, v);
+		setRow(r, row);
+		return ret;
+	}
+
+	@Override
+	public void append(int r, int c, double v) {
+		if( v == 0 )
+			return;
+		SparseRowVector row = getRowVector(r);
+		row.append(c, v);
+		setRow(r, row);
+	}
+
+	@Override
+	public void setIndexRange(int r, int cl, int cu, double[] v, int vix, int vlen) {
+		SparseRowVector row = getRowVector(r);
+		row.setIndexRange(cl, cu - 1, v, vix, vlen);
+		setRow(r, row);
+	}
+
+	@Override
+	public void setIndexRange(int r, int cl, int cu, double[] v, int[] vix, int vpos, int vlen) {
+		SparseRowVector row = getRowVector(r);
+		row.setIndexRange(cl, cu - 1, v, vix, vpos, vlen);
+		setRow(r, row);
+	}
+
+	@Override
+	public void deleteIndexRange(int r, int cl, int cu) {
+		if( isEmpty(r) )
+			return;
+		SparseRowVector row = getRowVector(r);
+		row.deleteIndexRange(cl, cu - 1);
+		setRow(r, row);
+	}
+
+	@Override
+	public void sort() {
+		for( int i = 0; i < _rlen; i++ )
+			sort(i);
+	}
+
+	@Override
+	public void sort(int r) {
+		if( size(r) <= 1 )
+			return;
+		SparseRowVector row = getRowVector(r);
+		row.sort();
+		setRow(r, row);
+	}
+
+	@Override
+	public double get(int r, int c) {
+		int j = search(r, c);
+		return (j >= 0) ? _values[offset(_iperm[r]) + j * _c] : 0;
+	}
+
+	@Override
+	public SparseRow get(int r) {
+		return isEmpty(r) ? new SparseRowScalar() : getRowVector(r);
+	}
+
+	@Override
+	public int posFIndexLTE(int r, int c) {
+		int j = search(r, c);
+		return (j >= 0) ? j : (-j - 1) - 1;
+	}
+
+	@Override
+	public int posFIndexGTE(int r, int c) {
+		int j = search(r, c);
+		j = (j >= 0) ? j : -j - 1;
+		return (j < size(r)) ? j : -1;
+	}
+
+	@Override
+	public int posFIndexGT(int r, int c) {
+		int j = search(r, c);
+		j = (j >= 0) ? j + 1 : -j - 1;
+		return (j < size(r)) ? j : -1;
+	}
+
+	@Override
+	public Iterator<Integer> getNonEmptyRowsIterator(int rl, int ru) {
+		return new NonEmptyRowsIteratorSELL(rl, ru);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SparseBlockSELL: rlen=");
+		sb.append(numRows());
+		sb.append(", nnz=");
+		sb.append(size());
+		sb.append(", C=");
+		sb.append(_c);
+		sb.append(", sigma=");
+		sb.append(_sigma);
+		sb.append("\n");
+		final int rowDigits = (int)Math.max(Math.ceil(Math.log10(numRows())),1);
+		for( int i = 0; i < numRows(); i++ ) {
+			if( isEmpty(i) ) continue;
+			MaterializedRow row = getRow(i);
+			sb.append(String.format("%0"+rowDigits+"d ", i));
+			for( int j = 0; j < row.indexes.length; j++ ) {
+				sb.append(row.indexes[j]);
+				sb.append(":");
+				sb.append(row.values[j]);
+				if( j + 1 < row.indexes.length )
+					sb.append(" ");
+			}
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+
+	public class NonEmptyRowsIteratorSELL implements Iterator<Integer> {
+		private int _rpos;
+		private final int _ru;
+
+		public NonEmptyRowsIteratorSELL(int rl, int ru) {
+			_rpos = rl;
+			_ru = ru;
+			skipEmpty();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return _rpos < _ru;
+		}
+
+		@Override
+		public Integer next() {
+			int ret = _rpos++;
+			skipEmpty();
+			return ret;
+		}
+
+		private void skipEmpty() {
+			while( _rpos < _ru && isEmpty(_rpos) )
+				_rpos++;
+		}
+	}
+
+	///////////////////////////
+	// private helper methods
+
+	private static int getSigma(int c, int sigma) {
+		if( c < 1 )
+			throw new RuntimeException("Invalid SELL slice height: "+c);
+		return Math.max(sigma + c - 1, c) / c * c;
+	}
+
+	private int offset(int p) {
+		return _ptr[p / _c] + p % _c;
+	}
+
+	private int getMaxLength(int s) {
+		int ret = 0;
+		for( int p = s * _c; p < Math.min((s + 1) * _c, _rlen); p++ )
+			ret = Math.max(ret, _len[p]);
+		return ret;
+	}
+
+	/**
+	 * Binary search of column c in row r.
+	 *
+	 * @return row-local position if found, otherwise -(insertion point)-1
+	 */
+	private int search(int r, int c) {
+		final int p = _iperm[r];
+		final int off = offset(p);
+		int lo = 0, hi = _len[p] - 1;
+		while( lo <= hi ) {
+			int mid = (lo + hi) >>> 1;
+			int ix = _indexes[off + mid * _c];
+			if( ix < c )
+				lo = mid + 1;
+			else if( ix > c )
+				hi = mid - 1;
+			else
+				return mid;
+		}
+		return -(lo + 1);
+	}
+
+	private MaterializedRow getRow(int r) {
+		MaterializedRow row = _row;
+		if( row != null && row.r == r )
+			return row;
+		final int p = _iperm[r];
+		final int len = _len[p];
+		int[] ix = new int[len];
+		double[] vals = new double[len];
+		for( int j = 0, off = offset(p); j < len; j++, off += _c ) {
+			ix[j] = _indexes[off];
+			vals[j] = _values[off];
+		}
+		row = new MaterializedRow(r, ix, vals);
+		_row = row;
+		return row;
+	}
+
+	private SparseRowVector getRowVector(int r) {
+		MaterializedRow row = getRow(r);
+		return new SparseRowVector(row.values.clone(), row.indexes.clone());
+	}
+
+	/**
+	 * Replaces row r with the given row, grows the slice of the row if the new
+	 * row exceeds its padded width, and restores the order of decreasing row
+	 * lengths within the slice (which the kernels exploit for early termination).
+	 */
+	private void setRow(int r, SparseRow row) {
+		int p = _iperm[r];
+		final int s = p / _c;
+		final int len = row.size();
+		final int width = (_ptr[s + 1] - _ptr[s]) / _c;
+		if( len > width ) {
+			//grow slice: shift subsequent slices in place (amortized capacity)
+			final int delta = (len - width) * _c;
+			final int end = _ptr[_ptr.length - 1];
+			ensureCapacity(end + delta);
+			System.arraycopy(_indexes, _ptr[s + 1], _indexes, _ptr[s + 1] + delta, end - _ptr[s + 1]);
+			System.arraycopy(_values, _ptr[s + 1], _values, _ptr[s + 1] + delta, end - _ptr[s + 1]);
+			Arrays.fill(_indexes, _ptr[s + 1], _ptr[s + 1] + delta, 0);
+			Arrays.fill(_values, _ptr[s + 1], _ptr[s + 1] + delta, 0);
+			for( int i = s + 1; i < _ptr.length; i++ )
+				_ptr[i] += delta;
+		}
+		//write row into its lane, and pad remaining entries
+		int[] rix = row.indexes();
+		double[] rvals = row.values();
+		int off = offset(p);
+		for( int j = 0; j < len; j++, off += _c ) {
+			_indexes[off] = rix[j];
+			_values[off] = rvals[j];
+		}
+		for( int j = len; j < _len[p]; j++, off += _c ) {
+			_indexes[off] = 0;
+			_values[off] = 0;
+		}
+		_size += len - _len[p];
+		_len[p] = len;
+		_row = null;
+
+		//restore decreasing row lengths within the slice
+		final int pl = s * _c, pu = Math.min(pl + _c, _rlen);
+		while( p > pl && _len[p - 1] < _len[p] ) {
+			swapLanes(p - 1, p);
+			p--;
+		}
+		while( p + 1 < pu && _len[p + 1] > _len[p] ) {
+			swapLanes(p, p + 1);
+			p++;
+		}
+	}
+
+	private void ensureCapacity(int size) {
+		if( size <= _indexes.length )
+			return;
+		int cap = (int) Math.min(Integer.MAX_VALUE, Math.max(size, (long) _indexes.length * 3 / 2));
+		_indexes = Arrays.copyOf(_indexes, cap);
+		_values = Arrays.copyOf(_values, cap);
+	}
+
+	/**
+	 * Swaps the lanes of two layout positions of the same slice.
+	 */
+	private void swapLanes(int p1, int p2) {
+		final int s = p1 / _c;
+		final int width = (_ptr[s + 1] - _ptr[s]) / _c;
+		for( int j = 0, off1 = offset(p1), off2 = offset(p2); j < width; j++, off1 += _c, off2 += _c ) {
+			int ix = _indexes[off1];
+			_indexes[off1] = _indexes[off2];
+			_indexes[off2] = ix;
+			double v = _values[off1];
+			_values[off1] = _values[off2];
+			_values[off2] = v;
+		}
+		int len = _len[p1];
+		_len[p1] = _len[p2];
+		_len[p2] = len;
+		int r = _perm[p1];
+		_perm[p1] = _perm[p2];
+		_perm[p2] = r;
+		_iperm[_perm[p1]] = p1;
+		_iperm[_perm[p2]] = p2;
+	}
+
+	private static class MaterializedRow {
+		private final int r;
+		private final int[] indexes;
+		private final double[] values;
+
+		private MaterializedRow(int r, int[] indexes, double[] values) {
+			this.r = r;
+			this.indexes = indexes;
+			this.values = values;
+		}
+	}
+}
@@ -24,6 +24,9 @@ import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
+import org.apache.sysds.runtime.matrix.data.LibMatrixQuantize;
 import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.AggregateBinaryOperator;
@@ -73,21 +76,61 @@ public class AggregateBinaryCPInstruction extends BinaryCPInstruction {
 
 	@Override
 	public void processInstruction(ExecutionContext ec) {
-		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName());
-		MatrixBlock matBlock2 = ec.getMatrixInput(input2.getName());
+		final boolean fp32 = LibMatrixFP32.isEnabled(getOpcode());
+		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName(), true);
+		MatrixBlock matBlock2 = ec.getMatrixInput(input2.getName(), true);
 		// check compressed inputs
 		final boolean comp1 = matBlock1 instanceof CompressedMatrixBlock;
 		final boolean comp2 = matBlock2 instanceof CompressedMatrixBlock;
 
+		if(fp32 && !transposeLeft && !transposeRight && LibMatrixFP32.isApplicableMatrixMult(matBlock1, matBlock2)) {
+			processFP32(ec, matBlock1, matBlock2);
+			return;
+		}
+		if(!transposeLeft && !transposeRight && LibMatrixOffHeap.isApplicableMatrixMult(matBlock1, matBlock2)) {
+			processOffHeap(ec, matBlock1, matBlock2);
+			return;
+		}
+		matBlock1 = LibMatrixFP32.toFP64(matBlock1);
+		// quantized rhs (e.g., model weights) consumed as-is by the matrix mult
+		if(!LibMatrixQuantize.isQuantized(matBlock2) || comp1 || transposeLeft || transposeRight)
+			matBlock2 = LibMatrixFP32.toFP64(matBlock2);
+
 		if(comp1 || comp2)
 			processCompressedAggregateBinary(ec, matBlock1, matBlock2, comp1, comp2);
 		else if(transposeLeft || transposeRight)
 			processTransposedFusedAggregateBinary(ec, matBlock1, matBlock2);
-		else
+		else {
+			// convert reused sparse lhs of matrix-vector products (e.g., in loops)
+			if(matBlock1.isInSparseFormat() && !matBlock2.isInSparseFormat() && matBlock2.getNumColumns() <= 64)
+				ec.getMatrixObject(input1).registerSpMV(matBlock1);
 			processNormal(ec, matBlock1, matBlock2);
+		}
 
 	}
 
+	private void processFP32(ExecutionContext ec, MatrixBlock matBlock1, MatrixBlock matBlock2) {
+		// compute single-precision matrix multiplication
+		AggregateBinaryOperator ab_op = (AggregateBinaryOperator) _optr;
+		MatrixBlock ret = LibMatrixFP32.matrixMult(matBlock1, matBlock2, ab_op.getNumThreads());
+
+		// release inputs/outputs
+		ec.releaseMatrixInput(input1.getName());
+		ec.releaseMatrixInput(input2.getName());
+		ec.setMatrixOutput(output.getName(), ret);
+	}
+
+	private void processOffHeap(ExecutionContext ec, MatrixBlock matBlock1, MatrixBlock matBlock2) {
+		// compute matrix multiplication over row panels of the lhs (off-heap output)
+		AggregateBinaryOperator ab_op = (AggregateBinaryOperator) _optr;
+		MatrixBlock ret = LibMatrixOffHeap.matrixMult(matBlock1, matBlock2, ab_op.getNumThreads());
+
+		// release inputs/outputs
+		ec.releaseMatrixInput(input1.getName());
+		ec.releaseMatrixInput(input2.getName());
+		ec.setMatrixOutput(output.getName(), ret);
+	}
+
 	private void processNormal(ExecutionContext ec, MatrixBlock matBlock1, MatrixBlock matBlock2) {
 		// compute matrix multiplication
 		AggregateBinaryOperator ab_op = (AggregateBinaryOperator) _optr;
@@ -108,11 +151,13 @@ public class AggregateBinaryCPInstruction extends BinaryCPInstruction {
 
 		// TODO: Use rewrite rule here t(x) %*% y -> t(t(y) %*% x)
 		if(transposeLeft) {
-			matBlock1 = LibMatrixReorg.transpose(matBlock1, ab_op.getNumThreads());
+			MatrixBlock tmp = matBlock1.isInSparseFormat() ?
+				ec.getMatrixObject(input1).getCachedTranspose(matBlock1, true) : null;
+			matBlock1 = (tmp != null) ? tmp : LibMatrixReorg.transpose(matBlock1, ab_op.getNumThreads(), true);
 			ec.releaseMatrixInput(input1.getName());
 		}
 		if(transposeRight) {
-			matBlock2 = LibMatrixReorg.transpose(matBlock2, ab_op.getNumThreads());
+			matBlock2 = LibMatrixReorg.transpose(matBlock2, ab_op.getNumThreads(), true);
 			ec.releaseMatrixInput(input2.getName());
 		}
 
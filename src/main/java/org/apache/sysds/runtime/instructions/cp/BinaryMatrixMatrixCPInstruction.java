@@ -24,6 +24,8 @@ import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
 import org.apache.sysds.runtime.matrix.data.LibCommonsMath;
 import org.apache.sysds.runtime.matrix.data.LibMatrixBincell;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysds.runtime.matrix.operators.Operator;
@@ -60,8 +62,28 @@ public class BinaryMatrixMatrixCPInstruction extends BinaryCPInstruction {
 	@Override
 	public void processInstruction(ExecutionContext ec) {
 		// Read input matrices
-		MatrixBlock inBlock1 = ec.getMatrixInput(input1.getName());
-		MatrixBlock inBlock2 = ec.getMatrixInput(input2.getName());
+		final boolean cellwise = !inplace && _optr instanceof BinaryOperator
+			&& !LibCommonsMath.isSupportedMatrixMatrixOperation(getOpcode());
+		final boolean fp32 = cellwise && LibMatrixFP32.isEnabled(getOpcode());
+		MatrixBlock inBlock1 = ec.getMatrixInput(input1.getName(), cellwise);
+		MatrixBlock inBlock2 = ec.getMatrixInput(input2.getName(), cellwise);
+
+		// single-precision element-wise operations
+		if(fp32 && LibMatrixFP32.isApplicableBinary(inBlock1, inBlock2)) {
+			MatrixBlock retBlock = LibMatrixFP32.bincellOp(inBlock1, inBlock2, (BinaryOperator) _optr);
+			ec.releaseMatrixInput(input1.getName(), input2.getName());
+			ec.setMatrixOutput(output.getName(), retBlock);
+			return;
+		}
+		// off-heap element-wise operations (off-heap input or large output)
+		if(cellwise && LibMatrixOffHeap.isApplicableBinary(inBlock1, inBlock2)) {
+			MatrixBlock retBlock = LibMatrixOffHeap.bincellOp(inBlock1, inBlock2, (BinaryOperator) _optr);
+			ec.releaseMatrixInput(input1.getName(), input2.getName());
+			ec.setMatrixOutput(output.getName(), retBlock);
+			return;
+		}
+		inBlock1 = LibMatrixFP32.toFP64(inBlock1);
+		inBlock2 = LibMatrixFP32.toFP64(inBlock2);
 
 		boolean compressedLeft = inBlock1 instanceof CompressedMatrixBlock;
 		boolean compressedRight = inBlock2 instanceof CompressedMatrixBlock;
@@ -22,6 +22,8 @@ package org.apache.sysds.runtime.instructions.cp;
 import org.apache.sysds.common.Types.DataType;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.Operator;
 import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
@@ -43,12 +45,29 @@ public class BinaryMatrixScalarCPInstruction extends BinaryCPInstruction {
 		CPOperand mat = ( input1.getDataType() == DataType.MATRIX ) ? input1 : input2;
 		CPOperand scalar = ( input1.getDataType() == DataType.MATRIX ) ? input2 : input1;
 		
-		MatrixBlock inBlock = ec.getMatrixInput(mat.getName());
+		final boolean fp32 = LibMatrixFP32.isEnabled(getOpcode());
+		MatrixBlock inBlock = ec.getMatrixInput(mat.getName(), true);
 		ScalarObject constant = ec.getScalarInput(scalar);
 
 		ScalarOperator sc_op = (ScalarOperator) _optr;
 		sc_op = sc_op.setConstant(constant.getDoubleValue());
 		
+		// single-precision element-wise operations
+		if( fp32 && LibMatrixFP32.isApplicableScalar(inBlock) ) {
+			MatrixBlock retBlock = LibMatrixFP32.scalarOp(inBlock, sc_op);
+			ec.releaseMatrixInput(mat.getName());
+			ec.setMatrixOutput(output.getName(), retBlock);
+			return;
+		}
+		// off-heap element-wise operations (off-heap input or large output)
+		if( LibMatrixOffHeap.isApplicableOutput(inBlock, inBlock.getNumRows(), inBlock.getNumColumns()) ) {
+			MatrixBlock retBlock = LibMatrixOffHeap.scalarOp(inBlock, sc_op);
+			ec.releaseMatrixInput(mat.getName());
+			ec.setMatrixOutput(output.getName(), retBlock);
+			return;
+		}
+		inBlock = LibMatrixFP32.toFP64(inBlock);
+		
 		MatrixBlock retBlock = inBlock.scalarOperations(sc_op, new MatrixBlock());
 		
 		ec.releaseMatrixInput(mat.getName());
@@ -75,6 +75,9 @@ public class MMChainCPInstruction extends UnaryCPInstruction {
 		MatrixBlock v = ec.getMatrixInput(input2.getName());
 		MatrixBlock w = _type.isWeighted() ? ec.getMatrixInput(input3.getName()) : null;
 		
+		//convert reused sparse inputs (e.g., in loops)
+		ec.getMatrixObject(input1).registerSpMV(X);
+		
 		//execute mmchain operation 
 		MatrixBlock out = X.chainMatrixMultOperations(v, w, new MatrixBlock(), _type, _numThreads);
 		
@@ -30,6 +30,7 @@ import org.apache.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageItemUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.util.IndexRange;
 import org.apache.sysds.utils.Statistics;
@@ -76,7 +77,7 @@ public final class MatrixIndexingCPInstruction extends IndexingCPInstruction {
 				{
 					//execute right indexing operation (with shallow row copies for range
 					//of entire sparse rows, which is safe due to copy on update)
-					MatrixBlock matBlock = mo.acquireRead();
+					MatrixBlock matBlock = LibMatrixFP32.toFP64(mo.acquireRead());
 					resultBlock = matBlock.slice((int)ix.rowStart, (int)ix.rowEnd, 
 						(int)ix.colStart, (int)ix.colEnd, false, new MatrixBlock());
 					
@@ -53,6 +53,7 @@ import org.apache.sysds.runtime.functionobjects.ValueFunction;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.lineage.LineageItemUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.Operator;
 import org.apache.sysds.runtime.matrix.operators.SimpleOperator;
@@ -257,7 +258,7 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 				pattern = ScalarObjectFactory.createScalarObject(ValueType.FP64, params.get("pattern"));
 			boolean ret = pattern.getDataType().isScalar() ?
 				target.containsValue(((ScalarObject)pattern).getDoubleValue(), k) : 
-				(target.containsVector(((MatrixObject)pattern).acquireRead(), true).size()>0);
+				(target.containsVector(LibMatrixFP32.toFP64(((MatrixObject)pattern).acquireRead()), true).size()>0);
 			ec.releaseMatrixInput(varName);
 			if(!pattern.getDataType().isScalar())
 				ec.releaseMatrixInput(params.get("pattern"));
@@ -273,7 +274,7 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 				ec.releaseFrameInput(params.get("target"));
 			} else{
 				MatrixObject targetObj = ec.getMatrixObject(params.get("target"));
-				MatrixBlock target = targetObj.acquireRead();
+				MatrixBlock target = LibMatrixFP32.toFP64(targetObj.acquireRead());
 				double pattern = Double.parseDouble(params.get("pattern"));
 				double replacement = Double.parseDouble(params.get("replacement"));
 				MatrixBlock ret = target.replaceOperations(new MatrixBlock(), pattern, replacement);
@@ -404,7 +405,7 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 
 			Data cacheData = ec.getVariable(getParam("target"));
 			if(cacheData instanceof MatrixObject) {
-				MatrixBlock matrix = ((MatrixObject) cacheData).acquireRead();
+				MatrixBlock matrix = LibMatrixFP32.toFP64(((MatrixObject) cacheData).acquireRead());
 				warnOnTrunction(matrix, rows, cols);
 				out = DataConverter.toString(matrix, sparse, separator, lineSeparator, rows, cols, decimal);
 			}
@@ -30,6 +30,8 @@ import org.apache.sysds.runtime.functionobjects.RollIndex;
 import org.apache.sysds.runtime.functionobjects.SortIndex;
 import org.apache.sysds.runtime.functionobjects.SwapIndex;
 import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.Operator;
 import org.apache.sysds.runtime.matrix.operators.ReorgOperator;
@@ -142,8 +144,27 @@ public class ReorgCPInstruction extends UnaryCPInstruction {
 	@Override
 	public void processInstruction(ExecutionContext ec) {
 		//acquire inputs
-		MatrixBlock matBlock = ec.getMatrixInput(input1.getName());
+		MatrixBlock matBlock = ec.getMatrixInput(input1.getName(), true);
 		ReorgOperator r_op = (ReorgOperator) _optr;
+		
+		//off-heap transpose (off-heap input or large output)
+		if( r_op.fn instanceof SwapIndex && LibMatrixOffHeap.isApplicableOutput(
+			matBlock, matBlock.getNumColumns(), matBlock.getNumRows()) ) {
+			MatrixBlock soresBlock = LibMatrixOffHeap.transpose(matBlock, r_op.getNumThreads());
+			ec.releaseMatrixInput(input1.getName());
+			ec.setMatrixOutput(output.getName(), soresBlock);
+			return;
+		}
+		matBlock = LibMatrixFP32.toFP64(matBlock);
+		//transpose from cached column-major copy of reused sparse inputs
+		if( r_op.fn instanceof SwapIndex && matBlock.isInSparseFormat() ) {
+			MatrixBlock soresBlock = ec.getMatrixObject(input1).getCachedTranspose(matBlock, false);
+			if( soresBlock != null ) {
+				ec.releaseMatrixInput(input1.getName());
+				ec.setMatrixOutput(output.getName(), soresBlock);
+				return;
+			}
+		}
 		if( r_op.fn instanceof SortIndex ) {
 			//additional attributes for sort
 			int[] cols = _col.getDataType().isMatrix() ? DataConverter.convertToIntVector(ec.getMatrixInput(_col.getName())) :
@@ -25,6 +25,7 @@ import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.lineage.LineageItem;
 import org.apache.sysds.runtime.matrix.data.LibCommonsMath;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.operators.Operator;
 import org.apache.sysds.runtime.matrix.operators.UnaryOperator;
@@ -37,7 +38,7 @@ public class UnaryMatrixCPInstruction extends UnaryCPInstruction {
 	@Override 
 	public void processInstruction(ExecutionContext ec) {
 		MatrixObject inObj = ec.getMatrixObject(input1);
-		MatrixBlock inBlock = inObj.acquireRead();
+		MatrixBlock inBlock = LibMatrixFP32.toFP64(inObj.acquireRead());
 		MatrixBlock retBlock = null;
 		
 		if(LibCommonsMath.isSupportedUnaryOperation(getOpcode())) {
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysds.parser.ParseException;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+
+/**
+ * Lazy reader of the compact binary lineage format written by
+ * {@link LineageBinaryWriter}. Records are only decoded on demand until
+ * the next (or requested) root, which allows consuming traces incrementally.
+ * In contrast to {@link LineageParser}, creation items are restored from the
+ * stored opcode and data without re-parsing the traced instructions.
+ */
+public class LineageBinaryReader implements Closeable
+{
+	private final DataInputStream _in;
+	private final List<LineageItem> _items = new ArrayList<>();
+	private final List<String> _dict = new ArrayList<>();
+	private long _lastId = 0;
+
+	//current root record
+	private String _name = null;
+	private LineageItem _root = null;
+	private boolean _patch = false;
+
+	public LineageBinaryReader(InputStream is) throws IOException {
+		_in = new DataInputStream(new BufferedInputStream(is));
+		byte[] magic = new byte[LineageBinaryWriter.MAGIC.length];
+		_in.readFully(magic);
+		if( !Arrays.equals(magic, LineageBinaryWriter.MAGIC) )
+			throw new ParseException("Invalid binary lineage trace (magic number mismatch).");
+		byte version = _in.readByte();
+		if( version != LineageBinaryWriter.VERSION )
+			throw new ParseException("Unsupported binary lineage trace version: "+version);
+	}
+
+	public static LineageBinaryReader open(String fname) {
+		try {
+			Path path = new Path(fname);
+			FileSystem fs = IOUtilFunctions.getFileSystem(path);
+			return new LineageBinaryReader(fs.open(path));
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Decodes the records up to the next root or patch record.
+	 *
+	 * @return true if a root or patch was found, false at the end of the stream
+	 * @throws IOException if reading from the stream fails
+	 */
+	public boolean next() throws IOException {
+		while( true ) {
+			int type = _in.read();
+			if( type < 0 )
+				return false;
+			switch( (byte) type ) {
+				case LineageBinaryWriter.REC_ITEM:
+					_items.add(readItem());
+					break;
+				case LineageBinaryWriter.REC_ROOT:
+				case LineageBinaryWriter.REC_PATCH:
+					_patch = (type == LineageBinaryWriter.REC_PATCH);
+					_name = readString();
+					_root = _items.get(_items.size() - 1 - readVarInt());
+					return true;
+				default:
+					throw new ParseException("Invalid binary lineage record type: "+type);
+			}
+		}
+	}
+
+	/**
+	 * Decodes the records up to the root with the given name.
+	 *
+	 * @param name name of the trace
+	 * @return lineage DAG root, or null if no such trace exists
+	 * @throws IOException if reading from the stream fails
+	 */
+	public LineageItem readTrace(String name) throws IOException {
+		while( next() )
+			if( !_patch && _name.equals(name) )
+				return _root;
+		return null;
+	}
+
+	public String getName() {
+		return _name;
+	}
+
+	public LineageItem getRoot() {
+		return _root;
+	}
+
+	public boolean isPatch() {
+		return _patch;
+	}
+
+	public int getNumItems() {
+		return _items.size();
+	}
+
+	@Override
+	public void close() throws IOException {
+		_in.close();
+	}
+
+	private LineageItem readItem() throws IOException {
+		int pos = _items.size();
+		long id = _lastId + unzigzag(readVarLong());
+		_lastId = id;
+		byte kind = _in.readByte();
+		switch( kind ) {
+			case LineageBinaryWriter.KIND_PLACEHOLDER: {
+				//consistent with the text parser (placeholder as data)
+				String opcode = readRef();
+				return new LineageItem(id, opcode, "Create"+opcode);
+			}
+			case LineageBinaryWriter.KIND_CREATION: {
+				String opcode = readRef();
+				return new LineageItem(id, readRef(), opcode);
+			}
+			case LineageBinaryWriter.KIND_LITERAL:
+				return new LineageItem(id, readRef());
+			case LineageBinaryWriter.KIND_INSTRUCTION:
+			case LineageBinaryWriter.KIND_DEDUP: {
+				String opcode = readRef();
+				String data = readRef();
+				LineageItem[] inputs = new LineageItem[readVarInt()];
+				for( int i=0; i<inputs.length; i++ )
+					inputs[i] = _items.get(pos - readVarInt());
+				return new LineageItem(id, data, opcode, inputs, readVarInt());
+			}
+			default:
+				throw new ParseException("Invalid binary lineage item kind: "+kind);
+		}
+	}
+
+	private String readRef() throws IOException {
+		int ref = readVarInt();
+		if( ref == _dict.size() )
+			_dict.add(readString());
+		else if( ref > _dict.size() )
+			throw new ParseException("Invalid binary lineage dictionary reference: "+ref);
+		return _dict.get(ref);
+	}
+
+	private String readString() throws IOException {
+		byte[] bytes = new byte[readVarInt()];
+		_in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private int readVarInt() throws IOException {
+		return (int) readVarLong();
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for( int shift = 0; shift < 64; shift += 7 ) {
+			int b = _in.read();
+			if( b < 0 )
+				throw new EOFException("Truncated binary lineage trace.");
+			value |= (long) (b & 0x7F) << shift;
+			if( (b & 0x80) == 0 )
+				return value;
+		}
+		throw new ParseException("Malformed varint in binary lineage trace.");
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
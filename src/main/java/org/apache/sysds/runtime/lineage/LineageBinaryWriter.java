@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Stack;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+
+/**
+ * Streaming writer of the compact binary lineage format, which is an alternative
+ * to the text representation of {@link org.apache.sysds.utils.Explain}. A stream
+ * consists of a header and a sequence of item and root records:
+ * <ul>
+ * <li>Items are written once in topological order, and referenced by inputs as
+ * varint distance to the current record, which makes shared sub-DAGs (and items
+ * shared across multiple roots or dedup patches) free of redundancy.</li>
+ * <li>Item ids are written as zigzag varint delta to the previous item id.</li>
+ * <li>Opcodes and data strings are interned in a dictionary, which is built
+ * incrementally with the stream (references to the next free dictionary index
+ * introduce a new string).</li>
+ * </ul>
+ * Multiple traces can be appended to an open writer, where only the items not
+ * written so far are added to the stream.
+ */
+public class LineageBinaryWriter implements Closeable
+{
+	protected static final byte[] MAGIC = new byte[] {'S', 'D', 'S', 'L'};
+	protected static final byte VERSION = 1;
+
+	//record types
+	protected static final byte REC_ITEM = 1;
+	protected static final byte REC_ROOT = 2;
+	protected static final byte REC_PATCH = 3;
+
+	//item kinds
+	protected static final byte KIND_CREATION = 0;
+	protected static final byte KIND_LITERAL = 1;
+	protected static final byte KIND_INSTRUCTION = 2;
+	protected static final byte KIND_DEDUP = 3;
+	protected static final byte KIND_PLACEHOLDER = 4;
+
+	private final DataOutputStream _out;
+	private final Map<LineageItem, Integer> _written = new IdentityHashMap<>();
+	private final Map<String, Integer> _dict = new HashMap<>();
+	private long _lastId = 0;
+
+	public LineageBinaryWriter(OutputStream os) throws IOException {
+		_out = new DataOutputStream(new BufferedOutputStream(os));
+		_out.write(MAGIC);
+		_out.writeByte(VERSION);
+	}
+
+	/**
+	 * Appends the lineage DAG of the given root (all items not yet written)
+	 * as well as a named root record.
+	 *
+	 * @param name name of the trace (e.g., the variable name)
+	 * @param root lineage DAG root
+	 * @throws IOException if writing to the stream fails
+	 */
+	public void writeTrace(String name, LineageItem root) throws IOException {
+		writeRoot(REC_ROOT, name, root);
+	}
+
+	/**
+	 * Appends the lineage DAG of a deduplication patch as well as a patch
+	 * record with the given header (e.g., patch_R_SB15_1).
+	 *
+	 * @param header patch header as used by the text format
+	 * @param root lineage DAG root of the patch
+	 * @throws IOException if writing to the stream fails
+	 */
+	public void writePatch(String header, LineageItem root) throws IOException {
+		writeRoot(REC_PATCH, header, root);
+	}
+
+	public int getNumItems() {
+		return _written.size();
+	}
+
+	public void flush() throws IOException {
+		_out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		_out.close();
+	}
+
+	/**
+	 * Writes the given trace and dedup patches into a new binary lineage file.
+	 *
+	 * @param root lineage DAG root of the trace
+	 * @param patches dedup patches by header, or null
+	 * @param fname file name
+	 */
+	public static void writeTraceToHDFS(LineageItem root, Map<String, LineageItem> patches, String fname) {
+		try {
+			Path path = new Path(fname);
+			FileSystem fs = IOUtilFunctions.getFileSystem(path);
+			try( LineageBinaryWriter writer = new LineageBinaryWriter(fs.create(path, true)) ) {
+				writer.writeTrace(path.getName(), root);
+				if( patches != null )
+					for( Map.Entry<String, LineageItem> e : patches.entrySet() )
+						writer.writePatch(e.getKey(), e.getValue());
+			}
+			if (fs instanceof LocalFileSystem)
+				IOUtilFunctions.deleteCrcFilesFromLocalFileSystem(fs, path);
+		}
+		catch(IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	private void writeRoot(byte type, String name, LineageItem root) throws IOException {
+		writeItemsNR(root);
+		_out.writeByte(type);
+		writeString(name);
+		writeVarInt(_written.size() - 1 - _written.get(root));
+	}
+
+	private void writeItemsNR(LineageItem root) throws IOException {
+		//non-recursive post-order traversal (inputs before consumers), which
+		//does not modify the visit status of the items (no interference with
+		//concurrent traversals) and stops at placeholders like the text format
+		Stack<LineageItem> stackItem = new Stack<>();
+		Stack<MutableInt> stackPos = new Stack<>();
+		stackItem.push(root); stackPos.push(new MutableInt(0));
+		while( !stackItem.empty() ) {
+			LineageItem tmpItem = stackItem.peek();
+			MutableInt tmpPos = stackPos.peek();
+			if( _written.containsKey(tmpItem) ) {
+				stackItem.pop(); stackPos.pop();
+			}
+			else if( isLeaf(tmpItem) || tmpItem.getInputs().length <= tmpPos.intValue() ) {
+				writeItem(tmpItem);
+				stackItem.pop(); stackPos.pop();
+			}
+			else {
+				stackItem.push(tmpItem.getInputs()[tmpPos.intValue()]);
+				tmpPos.increment();
+				stackPos.push(new MutableInt(0));
+			}
+		}
+	}
+
+	private void writeItem(LineageItem li) throws IOException {
+		int pos = _written.size();
+		_out.writeByte(REC_ITEM);
+		writeVarLong(zigzag(li.getId() - _lastId));
+		_lastId = li.getId();
+		if( li.getOpcode().startsWith(LineageItemUtils.LPLACEHOLDER) ) {
+			_out.writeByte(KIND_PLACEHOLDER);
+			writeRef(li.getOpcode());
+		}
+		else if( isLeaf(li) ) {
+			boolean literal = li.getType() == LineageItem.LineageItemType.Literal;
+			_out.writeByte(literal ? KIND_LITERAL : KIND_CREATION);
+			if( !literal )
+				writeRef(li.getOpcode());
+			writeRef(li.getData());
+		}
+		else {
+			boolean dedup = li.getType() == LineageItem.LineageItemType.Dedup;
+			_out.writeByte(dedup ? KIND_DEDUP : KIND_INSTRUCTION);
+			writeRef(li.getOpcode());
+			writeRef(li.getData());
+			writeVarInt(li.getInputs().length);
+			for( LineageItem in : li.getInputs() )
+				writeVarInt(pos - _written.get(in));
+			writeVarInt(li.getSpecialValueBits());
+		}
+		_written.put(li, pos);
+	}
+
+	private static boolean isLeaf(LineageItem li) {
+		return li.getInputs() == null || li.getInputs().length == 0
+			|| li.getOpcode().startsWith(LineageItemUtils.LPLACEHOLDER);
+	}
+
+	private void writeRef(String str) throws IOException {
+		Integer ref = _dict.get(str);
+		if( ref != null ) {
+			writeVarInt(ref);
+			return;
+		}
+		//new dictionary entry: next free index, followed by the string
+		ref = _dict.size();
+		_dict.put(str, ref);
+		writeVarInt(ref);
+		writeString(str);
+	}
+
+	private void writeString(String str) throws IOException {
+		//length-prefixed utf-8 (no 64KB limit of writeUTF)
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(bytes.length);
+		_out.write(bytes);
+	}
+
+	private void writeVarInt(int value) throws IOException {
+		writeVarLong(value & 0xFFFFFFFFL);
+	}
+
+	private void writeVarLong(long value) throws IOException {
+		while( (value & ~0x7FL) != 0 ) {
+			_out.writeByte((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		_out.writeByte((int) value);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+}
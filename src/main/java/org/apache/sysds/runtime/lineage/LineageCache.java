@@ -50,6 +50,7 @@ import org.apache.sysds.runtime.instructions.cp.CPOperand;
 import org.apache.sysds.runtime.instructions.cp.ComputationCPInstruction;
 import org.apache.sysds.runtime.instructions.cp.Data;
 import org.apache.sysds.runtime.instructions.cp.MMTSJCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.MatrixIndexingCPInstruction;
 import org.apache.sysds.runtime.instructions.cp.MultiReturnBuiltinCPInstruction;
 import org.apache.sysds.runtime.instructions.cp.ParameterizedBuiltinCPInstruction;
 import org.apache.sysds.runtime.instructions.cp.PrefetchCPInstruction;
@@ -69,10 +70,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LineageCache
 {
-	private static final Map<LineageItem, LineageCacheEntry> _cache = new HashMap<>();
+	private static final Map<LineageItem, LineageCacheEntry> _cache = new ConcurrentHashMap<>();
 	protected static final boolean DEBUG = false;
 
 	static {
@@ -82,9 +84,12 @@ public class LineageCache
 	}
 	
 	// Cache Synchronization Approach:
-	//   The central static cache is only synchronized in a fine-grained manner
-	//   for short get, put, or remove calls or during eviction. All blocking of
-	//   threads for computing the values of placeholders is done on the individual
+	//   The central static cache is a concurrent map, which allows lock-free
+	//   hits of in-memory entries and lock-free puts into existing placeholders
+	//   (via atomic state transitions of the individual entries). The monitor on
+	//   the cache is only obtained for creating placeholders, partial reuse,
+	//   multi-level and GPU/Spark entries, as well as during eviction. All blocking
+	//   of threads for computing the values of placeholders is done on the individual
 	//   entry objects which reduces contention and prevents deadlocks in case of
 	//   function/statement block placeholders which computation itself might be
 	//   a complex workflow of operations that accesses the cache as well.
@@ -100,31 +105,44 @@ public class LineageCache
 		if (LineageCacheConfig.isReusable(inst, ec))
 		{
 			List<MutablePair<LineageItem, LineageCacheEntry>> liList = getLineageItems(inst, ec);
+			if (LineageCacheConfig.getCacheType().isPartialReuse() && inst instanceof MatrixIndexingCPInstruction)
+				//keep track of slice bounds for partial reuse over sliding windows
+				LineagePartialReuse.traceSlice((MatrixIndexingCPInstruction)inst, ec, liList.get(0).getKey());
 
+			//lock-free full reuse if all items are in memory, otherwise
 			//atomic try reuse full/partial and set placeholder, without
 			//obtaining value to avoid blocking in critical section
 			LineageCacheEntry e = null;
-			boolean reuseAll = true;
-			synchronized( _cache ) {
-				//try to reuse full or partial intermediates (CPU and FED only)
-				for (MutablePair<LineageItem,LineageCacheEntry> item : liList) {
-					if (LineageCacheConfig.getCacheType().isFullReuse())
-						//e = LineageCache.probe(item.getKey()) ? getIntern(item.getKey()) : null;
-						e = getIntern(item.getKey()); //avoid double probing (containsKey + get)
-					//TODO need to also move execution of compensation plan out of here
-					//(create lazily evaluated entry)
-					if (e == null && LineageCacheConfig.getCacheType().isPartialReuse()
-						&& !(inst instanceof ComputationSPInstruction)
-						&& !(DMLScript.USE_ACCELERATOR))
-						if( LineageRewriteReuse.executeRewrites(inst, ec) )
-							e = getIntern(item.getKey());
-					reuseAll &= (e != null);
-					item.setValue(e);
+			boolean reuseAll = LineageCacheConfig.getCacheType().isFullReuse() && probeInMemory(liList);
+			if (!reuseAll) {
+				//probe and read the persistent tier outside the critical section
+				Map<LineageItem, LineageCacheEntry> persisted =
+					LineageCacheConfig.getCacheType().isFullReuse() ? readPersistent(liList) : null;
+				reuseAll = true;
+				synchronized( _cache ) {
+					//try to reuse full or partial intermediates (CPU and FED only)
+					for (MutablePair<LineageItem,LineageCacheEntry> item : liList) {
+						if (LineageCacheConfig.getCacheType().isFullReuse()) {
+							//e = LineageCache.probe(item.getKey()) ? getIntern(item.getKey()) : null;
+							e = getIntern(item.getKey()); //avoid double probing (containsKey + get)
+							if (e == null && persisted != null && persisted.containsKey(item.getKey()))
+								e = putPersistent(item.getKey(), persisted.get(item.getKey()));
+						}
+						//TODO need to also move execution of compensation plan out of here
+						//(create lazily evaluated entry)
+						if (e == null && LineageCacheConfig.getCacheType().isPartialReuse()
+							&& !(inst instanceof ComputationSPInstruction)
+							&& !(DMLScript.USE_ACCELERATOR))
+							if( LineageRewriteReuse.executeRewrites(inst, ec) )
+								e = getIntern(item.getKey());
+						reuseAll &= (e != null);
+						item.setValue(e);
 					
-					//create a placeholder if no reuse to avoid redundancy
-					//(e.g., concurrent threads that try to start the computation)
-					if(e == null && isMarkedForCaching(inst, ec))
-						putInternPlaceholder(inst, item.getKey());
+						//create a placeholder if no reuse to avoid redundancy
+						//(e.g., concurrent threads that try to start the computation)
+						if(e == null && isMarkedForCaching(inst, ec))
+							putInternPlaceholder(inst, item.getKey());
+					}
 				}
 			}
 			reuse = reuseAll;
@@ -143,6 +161,8 @@ public class LineageCache
 							ec.replaceLineageItem(outName, e._key); //reuse the lineage trace
 							return false;
 						}
+						if (mb == null)
+							return false;  //concurrently evicted after the lock-free probe
 						ec.setMatrixOutput(outName, mb);
 					}
 					else if (e.isScalarValue()) {
@@ -153,6 +173,8 @@ public class LineageCache
 							ec.replaceLineageItem(outName, e._key); //reuse the lineage trace
 							return false;
 						}
+						if (so == null)
+							return false;  //concurrently evicted after the lock-free probe
 						ec.setScalarOutput(outName, so);
 					}
 					else if (e.isRDDPersist()) {
@@ -527,7 +549,7 @@ public class LineageCache
 
 	public static boolean probe(LineageItem key) {
 		//TODO problematic as after probe the matrix might be kicked out of cache
-		return _cache.containsKey(key);
+		return key != null && _cache.containsKey(key);
 	}
 
 	private static boolean probeRDDDistributed(LineageItem key) {
@@ -694,83 +716,106 @@ public class LineageCache
 	
 	private static void putValueCPU(Instruction inst, List<Pair<LineageItem, Data>> liData, long computetime)
 	{
-		synchronized( _cache ) {
-			for (Pair<LineageItem, Data> entry : liData) {
-				LineageItem item = entry.getKey();
-				Data data = entry.getValue();
-
-				if (!probe(item))
-					continue;
+		//Note: lock-free placement of values into existing placeholders via atomic
+		//state transitions; the monitor on the cache is only obtained for evictions
+		LineagePersistentCache store = LineagePersistentCache.get();
+		List<LineageCacheEntry> toPersist = null;
+		for (Pair<LineageItem, Data> entry : liData) {
+			LineageItem item = entry.getKey();
+			Data data = entry.getValue();
+
+			LineageCacheEntry centry = _cache.get(item);
+			if (centry == null)
+				continue;
 
-				LineageCacheEntry centry = _cache.get(item);
+			if (!(data instanceof MatrixObject) && !(data instanceof ScalarObject)) {
+				// Reusable instructions can return a frame (rightIndex). Remove placeholders.
+				removePlaceholder(item);
+				continue;
+			}
 
-				if (!(data instanceof MatrixObject) && !(data instanceof ScalarObject)) {
-					// Reusable instructions can return a frame (rightIndex). Remove placeholders.
-					removePlaceholder(item);
-					continue;
-				}
+			if (data instanceof MatrixObjectFuture || inst instanceof PrefetchCPInstruction) {
+				// We don't want to call get() on the future immediately after the execution
+				// For the async. instructions, caching is handled separately by the tasks
+				removePlaceholder(item);
+				continue;
+			}
 
-				if (data instanceof MatrixObjectFuture || inst instanceof PrefetchCPInstruction) {
-					// We don't want to call get() on the future immediately after the execution
-					// For the async. instructions, caching is handled separately by the tasks
-					removePlaceholder(item);
-					continue;
-				}
+			if (data instanceof MatrixObject && ((MatrixObject) data).hasRDDHandle()) {
+				// Avoid triggering pre-matured Spark instruction chains
+				removePlaceholder(item);
+				continue;
+			}
 
-				if (data instanceof MatrixObject && ((MatrixObject) data).hasRDDHandle()) {
-					// Avoid triggering pre-matured Spark instruction chains
-					removePlaceholder(item);
-					continue;
-				}
+			if (LineageCacheConfig.isOutputFederated(inst, data)) {
+				// Do not cache federated outputs (in the coordinator)
+				// Cannot skip putting the placeholder as the above is only known after execution
+				removePlaceholder(item);
+				continue;
+			}
 
-				if (LineageCacheConfig.isOutputFederated(inst, data)) {
-					// Do not cache federated outputs (in the coordinator)
-					// Cannot skip putting the placeholder as the above is only known after execution
-					removePlaceholder(item);
-					continue;
-				}
+			MatrixBlock mb = (data instanceof MatrixObject) ? 
+					((MatrixObject)data).acquireReadAndRelease() : null;
+			ScalarObject so = (data instanceof ScalarObject) ? (ScalarObject)data : null;
+			long size = mb != null ? mb.getInMemorySize() : so.getSize();
 
-				MatrixBlock mb = (data instanceof MatrixObject) ? 
-						((MatrixObject)data).acquireReadAndRelease() : null;
-				long size = mb != null ? mb.getInMemorySize() : ((ScalarObject)data).getSize();
+			//remove the placeholder if the entry is bigger than the cache.
+			if (size > LineageCacheEviction.getCacheLimit()) {
+				removePlaceholder(item);
+				continue; 
+			}
 
-				//remove the placeholder if the entry is bigger than the cache.
-				if (size > LineageCacheEviction.getCacheLimit()) {
-					removePlaceholder(item);
-					continue; 
+			//delay caching of large matrix blocks if the feature is enabled
+			LineageCacheStatus status = centry.getCacheStatus();
+			if (status == LineageCacheStatus.EMPTY && LineageCacheConfig.isDelayedCaching()) {
+				if (data instanceof MatrixObject  //no delayed caching for scalars
+					&& !LineageCacheEviction._removelist.containsKey(centry._key) //evicted before
+					&& size > 0.05 * LineageCacheEviction.getAvailableSpace()) { //size adaptive
+					centry.casCacheStatus(LineageCacheStatus.EMPTY, LineageCacheStatus.TOCACHE);
+					continue;
 				}
-
-				//delay caching of large matrix blocks if the feature is enabled
-				if (centry.getCacheStatus() == LineageCacheStatus.EMPTY && LineageCacheConfig.isDelayedCaching()) {
-					if (data instanceof MatrixObject  //no delayed caching for scalars
-						&& !LineageCacheEviction._removelist.containsKey(centry._key) //evicted before
-						&& size > 0.05 * LineageCacheEviction.getAvailableSpace()) { //size adaptive
-						centry.setCacheStatus(LineageCacheStatus.TOCACHE);
-						continue;
-					}
+			}
+			if (status != LineageCacheStatus.EMPTY && status != LineageCacheStatus.TOCACHE)
+				continue; //placed by a concurrent thread
+
+			//make space for the data (inline eviction only if it does not fit)
+			if (!LineageCacheEviction.tryReserve(size)) {
+				synchronized( _cache ) {
+					if (!LineageCacheEviction.isBelowThreshold(size))
+						LineageCacheEviction.makeSpace(_cache, size);
+					LineageCacheEviction.updateSize(size, true);
 				}
+			}
 
-				//make space for the data
-				if (!LineageCacheEviction.isBelowThreshold(size))
-					LineageCacheEviction.makeSpace(_cache, size);
-				LineageCacheEviction.updateSize(size, true);
+			//place the data, unless a concurrent thread already did
+			if (!centry.casValue(status, mb, so, computetime)) {
+				LineageCacheEviction.updateSize(size, false);
+				continue;
+			}
 
-				//place the data
-				if (data instanceof MatrixObject)
-					centry.setValue(mb, computetime);
-				else if (data instanceof ScalarObject)
-					centry.setValue((ScalarObject)data, computetime);
-				centry.setCacheStatus(LineageCacheStatus.CACHED);
+			if (DMLScript.STATISTICS && LineageCacheEviction._removelist.containsKey(centry._key)) {
+				// Add to missed compute time
+				LineageCacheStatistics.incrementMissedComputeTime(centry._computeTime);
+			}
 
-				if (DMLScript.STATISTICS && LineageCacheEviction._removelist.containsKey(centry._key)) {
-					// Add to missed compute time
-					LineageCacheStatistics.incrementMissedComputeTime(centry._computeTime);
-				}
+			//maintain order for eviction
+			LineageCacheEviction.addEntry(centry);
 
-				//maintain order for eviction
-				LineageCacheEviction.addEntry(centry);
+			//collect values for the persistent cache (entry might be evicted)
+			if (store != null) {
+				if (toPersist == null)
+					toPersist = new ArrayList<>();
+				toPersist.add(new LineageCacheEntry(item, centry._dt, mb, so, computetime));
 			}
 		}
+
+		//evict ahead of time in the background if configured
+		LineageCacheEviction.requestEviction(_cache);
+
+		//write to the persistent cache outside the critical section
+		if (toPersist != null)
+			for (LineageCacheEntry pentry : toPersist)
+				store.write(pentry._key, pentry.getMBValue(), pentry.getSOValue(), computetime);
 	}
 	
 	private static void putValueGPU(GPUObject gpuObj, LineageItem instLI, long computetime) {
@@ -894,6 +939,34 @@ public class LineageCache
 		}
 	}
 
+	/**
+	 * Place an intermediate that was precomputed in the background by the
+	 * {@link LineageSpeculator}. Existing entries, including placeholders of
+	 * in-flight computations of the main program, take precedence.
+	 *
+	 * @param key lineage item of the intermediate
+	 * @param data computed matrix or scalar
+	 * @param starttime start time of the computation in ns
+	 * @return true if the intermediate was placed in the cache
+	 */
+	protected static boolean putValueSpeculative(LineageItem key, Data data, long starttime) {
+		if (ReuseCacheType.isNone() || _cache.containsKey(key))
+			return false;
+		MatrixBlock mb = (data instanceof MatrixObject) ?
+			((MatrixObject)data).acquireReadAndRelease() : null;
+		ScalarObject so = (data instanceof ScalarObject) ? (ScalarObject)data : null;
+		if (mb == null && so == null)
+			return false;
+
+		synchronized( _cache ) {
+			if (_cache.containsKey(key))
+				return false;
+			long computetime = System.nanoTime() - starttime;
+			putIntern(key, data.getDataType(), mb, so, computetime);
+			return _cache.containsKey(key);
+		}
+	}
+
 	public static void putValue(List<DataIdentifier> outputs,
 		LineageItem[] liInputs, String name, ExecutionContext ec, long computetime)
 	{
@@ -1051,6 +1124,8 @@ public class LineageCache
 			LineageGPUCacheEviction.resetEviction();
 			LineageSparkCacheEviction.resetEviction();
 		}
+		LineagePersistentCache.reset();
+		LineagePartialReuse.reset();
 	}
 	
 	public static Map<LineageItem, LineageCacheEntry> getLineageCache() {
@@ -1126,6 +1201,54 @@ public class LineageCache
 			return LineageCacheEviction.readFromLocalFS(_cache, key);
 	}
 	
+	private static boolean probeInMemory(List<MutablePair<LineageItem, LineageCacheEntry>> liList) {
+		//lock-free probe, which succeeds only if all items are local in-memory
+		//entries (no placeholders, spilled, GPU or RDD entries); a concurrent
+		//eviction after the probe is handled by the caller via null values
+		for (MutablePair<LineageItem, LineageCacheEntry> item : liList) {
+			LineageCacheEntry e = _cache.get(item.getKey());
+			if (e == null || !e.isInMemory())
+				return false;
+			item.setValue(e);
+		}
+		for (MutablePair<LineageItem, LineageCacheEntry> item : liList) {
+			if (DMLScript.STATISTICS)
+				LineageCacheStatistics.incrementMemHits();
+			// Maintain order for eviction (skipped if the queue is busy)
+			LineageCacheEviction.getEntry(item.getValue());
+		}
+		return true;
+	}
+
+	private static Map<LineageItem, LineageCacheEntry> readPersistent(
+		List<MutablePair<LineageItem, LineageCacheEntry>> liList)
+	{
+		//probe and read entries missing in memory from the persistent cache,
+		//without holding the monitor on the cache during file I/O
+		LineagePersistentCache store = LineagePersistentCache.get();
+		if (store == null)
+			return null;
+		Map<LineageItem, LineageCacheEntry> ret = null;
+		for (MutablePair<LineageItem, LineageCacheEntry> item : liList) {
+			if (_cache.containsKey(item.getKey()))
+				continue;
+			LineageCacheEntry e = store.read(item.getKey());
+			if (e != null) {
+				if (ret == null)
+					ret = new HashMap<>();
+				ret.put(item.getKey(), e);
+			}
+		}
+		return ret;
+	}
+
+	private static LineageCacheEntry putPersistent(LineageItem key, LineageCacheEntry e) {
+		// Restore into the in-memory cache for subsequent reuse (requires the lock)
+		putIntern(key, e._dt, e.getMBValue(), e.getSOValue(), e._computeTime);
+		LineageCacheEntry ret = _cache.get(key);
+		return (ret != null) ? ret : e;
+	}
+
 	private static void mvIntern(LineageItem item, LineageItem probeItem, long computetime) {
 		if (ReuseCacheType.isNone())
 			return;
@@ -1168,12 +1291,12 @@ public class LineageCache
 	}
 	
 	private static void removePlaceholder(LineageItem item) {
-		//Caller should hold the monitor on _cache
-		if (!_cache.containsKey(item))
-			return;
+		//Safe w/o the monitor on _cache as the map is concurrent
 		LineageCacheEntry centry = _cache.get(item);
+		if (centry == null)
+			return;
 		centry.removeAndNotify();
-		_cache.remove(item);
+		_cache.remove(item, centry);
 	}
 	
 	private static boolean isMarkedForCaching (Instruction inst, ExecutionContext ec) {
@@ -476,4 +476,10 @@ public class LineageCacheConfig
 		DMLConfig conf = ConfigurationManager.getDMLConfig();
 		return conf.getBooleanValue(DMLConfig.LINEAGECACHESPILL);
 	}
+
+	public static boolean isAsyncEviction() {
+		// Check if background eviction set in SystemDS-config (default false)
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		return conf.getBooleanValue(DMLConfig.LINEAGE_ASYNC_EVICTION);
+	}
 }
@@ -29,6 +29,7 @@ import org.apache.sysds.runtime.controlprogram.context.SparkExecutionContext;
 import org.apache.sysds.runtime.instructions.cp.ScalarObject;
 import org.apache.sysds.runtime.instructions.spark.data.RDDObject;
 import org.apache.sysds.runtime.lineage.LineageCacheConfig.LineageCacheStatus;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.meta.DataCharacteristics;
 import org.apache.sysds.runtime.meta.MetaData;
@@ -54,6 +55,7 @@ public class LineageCacheEntry {
 		_key = key;
 		_dt = dt;
 		_MBval = Mval;
+		LibMatrixOffHeap.retain(Mval);
 		_SOval = Sval;
 		_computeTime = computetime;
 		_status = isNullVal() ? LineageCacheStatus.EMPTY : LineageCacheStatus.CACHED;
@@ -67,6 +69,34 @@ public class LineageCacheEntry {
 		_status = st;
 	}
 
+	protected synchronized boolean casCacheStatus(LineageCacheStatus expected, LineageCacheStatus st) {
+		//atomic state transition w/o the global cache monitor
+		if (_status != expected)
+			return false;
+		_status = st;
+		notifyAll();
+		return true;
+	}
+
+	protected synchronized boolean casValue(LineageCacheStatus expected, MatrixBlock mb, ScalarObject so, long computetime) {
+		//place the value only if still a placeholder in the expected state, which
+		//prevents concurrent writers of the same item from accounting it twice
+		if (_status != expected || !isNullVal())
+			return false;
+		if (mb != null)
+			setValue(mb, computetime);
+		else
+			setValue(so, computetime);
+		return true;
+	}
+
+	protected synchronized boolean isInMemory() {
+		//local matrix or scalar value that can be reused w/o blocking
+		return (_MBval != null || _SOval != null) && _gpuPointer == null && _rddObject == null
+			&& (_status == LineageCacheStatus.CACHED || _status == LineageCacheStatus.RELOADED
+			|| _status == LineageCacheStatus.PINNED);
+	}
+
 	public synchronized MatrixBlock getMBValue() {
 		try {
 			//wait until other thread completes operation
@@ -203,6 +233,10 @@ public class LineageCacheEntry {
 	}
 
 	public synchronized void setValue(MatrixBlock val, long computetime) {
+		if( val != _MBval ) { //cache entry as owner of off-heap memory
+			LibMatrixOffHeap.retain(val);
+			LibMatrixOffHeap.release(_MBval);
+		}
 		_MBval = val;
 		_gpuPointer = null;  //Matrix block and gpu object cannot coexist
 		_computeTime = computetime;
@@ -269,6 +303,10 @@ public class LineageCacheEntry {
 	}
 
 	public synchronized void copyValueFrom(LineageCacheEntry src, long computetime) {
+		if( src._MBval != _MBval ) {
+			LibMatrixOffHeap.retain(src._MBval);
+			LibMatrixOffHeap.release(_MBval);
+		}
 		_MBval = src._MBval;
 		_SOval = src._SOval;
 		_gpuPointer = src._gpuPointer;
@@ -284,6 +322,7 @@ public class LineageCacheEntry {
 	}
 
 	protected synchronized void setNullValues() {
+		LibMatrixOffHeap.release(_MBval);
 		_MBval = null;
 		_SOval = null;
 		_serialBytes = null;
@@ -20,10 +20,17 @@
 package org.apache.sysds.runtime.lineage;
 
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeSet;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.sysds.api.DMLScript;
 import org.apache.sysds.hops.OptimizerUtils;
 import org.apache.sysds.runtime.DMLRuntimeException;
@@ -34,20 +41,57 @@ import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
 
 public class LineageCacheEviction
 {
-	private static long _cachesize = 0;
+	private static final Log LOG = LogFactory.getLog(LineageCacheEviction.class.getName());
+	private static final AtomicLong _cachesize = new AtomicLong(0);
 	private static long CACHE_LIMIT; //limit in bytes
 	private static long _startTimestamp = 0;
-	protected static final Map<LineageItem, Integer> _removelist = new HashMap<>();
+	protected static final Map<LineageItem, Integer> _removelist = new ConcurrentHashMap<>();
 	private static String _outdir = null;
 	private static TreeSet<LineageCacheEntry> weightedQueue = new TreeSet<>(LineageCacheConfig.LineageCacheComparator);
 	
+	// Synchronization: the weighted queue is guarded by its own lock, which is only
+	// held for queue operations and always acquired after the monitor on the cache
+	// (if any). Cache hits maintain the order with tryLock and thus never block.
+	private static final ReentrantLock _queueLock = new ReentrantLock();
+	
+	// Background eviction keeps the cache below the high watermark, so that puts of
+	// concurrent parfor workers or JMLC scripts rarely need to evict inline.
+	private static final double EVICT_HIGH_WATERMARK = 0.9;
+	private static final double EVICT_LOW_WATERMARK = 0.75;
+	private static final AtomicBoolean _evictPending = new AtomicBoolean(false);
+	private static ExecutorService _evictor = null;
+	// cached configuration of background eviction (null: not read yet)
+	private static volatile Boolean _asyncEviction = null;
+	
 	protected static void resetEviction() {
 		// reset cache size, otherwise the cache clear leads to unusable 
 		// space which means evictions could run into endless loops
-		_cachesize = 0;
-		weightedQueue.clear();
+		_cachesize.set(0);
+		_queueLock.lock();
+		try {
+			weightedQueue.clear();
+		}
+		finally {
+			_queueLock.unlock();
+		}
 		_outdir = null;
 		_removelist.clear();
+		resetAsyncEviction();
+	}
+
+	/**
+	 * Resets the cached configuration of background eviction, which is read
+	 * again from the configuration on the next put.
+	 */
+	public static void resetAsyncEviction() {
+		_asyncEviction = null;
+	}
+
+	private static boolean isAsyncEviction() {
+		Boolean ret = _asyncEviction;
+		if (ret == null)
+			_asyncEviction = ret = LineageCacheConfig.isAsyncEviction();
+		return ret;
 	}
 
 	//--------------- CACHE MAINTENANCE & LOOKUP FUNCTIONS --------------//
@@ -74,26 +118,51 @@ public class LineageCacheEviction
 			// Set timestamp, score, and scale score by #misses
 			entry.computeScore(_removelist); 
 			// Adjust score according to cache miss counts.
-			weightedQueue.add(entry);
+			_queueLock.lock();
+			try {
+				weightedQueue.add(entry);
+			}
+			finally {
+				_queueLock.unlock();
+			}
 		}
 	}
 	
 	protected static void getEntry(LineageCacheEntry entry) {
-		// Reset the timestamp to maintain the LRU component of the scoring function
-		if (LineageCacheConfig.isTimeBased()) { 
-			if (weightedQueue.remove(entry)) {
-				entry.updateTimestamp();
-				weightedQueue.add(entry);
+		// Skip the reordering if the queue is busy (concurrent hits), which
+		// only slightly relaxes the LRU/cost order but never blocks a hit
+		if (!_queueLock.tryLock())
+			return;
+		try {
+			// Reset the timestamp to maintain the LRU component of the scoring function
+			if (LineageCacheConfig.isTimeBased()) { 
+				if (weightedQueue.remove(entry)) {
+					entry.updateTimestamp();
+					weightedQueue.add(entry);
+				}
 			}
-		}
-		// Scale score of the sought entry after every cache hit
-		// FIXME: avoid when called from partial reuse methods
-		if (LineageCacheConfig.isCostNsize()) {
-			if (weightedQueue.remove(entry)) {
-				entry.updateScore(true);
-				weightedQueue.add(entry);
+			// Scale score of the sought entry after every cache hit
+			// FIXME: avoid when called from partial reuse methods
+			if (LineageCacheConfig.isCostNsize()) {
+				if (weightedQueue.remove(entry)) {
+					entry.updateScore(true);
+					weightedQueue.add(entry);
+				}
 			}
 		}
+		finally {
+			_queueLock.unlock();
+		}
+	}
+	
+	private static LineageCacheEntry pollEntry() {
+		_queueLock.lock();
+		try {
+			return weightedQueue.pollFirst();
+		}
+		finally {
+			_queueLock.unlock();
+		}
 	}
 
 	private static void removeEntry(Map<LineageItem, LineageCacheEntry> cache, LineageCacheEntry e, boolean updateSpace) {
@@ -103,10 +172,7 @@ public class LineageCacheEviction
 		}
 
 		// Maintain miss count to increase the score if the item enters the cache again
-		if (_removelist.containsKey(e._key))
-			_removelist.replace(e._key, _removelist.get(e._key)+1);
-		else
-			_removelist.put(e._key, 1);
+		_removelist.merge(e._key, 1, Integer::sum);
 
 		if (DMLScript.STATISTICS) {
 			LineageCacheStatistics.incrementMemDeletes();
@@ -188,7 +254,8 @@ public class LineageCacheEviction
 
 	//---------------- CACHE SPACE MANAGEMENT METHODS -----------------//
 	
-	protected static void setCacheLimit(double fraction) {
+	//Note: public for eviction tests
+	public static void setCacheLimit(double fraction) {
 		long maxMem = InfrastructureAnalyzer.getLocalMaxMemory();
 		long limit = (long)(fraction * maxMem);
 		CACHE_LIMIT = limit;
@@ -200,34 +267,70 @@ public class LineageCacheEviction
 	}
 
 	public static long getAvailableSpace() {
-		return CACHE_LIMIT - _cachesize;
+		return CACHE_LIMIT - _cachesize.get();
 	}
 	
 	protected static void updateSize(long space, boolean addspace) {
-		if (addspace)
-			_cachesize += space;
-		else
-			_cachesize -= space;
+		_cachesize.addAndGet(addspace ? space : -space);
+	}
+
+	protected static boolean tryReserve(long space) {
+		//atomically account the space if it fits w/o eviction
+		while (true) {
+			long size = _cachesize.get();
+			if (space + size > CACHE_LIMIT)
+				return false;
+			if (_cachesize.compareAndSet(size, size + space))
+				return true;
+		}
 	}
 
 	public static void removeAll(Map<LineageItem, LineageCacheEntry> cache) {
-		while (!weightedQueue.isEmpty()) {
-			LineageCacheEntry e = weightedQueue.pollFirst();
-			if (e == null)
-				continue;
+		LineageCacheEntry e = null;
+		while ((e = pollEntry()) != null)
 			removeOrSpillEntry(cache, e, false);
-		}
 	}
 
 	protected static boolean isBelowThreshold(long spaceNeeded) {
-		return ((spaceNeeded + _cachesize) <= CACHE_LIMIT);
+		return ((spaceNeeded + _cachesize.get()) <= CACHE_LIMIT);
+	}
+
+	protected static void requestEviction(Map<LineageItem, LineageCacheEntry> cache) {
+		if (_cachesize.get() < EVICT_HIGH_WATERMARK * CACHE_LIMIT || !isAsyncEviction())
+			return;
+		//coalesce requests with an already scheduled eviction
+		if (!_evictPending.compareAndSet(false, true))
+			return;
+		getEvictor().submit(() -> {
+			try {
+				synchronized(cache) {
+					makeSpace(cache, CACHE_LIMIT - (long)(EVICT_LOW_WATERMARK * CACHE_LIMIT));
+				}
+			}
+			catch(Exception ex) {
+				LOG.warn("Background eviction of the lineage cache failed.", ex);
+			}
+			finally {
+				_evictPending.set(false);
+			}
+		});
+	}
+
+	private static synchronized ExecutorService getEvictor() {
+		if (_evictor == null)
+			_evictor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "lineage-evict");
+				t.setDaemon(true);
+				return t;
+			});
+		return _evictor;
 	}
 
 	protected static void makeSpace(Map<LineageItem, LineageCacheEntry> cache, long spaceNeeded) {
 		//Cost based eviction
-		while ((spaceNeeded + _cachesize) > CACHE_LIMIT)
+		while ((spaceNeeded + _cachesize.get()) > CACHE_LIMIT)
 		{
-			LineageCacheEntry e = weightedQueue.pollFirst();
+			LineageCacheEntry e = pollEntry();
 			if (e == null)
 				// Nothing to evict.
 				break;
@@ -57,6 +57,16 @@ public class LineageCacheStatistics {
 	private static final LongAdder _numRddPersist   = new LongAdder();
 	private static final LongAdder _numRddUnpersist   = new LongAdder();
 	private static final LongAdder _numHitsDelRdd   = new LongAdder();
+	// Bookkeeping of the persistent cache
+	private static final LongAdder _numHitsPersist  = new LongAdder();
+	private static final LongAdder _numWritesPersist = new LongAdder();
+	private static final LongAdder _ctimePersistRead = new LongAdder();
+	private static final LongAdder _ctimePersistWrite = new LongAdder();
+
+	// Bookkeeping of speculative precomputation
+	private static final LongAdder _numSpeculated   = new LongAdder();
+	private static final LongAdder _numSpecPlaced   = new LongAdder();
+	private static final LongAdder _ctimeSpeculate  = new LongAdder();
 
 	public static void reset() {
 		_numHitsMem.reset();
@@ -87,6 +97,13 @@ public class LineageCacheStatistics {
 		_numRddPersist.reset();
 		_numRddUnpersist.reset();
 		_numHitsDelRdd.reset();
+		_numHitsPersist.reset();
+		_numWritesPersist.reset();
+		_ctimePersistRead.reset();
+		_ctimePersistWrite.reset();
+		_numSpeculated.reset();
+		_numSpecPlaced.reset();
+		_ctimeSpeculate.reset();
 	}
 	
 	public static void incrementMemHits() {
@@ -157,6 +174,10 @@ public class LineageCacheStatistics {
 		_numRewrites.increment();
 	}
 
+	public static long getPRewrites() {
+		return _numRewrites.longValue();
+	}
+
 	public static void incrementFSWrites() {
 		// Number of times written in local FS.
 		_numWritesFS.increment();
@@ -275,6 +296,51 @@ public class LineageCacheStatistics {
 		_numHitsDelRdd.increment();
 	}
 
+	public static void incrementPersistHits() {
+		// Number of times found in the persistent cache.
+		_numHitsPersist.increment();
+	}
+
+	public static long getPersistHits() {
+		return _numHitsPersist.longValue();
+	}
+
+	public static void incrementPersistWrites() {
+		// Number of times written to the persistent cache.
+		_numWritesPersist.increment();
+	}
+
+	public static long getPersistWrites() {
+		return _numWritesPersist.longValue();
+	}
+
+	public static void incrementPersistReadTime(long delta) {
+		// Total time spent on reading from the persistent cache.
+		_ctimePersistRead.add(delta);
+	}
+
+	public static void incrementPersistWriteTime(long delta) {
+		// Total time spent on writing to the persistent cache.
+		_ctimePersistWrite.add(delta);
+	}
+
+	public static void incrementSpeculations(boolean placed, long delta) {
+		// Number of speculatively precomputed intermediates, the number
+		// of those placed in the cache, and the total background compute time.
+		_numSpeculated.increment();
+		if (placed)
+			_numSpecPlaced.increment();
+		_ctimeSpeculate.add(delta);
+	}
+
+	public static long getSpeculations() {
+		return _numSpeculated.longValue();
+	}
+
+	public static long getSpeculationsPlaced() {
+		return _numSpecPlaced.longValue();
+	}
+
 	public static String displayHits() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(_numHitsMem.longValue());
@@ -382,4 +448,34 @@ public class LineageCacheStatistics {
 		return (_numHitsSparkActions.longValue() + _numHitsRdd.longValue()
 		+ _numHitsRddPersist.longValue() + _numRddPersist.longValue()) != 0;
 	}
+
+	public static String displayPersistStats() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numHitsPersist.longValue());
+		sb.append("/");
+		sb.append(_numWritesPersist.longValue());
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimePersistRead.longValue())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimePersistWrite.longValue())/1000000000)); //in sec
+		return sb.toString();
+	}
+
+	public static boolean ifPersistStats() {
+		return (_numHitsPersist.longValue() + _numWritesPersist.longValue()) != 0;
+	}
+
+	public static String displaySpeculationStats() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numSpeculated.longValue());
+		sb.append("/");
+		sb.append(_numSpecPlaced.longValue());
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeSpeculate.longValue())/1000000000)); //in sec
+		return sb.toString();
+	}
+
+	public static boolean ifSpeculationStats() {
+		return _numSpeculated.longValue() != 0;
+	}
 }
@@ -22,6 +22,7 @@ package org.apache.sysds.runtime.lineage;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
@@ -158,8 +159,19 @@ public class LineageDedupUtils {
 	}
 
 	public static String mergeExplainDedupBlocks(ExecutionContext ec) {
-		Map<ProgramBlock, LineageDedupBlock> dedupBlocks = ec.getLineage().getDedupBlocks();
 		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, LineageItem> patch : getDedupPatches(ec).entrySet()) {
+			sb.append(patch.getKey());
+			sb.append("\n");
+			sb.append(Explain.explain(patch.getValue()));
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+	
+	public static Map<String, LineageItem> getDedupPatches(ExecutionContext ec) {
+		Map<ProgramBlock, LineageDedupBlock> dedupBlocks = ec.getLineage().getDedupBlocks();
+		Map<String, LineageItem> ret = new LinkedHashMap<>();
 		// Gather all the DAG roots of all the paths in all the loops.
 		for (Map.Entry<ProgramBlock, LineageDedupBlock> dblock : dedupBlocks.entrySet()) {
 			if (dblock.getValue() != null) {
@@ -169,22 +181,14 @@ public class LineageDedupUtils {
 					for (Map.Entry<String, LineageItem> root : patch.getValue().getTraces().entrySet()) {
 						// Encode all the information in the headers that're
 						// needed by the deserialization logic.
-						sb.append("patch");
-						sb.append(DEDUP_DELIM);
-						sb.append(root.getKey());
-						sb.append(DEDUP_DELIM);
-						sb.append(forKey);
-						sb.append(DEDUP_DELIM);
-						sb.append(patch.getKey());
-						sb.append("\n");
-						sb.append(Explain.explain(root.getValue()));
-						sb.append("\n");
-						
+						String header = "patch" + DEDUP_DELIM + root.getKey()
+							+ DEDUP_DELIM + forKey + DEDUP_DELIM + patch.getKey();
+						ret.put(header, root.getValue());
 					}
 				}
 			}
 		}
-		return sb.toString();
+		return ret;
 	}
 	
 	private static void cleanDedupMap(LineageMap lmap) {
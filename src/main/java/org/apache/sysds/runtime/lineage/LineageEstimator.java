@@ -19,6 +19,7 @@
 
 package org.apache.sysds.runtime.lineage;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -182,6 +183,10 @@ public class LineageEstimator
 		return opcode.substring(0, opcode.indexOf("%"));
 	}
 
+	protected static Collection<LineageEstimatorEntry> getEntries() {
+		return _cache.values();
+	}
+
 	public static int computeCacheFullTime() {
 		double d = ((double)_cacheFullCount/_cache.size())*100;
 		return (int)d;
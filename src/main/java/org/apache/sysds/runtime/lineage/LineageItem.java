@@ -39,6 +39,7 @@ public class LineageItem {
 	private LineageItem[] _inputs;
 	private long _height = 0; //distance leaf to node
 	private int _hash = 0;
+	private String _digest = null; //content digest for the persistent cache
 	private LineageItem _dedupPatch;
 	private final BooleanArray32 _specialValueBits;  // TODO: Move this to a new subclass
 	// map from thread id to visited flag to allow concurrent checks through the lineage trace
@@ -126,6 +127,7 @@ public class LineageItem {
 	public void setInput(int i, LineageItem item) {
 		_inputs[i] = item;
 		_hash = 0; //reset hash
+		_digest = null;
 	}
 	
 	public String getData() {
@@ -143,6 +145,15 @@ public class LineageItem {
 	public void resetHash() {
 		_hash = 0; //enable recomputation
 		_hash = hashCode();
+		_digest = null;
+	}
+
+	protected String getDigest() {
+		return _digest;
+	}
+
+	protected void setDigest(String digest) {
+		_digest = digest;
 	}
 
 	public boolean isVisited() {
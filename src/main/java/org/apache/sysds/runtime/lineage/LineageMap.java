@@ -249,6 +249,14 @@ public class LineageMap {
 		LineageItem li = get(input1);
 		String fName = ec.getScalarInput(input2.getName(), Types.ValueType.STRING, input2.isLiteral()).getStringValue();
 		
+		// Write the global trace and dedup patches in binary format, where
+		// sub-DAGs shared across patches are written only once.
+		if (DMLScript.LINEAGE_BINARY) {
+			LineageBinaryWriter.writeTraceToHDFS(li, !DMLScript.LINEAGE_DEDUP ? null :
+				LineageDedupUtils.getDedupPatches(ec), fName + ".lineage");
+			return;
+		}
+		
 		// Combine the global trace and dedup patches in a single file.
 		String out = !DMLScript.LINEAGE_DEDUP ? Explain.explain(li) :
 			Explain.explain(li) + "\n" + LineageDedupUtils.mergeExplainDedupBlocks(ec);
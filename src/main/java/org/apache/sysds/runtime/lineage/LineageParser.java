@@ -132,18 +132,26 @@ public class LineageParser
 			String[] parts = headBody[0].split(LineageDedupUtils.DEDUP_DELIM);
 			// Deserialize the patch
 			LineageItem patchLi = parseLineageTrace(headBody[1]);
-			Long pathId = Long.parseLong(parts[3]);
-			// Map the pathID and the DAG root name to the deserialized DAG.
-			String loopName = parts[2];
-			if (!LineageRecomputeUtils.loopPatchMap.containsKey(loopName)) 
-				LineageRecomputeUtils.loopPatchMap.put(loopName, new DedupLoopItem(loopName));
-			DedupLoopItem loopItem = LineageRecomputeUtils.loopPatchMap.get(loopName);
+			addDedupPatch(parts, patchLi);
+		}
+	}
 
-			if (!loopItem.patchLiMap.containsKey(pathId)) {
-				loopItem.patchLiMap.put(pathId, new HashMap<>());
-			}
-			loopItem.patchLiMap.get(pathId).put(parts[1], patchLi);
+	protected static void addDedupPatch(String header, LineageItem patchLi) {
+		addDedupPatch(header.split(LineageDedupUtils.DEDUP_DELIM), patchLi);
+	}
+
+	private static void addDedupPatch(String[] parts, LineageItem patchLi) {
+		Long pathId = Long.parseLong(parts[3]);
+		// Map the pathID and the DAG root name to the deserialized DAG.
+		String loopName = parts[2];
+		if (!LineageRecomputeUtils.loopPatchMap.containsKey(loopName)) 
+			LineageRecomputeUtils.loopPatchMap.put(loopName, new DedupLoopItem(loopName));
+		DedupLoopItem loopItem = LineageRecomputeUtils.loopPatchMap.get(loopName);
+
+		if (!loopItem.patchLiMap.containsKey(pathId)) {
+			loopItem.patchLiMap.put(pathId, new HashMap<>());
 		}
+		loopItem.patchLiMap.get(pathId).put(parts[1], patchLi);
 	}
 
 	protected static String[] separateMainAndDedupPatches(String str) {
@@ -0,0 +1,438 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Opcodes;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.functionobjects.Minus;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.instructions.cp.AggregateBinaryCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.CPOperand;
+import org.apache.sysds.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.MMTSJCPInstruction;
+import org.apache.sysds.runtime.instructions.cp.MatrixIndexingCPInstruction;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+
+/**
+ * Generic partial reuse of cached intermediates for operations over row or
+ * column partitions of a cached input. If the input of an operation is an
+ * append (rbind/cbind) of a previously processed input, or an overlapping
+ * sliding window (rightIndex) over the same data, the result is assembled
+ * from the cached result and the operation executed over the delta only.
+ * 
+ * The algebraic decomposition is declared per opcode and input: results over
+ * partitions are either concatenated (e.g., rowSums over row partitions) or
+ * added (e.g., tsmm over row partitions). Only added results allow removing
+ * partitions, which is required for sliding windows.
+ */
+public class LineagePartialReuse
+{
+	private static final Log LOG = LogFactory.getLog(LineagePartialReuse.class.getName());
+
+	// max number of tracked slices and windows
+	private static final int MAX_TRACKED = 1024;
+	// max number of chained window updates by subtraction before a full
+	// recompute, which bounds the accumulation of rounding errors
+	private static final int MAX_CHAIN = 16;
+
+	private enum Combine {
+		APPEND, // results are concatenated along the partitioned dimension
+		ADD,    // results are summed up
+		NONE,   // no decomposition
+	}
+
+	private static class Decomposition {
+		private final int _input;
+		private final Combine _rows;
+		private final Combine _cols;
+		private final boolean _scalarOthers;
+
+		private Decomposition(int input, Combine rows, Combine cols, boolean scalarOthers) {
+			_input = input;
+			_rows = rows;
+			_cols = cols;
+			_scalarOthers = scalarOthers;
+		}
+
+		private Combine get(boolean rows) {
+			return rows ? _rows : _cols;
+		}
+	}
+
+	private static final Map<String, List<Decomposition>> DECOMPOSITIONS = new HashMap<>();
+	static {
+		// matrix multiplications (w/o transposed inputs), for tsmm see getCombine
+		declare(Opcodes.TSMM, 0, Combine.ADD, Combine.NONE, false);
+		declare(Opcodes.MMULT, 0, Combine.APPEND, Combine.NONE, false);
+		declare(Opcodes.MMULT, 1, Combine.NONE, Combine.APPEND, false);
+		// row and column aggregates
+		declare(Opcodes.UACKP, 0, Combine.ADD, Combine.APPEND, false);
+		declare(Opcodes.UACSQKP, 0, Combine.ADD, Combine.APPEND, false);
+		declare(Opcodes.UARKP, 0, Combine.APPEND, Combine.ADD, false);
+		declare(Opcodes.UARSQKP, 0, Combine.APPEND, Combine.ADD, false);
+		// cell-wise unary operations
+		for(Opcodes op : new Opcodes[] {Opcodes.EXP, Opcodes.LOG, Opcodes.ABS, Opcodes.SQRT, Opcodes.ROUND,
+			Opcodes.FLOOR, Opcodes.CEIL, Opcodes.SIGN, Opcodes.SIN, Opcodes.COS, Opcodes.TANH, Opcodes.SIGMOID})
+			declare(op, 0, Combine.APPEND, Combine.APPEND, true);
+		// cell-wise binary operations with scalars
+		for(Opcodes op : new Opcodes[] {Opcodes.PLUS, Opcodes.MINUS, Opcodes.MULT, Opcodes.DIV, Opcodes.POW,
+			Opcodes.POW2, Opcodes.MULT2, Opcodes.MAX, Opcodes.MIN}) {
+			declare(op, 0, Combine.APPEND, Combine.APPEND, true);
+			declare(op, 1, Combine.APPEND, Combine.APPEND, true);
+		}
+	}
+
+	// index bounds (0-based, inclusive) of traced rightIndex outputs
+	private static final Map<LineageItem, long[]> _slices = createLRUMap();
+	// last two slices (previous, current) per source and fixed dimension
+	private static final Map<LineageItem, LineageItem[]> _windows = createLRUMap();
+	// number of chained subtractive window updates per partially reused result
+	private static final Map<LineageItem, Integer> _chains = createLRUMap();
+
+	private static void declare(Opcodes opcode, int input, Combine rows, Combine cols, boolean scalarOthers) {
+		DECOMPOSITIONS.computeIfAbsent(opcode.toString(), k -> new ArrayList<>())
+			.add(new Decomposition(input, rows, cols, scalarOthers));
+	}
+
+	private static <V> Map<LineageItem, V> createLRUMap() {
+		return new LinkedHashMap<LineageItem, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 3201487294573612301L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<LineageItem, V> eldest) {
+				return size() > MAX_TRACKED;
+			}
+		};
+	}
+
+	/**
+	 * Keep track of the index bounds of a rightIndex operation, which are only
+	 * available in the lineage if given as literals.
+	 * 
+	 * @param inst rightIndex instruction
+	 * @param ec   execution context
+	 * @param li   lineage item of the rightIndex output
+	 */
+	public static synchronized void traceSlice(MatrixIndexingCPInstruction inst, ExecutionContext ec, LineageItem li) {
+		if( !inst.getOpcode().equals(Opcodes.RIGHT_INDEX.toString()) || !inst.input1.isMatrix() )
+			return;
+		long[] bounds = new long[] {
+			ec.getScalarInput(inst.getRowLower()).getLongValue() - 1,
+			ec.getScalarInput(inst.getRowUpper()).getLongValue() - 1,
+			ec.getScalarInput(inst.getColLower()).getLongValue() - 1,
+			ec.getScalarInput(inst.getColUpper()).getLongValue() - 1};
+		if( _slices.put(li, bounds) != null )
+			return; // already traced
+		LineageItem src = li.getInputs()[0];
+		trackWindow(getWindowKey(src, true, bounds), li);
+		trackWindow(getWindowKey(src, false, bounds), li);
+	}
+
+	public static synchronized void reset() {
+		_slices.clear();
+		_windows.clear();
+		_chains.clear();
+	}
+
+	/**
+	 * Try to compute the output of the given instruction from a cached result
+	 * over a partition of its input and the operation over the delta, and put
+	 * the result into the symbol table and lineage cache.
+	 * 
+	 * @param curr  current instruction
+	 * @param ec    execution context
+	 * @param lrwec execution context for the delta computation
+	 * @return true if the output was obtained by partial reuse
+	 */
+	public static boolean executePartialReuse(ComputationCPInstruction curr, ExecutionContext ec, ExecutionContext lrwec) {
+		List<Decomposition> decomps = DECOMPOSITIONS.get(curr.getOpcode());
+		if( decomps == null || !curr.output.isMatrix()
+			|| (curr instanceof AggregateBinaryCPInstruction && isTransposed((AggregateBinaryCPInstruction) curr)) )
+			return false;
+		CPOperand[] inputs = Arrays.stream(curr.getInputs()).filter(c -> c != null).toArray(CPOperand[]::new);
+		for( CPOperand in : inputs )
+			if( in.getName().equals(curr.output.getName()) )
+				return false; // avoid updates of the input in-place
+
+		long t0 = System.nanoTime();
+		LineageItem item = curr.getLineageItem(ec).getValue();
+		for( Decomposition d : decomps ) {
+			if( d._input >= inputs.length || !inputs[d._input].isMatrix() || !isApplicable(d, inputs) )
+				continue;
+			LineageItem in = item.getInputs()[d._input];
+			PartialResult res = null;
+			if( in.getOpcode().equals(Opcodes.RBIND.toString()) || in.getOpcode().equals(Opcodes.CBIND.toString()) )
+				res = reuseAppend(curr, ec, lrwec, d, item, inputs[d._input]);
+			else if( in.getOpcode().equals(Opcodes.RIGHT_INDEX.toString()) )
+				res = reuseSlice(curr, ec, lrwec, d, item, inputs[d._input]);
+			if( res == null )
+				continue;
+
+			if( res._chain > 0 ) {
+				synchronized(LineagePartialReuse.class) {
+					_chains.put(item, res._chain);
+				}
+			}
+
+			// put the result into the symbol table and the cache
+			ec.setVariable(curr.output.getName(), LineageRewriteReuse.toMatrixObject(res._out));
+			LineageCache.putMatrix(curr, ec, res._computeTime + (System.nanoTime() - t0));
+			if( DMLScript.STATISTICS )
+				LineageCacheStatistics.incrementPRewrites();
+			if( LOG.isDebugEnabled() )
+				LOG.debug("LINEAGE PARTIAL REUSE APPLIED: " + curr.getOpcode() + " over " + in.getOpcode());
+			return true;
+		}
+		return false;
+	}
+
+	private static class PartialResult {
+		private final MatrixBlock _out;
+		private final long _computeTime;
+		private final int _chain;
+
+		private PartialResult(MatrixBlock out, long computeTime, int chain) {
+			_out = out;
+			_computeTime = computeTime;
+			_chain = chain;
+		}
+	}
+
+	/**
+	 * Reuse op(A) for op(rbind(A, dA)) or op(cbind(A, dA)).
+	 */
+	private static PartialResult reuseAppend(ComputationCPInstruction curr, ExecutionContext ec,
+		ExecutionContext lrwec, Decomposition d, LineageItem item, CPOperand part)
+	{
+		LineageItem in = item.getInputs()[d._input];
+		boolean rows = in.getOpcode().equals(Opcodes.RBIND.toString());
+		Combine combine = getCombine(curr, d, rows);
+		if( combine == Combine.NONE || in.getInputs().length != 2 )
+			return null;
+		LineageCacheEntry cached = getCachedEntry(replaceInput(item, d._input, in.getInputs()[0]));
+		if( cached == null )
+			return null;
+
+		// determine the size of the cached partition
+		MatrixBlock cur = ec.getMatrixObject(part).acquireReadAndRelease();
+		long nold = -1;
+		if( LineageCache.probe(in.getInputs()[1]) )
+			nold = size(cur, rows) - size(LineageCache.getMatrix(in.getInputs()[1]), rows);
+		else if( LineageCache.probe(in.getInputs()[0]) )
+			nold = size(LineageCache.getMatrix(in.getInputs()[0]), rows);
+		else if( combine == Combine.APPEND )
+			nold = size(cached.getMBValue(), rows);
+		if( nold <= 0 || nold >= size(cur, rows)
+			|| (combine == Combine.APPEND && nold != size(cached.getMBValue(), rows)) )
+			return null;
+
+		MatrixBlock delta = compute(curr, ec, lrwec, part, slice(cur, rows, nold, size(cur, rows) - 1));
+		MatrixBlock out = (combine == Combine.APPEND) ?
+			cached.getMBValue().append(delta, null, !rows) :
+			cached.getMBValue().binaryOperations(new BinaryOperator(Plus.getPlusFnObject()), delta);
+		// additions keep the error of earlier subtractive updates of the cached result
+		int chain = (combine == Combine.ADD) ? getChain(replaceInput(item, d._input, in.getInputs()[0])) : 0;
+		return new PartialResult(out, cached._computeTime, chain);
+	}
+
+	/**
+	 * Reuse op(X[s1:e1,]) for op(X[s2:e2,]) with s1 &lt;= s2 &lt;= e1 &lt;= e2 (and
+	 * similarly for column windows), by appending or adding the result over the
+	 * new rows and removing or subtracting the result over the dropped rows.
+	 * Subtractions fall back to a full recompute if the results over the dropped
+	 * rows or the cached result are not finite, or if the cached result was
+	 * itself obtained by a chain of MAX_CHAIN subtractive updates.
+	 */
+	private static PartialResult reuseSlice(ComputationCPInstruction curr, ExecutionContext ec,
+		ExecutionContext lrwec, Decomposition d, LineageItem item, CPOperand part)
+	{
+		LineageItem in = item.getInputs()[d._input];
+		long[] bounds = null, prevBounds = null;
+		LineageItem prevSlice = null;
+		boolean rows = true;
+		synchronized(LineagePartialReuse.class) {
+			bounds = _slices.get(in);
+			if( bounds == null )
+				return null;
+			for( boolean r : new boolean[] {true, false} ) {
+				LineageItem[] w = getCombine(curr, d, r) != Combine.NONE ?
+					_windows.get(getWindowKey(in.getInputs()[0], r, bounds)) : null;
+				if( w != null && w[0] != null && in.equals(w[1]) && _slices.containsKey(w[0]) ) {
+					prevSlice = w[0];
+					prevBounds = _slices.get(w[0]);
+					rows = r;
+					break;
+				}
+			}
+			if( prevSlice == null )
+				return null;
+		}
+		long s1 = prevBounds[rows ? 0 : 2], e1 = prevBounds[rows ? 1 : 3];
+		long s2 = bounds[rows ? 0 : 2], e2 = bounds[rows ? 1 : 3];
+		// only overlapping windows moving forward, with deltas smaller than the window
+		if( s1 > s2 || e1 > e2 || s2 > e1 || (s2 - s1) + (e2 - e1) >= e2 - s2 + 1 )
+			return null;
+		Combine combine = getCombine(curr, d, rows);
+		LineageItem cachedKey = replaceInput(item, d._input, prevSlice);
+		// carry over the chain of the cached result, also for additive-only updates
+		int chain = 0;
+		if( combine == Combine.ADD ) {
+			chain = getChain(cachedKey) + (s2 > s1 ? 1 : 0);
+			if( chain > MAX_CHAIN )
+				return null;
+		}
+		LineageCacheEntry cached = getCachedEntry(cachedKey);
+		if( cached == null )
+			return null;
+		MatrixBlock cur = ec.getMatrixObject(part).acquireReadAndRelease();
+		MatrixBlock prev = cached.getMBValue();
+		if( combine == Combine.APPEND && size(prev, rows) != e1 - s1 + 1 )
+			return null;
+
+		MatrixBlock out = null;
+		if( combine == Combine.APPEND ) {
+			out = slice(prev, rows, s2 - s1, e1 - s1);
+			if( e2 > e1 )
+				out = out.append(compute(curr, ec, lrwec, part, slice(cur, rows, e1 - s2 + 1, e2 - s2)), null, !rows);
+		}
+		else {
+			out = prev;
+			if( s2 > s1 ) {
+				// obtain the dropped rows from the cached previous window or source
+				MatrixBlock dropped = null;
+				if( LineageCache.probe(prevSlice) )
+					dropped = slice(LineageCache.getMatrix(prevSlice), rows, 0, s2 - s1 - 1);
+				else if( LineageCache.probe(in.getInputs()[0]) )
+					dropped = slice(LineageCache.getMatrix(in.getInputs()[0]), rows, s1, s2 - 1);
+				if( dropped == null || !isFinite(prev) )
+					return null;
+				MatrixBlock fdropped = compute(curr, ec, lrwec, part, dropped);
+				if( !isFinite(fdropped) )
+					return null; // NaN or infinity cannot be subtracted
+				out = out.binaryOperations(new BinaryOperator(Minus.getMinusFnObject()), fdropped);
+			}
+			if( e2 > e1 )
+				out = out.binaryOperations(new BinaryOperator(Plus.getPlusFnObject()),
+					compute(curr, ec, lrwec, part, slice(cur, rows, e1 - s2 + 1, e2 - s2)));
+		}
+		return new PartialResult(out, cached._computeTime, chain);
+	}
+
+	private static synchronized int getChain(LineageItem key) {
+		Integer tmp = _chains.get(key);
+		return tmp != null ? tmp : 0;
+	}
+
+	/**
+	 * Execute the current instruction with the partitioned input bound to the
+	 * given delta, and all other inputs bound to their current values.
+	 */
+	private static MatrixBlock compute(ComputationCPInstruction curr, ExecutionContext ec,
+		ExecutionContext lrwec, CPOperand part, MatrixBlock delta)
+	{
+		try {
+			for( CPOperand in : curr.getInputs() )
+				if( in != null && !in.isLiteral() )
+					lrwec.setVariable(in.getName(), in == part ?
+						LineageRewriteReuse.toMatrixObject(delta) : ec.getVariable(in));
+			curr.processInstruction(lrwec);
+			return lrwec.getMatrixObject(curr.output).acquireReadAndRelease();
+		}
+		finally {
+			// unbind without cleanup, the inputs are still referenced by ec
+			lrwec.getVariables().removeAll();
+		}
+	}
+
+	private static boolean isApplicable(Decomposition d, CPOperand[] inputs) {
+		if( d._scalarOthers )
+			for( int i = 0; i < inputs.length; i++ )
+				if( i != d._input && !inputs[i].isScalar() )
+					return false;
+		return true;
+	}
+
+	private static boolean isTransposed(AggregateBinaryCPInstruction inst) {
+		return inst.transposeLeft || inst.transposeRight;
+	}
+
+	private static Combine getCombine(ComputationCPInstruction curr, Decomposition d, boolean rows) {
+		// X %*% t(X) swaps the roles of rows and columns
+		if( curr instanceof MMTSJCPInstruction && ((MMTSJCPInstruction) curr).getMMTSJType().isRight() )
+			return d.get(!rows);
+		return d.get(rows);
+	}
+
+	private static LineageCacheEntry getCachedEntry(LineageItem key) {
+		if( !LineageCache.probe(key) )
+			return null;
+		LineageCacheEntry e = LineageCache.getEntry(key);
+		return (e != null && e.isMatrixValue() && e.getMBValue() != null) ? e : null;
+	}
+
+	private static LineageItem replaceInput(LineageItem item, int pos, LineageItem in) {
+		LineageItem[] inputs = item.getInputs().clone();
+		inputs[pos] = in;
+		return new LineageItem(item.getData(), item.getOpcode(), inputs);
+	}
+
+	private static LineageItem getWindowKey(LineageItem src, boolean rows, long[] bounds) {
+		// windows along rows share the column bounds, and vice versa
+		int off = rows ? 2 : 0;
+		return new LineageItem(rows ? "rowWindow" : "colWindow", new LineageItem[] {src,
+			new LineageItem(String.valueOf(bounds[off])), new LineageItem(String.valueOf(bounds[off + 1]))});
+	}
+
+	private static void trackWindow(LineageItem key, LineageItem slice) {
+		LineageItem[] w = _windows.get(key);
+		if( w == null )
+			_windows.put(key, new LineageItem[] {null, slice});
+		else if( !slice.equals(w[1]) ) {
+			w[0] = w[1];
+			w[1] = slice;
+		}
+	}
+
+	private static boolean isFinite(MatrixBlock mb) {
+		// single pass: NaN and infinite values propagate into the sum
+		// (conservative for overflowing sums of finite values)
+		return Double.isFinite(mb.sum());
+	}
+
+	private static long size(MatrixBlock mb, boolean rows) {
+		return rows ? mb.getNumRows() : mb.getNumColumns();
+	}
+
+	private static MatrixBlock slice(MatrixBlock mb, boolean rows, long lower, long upper) {
+		return rows ?
+			mb.slice((int) lower, (int) upper, 0, mb.getNumColumns() - 1) :
+			mb.slice(0, mb.getNumRows() - 1, (int) lower, (int) upper);
+	}
+}
@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Stack;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.DataType;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.instructions.cp.ScalarObjectFactory;
+import org.apache.sysds.runtime.io.IOUtilFunctions;
+import org.apache.sysds.runtime.lineage.LineageItem.LineageItemType;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Persistent, cross-process tier of the lineage cache. Entries are keyed by a
+ * SHA-256 digest of the lineage DAG, where reads of persistent files are
+ * additionally fingerprinted by their length and modification time. Values are
+ * stored in a local content-addressed directory (one file per digest) that is
+ * shared by all processes configured with the same directory, and bounded by
+ * evicting the least recently used files.
+ * 
+ * Note that the file fingerprint does not hash the file contents, to avoid a
+ * full scan of (potentially large) inputs on every lookup. Accordingly, an
+ * input that is rewritten with the same length and modification time (e.g.,
+ * by tools that preserve timestamps, or on file systems with a coarse time
+ * granularity) is not detected and may yield stale reuse. The cache directory
+ * should be cleared if inputs are modified in such ways.
+ * 
+ * Lineage items that are not reproducible across processes (e.g., placeholders,
+ * deduplicated items, or in-memory inputs of JMLC and MLContext) are not
+ * persisted.
+ */
+public class LineagePersistentCache
+{
+	private static final Log LOG = LogFactory.getLog(LineagePersistentCache.class.getName());
+
+	// marker of items that cannot be persisted
+	private static final String NOT_PERSISTABLE = "";
+	protected static final String IN_MEMORY_DATA = "CacheableData::";
+	private static final String TMP_SUFFIX = ".tmp";
+	private static final byte MATRIX = 0;
+	private static final byte SCALAR = 1;
+	// fraction of the size limit retained after eviction
+	private static final double EVICT_FRAC = 0.9;
+
+	private static LineagePersistentCache _store = null;
+	private static DMLConfig _conf = null;
+
+	private final File _dir;
+	private final long _limit;
+	private final long _minComputeTime;
+	// size estimate of the directory, refreshed on eviction
+	private long _size;
+
+	private LineagePersistentCache(File dir, long limit, long minComputeTime) {
+		_dir = dir;
+		_limit = limit;
+		_minComputeTime = minComputeTime;
+		if( !_dir.isDirectory() && !_dir.mkdirs() && !_dir.isDirectory() )
+			throw new DMLRuntimeException("Failed to create persistent lineage cache directory: " + dir);
+		_size = scan(null, null);
+	}
+
+	/**
+	 * Obtain the persistent cache configured in the current DML config.
+	 * 
+	 * @return the persistent cache, or null if it is disabled
+	 */
+	public static synchronized LineagePersistentCache get() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		if( conf == _conf )
+			return _store;
+		String dir = conf.getTextValue(DMLConfig.LINEAGE_PERSIST_DIR);
+		if( dir == null || dir.trim().isEmpty() )
+			_store = null;
+		else {
+			File fdir = new File(dir.trim());
+			long limit = (long) (conf.getDoubleValue(DMLConfig.LINEAGE_PERSIST_LIMIT) * 1024 * 1024);
+			long minTime = (long) (conf.getDoubleValue(DMLConfig.LINEAGE_PERSIST_MINTIME) * 1000000);
+			if( _store == null || !_store._dir.equals(fdir)
+				|| _store._limit != limit || _store._minComputeTime != minTime )
+				_store = new LineagePersistentCache(fdir, limit, minTime);
+		}
+		_conf = conf;
+		return _store;
+	}
+
+	/**
+	 * Reset the persistent cache handle such that the configuration is re-read
+	 * on next access. The stored entries are retained.
+	 */
+	public static synchronized void reset() {
+		_store = null;
+		_conf = null;
+	}
+
+	/**
+	 * Probe the persistent cache and, if found, read the stored value.
+	 * 
+	 * @param key lineage item of the requested intermediate
+	 * @return a new cache entry holding the value, or null if not available
+	 */
+	public LineageCacheEntry read(LineageItem key) {
+		String digest = digest(key);
+		if( digest == null )
+			return null;
+		File file = getFile(digest);
+		if( !file.isFile() )
+			return null;
+
+		long t0 = System.nanoTime();
+		LineageCacheEntry ret = null;
+		try( DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))) ) {
+			byte type = in.readByte();
+			long computetime = in.readLong();
+			if( type == MATRIX ) {
+				MatrixBlock mb = new MatrixBlock();
+				mb.readFields(in);
+				ret = new LineageCacheEntry(key, DataType.MATRIX, mb, null, computetime);
+			}
+			else {
+				ValueType vt = ValueType.valueOf(in.readUTF());
+				ScalarObject so = ScalarObjectFactory.createScalarObject(vt, in.readUTF());
+				ret = new LineageCacheEntry(key, DataType.SCALAR, null, so, computetime);
+			}
+		}
+		catch(IOException | RuntimeException ex) {
+			// concurrently evicted or corrupted files are treated as cache miss
+			LOG.warn("Failed to read persistent lineage cache entry " + file + ": " + ex.getMessage());
+			file.delete();
+			return null;
+		}
+		// maintain the order for LRU eviction
+		file.setLastModified(System.currentTimeMillis());
+
+		if( DMLScript.STATISTICS ) {
+			LineageCacheStatistics.incrementPersistReadTime(System.nanoTime() - t0);
+			LineageCacheStatistics.incrementPersistHits();
+		}
+		return ret;
+	}
+
+	/**
+	 * Write a computed intermediate to the persistent cache, if it is expensive
+	 * enough and reproducible across processes. Failures to write are logged
+	 * but not propagated, as the cache is best-effort.
+	 * 
+	 * @param key         lineage item of the intermediate
+	 * @param mb          matrix value, or null
+	 * @param so          scalar value, or null
+	 * @param computetime compute time of the intermediate in nanoseconds
+	 */
+	public void write(LineageItem key, MatrixBlock mb, ScalarObject so, long computetime) {
+		if( computetime < _minComputeTime || (mb == null && so == null) )
+			return;
+		long size = mb != null ? mb.getExactSizeOnDisk() : 0;
+		if( size > _limit )
+			return;
+		String digest = digest(key);
+		if( digest == null )
+			return;
+		File file = getFile(digest);
+		if( file.isFile() ) {
+			// already written by another process
+			file.setLastModified(System.currentTimeMillis());
+			return;
+		}
+
+		long t0 = System.nanoTime();
+		File tmp = new File(file.getParentFile(), digest + "." + UUID.randomUUID() + TMP_SUFFIX);
+		try {
+			if( !file.getParentFile().isDirectory() && !file.getParentFile().mkdirs() )
+				throw new IOException("Failed to create directory " + file.getParentFile());
+			try( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))) ) {
+				out.writeByte(mb != null ? MATRIX : SCALAR);
+				out.writeLong(computetime);
+				if( mb != null )
+					mb.write(out);
+				else {
+					out.writeUTF(so.getValueType().name());
+					out.writeUTF(so.getStringValue());
+				}
+			}
+			// publish atomically to concurrent readers
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch(AtomicMoveNotSupportedException ex) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write persistent lineage cache entry " + file + ": " + ex.getMessage());
+			tmp.delete();
+			return;
+		}
+
+		if( DMLScript.STATISTICS ) {
+			LineageCacheStatistics.incrementPersistWriteTime(System.nanoTime() - t0);
+			LineageCacheStatistics.incrementPersistWrites();
+		}
+		synchronized(this) {
+			_size += file.length();
+			if( _size > _limit )
+				_size = scan((long) (EVICT_FRAC * _limit), file);
+		}
+	}
+
+	/**
+	 * Get the current size of all entries in the persistent cache directory.
+	 * 
+	 * @return size in bytes
+	 */
+	public synchronized long getSize() {
+		return _size;
+	}
+
+	private File getFile(String digest) {
+		return new File(new File(_dir, digest.substring(0, 2)), digest);
+	}
+
+	/**
+	 * Scan the cache directory and, if a target size is given, delete the least
+	 * recently used entries until the total size is below the target. Left-over
+	 * temporary files of crashed writers are included in the eviction order.
+	 * 
+	 * @param target target size in bytes, or null to only compute the size
+	 * @param keep   file excluded from eviction (e.g., the last written entry)
+	 * @return total size in bytes after eviction
+	 */
+	private long scan(Long target, File keep) {
+		List<File> files = new ArrayList<>();
+		File[] subdirs = _dir.listFiles(File::isDirectory);
+		if( subdirs != null )
+			for( File subdir : subdirs ) {
+				File[] tmp = subdir.listFiles(File::isFile);
+				if( tmp != null )
+					for( File f : tmp )
+						files.add(f);
+			}
+		long size = 0;
+		for( File f : files )
+			size += f.length();
+		if( target == null || size <= target )
+			return size;
+
+		files.sort(Comparator.comparingLong(File::lastModified));
+		for( int i = 0; i < files.size() && size > target; i++ ) {
+			File f = files.get(i);
+			long len = f.length();
+			if( !f.equals(keep) && f.delete() )
+				size -= len;
+		}
+		return size;
+	}
+
+	//-------------------- LINEAGE DIGEST --------------------//
+
+	/**
+	 * Compute the content digest of a lineage DAG. Digests are memoized in the
+	 * lineage items, and the DAG is traversed non-recursively to handle deep
+	 * lineage traces of iterative algorithms.
+	 * 
+	 * @param root root of the lineage DAG
+	 * @return hex-encoded SHA-256 digest, or null if the DAG is not reproducible
+	 *         across processes
+	 */
+	public static String digest(LineageItem root) {
+		if( root.getDigest() == null ) {
+			MessageDigest md = createMessageDigest();
+			Stack<LineageItem> stack = new Stack<>();
+			stack.push(root);
+			while( !stack.empty() ) {
+				LineageItem li = stack.peek();
+				if( li.getDigest() != null ) {
+					stack.pop();
+					continue;
+				}
+				boolean ready = true;
+				if( li.getInputs() != null && !li.isPlaceholder() )
+					for( LineageItem in : li.getInputs() )
+						if( in.getDigest() == null ) {
+							stack.push(in);
+							ready = false;
+						}
+				if( ready ) {
+					li.setDigest(computeDigest(li, md));
+					stack.pop();
+				}
+			}
+		}
+		String ret = root.getDigest();
+		return ret.isEmpty() ? null : ret;
+	}
+
+	private static String computeDigest(LineageItem li, MessageDigest md) {
+		if( li.isPlaceholder() || li.getType() == LineageItemType.Dedup || li.getData().contains(IN_MEMORY_DATA) )
+			return NOT_PERSISTABLE;
+
+		md.reset();
+		update(md, li.getOpcode());
+		update(md, li.getData());
+		if( li.getType() == LineageItemType.Creation && isRead(li) ) {
+			String fingerprint = getFileFingerprint(li);
+			if( fingerprint == null )
+				return NOT_PERSISTABLE;
+			update(md, fingerprint);
+		}
+		if( li.getInputs() != null )
+			for( LineageItem in : li.getInputs() ) {
+				if( in.getDigest().isEmpty() )
+					return NOT_PERSISTABLE;
+				update(md, in.getDigest());
+			}
+		update(md, String.valueOf(li.getSpecialValueBits()));
+
+		StringBuilder sb = new StringBuilder(64);
+		for( byte b : md.digest() )
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		return sb.toString();
+	}
+
+	private static void update(MessageDigest md, String str) {
+		// length prefix to avoid ambiguous concatenations
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		md.update((byte) (bytes.length >>> 24));
+		md.update((byte) (bytes.length >>> 16));
+		md.update((byte) (bytes.length >>> 8));
+		md.update((byte) bytes.length);
+		md.update(bytes);
+	}
+
+	private static boolean isRead(LineageItem li) {
+		String opcode = li.getOpcode();
+		return opcode.equals("createvar") || opcode.equals("read");
+	}
+
+	/**
+	 * Fingerprint of the file read by a creation item, composed of the total
+	 * length and latest modification time of all its parts. Content changes
+	 * that preserve both are not detected (see class documentation).
+	 * 
+	 * @param li creation item of a persistent read
+	 * @return fingerprint string, or null if the file is not accessible
+	 */
+	private static String getFileFingerprint(LineageItem li) {
+		try {
+			String fname = InstructionUtils.getInstructionPartsWithValueType(li.getData())[2];
+			Path path = new Path(fname);
+			FileSystem fs = IOUtilFunctions.getFileSystem(path);
+			FileStatus status = fs.getFileStatus(path);
+			long len = 0, mtime = status.getModificationTime();
+			if( status.isDirectory() )
+				for( FileStatus part : fs.listStatus(path) ) {
+					len += part.getLen();
+					mtime = Math.max(mtime, part.getModificationTime());
+				}
+			else
+				len = status.getLen();
+			return len + "_" + mtime;
+		}
+		catch(IOException | RuntimeException ex) {
+			if( LOG.isDebugEnabled() )
+				LOG.debug("Failed to fingerprint lineage item " + li.getData() + ": " + ex.getMessage());
+			return null;
+		}
+	}
+
+	private static MessageDigest createMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+}
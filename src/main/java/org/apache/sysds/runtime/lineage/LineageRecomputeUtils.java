@@ -19,6 +19,7 @@
 
 package org.apache.sysds.runtime.lineage;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -26,6 +27,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.mutable.MutableInt;
@@ -60,6 +62,7 @@ import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.BasicProgramBlock;
 import org.apache.sysds.runtime.controlprogram.FunctionProgramBlock;
 import org.apache.sysds.runtime.controlprogram.Program;
+import org.apache.sysds.runtime.controlprogram.ProgramBlock;
 import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
@@ -94,7 +97,29 @@ public class LineageRecomputeUtils {
 		LineageItem root = LineageParser.parseLineageTrace(patches[0]); //global trace
 		if (patches.length > 1)
 			LineageParser.parseLineageTraceDedup(patches[1]);
-
+		return computeAndCleanup(root);
+	}
+	
+	public static Data parseNComputeLineageTrace(LineageBinaryReader reader) {
+		// Decode the global trace (first root) and the dedup patches
+		LineageItem root = null;
+		try {
+			while (reader.next()) {
+				if (reader.isPatch())
+					LineageParser.addDedupPatch(reader.getName(), reader.getRoot());
+				else if (root == null)
+					root = reader.getRoot();
+			}
+		}
+		catch (IOException ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		if (root == null)
+			throw new DMLRuntimeException("Binary lineage trace without root.");
+		return computeAndCleanup(root);
+	}
+	
+	private static Data computeAndCleanup(LineageItem root) {
 		// Disable GPU execution. TODO: Support GPU
 		boolean GPUenabled = false;
 		if (DMLScript.USE_ACCELERATOR) {
@@ -102,7 +127,7 @@ public class LineageRecomputeUtils {
 			DMLScript.USE_ACCELERATOR = false;
 		}
 
-		Data ret = computeByLineage(root);
+		Data ret = computeByLineage(root, true);
 
 		if (GPUenabled)
 			DMLScript.USE_ACCELERATOR = true;
@@ -111,7 +136,46 @@ public class LineageRecomputeUtils {
 		return ret;
 	}
 	
-	private static Data computeByLineage(LineageItem root) 
+	/**
+	 * Compute the given lineage trace without resetting the lineage cache,
+	 * such that the caller can place the result in the cache of a concurrently
+	 * running program. The trace must not contain deduplicated items.
+	 * The instructions are executed without lineage cache reuse and heavy
+	 * hitter statistics, which both belong to the main program.
+	 * 
+	 * @param root root of the lineage trace
+	 * @param stopped checked before every instruction to abort the computation
+	 * @return the computed intermediate, or null if aborted
+	 */
+	protected static Data computeSpeculative(LineageItem root, BooleanSupplier stopped) {
+		String varname = LVARPREFIX + root.getId();
+		Program prog = new Program(null);
+		
+		// Recursively construct hops and generate instructions
+		root.resetVisitStatusNR();
+		Map<Long, Hop> operands = new HashMap<>();
+		Map<String, Hop> partDagRoots = new HashMap<>();
+		constructHopsNR(root, operands, partDagRoots, prog);
+		partDagRoots.put(varname, HopRewriteUtils.createTransientWrite(
+			varname, operands.get(root.getId())));
+		constructBasicBlock(partDagRoots, varname, prog);
+		
+		// Execute the instructions directly instead of the program blocks,
+		// which would probe and populate the lineage cache
+		ExecutionContext ec = ExecutionContextFactory.createContext(prog);
+		for (ProgramBlock pb : prog.getProgramBlocks()) {
+			for (Instruction inst : ((BasicProgramBlock)pb).getInstructions()) {
+				if (stopped.getAsBoolean())
+					return null;
+				Instruction tmp = inst.preprocessInstruction(ec);
+				tmp.processInstruction(ec);
+				tmp.postprocessInstruction(ec);
+			}
+		}
+		return ec.getVariable(varname);
+	}
+	
+	private static Data computeByLineage(LineageItem root, boolean resetCache) 
 	{
 		long rootId = root.getOpcode().equals("write") ?
 			root.getInputs()[0].getId() : root.getId();
@@ -133,7 +197,8 @@ public class LineageRecomputeUtils {
 		
 		// Reset cache to avoid erroneous reuse
 		//FIXME: any lineage-based restore in the bufferpool flushes the lineage cache
-		LineageCache.resetCache();
+		if (resetCache)
+			LineageCache.resetCache();
 		
 		// Execute instructions and get result
 		if (DEBUG) {
@@ -112,8 +112,13 @@ public class LineageRewriteReuse
 		//PCA --> lmDS pipeline
 		newInst = (newInst == null) ? rewritePcaTsmm(curr, ec, lrwec) : newInst;
 		
-		if (newInst == null)
-			return false;
+		if (newInst == null) {
+			//generic partial reuse via declared decompositions
+			boolean ret = curr instanceof ComputationCPInstruction
+				&& LineagePartialReuse.executePartialReuse((ComputationCPInstruction)curr, ec, lrwec);
+			DMLScript.EXPLAIN = et;
+			return ret;
+		}
 		
 		//execute instructions & write the o/p to symbol table
 		long t0 = System.nanoTime();
@@ -1257,7 +1262,7 @@ public class LineageRewriteReuse
 
 	/*-------------------------------UTILITY METHODS----------------------------------*/
 	
-	private static MatrixObject toMatrixObject(MatrixBlock mb) {
+	protected static MatrixObject toMatrixObject(MatrixBlock mb) {
 		MetaData md = new MetaData(mb.getDataCharacteristics());
 		MatrixObject mo = new MatrixObject(ValueType.FP64, null, md);
 		mo.acquireModify(mb);
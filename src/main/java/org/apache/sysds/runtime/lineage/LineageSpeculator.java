@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.lineage;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.instructions.cp.Data;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageItem.LineageItemType;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Speculative precomputation of expensive intermediates based on the history
+ * of previous runs. With -lineage estimate, the most expensive reusable
+ * instruction outputs (compute time scaled by their occurrences) are written
+ * as binary lineage traces to a local history file. On the next run with
+ * lineage reuse, these traces are recomputed in a background thread while
+ * the main program proceeds, and the results are placed in the lineage cache.
+ * The recomputation itself neither reuses nor populates the lineage cache,
+ * and it is cancelled at the end of the program without waiting for it.
+ * Intermediates are matched by lineage, so an intermediate is only reused
+ * if the main program produces the very same lineage (e.g., reads the same
+ * files), while its value reflects the inputs at the time of speculation.
+ *
+ * Traces with deduplicated items, placeholders, or in-memory inputs of JMLC
+ * and MLContext are not recomputable and thus never recorded.
+ */
+public class LineageSpeculator
+{
+	private static final Log LOG = LogFactory.getLog(LineageSpeculator.class.getName());
+	private static final String TMP_SUFFIX = ".tmp";
+
+	// intermediates placed by speculation, carried over into the next history
+	// because the main program reuses instead of recomputing them
+	private static final Map<LineageItem, Long> _placed = new ConcurrentHashMap<>();
+	// generation of the current speculation, stale tasks stop on mismatch
+	private static volatile int _epoch = 0;
+	// running speculation, cancelled on stop
+	private static Future<?> _future = null;
+	// wait for the speculation on start (for deterministic tests)
+	private static boolean _synchronous = false;
+
+	/**
+	 * Start the speculative precomputation of the intermediates recorded in
+	 * the configured history file, if any.
+	 */
+	public static synchronized void start() {
+		_placed.clear();
+		File file = getHistoryFile();
+		if( file == null || !file.isFile() || ReuseCacheType.isNone() || DMLScript.USE_ACCELERATOR )
+			return;
+		List<LineageItem> items = new ArrayList<>();
+		List<Long> times = new ArrayList<>();
+		try {
+			readHistory(file, items, times);
+		}
+		catch(IOException | RuntimeException ex) {
+			LOG.warn("Failed to read lineage speculation history " + file + ": " + ex.getMessage());
+			return;
+		}
+		if( items.isEmpty() )
+			return;
+		final int epoch = ++_epoch;
+		_future = CommonThreadPool.getDynamicPool().submit(() -> precompute(items, epoch));
+		if( _synchronous )
+			join();
+	}
+
+	/**
+	 * Stop the speculative precomputation without waiting for the running
+	 * task. The task is interrupted, aborts before its next instruction, and
+	 * discards its result because the epoch changed.
+	 */
+	public static synchronized void stop() {
+		_epoch++;
+		if( _future != null )
+			_future.cancel(true);
+		_future = null;
+	}
+
+	/**
+	 * Set whether start waits for the speculation to complete.
+	 * Note: public for testing only.
+	 *
+	 * @param flag true to precompute before the main program executes
+	 */
+	public static void setSynchronous(boolean flag) {
+		_synchronous = flag;
+	}
+
+	private static void join() {
+		if( _future == null )
+			return;
+		try {
+			_future.get();
+		}
+		catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		catch(ExecutionException ex) {
+			LOG.warn("Lineage speculation failed: " + ex.getMessage());
+		}
+		finally {
+			_future = null;
+		}
+	}
+
+	/**
+	 * Write the top-k most expensive intermediates of the lineage estimator
+	 * (and intermediates served by speculation in this run) to the configured
+	 * history file, if any.
+	 */
+	public static void saveHistory() {
+		File file = getHistoryFile();
+		if( file == null )
+			return;
+		int k = ConfigurationManager.getDMLConfig().getIntValue(DMLConfig.LINEAGE_SPECULATE_TOPK);
+		List<LineageItem> items = new ArrayList<>();
+		List<Long> times = new ArrayList<>();
+		getTopExpensive(k, items, times);
+
+		File tmp = new File(file.getPath() + TMP_SUFFIX);
+		try {
+			writeHistory(tmp, items, times);
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch(AtomicMoveNotSupportedException ex) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch(IOException ex) {
+			LOG.warn("Failed to write lineage speculation history " + file + ": " + ex.getMessage());
+			tmp.delete();
+		}
+	}
+
+	protected static void getTopExpensive(int k, List<LineageItem> items, List<Long> times) {
+		String[] opcodes = LineageCacheConfig.getReusableOpcodes();
+		Map<LineageItem, Double> scores = new LinkedHashMap<>();
+		Map<LineageItem, Long> ctimes = new LinkedHashMap<>();
+		for( LineageEstimatorEntry e : LineageEstimator.getEntries() ) {
+			if( !ArrayUtils.contains(opcodes, e.key.getOpcode()) || !isRecomputable(e.key) )
+				continue;
+			scores.put(e.key, e.computeTime * (1d + e.reuseCount));
+			ctimes.put(e.key, e.computeTime);
+		}
+		for( Map.Entry<LineageItem, Long> e : _placed.entrySet() )
+			if( !scores.containsKey(e.getKey()) ) {
+				scores.put(e.getKey(), (double) e.getValue());
+				ctimes.put(e.getKey(), e.getValue());
+			}
+		scores.entrySet().stream()
+			.sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
+			.limit(k).forEach(e -> {
+				items.add(e.getKey());
+				times.add(ctimes.get(e.getKey()));
+			});
+	}
+
+	protected static void writeHistory(File file, List<LineageItem> items, List<Long> times) throws IOException {
+		try( LineageBinaryWriter writer = new LineageBinaryWriter(new FileOutputStream(file)) ) {
+			for( int i = 0; i < items.size(); i++ )
+				writer.writeTrace(String.valueOf(times.get(i)), items.get(i));
+		}
+	}
+
+	protected static void readHistory(File file, List<LineageItem> items, List<Long> times) throws IOException {
+		try( LineageBinaryReader reader = new LineageBinaryReader(new FileInputStream(file)) ) {
+			while( reader.next() ) {
+				if( reader.isPatch() )
+					continue;
+				items.add(reader.getRoot());
+				times.add(Long.parseLong(reader.getName()));
+			}
+		}
+	}
+
+	protected static boolean isRecomputable(LineageItem root) {
+		Set<LineageItem> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Stack<LineageItem> stack = new Stack<>();
+		stack.push(root);
+		while( !stack.isEmpty() ) {
+			LineageItem li = stack.pop();
+			if( !visited.add(li) )
+				continue;
+			if( li.isPlaceholder() || li.getType() == LineageItemType.Dedup
+				|| li.getData().contains(LineagePersistentCache.IN_MEMORY_DATA) )
+				return false;
+			if( li.getInputs() != null )
+				for( LineageItem in : li.getInputs() )
+					stack.push(in);
+		}
+		return true;
+	}
+
+	private static void precompute(List<LineageItem> items, int epoch) {
+		for( LineageItem li : items ) {
+			if( epoch != _epoch )
+				return;
+			if( LineageCache.probe(li) )
+				continue; //already computed by the main program
+			long t0 = System.nanoTime();
+			try {
+				Data data = LineageRecomputeUtils.computeSpeculative(li, () -> epoch != _epoch);
+				boolean placed = data != null && place(li, data, t0, epoch);
+				long ctime = System.nanoTime() - t0;
+				if( placed )
+					_placed.put(li, ctime);
+				if( DMLScript.STATISTICS )
+					LineageCacheStatistics.incrementSpeculations(placed, ctime);
+			}
+			catch(Exception ex) {
+				if( epoch != _epoch )
+					return; //interrupted by stop
+				LOG.warn("Failed to speculatively precompute " + li.getOpcode() + ": " + ex.getMessage());
+			}
+		}
+	}
+
+	private static synchronized boolean place(LineageItem li, Data data, long t0, int epoch) {
+		//check the epoch under the lock of stop, such that no result
+		//of a stopped speculation is placed after stop returned
+		return epoch == _epoch && LineageCache.putValueSpeculative(li, data, t0);
+	}
+
+	private static File getHistoryFile() {
+		String fname = ConfigurationManager.getDMLConfig().getTextValue(DMLConfig.LINEAGE_SPECULATE_FILE);
+		return (fname == null || fname.trim().isEmpty()) ? null : new File(fname.trim());
+	}
+}
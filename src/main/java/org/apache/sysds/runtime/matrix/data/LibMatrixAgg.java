@@ -70,6 +70,8 @@ import org.apache.sysds.runtime.matrix.operators.Operator;
 import org.apache.sysds.runtime.matrix.operators.UnaryOperator;
 import org.apache.sysds.runtime.util.CommonThreadPool;
 import org.apache.sysds.runtime.util.DataConverter;
+import org.apache.sysds.runtime.util.NnzRowPartitioner;
+import org.apache.sysds.runtime.util.NnzRowPartitioner.PartitionType;
 import org.apache.sysds.runtime.util.UtilFunctions;
 import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
 
@@ -101,6 +103,8 @@ public class LibMatrixAgg {
 	public static final long PAR_NUMCELL_THRESHOLD1 = 1024*256; //Min 256K elements
 	private static final long PAR_NUMCELL_THRESHOLD2 = 1024*4;   //Min 4K elements
 	private static final long PAR_INTERMEDIATE_SIZE_THRESHOLD = 2*1024*1024; //Max 2MB
+	//row partitioning of multi-threaded sparse unary aggregates
+	public static PartitionType SPARSE_PARTITIONING = PartitionType.AUTO;
 	
 	////////////////////////////////
 	// public matrix agg interface
@@ -292,30 +296,52 @@ public class LibMatrixAgg {
 		}
 
 		//core multi-threaded unary aggregate computation
-		//(currently: always parallelization over number of rows)
+		//(parallelization over number of rows, or nnz-balanced rows for skewed sparse inputs)
 		ExecutorService pool = CommonThreadPool.get(k);
 		try {
-			ArrayList<AggTask> tasks = new ArrayList<>();
-			ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(m, k,
-				(uaop.indexFn instanceof ReduceRow)); //use static partitioning for col*()
-			for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ ) {
-				tasks.add( (uaop.indexFn instanceof ReduceCol) ? 
-					new RowAggTask(in, out, aggtype, uaop, lb, lb+blklens.get(i)) :
-					new PartialAggTask(in, out, aggtype, uaop, lb, lb+blklens.get(i)) );
-			}
-			List<Future<Object>> rtasks = pool.invokeAll(tasks);
-
-			//aggregate partial results
-			if( uaop.indexFn instanceof ReduceCol ) {
-				//error handling and nnz aggregation
-				out.setNonZeros(rtasks.stream()
-					.mapToLong(t -> (long)UtilFunctions.getSafe(t)).sum());
-			}
-			else { //colAgg()/agg()
-				out.copy(((PartialAggTask)tasks.get(0)).getResult(), false); //for init
-				for( int i=1; i<tasks.size(); i++ )
-					aggregateFinalResult(uaop.aggOp, out, ((PartialAggTask)tasks.get(i)).getResult());
-				out.recomputeNonZeros();
+			if( NnzRowPartitioner.isNnzPartitioning(SPARSE_PARTITIONING, in, k) ) {
+				if( uaop.indexFn instanceof ReduceCol ) {
+					out.setNonZeros(NnzRowPartitioner.invoke(pool, in.sparseBlock, 0, m, in.nonZeros, k,
+						(rl, ru) -> (Long) new RowAggTask(in, out, aggtype, uaop, rl, ru).call(), Long::sum));
+				}
+				else { //colAgg()/agg()
+					MatrixBlock part = NnzRowPartitioner.invoke(pool, in.sparseBlock, 0, m, in.nonZeros, k,
+						(rl, ru) -> {
+							PartialAggTask task = new PartialAggTask(in, out, aggtype, uaop, rl, ru);
+							task.call();
+							return task.getResult();
+						},
+						(p1, p2) -> {
+							aggregateFinalResult(uaop.aggOp, p1, p2);
+							return p1;
+						});
+					out.copy(part, false);
+					out.recomputeNonZeros();
+				}
+			}
+			else {
+				ArrayList<AggTask> tasks = new ArrayList<>();
+				ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(m, k,
+					(uaop.indexFn instanceof ReduceRow)); //use static partitioning for col*()
+				for( int i=0, lb=0; i<blklens.size(); lb+=blklens.get(i), i++ ) {
+					tasks.add( (uaop.indexFn instanceof ReduceCol) ? 
+						new RowAggTask(in, out, aggtype, uaop, lb, lb+blklens.get(i)) :
+						new PartialAggTask(in, out, aggtype, uaop, lb, lb+blklens.get(i)) );
+				}
+				List<Future<Object>> rtasks = pool.invokeAll(tasks);
+
+				//aggregate partial results
+				if( uaop.indexFn instanceof ReduceCol ) {
+					//error handling and nnz aggregation
+					out.setNonZeros(rtasks.stream()
+						.mapToLong(t -> (long)UtilFunctions.getSafe(t)).sum());
+				}
+				else { //colAgg()/agg()
+					out.copy(((PartialAggTask)tasks.get(0)).getResult(), false); //for init
+					for( int i=1; i<tasks.size(); i++ )
+						aggregateFinalResult(uaop.aggOp, out, ((PartialAggTask)tasks.get(i)).getResult());
+					out.recomputeNonZeros();
+				}
 			}
 		}
 		catch(Exception ex) {
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP32;
+import org.apache.sysds.runtime.data.DenseBlockFP64;
+import org.apache.sysds.runtime.functionobjects.ValueFunction;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.NnzRowPartitioner.RangeTask;
+
+/**
+ * Single-precision (FP32) kernels for dense matrix multiplication and element-wise
+ * operations, which read and write {@link DenseBlockFP32} directly and thus halve the
+ * memory footprint and bandwidth of their inputs and outputs. All kernels compute in
+ * FP64 (matrix multiplication accumulates in FP64 row buffers) and only round the
+ * results to FP32.
+ * <p>
+ * The FP32 outputs are enabled per operator via the configuration (see
+ * {@link DMLConfig#CP_FP32}) and are consumed as-is by FP32-enabled instructions, while
+ * all other instructions obtain FP64 inputs via {@link #toFP64(MatrixBlock)}.
+ */
+public class LibMatrixFP32
+{
+	//minimum number of cells for multi-threaded execution
+	private static final long PAR_NUMCELL_THRESHOLD = 64 * 1024;
+
+	//cached FP32-enabled opcodes (null: all, empty: none), parsed on first use
+	private static volatile Set<String> _opcodes = null;
+	private static volatile boolean _opcodesInit = false;
+
+	private LibMatrixFP32() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if FP32 outputs are enabled for the given opcode.
+	 *
+	 * @param opcode instruction opcode
+	 * @return true if the operation should produce FP32 outputs
+	 */
+	public static boolean isEnabled(String opcode) {
+		if( !_opcodesInit )
+			initEnabledOpcodes();
+		Set<String> ops = _opcodes;
+		return ops == null || ops.contains(opcode);
+	}
+
+	/**
+	 * Resets the cached FP32-enabled opcodes, which are parsed again from the
+	 * configuration on the next call of {@link #isEnabled(String)}.
+	 */
+	public static void resetEnabledOpcodes() {
+		_opcodesInit = false;
+	}
+
+	private static synchronized void initEnabledOpcodes() {
+		if( _opcodesInit )
+			return;
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String ops = (conf == null) ? "none" : conf.getTextValue(DMLConfig.CP_FP32).trim();
+		Set<String> tmp = new HashSet<>();
+		if( ops.equalsIgnoreCase("all") )
+			tmp = null;
+		else if( !ops.equalsIgnoreCase("none") )
+			for( String op : ops.split(",") )
+				tmp.add(op.trim());
+		_opcodes = tmp;
+		_opcodesInit = true;
+	}
+
+	/**
+	 * Indicates if the given matrix block is a dense block in FP32.
+	 *
+	 * @param mb matrix block
+	 * @return true if the block is backed by a FP32 dense block
+	 */
+	public static boolean isFP32(MatrixBlock mb) {
+		return mb != null && !mb.isInSparseFormat()
+			&& mb.getDenseBlock() instanceof DenseBlockFP32;
+	}
+
+	/**
+	 * Converts a FP32, quantized, or off-heap matrix block into a new FP64 heap
+	 * matrix block; all other blocks are returned as-is.
+	 *
+	 * @param in input matrix block
+	 * @return FP64 matrix block
+	 */
+	public static MatrixBlock toFP64(MatrixBlock in) {
+		if( LibMatrixQuantize.isQuantized(in) )
+			return LibMatrixQuantize.dequantize(in);
+		if( LibMatrixOffHeap.isOffHeap(in) )
+			return LibMatrixOffHeap.toHeap(in);
+		if( !isFP32(in) )
+			return in;
+		float[] a = ((DenseBlockFP32) in.getDenseBlock()).getData();
+		int len = in.getNumRows() * in.getNumColumns();
+		double[] c = new double[len];
+		for( int i = 0; i < len; i++ )
+			c[i] = a[i];
+		MatrixBlock ret = new MatrixBlock(in.getNumRows(), in.getNumColumns(), c);
+		ret.setNonZeros(in.getNonZeros());
+		return ret;
+	}
+
+	/**
+	 * Converts a dense FP64 matrix block into a new FP32 matrix block; all other
+	 * blocks are returned as-is.
+	 *
+	 * @param in input matrix block
+	 * @return FP32 matrix block
+	 */
+	public static MatrixBlock toFP32(MatrixBlock in) {
+		if( !isDense(in) || isFP32(in) )
+			return in;
+		double[] a = in.getDenseBlock().valuesAt(0);
+		float[] c = new float[in.getNumRows() * in.getNumColumns()];
+		for( int i = 0; i < c.length; i++ )
+			c[i] = (float) a[i];
+		return createBlock(in.getNumRows(), in.getNumColumns(), c, in.getNonZeros());
+	}
+
+	/**
+	 * Indicates if the FP32 matrix multiplication is applicable.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @return true if both inputs are dense and the output fits into a single array
+	 */
+	public static boolean isApplicableMatrixMult(MatrixBlock m1, MatrixBlock m2) {
+		return isDense(m1) && isDense(m2)
+			&& (long) m1.getNumRows() * m2.getNumColumns() < Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Indicates if the FP32 binary operation is applicable, which requires dense
+	 * inputs and equal dimensions, or a row or column vector as the right-hand-side.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @return true if the FP32 kernel is applicable
+	 */
+	public static boolean isApplicableBinary(MatrixBlock m1, MatrixBlock m2) {
+		final int m = m1.getNumRows(), n = m1.getNumColumns();
+		final int m2r = m2.getNumRows(), m2c = m2.getNumColumns();
+		return isDense(m1) && isDense(m2)
+			&& ((m == m2r && n == m2c) || (m2r == 1 && n == m2c) || (m == m2r && m2c == 1));
+	}
+
+	/**
+	 * Indicates if the FP32 scalar operation is applicable.
+	 *
+	 * @param m1 matrix input
+	 * @return true if the input is dense
+	 */
+	public static boolean isApplicableScalar(MatrixBlock m1) {
+		return isDense(m1);
+	}
+
+	/**
+	 * Computes the dense matrix multiplication m1 %*% m2 with FP32 output.
+	 *
+	 * @param m1 dense left-hand-side input (FP32 or FP64)
+	 * @param m2 dense right-hand-side input (FP32 or FP64)
+	 * @param k degree of parallelism
+	 * @return FP32 output matrix block
+	 */
+	public static MatrixBlock matrixMult(MatrixBlock m1, MatrixBlock m2, int k) {
+		final int m = m1.getNumRows(), cd = m1.getNumColumns(), n = m2.getNumColumns();
+		final Values a = getValues(m1);
+		final Values b = getValues(m2);
+		final float[] c = new float[m * n];
+		long nnz = execute(m, (long) m * cd * n, k,
+			(rl, ru) -> matrixMultDenseDense(a, b, c, cd, n, rl, ru));
+		return createBlock(m, n, c, nnz);
+	}
+
+	/**
+	 * Computes the element-wise binary operation m1 op m2 with FP32 output.
+	 *
+	 * @param m1 dense left-hand-side input (FP32 or FP64)
+	 * @param m2 dense right-hand-side input (FP32 or FP64), matrix or vector
+	 * @param op binary operator
+	 * @return FP32 output matrix block
+	 */
+	public static MatrixBlock bincellOp(MatrixBlock m1, MatrixBlock m2, BinaryOperator op) {
+		final int m = m1.getNumRows(), n = m1.getNumColumns();
+		final Values a = getValues(m1);
+		final Values b = getValues(m2);
+		final float[] c = new float[m * n];
+		final int type = (m2.getNumRows() == m && m2.getNumColumns() == n) ? 0 :
+			(m2.getNumRows() == 1) ? 1 : 2; //matrix, row vector, column vector
+		long nnz = execute(m, (long) m * n, op.getNumThreads(),
+			(rl, ru) -> bincellOpDenseDense(a, b, c, n, type, op.fn, rl, ru));
+		return createBlock(m, n, c, nnz);
+	}
+
+	/**
+	 * Computes the element-wise scalar operation with FP32 output.
+	 *
+	 * @param m1 dense input (FP32 or FP64)
+	 * @param op scalar operator including the constant
+	 * @return FP32 output matrix block
+	 */
+	public static MatrixBlock scalarOp(MatrixBlock m1, ScalarOperator op) {
+		final int m = m1.getNumRows(), n = m1.getNumColumns();
+		final Values a = getValues(m1);
+		final float[] c = new float[m * n];
+		long nnz = execute(m, (long) m * n, op.getNumThreads(),
+			(rl, ru) -> scalarOpDense(a, c, n, op, rl, ru));
+		return createBlock(m, n, c, nnz);
+	}
+
+	private static long matrixMultDenseDense(Values a, Values b, float[] c, int cd, int n, int rl, int ru) {
+		//blocked IKJ over FP32 inputs with FP64 accumulators per block of rows
+		final int blocksizeI = 32, blocksizeK = 24;
+		final double[] acc = new double[Math.min(blocksizeI, ru - rl) * n];
+		long nnz = 0;
+		for( int bi = rl; bi < ru; bi += blocksizeI ) {
+			final int bimin = Math.min(ru, bi + blocksizeI);
+			Arrays.fill(acc, 0);
+			for( int bk = 0; bk < cd; bk += blocksizeK ) {
+				final int bkmin = Math.min(cd, bk + blocksizeK);
+				for( int i = bi; i < bimin; i++ ) {
+					final int aix = i * cd, cix = (i - bi) * n;
+					for( int k = bk; k < bkmin; k++ ) {
+						final double aval = a.get(aix + k);
+						if( aval == 0 )
+							continue;
+						if( b.f != null )
+							for( int j = 0, bix = k * n; j < n; j++ )
+								acc[cix + j] += aval * b.f[bix + j];
+						else
+							for( int j = 0, bix = k * n; j < n; j++ )
+								acc[cix + j] += aval * b.d[bix + j];
+					}
+				}
+			}
+			for( int i = bi; i < bimin; i++ )
+				nnz += round(acc, (i - bi) * n, c, i * n, n);
+		}
+		return nnz;
+	}
+
+	private static long bincellOpDenseDense(Values a, Values b, float[] c, int n, int type,
+		ValueFunction fn, int rl, int ru)
+	{
+		long nnz = 0;
+		for( int i = rl, ix = rl * n; i < ru; i++ ) {
+			for( int j = 0; j < n; j++, ix++ ) {
+				final double bval = b.get((type == 0) ? ix : (type == 1) ? j : i);
+				c[ix] = (float) fn.execute(a.get(ix), bval);
+				nnz += (c[ix] != 0) ? 1 : 0;
+			}
+		}
+		return nnz;
+	}
+
+	private static long scalarOpDense(Values a, float[] c, int n, ScalarOperator op, int rl, int ru) {
+		long nnz = 0;
+		for( int ix = rl * n; ix < ru * n; ix++ ) {
+			c[ix] = (float) op.executeScalar(a.get(ix));
+			nnz += (c[ix] != 0) ? 1 : 0;
+		}
+		return nnz;
+	}
+
+	private static long round(double[] a, int ai, float[] c, int ci, int len) {
+		long nnz = 0;
+		for( int j = 0; j < len; j++ ) {
+			c[ci + j] = (float) a[ai + j];
+			nnz += (c[ci + j] != 0) ? 1 : 0;
+		}
+		return nnz;
+	}
+
+	private static long execute(int m, long work, int k, RangeTask<Long> task) {
+		try {
+			if( k <= 1 || m < 2 || work < PAR_NUMCELL_THRESHOLD )
+				return task.compute(0, m);
+			final ExecutorService pool = CommonThreadPool.get(k);
+			try {
+				final int blklen = (int) Math.ceil((double) m / k);
+				List<Callable<Long>> tasks = new ArrayList<>();
+				for( int rl = 0; rl < m; rl += blklen ) {
+					final int lrl = rl, lru = Math.min(m, rl + blklen);
+					tasks.add(() -> task.compute(lrl, lru));
+				}
+				long nnz = 0;
+				for( Future<Long> f : pool.invokeAll(tasks) )
+					nnz += f.get();
+				return nnz;
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	private static boolean isDense(MatrixBlock mb) {
+		if( mb instanceof CompressedMatrixBlock || mb.isInSparseFormat() )
+			return false;
+		DenseBlock db = mb.getDenseBlock();
+		return db instanceof DenseBlockFP32 || db instanceof DenseBlockFP64;
+	}
+
+	private static Values getValues(MatrixBlock mb) {
+		//FP32 and (single-block) FP64 dense blocks are read without copying
+		DenseBlock db = mb.getDenseBlock();
+		return (db instanceof DenseBlockFP32) ?
+			new Values(((DenseBlockFP32) db).getData(), null) :
+			new Values(null, db.valuesAt(0));
+	}
+
+	private static MatrixBlock createBlock(int m, int n, float[] c, long nnz) {
+		MatrixBlock ret = new MatrixBlock(m, n, new DenseBlockFP32(new int[] {m, n}, c));
+		ret.setNonZeros(nnz);
+		return ret;
+	}
+
+	/**
+	 * Read-only view of the values of a dense FP32 or FP64 input.
+	 */
+	private static class Values {
+		private final float[] f;
+		private final double[] d;
+
+		protected Values(float[] f, double[] d) {
+			this.f = f;
+			this.d = d;
+		}
+
+		protected double get(int i) {
+			return (f != null) ? f[i] : d[i];
+		}
+	}
+}
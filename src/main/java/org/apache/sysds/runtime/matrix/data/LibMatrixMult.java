@@ -43,12 +43,14 @@ import org.apache.sysds.lops.WeightedUnaryMM.WUMMType;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.data.DenseBlock;
 import org.apache.sysds.runtime.data.DenseBlockFP64DEDUP;
+import org.apache.sysds.runtime.data.DenseBlockQuantized;
 import org.apache.sysds.runtime.data.DenseBlockFactory;
 import org.apache.sysds.runtime.data.SparseBlock;
 import org.apache.sysds.runtime.data.SparseBlock.Type;
 import org.apache.sysds.runtime.data.SparseBlockCSR;
 import org.apache.sysds.runtime.data.SparseBlockFactory;
 import org.apache.sysds.runtime.data.SparseBlockMCSR;
+import org.apache.sysds.runtime.data.SparseBlockSELL;
 import org.apache.sysds.runtime.data.SparseRow;
 import org.apache.sysds.runtime.data.SparseRowScalar;
 import org.apache.sysds.runtime.data.SparseRowVector;
@@ -56,6 +58,8 @@ import org.apache.sysds.runtime.functionobjects.SwapIndex;
 import org.apache.sysds.runtime.functionobjects.ValueFunction;
 import org.apache.sysds.runtime.matrix.operators.ReorgOperator;
 import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.NnzRowPartitioner;
+import org.apache.sysds.runtime.util.NnzRowPartitioner.PartitionType;
 import org.apache.sysds.runtime.util.UtilFunctions;
 import org.apache.sysds.utils.NativeHelper;
 import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
@@ -78,6 +82,8 @@ public class LibMatrixMult
 	public static final int L2_CACHESIZE = 256 * 1024; //256KB (common size)
 	public static final int L3_CACHESIZE = 16 * 1024 * 1024; //16MB (common size)
 	private static final Log LOG = LogFactory.getLog(LibMatrixMult.class.getName());
+	//row partitioning of multi-threaded sparse-x matrix multiplication
+	public static PartitionType SPARSE_PARTITIONING = PartitionType.AUTO;
 
 	private LibMatrixMult() {
 		//prevent instantiation via private constructor
@@ -187,6 +193,14 @@ public class LibMatrixMult
 		if(m1.isEmptyBlock(false) || m2.isEmptyBlock(false)) 
 			return emptyMatrixMult(m1, m2, ret);
 		
+		// quantized right-hand-side (e.g., model weights) w/ on-the-fly dequantization
+		m1 = LibMatrixQuantize.dequantize(m1);
+		if( LibMatrixQuantize.isQuantized(m2) ) {
+			if( !(fixedRet && ret.sparse) )
+				return matrixMultQuantized(m1, m2, ret, fixedRet, k);
+			m2 = LibMatrixQuantize.dequantize(m2);
+		}
+		
 		// Timing time = new Timing(true);
 		
 		// pre analysis
@@ -196,6 +210,14 @@ public class LibMatrixMult
 		boolean sparse = !fixedRet && !ultraSparse && !m1Perm
 			&& isSparseOutputMatrixMult(m1, m2);
 
+		// two-phase SpGEMM for wide sparse-sparse products w/ sparse output
+		// (fallback to default kernels if the output exceeds the CSR capacity)
+		if( !fixedRet && !m1Perm && LibMatrixSpGEMM.isApplicable(m1, m2) ) {
+			MatrixBlock tmp = LibMatrixSpGEMM.matrixMult(m1, m2, ret, k);
+			if( tmp != null )
+				return tmp;
+		}
+
 		// allocate output
 		if(ret == null)
 			ret = new MatrixBlock(m1.rlen, m2.clen, ultraSparse | sparse);
@@ -230,6 +252,15 @@ public class LibMatrixMult
 		boolean tm2 = !fixedRet && checkPrepMatrixMultRightInput(m1,m2);
 		m2 = prepMatrixMultRightInput(m1, m2, tm2);
 
+		// Strassen-Winograd for very large dense products (if enabled)
+		if( !fixedRet && !ultraSparse && !sparse && !tm2 && !m1.sparse && !m2.sparse
+			&& LibMatrixStrassen.isApplicable(m1, m2, ret, k) ) {
+			LibMatrixStrassen.matrixMult(m1, m2, ret, k);
+			ret.recomputeNonZeros(k);
+			ret.examSparsity(k);
+			return ret;
+		}
+
 		// check for multi-threading
 		if (!ret.isThreadSafe() 
 				|| !satisfiesMultiThreadingConstraints(m1, m2, m1.rlen==1, true, 2, k)
@@ -281,9 +312,19 @@ public class LibMatrixMult
 		int num = pm2r ? m2.rlen : pm2c ? m2.clen : m1.rlen;
 		
 		// core multi-threaded matrix mult computation
-		// (currently: always parallelization over number of rows)
+		// (parallelization over number of rows, or nnz-balanced rows for skewed sparse inputs)
 		final ExecutorService pool = CommonThreadPool.get(k);
 		try {
+			if( !pm2r && !pm2c && !(ret.denseBlock instanceof DenseBlockFP64DEDUP)
+				&& NnzRowPartitioner.isNnzPartitioning(SPARSE_PARTITIONING, m1, k) ) {
+				ret.nonZeros = 0;
+				ret.nonZeros = NnzRowPartitioner.invoke(pool, m1.sparseBlock, 0, m1.rlen, m1.nonZeros, k,
+					(rl, ru) -> (Long) new MatrixMultTask(m1, m2, ret, tm2, false, false, m1Perm, sparse, rl, ru, null).call(),
+					Long::sum);
+				ret.examSparsity(k);
+				return;
+			}
+			
 			ArrayList<MatrixMultTask> tasks = new ArrayList<>();
 			ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(num, k,
 				(pm2r || pm2c || ret.denseBlock instanceof DenseBlockFP64DEDUP));
@@ -321,6 +362,48 @@ public class LibMatrixMult
 
 	}
 
+	private static MatrixBlock matrixMultQuantized(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, boolean fixedRet, int k) {
+		// allocate dense output (quantized inputs are dense by definition)
+		if(ret == null)
+			ret = new MatrixBlock(m1.rlen, m2.clen, false);
+		else
+			ret.reset(m1.rlen, m2.clen, false);
+		ret.allocateDenseBlock();
+
+		// core matrix mult computation (parallelization over rows of m1)
+		final MatrixBlock c = ret;
+		final boolean par = k > 1 && m1.rlen > 1 && !fixedRet
+			&& (long) m1.rlen * m2.rlen * m2.clen >= PAR_MINFLOP_THRESHOLD1;
+		if( !par )
+			ret.nonZeros = matrixMultQuantized(m1, m2, ret, 0, m1.rlen);
+		else {
+			final ExecutorService pool = CommonThreadPool.get(k);
+			try {
+				ArrayList<Callable<Long>> tasks = new ArrayList<>();
+				ArrayList<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(m1.rlen, k, false);
+				for(int i = 0, lb = 0; i < blklens.size(); lb += blklens.get(i), i++) {
+					final int rl = lb, ru = lb + blklens.get(i);
+					tasks.add(() -> matrixMultQuantized(m1, m2, c, rl, ru));
+				}
+				long nnz = 0;
+				for(Future<Long> task : pool.invokeAll(tasks))
+					nnz += task.get();
+				ret.nonZeros = nnz;
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+			finally {
+				pool.shutdown();
+			}
+		}
+
+		// post-processing: representation
+		if( !fixedRet )
+			ret.examSparsity(k);
+		return ret;
+	}
+
 	public static MatrixBlock emptyMatrixMult(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret){
 		final int rl = m1.rlen;
 		final int cl = m2.clen;
@@ -502,7 +585,7 @@ public class LibMatrixMult
 		ret.sparse = isSparseOutputTSMM(m1);
 		ret.allocateBlock();
 		MatrixBlock m1t = isSparseOutputTSMM(m1, true) ?
-			LibMatrixReorg.transpose(m1, k) : null;
+			LibMatrixReorg.transpose(m1, k, true) : null;
 		
 		//core multi-threaded matrix mult computation
 		ExecutorService pool = CommonThreadPool.get(k);
@@ -1013,6 +1096,50 @@ public class LibMatrixMult
 	// optimized matrix mult implementation //
 	//////////////////////////////////////////
 
+	private static long matrixMultQuantized(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int rl, int ru) {
+		final DenseBlockQuantized b = (DenseBlockQuantized) m2.denseBlock;
+		final DenseBlock c = ret.getDenseBlock();
+		final int cd = m1.clen, n = m2.clen;
+		// per-row scales are folded into the lhs values, per-column scales
+		// are applied once per output row after accumulating raw products
+		final double[] scales = b.getScales();
+		final double[] rscales = (scales != null && !b.hasColumnScales()) ? scales : null;
+		final double[] cscales = (scales != null && b.hasColumnScales()) ? scales : null;
+
+		long nnz = 0;
+		for( int i = rl; i < ru; i++ ) {
+			double[] cvals = c.values(i);
+			int cix = c.pos(i);
+			if( m1.sparse ) {
+				SparseBlock a = m1.sparseBlock;
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int k = apos; k < apos + alen; k++ ) {
+					double aval = (rscales != null) ? avals[k] * rscales[aix[k]] : avals[k];
+					b.vectMultiplyAddRaw(aval, aix[k], cvals, cix);
+				}
+			}
+			else {
+				double[] avals = m1.denseBlock.values(i);
+				int aix = m1.denseBlock.pos(i);
+				for( int k = 0; k < cd; k++ ) {
+					double aval = avals[aix + k];
+					if( aval != 0 )
+						b.vectMultiplyAddRaw((rscales != null) ? aval * rscales[k] : aval, k, cvals, cix);
+				}
+			}
+			if( cscales != null )
+				for( int j = 0; j < n; j++ )
+					cvals[cix + j] *= cscales[j];
+			nnz += UtilFunctions.computeNnz(cvals, cix, n);
+		}
+		return nnz;
+	}
+
 	private static void matrixMultDenseDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, boolean tm2, boolean pm2, int rl, int ru, int cl, int cu) {
 		DenseBlock a = m1.getDenseBlock();
 		DenseBlock b = m2.getDenseBlock();
@@ -1063,6 +1190,9 @@ public class LibMatrixMult
 		else if( tm2 ) {                //MATRIX-MATRIX (skinny rhs)
 			matrixMultDenseDenseMMSkinnyRHS(a, b, c, m2.rlen, cd, rl, ru);
 		}
+		else if( !pm2 && LibMatrixMultPacked.isApplicable(m, n, cd) ) { //MATRIX-MATRIX (large, packed)
+			LibMatrixMultPacked.matrixMultDenseDense(a, b, c, cd, rl, ru, cl, cu);
+		}
 		else {                          //MATRIX-MATRIX
 			matrixMultDenseDenseMM(a, b, c, n, cd, rl, ru, cl, cu);
 		}
@@ -1315,7 +1445,10 @@ public class LibMatrixMult
 		final int cd = m2.rlen;
 		final long xsp = (long)m*cd/m1.nonZeros;
 
-		if( m==1 && n==1 ) {            //DOT PRODUCT
+		if( a instanceof SparseBlockSELL && !pm2 ) { //SELL-C-sigma (MV and skinny MM)
+			matrixMultSparseDenseSELL((SparseBlockSELL)a, b, c, n, rl, ru);
+		}
+		else if( m==1 && n==1 ) {       //DOT PRODUCT
 			if( !a.isEmpty(0) )
 				c.set(0, 0, dotProduct(a.values(0), b.values(0), a.indexes(0), a.pos(0), 0, a.size(0)));
 		}
@@ -1339,6 +1472,71 @@ public class LibMatrixMult
 		}
 	}
 	
+	private static void matrixMultSparseDenseSELL(SparseBlockSELL a, DenseBlock b, DenseBlock c, int n, int rl, int ru) {
+		final int m = a.numRows();
+		final int C = a.getSliceHeight();
+		final int[] ptr = a.slicePointers();
+		final int[] perm = a.permutation();
+		final int[] len = a.rowLengths();
+		final int[] aix = a.indexes();
+		final double[] avals = a.values();
+		final int sl = a.getSliceLower(rl);
+		final int su = a.getSliceUpper(ru);
+		
+		if( n == 1 ) { //MATRIX-VECTOR
+			final double[] bvals = b.valuesAt(0);
+			final double[] cvals = c.valuesAt(0);
+			final double[] acc = new double[C];
+			for( int s=sl; s<su; s++ ) {
+				final int pl = s*C, pu = Math.min(pl+C, m);
+				//dot products of C rows in lockstep
+				matrixMultSELLDotProducts(aix, avals, bvals, len, ptr[s], ptr[s+1], C, pl, pu, acc);
+				for( int p=pl; p<pu; p++ ) {
+					final int r = perm[p];
+					if( r >= rl && r < ru )
+						cvals[r] = acc[p-pl];
+				}
+			}
+		}
+		else { //MATRIX-MATRIX (skinny rhs)
+			for( int s=sl; s<su; s++ ) {
+				final int pl = s*C, pu = Math.min(pl+C, m);
+				final int width = (ptr[s+1]-ptr[s])/C;
+				//j-major over C rows to reuse output rows in L1
+				//(rows sorted by decreasing length within slices)
+				for( int j=0, off=ptr[s]; j<width; j++, off+=C ) {
+					for( int p=pl; p<pu && len[p]>j; p++ ) {
+						final int r = perm[p];
+						if( r < rl || r >= ru ) continue;
+						final int k = aix[off+p-pl];
+						vectMultiplyAdd(avals[off+p-pl], b.values(k), c.values(r), b.pos(k), c.pos(r), n);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Computes the dot products of the rows [pl, pu) of a SELL-C-sigma slice with
+	 * a dense vector. If the vector value at column 0 is finite, we exploit the
+	 * padding (index 0, value 0) for a branch-free loop over the entire slice.
+	 */
+	private static void matrixMultSELLDotProducts(int[] aix, double[] avals, double[] bvals, int[] len,
+		int sptr, int eptr, int C, int pl, int pu, double[] acc)
+	{
+		Arrays.fill(acc, 0);
+		if( Double.isFinite(bvals[0]) ) {
+			for( int off=sptr; off<eptr; off+=C )
+				for( int l=0; l<C; l++ )
+					acc[l] += avals[off+l] * bvals[aix[off+l]];
+		}
+		else {
+			for( int p=pl; p<pu; p++ )
+				for( int j=0, off=sptr+p-pl; j<len[p]; j++, off+=C )
+					acc[p-pl] += avals[off] * bvals[aix[off]];
+		}
+	}
+	
 	private static void matrixMultSparseDenseMVShortRHS(SparseBlock a, DenseBlock b, DenseBlock c, int cd, int rl, int ru) {
 		double[] bvals = b.valuesAt(0);
 		double[] cvals = c.valuesAt(0);
@@ -2103,7 +2301,11 @@ public class LibMatrixMult
 		final double[] c = ret.getDenseBlockValues();
 		
 		//row-wise mmchain computation
-		if(ct == ChainType.XtXvy)
+		if(a instanceof SparseBlockSELL) {
+			if(b != null || (ct == ChainType.XtXvy && w != null))
+				matrixMultChainSparseSELL((SparseBlockSELL) a, b, w, c, ct, rl, ru);
+		}
+		else if(ct == ChainType.XtXvy)
 			matrixMultChainSparseXtXvy(a, b, w, c, rl, ru);
 		else if(b != null) {
 			if(ct == ChainType.XtwXv)
@@ -2113,6 +2315,49 @@ public class LibMatrixMult
 		}
 	}
 
+	private static final void matrixMultChainSparseSELL(SparseBlockSELL a, double[] b, double[] w, double[] c,
+		ChainType ct, int rl, int ru) {
+		final int m = a.numRows();
+		final int C = a.getSliceHeight();
+		final int[] ptr = a.slicePointers();
+		final int[] perm = a.permutation();
+		final int[] len = a.rowLengths();
+		final int[] aix = a.indexes();
+		final double[] avals = a.values();
+		final int sl = a.getSliceLower(rl);
+		final int su = a.getSliceUpper(ru);
+		final double[] acc = new double[C];
+
+		for(int s = sl; s < su; s++) {
+			final int pl = s * C, pu = Math.min(pl + C, m);
+
+			// compute 1st matrix-vector dot products of C rows in lockstep
+			if(b != null)
+				matrixMultSELLDotProducts(aix, avals, b, len, ptr[s], ptr[s + 1], C, pl, pu, acc);
+			else
+				Arrays.fill(acc, 0);
+
+			// multiply/subtract weights, and mask rows outside [rl, ru)
+			for(int p = pl; p < pu; p++) {
+				final int r = perm[p];
+				final int l = p - pl;
+				if(r < rl || r >= ru)
+					acc[l] = 0;
+				else if(ct == ChainType.XtwXv)
+					acc[l] *= w[r];
+				else if(ct == ChainType.XtXvy && w != null)
+					acc[l] -= w[r];
+			}
+
+			// compute 2nd matrix vector and aggregate (j-major over C rows)
+			final int width = (ptr[s + 1] - ptr[s]) / C;
+			for(int j = 0, off = ptr[s]; j < width; j++, off += C)
+				for(int p = pl; p < pu && len[p] > j; p++)
+					if(acc[p - pl] != 0)
+						c[aix[off + p - pl]] += acc[p - pl] * avals[off + p - pl];
+		}
+	}
+
 	private static final void matrixMultChainSparseXtXv(SparseBlock a, double[] b,  double[] c, int rl,
 		int ru) {
 		for(int i = rl; i < ru; i++) {
@@ -3540,6 +3785,9 @@ public class LibMatrixMult
 	 */
 	private static double dotProduct( double[] a, double[] b, final int len )
 	{
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null )
+			return simd.dotProduct(a, b, 0, 0, len);
 		double val = 0;
 		final int bn = len%8;
 				
@@ -3569,6 +3817,9 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static double dotProduct( double[] a, double[] b, int ai, int bi, final int len )
 	{
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null )
+			return simd.dotProduct(a, b, ai, bi, len);
 		double val = 0;
 		final int bn = len%8;
 		
@@ -3658,6 +3909,11 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static void vectMultiplyAdd( final double aval, double[] b, double[] c, int bi, int ci, final int len )
 	{
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null ) {
+			simd.vectMultiplyAdd(aval, b, c, bi, ci, len);
+			return;
+		}
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -3731,8 +3987,13 @@ public class LibMatrixMult
 		}
 	}
 
-	private static void vectMultiplyAdd4( final double aval1, final double aval2, final double aval3, final double aval4, double[] b, double[] c, int bi1, int bi2, int bi3, int bi4, int ci, final int len )
+	static void vectMultiplyAdd4( final double aval1, final double aval2, final double aval3, final double aval4, double[] b, double[] c, int bi1, int bi2, int bi3, int bi4, int ci, final int len )
 	{
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null ) {
+			simd.vectMultiplyAdd4(aval1, aval2, aval3, aval4, b, c, bi1, bi2, bi3, bi4, ci, len);
+			return;
+		}
 		final int bn = len%8;	
 		
 		//rest, not aligned to 8-blocks
@@ -3813,6 +4074,11 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static void vectMultiplyWrite( final double aval, double[] b, double[] c, int bi, int ci, final int len )
 	{
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null ) {
+			simd.vectMultiplyWrite(aval, b, c, bi, ci, len);
+			return;
+		}
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -3959,6 +4225,11 @@ public class LibMatrixMult
 	//note: public for use by codegen for consistency
 	public static void vectAdd( double[] a, double[] c, int ai, int ci, final int len )
 	{
+		LibMatrixVector simd = LibMatrixVector.get();
+		if( simd != null ) {
+			simd.vectAdd(a, c, ai, ci, len);
+			return;
+		}
 		final int bn = len%8;
 		
 		//rest, not aligned to 8-blocks
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import java.util.Arrays;
+
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
+
+/**
+ * Cache-blocked, register-tiled dense-dense matrix multiplication in the style of
+ * GotoBLAS/BLIS. For large dense products, we iterate over column panels of B (NC, L3),
+ * slices of the common dimension (KC, L1), and row panels of A (MC, L2); pack the
+ * respective blocks of B and A into contiguous, zero-padded micro-panels of NR columns
+ * and MR rows; and compute MR x NR tiles of C in a micro-kernel that keeps the entire
+ * tile in registers. The packing buffers are thread-local and reused across calls.
+ * <p>
+ * The kernel computes C[rl:ru, cl:cu] += A[rl:ru, :] %*% B[:, cl:cu] and thus integrates
+ * with the row and column partitioning of multi-threaded matrix multiplication. Every
+ * task packs the KC x NC blocks of B it requires into its own buffer, which bounds the
+ * additional memory per thread and avoids a serially packed, full copy of B.
+ */
+public class LibMatrixMultPacked
+{
+	//register tile of the micro-kernel (16 accumulators)
+	public static final int MR = 4;
+	public static final int NR = 4;
+
+	//cache block sizes, derived from the local cache hierarchy
+	public static final int KC; //B micro-panel (KC x NR) and A micro-panel (MR x KC) in L1
+	public static final int MC; //A block (MC x KC) in L2
+	public static final int NC; //B block (KC x NC) in L3
+
+	//minimum size of all dimensions and flops for using the packed kernel
+	private static final int MIN_DIM = 128;
+	private static final long MIN_FLOPS = 64L * 1024 * 1024;
+
+	//thread-local, reusable packing buffers for A and B blocks
+	private static final ThreadLocal<double[][]> BUFFERS = new ThreadLocal<>() {
+		@Override protected double[][] initialValue() { return new double[2][0]; }
+	};
+
+	static {
+		final int l1 = InfrastructureAnalyzer.getLocalL1CacheSize();
+		final int l2 = InfrastructureAnalyzer.getLocalL2CacheSize();
+		final int l3 = InfrastructureAnalyzer.getLocalL3CacheSize();
+		KC = roundDown(Math.max(64, Math.min(512, l1 / 2 / 8 / (MR + NR))), 8);
+		MC = roundDown(Math.max(MR, Math.min(1024, l2 / 2 / 8 / KC)), MR);
+		NC = roundDown(Math.max(NR, Math.min(8192, l3 / 4 / 8 / KC)), NR);
+	}
+
+	private LibMatrixMultPacked() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if the packed kernel is applicable and beneficial for the given
+	 * dense matrix multiplication of dimensions m x cd and cd x n.
+	 *
+	 * @param m number of rows in the left-hand-side
+	 * @param n number of columns in the right-hand-side
+	 * @param cd common dimension
+	 * @return true if the packed kernel should be used
+	 */
+	public static boolean isApplicable(int m, int n, int cd) {
+		return m >= MIN_DIM && n >= MIN_DIM && cd >= MIN_DIM
+			&& (long) m * n * cd >= MIN_FLOPS;
+	}
+
+	/**
+	 * Computes C[rl:ru, cl:cu] += A[rl:ru, :] %*% B[:, cl:cu] for dense blocks.
+	 *
+	 * @param a dense left-hand-side input
+	 * @param b dense right-hand-side input
+	 * @param c dense output
+	 * @param cd common dimension
+	 * @param rl row lower bound in A and C
+	 * @param ru row upper bound (exclusive) in A and C
+	 * @param cl column lower bound in B and C
+	 * @param cu column upper bound (exclusive) in B and C
+	 */
+	public static void matrixMultDenseDense(DenseBlock a, DenseBlock b, DenseBlock c, int cd, int rl, int ru, int cl, int cu) {
+		final double[][] buff = getBuffers(Math.min(MC, ru-rl), Math.min(NC, cu-cl), Math.min(KC, cd));
+		final double[] ap = buff[0];
+		final double[] bp = buff[1];
+
+		for( int jc = cl; jc < cu; jc += NC ) {
+			final int nc = Math.min(NC, cu - jc);
+			for( int pc = 0; pc < cd; pc += KC ) {
+				final int kc = Math.min(KC, cd - pc);
+				packB(b, bp, pc, kc, jc, nc);
+				for( int ic = rl; ic < ru; ic += MC ) {
+					final int mc = Math.min(MC, ru - ic);
+					packA(a, ap, ic, mc, pc, kc);
+					//macro-kernel over micro-panels of B and A
+					for( int jr = 0; jr < nc; jr += NR ) {
+						final int nr = Math.min(NR, nc - jr);
+						final int bpos = jr * kc;
+						for( int ir = 0; ir < mc; ir += MR ) {
+							final int mr = Math.min(MR, mc - ir);
+							microKernel(kc, ap, ir * kc, bp, bpos, c, ic + ir, jc + jr, mr, nr);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Packs A[ic:ic+mc, pc:pc+kc] into micro-panels of MR rows, where each panel is
+	 * stored column-by-column (MR consecutive values per k) and zero-padded.
+	 */
+	private static void packA(DenseBlock a, double[] ap, int ic, int mc, int pc, int kc) {
+		for( int ir = 0, off = 0; ir < mc; ir += MR, off += MR * kc ) {
+			final int mr = Math.min(MR, mc - ir);
+			for( int r = 0; r < mr; r++ ) {
+				final double[] avals = a.values(ic + ir + r);
+				final int apos = a.pos(ic + ir + r, pc);
+				for( int p = 0, pix = off + r; p < kc; p++, pix += MR )
+					ap[pix] = avals[apos + p];
+			}
+			for( int r = mr; r < MR; r++ )
+				for( int p = 0, pix = off + r; p < kc; p++, pix += MR )
+					ap[pix] = 0;
+		}
+	}
+
+	/**
+	 * Packs B[pc:pc+kc, jc:jc+nc] into micro-panels of NR columns, where each panel is
+	 * stored row-by-row (NR consecutive values per k) and zero-padded.
+	 */
+	private static void packB(DenseBlock b, double[] bp, int pc, int kc, int jc, int nc) {
+		for( int p = 0; p < kc; p++ ) {
+			final double[] bvals = b.values(pc + p);
+			final int bpos = b.pos(pc + p, jc);
+			for( int jr = 0; jr < nc; jr += NR ) {
+				final int nr = Math.min(NR, nc - jr);
+				final int pix = jr * kc + p * NR;
+				if( nr == NR ) {
+					bp[pix] = bvals[bpos + jr];
+					bp[pix + 1] = bvals[bpos + jr + 1];
+					bp[pix + 2] = bvals[bpos + jr + 2];
+					bp[pix + 3] = bvals[bpos + jr + 3];
+				}
+				else {
+					for( int j = 0; j < nr; j++ )
+						bp[pix + j] = bvals[bpos + jr + j];
+					Arrays.fill(bp, pix + nr, pix + NR, 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes a MR x NR tile C[i:i+mr, j:j+nr] += Ap %*% Bp over packed micro-panels,
+	 * keeping all 16 partial results in registers.
+	 */
+	private static void microKernel(int kc, double[] ap, int apos, double[] bp, int bpos,
+		DenseBlock c, int i, int j, int mr, int nr)
+	{
+		double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+		double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+		double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+		double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+		for( int p = 0, aix = apos, bix = bpos; p < kc; p++, aix += MR, bix += NR ) {
+			final double a0 = ap[aix], a1 = ap[aix + 1], a2 = ap[aix + 2], a3 = ap[aix + 3];
+			final double b0 = bp[bix], b1 = bp[bix + 1], b2 = bp[bix + 2], b3 = bp[bix + 3];
+			c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+			c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+			c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+			c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+		}
+
+		if( mr == MR && nr == NR ) {
+			addRow(c, i, j, c00, c01, c02, c03);
+			addRow(c, i + 1, j, c10, c11, c12, c13);
+			addRow(c, i + 2, j, c20, c21, c22, c23);
+			addRow(c, i + 3, j, c30, c31, c32, c33);
+		}
+		else { //edge tiles
+			final double[] tmp = new double[] {c00, c01, c02, c03, c10, c11, c12, c13,
+				c20, c21, c22, c23, c30, c31, c32, c33};
+			for( int r = 0; r < mr; r++ ) {
+				final double[] cvals = c.values(i + r);
+				final int cix = c.pos(i + r, j);
+				for( int k = 0; k < nr; k++ )
+					cvals[cix + k] += tmp[r * NR + k];
+			}
+		}
+	}
+
+	private static void addRow(DenseBlock c, int i, int j, double v0, double v1, double v2, double v3) {
+		final double[] cvals = c.values(i);
+		final int cix = c.pos(i, j);
+		cvals[cix] += v0;
+		cvals[cix + 1] += v1;
+		cvals[cix + 2] += v2;
+		cvals[cix + 3] += v3;
+	}
+
+	private static double[][] getBuffers(int mc, int nc, int kc) {
+		final double[][] buff = BUFFERS.get();
+		final int alen = roundUp(mc, MR) * kc;
+		final int blen = roundUp(nc, NR) * kc;
+		if( buff[0].length < alen )
+			buff[0] = new double[alen];
+		if( buff[1].length < blen )
+			buff[1] = new double[blen];
+		return buff;
+	}
+
+	private static int roundDown(int val, int multiple) {
+		return Math.max(multiple, val / multiple * multiple);
+	}
+
+	private static int roundUp(int val, int multiple) {
+		return (val + multiple - 1) / multiple * multiple;
+	}
+}
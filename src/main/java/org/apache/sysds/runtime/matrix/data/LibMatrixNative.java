@@ -80,6 +80,7 @@ public class LibMatrixNative
 				&& !m1.isInSparseFormat() && !m2.isInSparseFormat()
 				&& (m1.getDenseBlock().isContiguous() || !isSinglePrecision())
 				&& m2.getDenseBlock().isContiguous() //contiguous but not allocated
+				&& !LibMatrixQuantize.isQuantized(m2) //on-the-fly dequantization
 				&& 8L * ret.getLength() < Integer.MAX_VALUE;
 	
 			if( isValidForNative ) 
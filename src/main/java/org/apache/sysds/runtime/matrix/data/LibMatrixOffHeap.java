@@ -0,0 +1,469 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import java.util.Arrays;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64;
+import org.apache.sysds.runtime.data.DenseBlockLFP64;
+import org.apache.sysds.runtime.data.DenseBlockOffHeap;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.functionobjects.Builtin;
+import org.apache.sysds.runtime.functionobjects.Builtin.BuiltinCode;
+import org.apache.sysds.runtime.functionobjects.KahanPlus;
+import org.apache.sysds.runtime.functionobjects.KahanPlusSq;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.functionobjects.ReduceAll;
+import org.apache.sysds.runtime.functionobjects.ReduceCol;
+import org.apache.sysds.runtime.functionobjects.ReduceRow;
+import org.apache.sysds.runtime.functionobjects.ValueFunction;
+import org.apache.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Kernels for dense matrices stored in off-heap memory (see {@link DenseBlockOffHeap}).
+ * Instructions with off-heap fast paths for matrix multiplication, element-wise operations,
+ * and transpose allocate large dense outputs off-heap up front if enabled via the
+ * configuration (see {@link DMLConfig#OFFHEAP_THRESHOLD}), and consume off-heap inputs
+ * as-is (incl. aggregations). These fast paths stream the inputs in row panels of bounded
+ * size through the existing heap kernels and write the results directly off-heap, which
+ * keeps the heap footprint independent of the matrix size. All other instructions obtain
+ * heap inputs via {@link LibMatrixFP32#toFP64(MatrixBlock)}.
+ */
+public class LibMatrixOffHeap
+{
+	private static final Log LOG = LogFactory.getLog(LibMatrixOffHeap.class.getName());
+
+	//max number of cells of row panels staged on the heap
+	private static final long PANEL_NUMCELLS = 4L * 1024 * 1024;
+
+	private LibMatrixOffHeap() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if the given matrix block is backed by an off-heap dense block.
+	 *
+	 * @param mb matrix block
+	 * @return true if off-heap
+	 */
+	public static boolean isOffHeap(MatrixBlock mb) {
+		return mb != null && !mb.isInSparseFormat()
+			&& mb.getDenseBlock() instanceof DenseBlockOffHeap;
+	}
+
+	/**
+	 * Indicates if a dense output of the given dimensions should be allocated
+	 * off-heap according to the configured size threshold.
+	 *
+	 * @param nrows number of rows
+	 * @param ncols number of columns
+	 * @return true if off-heap allocation is enabled and applicable
+	 */
+	public static boolean isApplicable(long nrows, long ncols) {
+		int threshold = ConfigurationManager.getDMLConfig().getIntValue(DMLConfig.OFFHEAP_THRESHOLD);
+		return threshold >= 0 && nrows > 0 && ncols > 0
+			&& DenseBlockOffHeap.getOffHeapSize(nrows, ncols) >= threshold * 1024L * 1024L;
+	}
+
+	/**
+	 * Indicates if an operation over the given input should use the off-heap
+	 * kernels, which is the case for off-heap inputs, and for dense FP64 heap
+	 * inputs whose dense output of the given dimensions should be allocated
+	 * off-heap.
+	 *
+	 * @param in input matrix block
+	 * @param nrows number of output rows
+	 * @param ncols number of output columns
+	 * @return true if the off-heap kernels apply
+	 */
+	public static boolean isApplicableOutput(MatrixBlock in, long nrows, long ncols) {
+		return isOffHeap(in) || (isDenseFP64(in) && isApplicable(nrows, ncols));
+	}
+
+	/**
+	 * Allocates an off-heap dense matrix block of the given dimensions, if
+	 * applicable and within the configured off-heap memory limit.
+	 *
+	 * @param nrows number of rows
+	 * @param ncols number of columns
+	 * @return off-heap matrix block, or null if not applicable
+	 */
+	public static MatrixBlock allocate(int nrows, int ncols) {
+		if( !isApplicable(nrows, ncols) )
+			return null;
+		int limit = ConfigurationManager.getDMLConfig().getIntValue(DMLConfig.OFFHEAP_LIMIT);
+		try {
+			return new MatrixBlock(nrows, ncols, new DenseBlockOffHeap(
+				new int[] {nrows, ncols}, (limit < 0) ? -1 : limit * 1024L * 1024L));
+		}
+		catch(DMLRuntimeException ex) {
+			LOG.debug("Falling back to heap allocation: " + ex.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Copies a large dense matrix block into a new off-heap matrix block, if
+	 * applicable; all other blocks are returned as-is.
+	 *
+	 * @param in input matrix block
+	 * @return off-heap or input matrix block
+	 */
+	public static MatrixBlock toOffHeap(MatrixBlock in) {
+		if( !isDenseFP64(in) || !isApplicable(in.getNumRows(), in.getNumColumns()) )
+			return in;
+		MatrixBlock ret = allocate(in.getNumRows(), in.getNumColumns());
+		if( ret == null )
+			return in;
+		DenseBlockOffHeap c = (DenseBlockOffHeap) ret.getDenseBlock();
+		DenseBlock a = in.getDenseBlock();
+		for( int i = 0; i < in.getNumRows(); i++ )
+			c.setRow(i, 0, a.values(i), a.pos(i), in.getNumColumns());
+		ret.setNonZeros(in.getNonZeros());
+		return ret;
+	}
+
+	/**
+	 * Copies an off-heap matrix block into a new heap matrix block; all other
+	 * blocks are returned as-is.
+	 *
+	 * @param in input matrix block
+	 * @return heap matrix block
+	 */
+	public static MatrixBlock toHeap(MatrixBlock in) {
+		if( !isOffHeap(in) )
+			return in;
+		MatrixBlock ret = new MatrixBlock(in.getNumRows(), in.getNumColumns(), false);
+		ret.allocateDenseBlock();
+		writeRows(in, 0, in.getNumRows(), ret, 0, 0);
+		ret.setNonZeros(in.getNonZeros());
+		return ret;
+	}
+
+	/**
+	 * Registers the given cache block as an owner of its off-heap memory.
+	 *
+	 * @param cb cache block
+	 */
+	public static void retain(CacheBlock<?> cb) {
+		if( cb instanceof MatrixBlock && isOffHeap((MatrixBlock) cb) )
+			((DenseBlockOffHeap) ((MatrixBlock) cb).getDenseBlock()).retain();
+	}
+
+	/**
+	 * Unregisters the given cache block as an owner of its off-heap memory, which
+	 * frees the memory once the last owner released it. Owners are cacheable data
+	 * objects and lineage cache entries.
+	 *
+	 * @param cb cache block
+	 */
+	public static void release(CacheBlock<?> cb) {
+		if( cb instanceof MatrixBlock && isOffHeap((MatrixBlock) cb) )
+			((DenseBlockOffHeap) ((MatrixBlock) cb).getDenseBlock()).release();
+	}
+
+	/**
+	 * Indicates if the off-heap matrix multiplication is applicable, which requires
+	 * an off-heap left-hand-side input, or a dense left- and right-hand-side input
+	 * with a large output.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @return true if applicable
+	 */
+	public static boolean isApplicableMatrixMult(MatrixBlock m1, MatrixBlock m2) {
+		if( m2 instanceof CompressedMatrixBlock )
+			return false;
+		return isOffHeap(m1) || (!m2.isInSparseFormat()
+			&& isApplicableOutput(m1, m1.getNumRows(), m2.getNumColumns()));
+	}
+
+	/**
+	 * Performs a matrix multiplication over row panels of the left-hand-side
+	 * input (off-heap or dense), with the output allocated off-heap if applicable.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @param k degree of parallelism
+	 * @return output matrix block
+	 */
+	public static MatrixBlock matrixMult(MatrixBlock m1, MatrixBlock m2, int k) {
+		m2 = LibMatrixFP32.toFP64(m2);
+		MatrixBlock ret = allocateOutput(m1.getNumRows(), m2.getNumColumns());
+		int blen = getPanelSize(m1.getNumColumns());
+		long nnz = 0;
+		for( int rl = 0; rl < m1.getNumRows(); rl += blen ) {
+			int ru = Math.min(rl + blen, m1.getNumRows());
+			MatrixBlock tmp = LibMatrixMult.matrixMult(stage(m1, rl, ru), m2, k);
+			nnz += writeRows(tmp, 0, tmp.getNumRows(), ret, rl, 0);
+		}
+		return finalizeOutput(ret, nnz);
+	}
+
+	/**
+	 * Performs a matrix-scalar operation over row panels of the input (off-heap
+	 * or dense), with the output allocated off-heap if applicable.
+	 *
+	 * @param m1 input
+	 * @param op scalar operator
+	 * @return output matrix block
+	 */
+	public static MatrixBlock scalarOp(MatrixBlock m1, ScalarOperator op) {
+		MatrixBlock ret = allocateOutput(m1.getNumRows(), m1.getNumColumns());
+		int blen = getPanelSize(m1.getNumColumns());
+		long nnz = 0;
+		for( int rl = 0; rl < m1.getNumRows(); rl += blen ) {
+			int ru = Math.min(rl + blen, m1.getNumRows());
+			MatrixBlock tmp = stage(m1, rl, ru).scalarOperations(op, new MatrixBlock());
+			nnz += writeRows(tmp, 0, tmp.getNumRows(), ret, rl, 0);
+		}
+		return finalizeOutput(ret, nnz);
+	}
+
+	/**
+	 * Indicates if the off-heap binary operation is applicable, which requires an
+	 * off-heap or dense left-hand-side input with a large output, and a
+	 * right-hand-side of equal dimensions or a row or column vector.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @return true if applicable
+	 */
+	public static boolean isApplicableBinary(MatrixBlock m1, MatrixBlock m2) {
+		if( m2 instanceof CompressedMatrixBlock
+			|| !isApplicableOutput(m1, m1.getNumRows(), m1.getNumColumns()) )
+			return false;
+		int m = m1.getNumRows(), n = m1.getNumColumns();
+		int m2r = m2.getNumRows(), m2c = m2.getNumColumns();
+		return (m2r == m && m2c == n) || (m2r == 1 && m2c == n) || (m2r == m && m2c == 1);
+	}
+
+	/**
+	 * Performs a cell-wise matrix-matrix, matrix-row vector, or matrix-column
+	 * vector operation over row panels of the left-hand-side input (off-heap or
+	 * dense), with the output allocated off-heap if applicable.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @param op binary operator
+	 * @return output matrix block
+	 */
+	public static MatrixBlock bincellOp(MatrixBlock m1, MatrixBlock m2, BinaryOperator op) {
+		final boolean rowVector = m2.getNumRows() == 1 && m1.getNumRows() > 1;
+		m2 = isOffHeap(m2) ? m2 : LibMatrixFP32.toFP64(m2);
+		MatrixBlock ret = allocateOutput(m1.getNumRows(), m1.getNumColumns());
+		int blen = getPanelSize(m1.getNumColumns());
+		long nnz = 0;
+		for( int rl = 0; rl < m1.getNumRows(); rl += blen ) {
+			int ru = Math.min(rl + blen, m1.getNumRows());
+			MatrixBlock rhs = rowVector ? m2 : stage(m2, rl, ru);
+			MatrixBlock tmp = stage(m1, rl, ru).binaryOperations(op, rhs, new MatrixBlock());
+			nnz += writeRows(tmp, 0, tmp.getNumRows(), ret, rl, 0);
+		}
+		return finalizeOutput(ret, nnz);
+	}
+
+	/**
+	 * Indicates if the off-heap unary aggregate is applicable, which includes all
+	 * row aggregates, as well as full and column sums, sums of squares, min, and max.
+	 * Other aggregates like trace cannot be combined from row panels.
+	 *
+	 * @param op aggregate unary operator
+	 * @return true if applicable
+	 */
+	public static boolean isApplicableAggregate(AggregateUnaryOperator op) {
+		return op.indexFn instanceof ReduceCol || getCombineFunction(op) != null;
+	}
+
+	/**
+	 * Performs a unary aggregate over an off-heap input.
+	 *
+	 * @param m1 off-heap input
+	 * @param op aggregate unary operator
+	 * @return output matrix block (w/o corrections)
+	 */
+	public static MatrixBlock aggregateUnary(MatrixBlock m1, AggregateUnaryOperator op) {
+		final boolean rowAgg = op.indexFn instanceof ReduceCol;
+		final ValueFunction combine = getCombineFunction(op);
+		MatrixBlock ret = null;
+		double[] partials = null;
+		int blen = getPanelSize(m1.getNumColumns());
+		for( int rl = 0; rl < m1.getNumRows(); rl += blen ) {
+			int ru = Math.min(rl + blen, m1.getNumRows());
+			MatrixBlock tmp = stage(m1, rl, ru).aggregateUnaryOperations(
+				op, new MatrixBlock(), ru - rl, new MatrixIndexes(1, 1), true);
+			if( rowAgg ) { //row aggregates: concatenate panel results
+				if( ret == null ) {
+					ret = new MatrixBlock(m1.getNumRows(), tmp.getNumColumns(), false);
+					ret.allocateDenseBlock();
+				}
+				writeRows(tmp, 0, tmp.getNumRows(), ret, rl, 0);
+			}
+			else { //full/column aggregates: combine panel results
+				int len = tmp.getNumColumns();
+				if( partials == null ) {
+					partials = new double[len];
+					for( int j = 0; j < len; j++ )
+						partials[j] = tmp.get(0, j);
+				}
+				else {
+					for( int j = 0; j < len; j++ ) {
+						partials[j] = combine.execute(partials[j], tmp.get(0, j));
+					}
+				}
+			}
+		}
+		if( !rowAgg )
+			ret = new MatrixBlock(1, partials.length, partials);
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+
+	/**
+	 * Transposes the input (off-heap or dense) in row panels, with the output
+	 * allocated off-heap if applicable.
+	 *
+	 * @param m1 input
+	 * @param k degree of parallelism
+	 * @return output matrix block
+	 */
+	public static MatrixBlock transpose(MatrixBlock m1, int k) {
+		MatrixBlock ret = allocateOutput(m1.getNumColumns(), m1.getNumRows());
+		int blen = getPanelSize(m1.getNumColumns());
+		long nnz = 0;
+		for( int rl = 0; rl < m1.getNumRows(); rl += blen ) {
+			int ru = Math.min(rl + blen, m1.getNumRows());
+			//transposed row panel is a column panel of the output
+			MatrixBlock tmp = LibMatrixReorg.transpose(stage(m1, rl, ru), k);
+			nnz += writeRows(tmp, 0, tmp.getNumRows(), ret, 0, rl);
+		}
+		return finalizeOutput(ret, nnz);
+	}
+
+	private static boolean isDenseFP64(MatrixBlock in) {
+		return in != null && !(in instanceof CompressedMatrixBlock) && !in.isInSparseFormat()
+			&& (in.getDenseBlock() instanceof DenseBlockFP64 || in.getDenseBlock() instanceof DenseBlockLFP64);
+	}
+
+	private static int getPanelSize(int ncol) {
+		return (int) Math.max(1, PANEL_NUMCELLS / Math.max(ncol, 1));
+	}
+
+	private static ValueFunction getCombineFunction(AggregateUnaryOperator op) {
+		//only full and column aggregates decompose over row panels
+		if( !(op.indexFn instanceof ReduceAll || op.indexFn instanceof ReduceRow) )
+			return null;
+		ValueFunction fn = op.aggOp.increOp.fn;
+		if( fn instanceof KahanPlus || fn instanceof KahanPlusSq )
+			return Plus.getPlusFnObject();
+		if( fn instanceof Builtin ) {
+			BuiltinCode code = ((Builtin) fn).getBuiltinCode();
+			if( code == BuiltinCode.MAX || code == BuiltinCode.MIN )
+				return fn;
+		}
+		return null;
+	}
+
+	private static MatrixBlock allocateOutput(int nrows, int ncols) {
+		MatrixBlock ret = allocate(nrows, ncols);
+		if( ret == null ) {
+			ret = new MatrixBlock(nrows, ncols, false);
+			ret.allocateDenseBlock();
+		}
+		return ret;
+	}
+
+	private static MatrixBlock finalizeOutput(MatrixBlock ret, long nnz) {
+		ret.setNonZeros(nnz);
+		if( !isOffHeap(ret) )
+			ret.examSparsity();
+		return ret;
+	}
+
+	/**
+	 * Copies the row range [rl,ru) of the given input into a new heap block;
+	 * heap inputs are sliced.
+	 */
+	private static MatrixBlock stage(MatrixBlock in, int rl, int ru) {
+		if( !isOffHeap(in) )
+			return LibMatrixFP32.toFP64(in).slice(rl, ru - 1);
+		MatrixBlock ret = new MatrixBlock(ru - rl, in.getNumColumns(), false);
+		ret.allocateDenseBlock();
+		writeRows(in, rl, ru, ret, 0, 0);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+
+	/**
+	 * Copies the row range [rl,ru) of the given input (dense, sparse, or
+	 * off-heap) into the given dense output at row offset rix and column
+	 * offset cix.
+	 *
+	 * @return number of non-zeros of the copied rows
+	 */
+	private static long writeRows(MatrixBlock in, int rl, int ru, MatrixBlock out, int rix, int cix) {
+		if( in.isEmptyBlock(false) )
+			return 0;
+		final int n = in.getNumColumns();
+		final DenseBlock c = out.getDenseBlock();
+		final DenseBlockOffHeap coff = (c instanceof DenseBlockOffHeap) ? (DenseBlockOffHeap) c : null;
+		double[] tmp = (coff != null) ? new double[n] : null;
+		long nnz = 0;
+		for( int i = rl; i < ru; i++ ) {
+			double[] cvals = (coff != null) ? tmp : c.values(rix + i - rl);
+			int cpos = (coff != null) ? 0 : c.pos(rix + i - rl) + cix;
+			if( isOffHeap(in) )
+				((DenseBlockOffHeap) in.getDenseBlock()).getRow(i, cvals, cpos);
+			else if( in.isInSparseFormat() ) {
+				SparseBlock a = in.getSparseBlock();
+				if( coff != null )
+					Arrays.fill(tmp, 0);
+				if( !a.isEmpty(i) ) {
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					for( int k = apos; k < apos + alen; k++ )
+						cvals[cpos + aix[k]] = avals[k];
+				}
+			}
+			else {
+				DenseBlock a = in.getDenseBlock();
+				System.arraycopy(a.values(i), a.pos(i), cvals, cpos, n);
+			}
+			nnz += UtilFunctions.computeNnz(cvals, cpos, n);
+			if( coff != null )
+				coff.setRow(rix + i - rl, cix, tmp, 0, n);
+		}
+		return nnz;
+	}
+}
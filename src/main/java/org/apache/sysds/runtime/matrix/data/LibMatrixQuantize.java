@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.data.DenseBlockQuantized;
+import org.apache.sysds.runtime.data.DenseBlockQuantized.QuantType;
+
+/**
+ * Conversion utilities for quantized (INT8, BF16) matrix blocks, which are intended
+ * for read-only model weights in inference scoring (e.g., via JMLC prepared scripts).
+ * Quantized right-hand-side inputs of matrix multiplications are consumed directly by
+ * {@link LibMatrixMult}, which dequantizes on the fly; all other operations obtain
+ * FP64 inputs via {@link LibMatrixFP32#toFP64(MatrixBlock)}.
+ */
+public class LibMatrixQuantize
+{
+	private LibMatrixQuantize() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if the given matrix block is backed by a quantized dense block.
+	 *
+	 * @param mb matrix block
+	 * @return true if quantized
+	 */
+	public static boolean isQuantized(MatrixBlock mb) {
+		return mb != null && !mb.isInSparseFormat()
+			&& mb.getDenseBlock() instanceof DenseBlockQuantized;
+	}
+
+	/**
+	 * Quantizes the given matrix block into a new matrix block.
+	 *
+	 * @param in input matrix block
+	 * @param type quantization type
+	 * @param colScales if true, use per-column scale factors (INT8 only), otherwise per-row
+	 * @return quantized matrix block
+	 */
+	public static MatrixBlock quantize(MatrixBlock in, QuantType type, boolean colScales) {
+		if( in instanceof CompressedMatrixBlock )
+			in = ((CompressedMatrixBlock) in).getUncompressed("quantize");
+		if( (long) in.getNumRows() * in.getNumColumns() > Integer.MAX_VALUE )
+			throw new DMLRuntimeException("Quantization only supports matrices with less than 2^31 cells.");
+		if( in.isInSparseFormat() || in.getDenseBlock() == null ) {
+			MatrixBlock tmp = new MatrixBlock(in.getNumRows(), in.getNumColumns(), false);
+			tmp.copy(in, false);
+			tmp.allocateDenseBlock(false);
+			in = tmp;
+		}
+		MatrixBlock ret = new MatrixBlock(in.getNumRows(), in.getNumColumns(),
+			DenseBlockQuantized.create(in.getDenseBlock(), type, colScales));
+		ret.recomputeNonZeros();
+		return ret;
+	}
+
+	/**
+	 * Converts a quantized matrix block into a new FP64 matrix block; all other blocks
+	 * are returned as-is.
+	 *
+	 * @param in input matrix block
+	 * @return FP64 matrix block
+	 */
+	public static MatrixBlock dequantize(MatrixBlock in) {
+		if( !isQuantized(in) )
+			return in;
+		MatrixBlock ret = new MatrixBlock(in.getNumRows(), in.getNumColumns(),
+			in.getDenseBlock().valuesAt(0));
+		ret.setNonZeros(in.getNonZeros());
+		return ret;
+	}
+}
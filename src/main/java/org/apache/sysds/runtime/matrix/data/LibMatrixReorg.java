@@ -96,6 +96,9 @@ public class LibMatrixReorg {
 	//use legacy in-place transpose dense instead of brenner in-place transpose dense
 	public static final boolean TRANSPOSE_IN_PLACE_DENSE_LEGACY = true;
 	
+	//max number of cells of base tiles in cache-oblivious dense transpose (8KB in/out)
+	public static final int TRANSPOSE_DENSE_TILE = 1024;
+	
 	private enum ReorgType {
 		TRANSPOSE,
 		REV,
@@ -123,8 +126,9 @@ public class LibMatrixReorg {
 
 		switch( type ) {
 			case TRANSPOSE:
+				//sparse outputs of t(X) may use the parallel CSR transpose
 				if( op.getNumThreads() > 1 )
-					return transpose(in, out, op.getNumThreads());
+					return transpose(in, out, op.getNumThreads(), out.isInSparseFormat());
 				else
 					return transpose(in, out);
 			case REV:
@@ -245,6 +249,13 @@ public class LibMatrixReorg {
 		// set meta data and allocate output arrays (if required)
 		out.nonZeros = in.nonZeros;
 
+		if(allowCSR && in.sparse && out.sparse && isParallelSparseToCSR(in, k)) {
+			// two-pass histogram and scatter directly into CSR output
+			// (only if the caller allows a CSR output)
+			transposeSparseToSparseCSRParallel(in, out, k);
+			return out;
+		}
+
 		if(!in.sparse && out.sparse){
 			// special case dense to sparse is different than others because appending to sparse rows.
 			transposeDenseToSparse(in, out, k);
@@ -1232,22 +1243,9 @@ public class LibMatrixReorg {
 			final int blocksizeI = 128;
 			final int blocksizeJ = 128;
 			
-			//blocked execution
+			//cache-oblivious recursive execution
 			if( a.numBlocks()==1 && c.numBlocks()==1 ) { //<16GB
-				double[] avals = a.valuesAt(0);
-				double[] cvals = c.valuesAt(0);
-				for( int bi = rl; bi<ru; bi+=blocksizeI ) {
-					int bimin = Math.min(bi+blocksizeI, ru);
-					for( int bj = cl; bj<cu; bj+=blocksizeJ ) {
-						int bjmin = Math.min(bj+blocksizeJ, cu);
-						//core transpose operation
-						for( int i=bi; i<bimin; i++ ) {
-							int aix = i * n + bj;
-							int cix = bj * n2 + i;
-							transposeRow(avals, cvals, aix, cix, n2, bjmin-bj);
-						}
-					}
-				}
+				transposeDenseRecursive(a.valuesAt(0), c.valuesAt(0), n, n2, rl, ru, cl, cu);
 			}
 			else { //general case > 16GB (multiple blocks)
 				for( int bi = rl; bi<ru; bi+=blocksizeI ) {
@@ -1267,6 +1265,30 @@ public class LibMatrixReorg {
 		}
 	}
 
+	/**
+	 * Cache-oblivious dense transpose, which recursively splits the larger
+	 * dimension of the range [rl,ru) x [cl,cu) until the tiles fit into the
+	 * L1 cache, independent of the cache sizes and matrix shapes.
+	 */
+	private static void transposeDenseRecursive(double[] a, double[] c, int n, int n2, int rl, int ru, int cl, int cu) {
+		final int m = ru - rl;
+		final int len = cu - cl;
+		if( (long)m * len <= TRANSPOSE_DENSE_TILE || m == 1 || len == 1 ) {
+			for( int i=rl; i<ru; i++ )
+				transposeRow(a, c, i * n + cl, cl * n2 + i, n2, len);
+		}
+		else if( m >= len ) {
+			final int mid = rl + m / 2;
+			transposeDenseRecursive(a, c, n, n2, rl, mid, cl, cu);
+			transposeDenseRecursive(a, c, n, n2, mid, ru, cl, cu);
+		}
+		else {
+			final int mid = cl + len / 2;
+			transposeDenseRecursive(a, c, n, n2, rl, ru, cl, mid);
+			transposeDenseRecursive(a, c, n, n2, rl, ru, mid, cu);
+		}
+	}
+
 	private static void transposeDenseToSparse(MatrixBlock in, MatrixBlock out){
 		transposeDenseToSparse(in, out, 1);
 	}
@@ -1714,6 +1736,127 @@ public class LibMatrixReorg {
 
 	}
 
+	private static boolean isParallelSparseToCSR(MatrixBlock in, int k) {
+		// nnz fits into CSR, and temporary column histograms of all
+		// row partitions are small compared to the input
+		return in.nonZeros <= Integer.MAX_VALUE
+			&& (in.sparseBlock instanceof SparseBlockCSR || in.sparseBlock instanceof SparseBlockMCSR)
+			&& (long) k * in.clen * 4 < in.getInMemorySize();
+	}
+
+	/**
+	 * Parallel sparse-sparse transpose into a CSR output. The first pass computes
+	 * histograms of non-zeros per column for nnz-balanced row partitions, whose
+	 * prefix sums yield the output row pointers and the write offsets of each
+	 * partition. The second pass scatters all partitions independently, which
+	 * keeps the row indexes within output rows sorted.
+	 */
+	private static void transposeSparseToSparseCSRParallel(MatrixBlock in, MatrixBlock out, int k) {
+		final SparseBlock a = in.sparseBlock;
+		final int n = in.clen;
+		final int[] rb = getRowPartitions(a, in.rlen, k);
+		final int nparts = rb.length - 1;
+		final ExecutorService pool = CommonThreadPool.get(k);
+		try {
+			// pass 1: column histograms per row partition
+			List<Future<int[]>> fcnt = new ArrayList<>();
+			for(int p = 0; p < nparts; p++) {
+				final int rl = rb[p], ru = rb[p + 1];
+				fcnt.add(pool.submit(() -> countNnzPerColumn(in, rl, ru)));
+			}
+			final int[][] cnt = new int[nparts][];
+			for(int p = 0; p < nparts; p++)
+				cnt[p] = fcnt.get(p).get();
+
+			// prefix sums into row pointers and partition offsets (in-place)
+			final int[] ptr = new int[n + 1];
+			long off = 0;
+			for(int j = 0; j < n; j++) {
+				for(int p = 0; p < nparts; p++) {
+					final int tmp = cnt[p][j];
+					cnt[p][j] = (int) off;
+					off += tmp;
+				}
+				if(off > Integer.MAX_VALUE)
+					throw new DMLRuntimeException("CSR transpose supports nnz<=Integer.MAX_VALUE but got " + off);
+				ptr[j + 1] = (int) off;
+			}
+
+			// pass 2: scatter row partitions into output arrays
+			final int nnz = ptr[n];
+			final int[] cix = new int[nnz];
+			final double[] cvals = new double[nnz];
+			List<Future<?>> tasks = new ArrayList<>();
+			for(int p = 0; p < nparts; p++) {
+				final int rl = rb[p], ru = rb[p + 1];
+				final int[] pos = cnt[p];
+				tasks.add(pool.submit(() -> transposeSparseToCSRScatter(a, cix, cvals, pos, rl, ru, n)));
+			}
+			for(Future<?> task : tasks)
+				task.get();
+
+			out.sparseBlock = new SparseBlockCSR(ptr, cix, cvals, nnz);
+			out.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static int[] getRowPartitions(SparseBlock a, int m, int k) {
+		final int nparts = Math.max(1, Math.min(k, m / 32));
+		final int[] rb = new int[nparts + 1];
+		if(a instanceof SparseBlockCSR) {
+			// nnz-balanced partitions via row pointers
+			final int[] rptr = ((SparseBlockCSR) a).rowPointers();
+			final long nnz = rptr[m];
+			for(int p = 1; p < nparts; p++) {
+				int r = Arrays.binarySearch(rptr, 0, m + 1, (int) (nnz * p / nparts));
+				r = (r >= 0) ? r : -r - 1;
+				rb[p] = Math.max(rb[p - 1], Math.min(r, m));
+			}
+		}
+		else {
+			for(int p = 1; p < nparts; p++)
+				rb[p] = (int) ((long) m * p / nparts);
+		}
+		rb[nparts] = m;
+		return rb;
+	}
+
+	private static void transposeSparseToCSRScatter(SparseBlock a, int[] cix, double[] cvals, int[] pos, int rl,
+		int ru, int n) {
+		// column blocking for wide inputs to keep the write positions in cache
+		final int blocksizeI = 512;
+		final int blocksizeJ = (n <= 4096) ? n : 2048;
+		final int[] ix = new int[Math.max(Math.min(blocksizeI, ru - rl), 0)];
+		for(int bi = rl; bi < ru; bi += blocksizeI) {
+			final int bimin = Math.min(bi + blocksizeI, ru);
+			Arrays.fill(ix, 0);
+			for(int bj = 0; bj < n; bj += blocksizeJ) {
+				final int bjmin = Math.min(bj + blocksizeJ, n);
+				for(int i = bi; i < bimin; i++) {
+					if(a.isEmpty(i))
+						continue;
+					final int apos = a.pos(i);
+					final int alen = a.size(i);
+					final int[] aix = a.indexes(i);
+					final double[] avals = a.values(i);
+					int j = apos + ix[i - bi];
+					for(; j < apos + alen && aix[j] < bjmin; j++) {
+						final int p = pos[aix[j]]++;
+						cix[p] = i;
+						cvals[p] = avals[j];
+					}
+					ix[i - bi] = j - apos; // keep block boundary
+				}
+			}
+		}
+	}
+
 	private static void transposeSparseToDense(MatrixBlock in, MatrixBlock out, int rl, int ru, int cl, int cu) {
 		final int m = in.rlen;
 		final int n = in.clen;
@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.SortUtils;
+import org.apache.sysds.runtime.util.UtilFunctions;
+
+/**
+ * Two-phase sparse-sparse matrix multiplication (SpGEMM) for wide products with
+ * sparse outputs (e.g., graph adjacency matrices), where the dense row accumulator
+ * of the default kernels wastes memory and time proportional to the number of
+ * output columns. A symbolic pass computes the exact number of non-zeros per output
+ * row, which allows allocating the CSR output exactly once, and a numeric pass then
+ * computes the output rows directly into their final CSR positions.
+ * <p>
+ * Both passes select the row accumulator by the number of row flops: a sort-based
+ * expand-sort-compress (ESC) accumulator for very small rows, an open-addressing
+ * hash accumulator for sparse rows, and a dense accumulator for rows that are dense
+ * relative to the number of columns. All accumulators are owned by the executing
+ * task and reused across rows.
+ */
+public class LibMatrixSpGEMM
+{
+	//minimum number of output columns (below that, the dense row
+	//accumulator of the default kernels fits into L1/L2 cache)
+	private static final int MIN_COLS = 4 * 1024;
+	//max number of row flops for the ESC accumulator
+	private static final int ESC_MAX_FLOPS = 32;
+	//min ratio of row flops to columns, and max columns for the dense accumulator
+	private static final int DENSE_ROW_RATIO = 32;
+	private static final int DENSE_MAX_COLS = 1024 * 1024;
+	//min number of estimated flops for multi-threading
+	private static final long PAR_MIN_FLOPS = 1024 * 1024;
+
+	private LibMatrixSpGEMM() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if the two-phase SpGEMM is applicable and preferable for the given
+	 * matrix multiplication, i.e., sparse inputs, and a wide output whose estimated
+	 * density qualifies for a sparse representation.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @return true if the two-phase SpGEMM should be used
+	 */
+	public static boolean isApplicable(MatrixBlock m1, MatrixBlock m2) {
+		final long m = m1.getNumRows(), cd = m1.getNumColumns(), n = m2.getNumColumns();
+		if( !m1.isInSparseFormat() || !m2.isInSparseFormat() || m < 2 || n < MIN_COLS
+			|| m1.isEmptyBlock(false) || m2.isEmptyBlock(false) )
+			return false;
+		double outSp = OptimizerUtils.getMatMultSparsity(
+			m1.getSparsity(), m2.getSparsity(), m, cd, n, false);
+		return MatrixBlock.evalSparseFormatInMemory(m, n, (long) (outSp * m * n));
+	}
+
+	/**
+	 * Computes ret = m1 %*% m2 of two sparse matrices into a CSR output. The number
+	 * of non-zeros is maintained, and the output representation is examined.
+	 *
+	 * @param m1 left-hand-side input (sparse)
+	 * @param m2 right-hand-side input (sparse)
+	 * @param ret output, or null
+	 * @param k degree of parallelism
+	 * @return output, or null if the number of output non-zeros exceeds the CSR capacity
+	 */
+	public static MatrixBlock matrixMult(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) {
+		if( !m1.isInSparseFormat() || !m2.isInSparseFormat() )
+			throw new DMLRuntimeException("SpGEMM requires sparse inputs.");
+		final int m = m1.getNumRows(), n = m2.getNumColumns();
+		final SparseBlock a = m1.getSparseBlock();
+		final SparseBlock b = m2.getSparseBlock();
+		final double flops = (double) m1.getNonZeros() * m2.getNonZeros() / m2.getNumRows();
+		k = (flops < PAR_MIN_FLOPS) ? 1 : k;
+
+		//symbolic pass: exact nnz per output row, and row pointers
+		int[] ptr = new int[m + 1];
+		if( k <= 1 )
+			symbolic(a, b, ptr, n, 0, m, new Accumulator());
+		else
+			execute(m, k, (rl, ru) -> () -> symbolic(a, b, ptr, n, rl, ru, new Accumulator()));
+		long nnz = 0;
+		for( int i = 0; i < m; i++ ) {
+			nnz += ptr[i + 1];
+			if( nnz > Integer.MAX_VALUE )
+				return null;
+			ptr[i + 1] = (int) nnz;
+		}
+
+		//numeric pass: computation into preallocated CSR arrays
+		final int[] ix = new int[(int) nnz];
+		final double[] vals = new double[(int) nnz];
+		long zeros = (k <= 1) ? numeric(a, b, ptr, ix, vals, n, 0, m, new Accumulator()) :
+			execute(m, k, (rl, ru) -> () -> numeric(a, b, ptr, ix, vals, n, rl, ru, new Accumulator()));
+
+		SparseBlockCSR c = new SparseBlockCSR(ptr, ix, vals, (int) nnz);
+		if( zeros > 0 ) //remove cancelled values
+			c.compact();
+
+		if( ret == null )
+			ret = new MatrixBlock(m, n, true);
+		else
+			ret.reset(m, n, true);
+		ret.sparseBlock = c;
+		ret.nonZeros = nnz - zeros;
+		ret.examSparsity(k);
+		return ret;
+	}
+
+	private static long symbolic(SparseBlock a, SparseBlock b, int[] ptr, int n, int rl, int ru, Accumulator acc) {
+		for( int i = rl; i < ru; i++ ) {
+			if( a.isEmpty(i) )
+				continue;
+			final int apos = a.pos(i);
+			final int alen = a.size(i);
+			final int[] aix = a.indexes(i);
+			if( alen == 1 ) { //scaled copy of rhs row
+				ptr[i + 1] = b.size(aix[apos]);
+				continue;
+			}
+			final int rflops = getRowFlops(b, aix, apos, alen);
+			if( rflops <= 1 ) {
+				ptr[i + 1] = rflops;
+				continue;
+			}
+			int cnt = 0;
+			if( isDenseRow(rflops, n) ) { //dense marker
+				int[] marker = acc.getMarker(n);
+				final int stamp = ++acc.stamp;
+				for( int k = apos; k < apos + alen; k++ ) {
+					int bk = aix[k];
+					if( b.isEmpty(bk) ) continue;
+					int[] bix = b.indexes(bk);
+					for( int j = b.pos(bk); j < b.pos(bk) + b.size(bk); j++ )
+						if( marker[bix[j]] != stamp ) {
+							marker[bix[j]] = stamp;
+							cnt++;
+						}
+				}
+			}
+			else { //hash set of column indexes
+				final int cap = acc.resetHash(rflops);
+				final int[] keys = acc.keys;
+				for( int k = apos; k < apos + alen; k++ ) {
+					int bk = aix[k];
+					if( b.isEmpty(bk) ) continue;
+					int[] bix = b.indexes(bk);
+					for( int j = b.pos(bk); j < b.pos(bk) + b.size(bk); j++ ) {
+						int h = hash(bix[j], cap);
+						while( keys[h] >= 0 && keys[h] != bix[j] )
+							h = (h + 1) & (cap - 1);
+						if( keys[h] < 0 ) {
+							keys[h] = bix[j];
+							cnt++;
+						}
+					}
+				}
+			}
+			ptr[i + 1] = cnt;
+		}
+		return 0;
+	}
+
+	private static long numeric(SparseBlock a, SparseBlock b, int[] ptr, int[] cix, double[] cvals, int n, int rl, int ru, Accumulator acc) {
+		long zeros = 0;
+		for( int i = rl; i < ru; i++ ) {
+			final int cpos = ptr[i];
+			final int clen = ptr[i + 1] - cpos;
+			if( clen == 0 )
+				continue;
+			final int apos = a.pos(i);
+			final int alen = a.size(i);
+			final int[] aix = a.indexes(i);
+			final double[] avals = a.values(i);
+			if( alen == 1 ) { //scaled copy of rhs row
+				int bk = aix[apos];
+				int bpos = b.pos(bk);
+				System.arraycopy(b.indexes(bk), bpos, cix, cpos, clen);
+				double[] bvals = b.values(bk);
+				for( int j = 0; j < clen; j++ )
+					cvals[cpos + j] = avals[apos] * bvals[bpos + j];
+			}
+			else {
+				final int rflops = getRowFlops(b, aix, apos, alen);
+				if( isDenseRow(rflops, n) )
+					numericDense(b, aix, avals, apos, alen, cix, cvals, cpos, n, acc);
+				else if( rflops <= ESC_MAX_FLOPS )
+					numericESC(b, aix, avals, apos, alen, cix, cvals, cpos, rflops, acc);
+				else
+					numericHash(b, aix, avals, apos, alen, cix, cvals, cpos, clen, rflops, acc);
+			}
+			for( int j = cpos; j < cpos + clen; j++ )
+				zeros += (cvals[j] == 0) ? 1 : 0;
+		}
+		return zeros;
+	}
+
+	private static void numericDense(SparseBlock b, int[] aix, double[] avals, int apos, int alen,
+		int[] cix, double[] cvals, int cpos, int n, Accumulator acc)
+	{
+		final double[] tmp = acc.getDense(n);
+		final int[] marker = acc.getMarker(n);
+		final int stamp = ++acc.stamp;
+		for( int k = apos; k < apos + alen; k++ ) {
+			int bk = aix[k];
+			if( b.isEmpty(bk) ) continue;
+			int[] bix = b.indexes(bk);
+			double[] bvals = b.values(bk);
+			for( int j = b.pos(bk); j < b.pos(bk) + b.size(bk); j++ ) {
+				tmp[bix[j]] += avals[k] * bvals[j];
+				marker[bix[j]] = stamp;
+			}
+		}
+		//scan in column order (sorted output)
+		for( int j = 0, pos = cpos; j < n; j++ )
+			if( marker[j] == stamp ) {
+				cix[pos] = j;
+				cvals[pos++] = tmp[j];
+				tmp[j] = 0;
+			}
+	}
+
+	private static void numericESC(SparseBlock b, int[] aix, double[] avals, int apos, int alen,
+		int[] cix, double[] cvals, int cpos, int rflops, Accumulator acc)
+	{
+		//expand
+		final int[] eix = acc.escIx;
+		final double[] evals = acc.escVals;
+		int len = 0;
+		for( int k = apos; k < apos + alen; k++ ) {
+			int bk = aix[k];
+			if( b.isEmpty(bk) ) continue;
+			int bpos = b.pos(bk);
+			int blen = b.size(bk);
+			System.arraycopy(b.indexes(bk), bpos, eix, len, blen);
+			double[] bvals = b.values(bk);
+			for( int j = 0; j < blen; j++ )
+				evals[len + j] = avals[k] * bvals[bpos + j];
+			len += blen;
+		}
+		//sort
+		SortUtils.sortByIndex(0, len, eix, evals);
+		//compress
+		int pos = cpos - 1;
+		for( int j = 0; j < len; j++ ) {
+			if( j > 0 && eix[j] == eix[j - 1] )
+				cvals[pos] += evals[j];
+			else {
+				cix[++pos] = eix[j];
+				cvals[pos] = evals[j];
+			}
+		}
+	}
+
+	private static void numericHash(SparseBlock b, int[] aix, double[] avals, int apos, int alen,
+		int[] cix, double[] cvals, int cpos, int clen, int rflops, Accumulator acc)
+	{
+		final int cap = acc.resetHash(rflops);
+		final int[] keys = acc.keys;
+		final double[] hvals = acc.vals;
+		for( int k = apos; k < apos + alen; k++ ) {
+			int bk = aix[k];
+			if( b.isEmpty(bk) ) continue;
+			int[] bix = b.indexes(bk);
+			double[] bvals = b.values(bk);
+			for( int j = b.pos(bk); j < b.pos(bk) + b.size(bk); j++ ) {
+				int h = hash(bix[j], cap);
+				while( keys[h] >= 0 && keys[h] != bix[j] )
+					h = (h + 1) & (cap - 1);
+				if( keys[h] < 0 ) {
+					keys[h] = bix[j];
+					hvals[h] = avals[k] * bvals[j];
+				}
+				else
+					hvals[h] += avals[k] * bvals[j];
+			}
+		}
+		//gather and sort by column index
+		for( int h = 0, pos = cpos; h < cap; h++ )
+			if( keys[h] >= 0 ) {
+				cix[pos] = keys[h];
+				cvals[pos++] = hvals[h];
+			}
+		SortUtils.sortByIndex(cpos, cpos + clen, cix, cvals);
+	}
+
+	private static int getRowFlops(SparseBlock b, int[] aix, int apos, int alen) {
+		long rflops = 0;
+		for( int k = apos; k < apos + alen; k++ )
+			rflops += b.isEmpty(aix[k]) ? 0 : b.size(aix[k]);
+		return (int) Math.min(rflops, Integer.MAX_VALUE / 4);
+	}
+
+	private static boolean isDenseRow(int rflops, int n) {
+		return n <= DENSE_MAX_COLS && rflops > n / DENSE_ROW_RATIO;
+	}
+
+	private static int hash(int key, int cap) {
+		//fibonacci hashing, cap is a power of two
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(cap)));
+	}
+
+	private static long execute(int m, int k, RangeTaskFactory factory) {
+		final ExecutorService pool = CommonThreadPool.get(k);
+		try {
+			List<Callable<Long>> tasks = new ArrayList<>();
+			List<Integer> blklens = UtilFunctions.getBalancedBlockSizesDefault(m, k, false);
+			for( int i = 0, lb = 0; i < blklens.size(); lb += blklens.get(i), i++ )
+				tasks.add(factory.create(lb, lb + blklens.get(i)));
+			long ret = 0;
+			for( Future<Long> f : pool.invokeAll(tasks) )
+				ret += f.get();
+			return ret;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private interface RangeTaskFactory {
+		Callable<Long> create(int rl, int ru);
+	}
+
+	/**
+	 * Task-local row accumulators, which are lazily allocated and reused across rows.
+	 */
+	private static class Accumulator {
+		private int[] keys = new int[0];
+		private double[] vals = new double[0];
+		private final int[] escIx = new int[ESC_MAX_FLOPS];
+		private final double[] escVals = new double[ESC_MAX_FLOPS];
+		private int[] marker;
+		private double[] dense;
+		private int stamp = 0;
+
+		private int resetHash(int rflops) {
+			//load factor of at most 0.5
+			int cap = Math.max(UtilFunctions.nextIntPow2(2 * rflops), 2);
+			if( keys.length < cap ) {
+				keys = new int[cap];
+				vals = new double[cap];
+			}
+			Arrays.fill(keys, 0, cap, -1);
+			return cap;
+		}
+
+		private int[] getMarker(int n) {
+			if( marker == null )
+				marker = new int[n];
+			return marker;
+		}
+
+		private double[] getDense(int n) {
+			if( dense == null )
+				dense = new double[n];
+			return dense;
+		}
+	}
+}
@@ -0,0 +1,491 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP64;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+
+/**
+ * Strassen-Winograd matrix multiplication (7 recursive sub-products and 15 additions per level)
+ * for very large dense FP64 matrix multiplications. Odd dimensions are handled by dynamic
+ * peeling of the last row, column, and common-dimension slice, and the recursion falls back
+ * to the blocked dense kernel of {@link LibMatrixMult} at the leaves.
+ * <p>
+ * With k &gt; 1, the operands of the sub-products are prepared upfront for as many recursion
+ * levels as needed to obtain k parallel tasks (i.e., 7, 49, ... sub-products), while each of
+ * them recurses further with the memory-efficient sequential schedule of Boyer et al. that
+ * only requires three temporaries per level. These scratch buffers are owned by the executing
+ * task and reused across all sub-products of the same recursion level. Sub-products that are
+ * leaves are split into row ranges to utilize the remaining threads.
+ * <p>
+ * Since the error bound of Strassen-Winograd grows with the recursion depth, only a single
+ * level is used by default, while multi-level recursion requires the approximation flag.
+ */
+public class LibMatrixStrassen
+{
+	//minimum leaf size (to bound the overhead of additions)
+	private static final int MIN_LEAF = 256;
+
+	private LibMatrixStrassen() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Indicates if Strassen-Winograd is enabled via the configuration and applicable to
+	 * the given matrix multiplication (dense FP64 inputs and output, and all dimensions
+	 * above the configured threshold).
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @param ret output
+	 * @param k degree of parallelism
+	 * @return true if Strassen-Winograd should be used
+	 */
+	public static boolean isApplicable(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) {
+		final int m = m1.getNumRows(), cd = m1.getNumColumns(), n = m2.getNumColumns();
+		if( Math.min(m, Math.min(cd, n)) < 2 * MIN_LEAF )
+			return false;
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		int threshold = (conf == null) ? -1 : conf.getIntValue(DMLConfig.STRASSEN_THRESHOLD);
+		if( threshold < 0 || Math.min(m, Math.min(cd, n)) < threshold )
+			return false;
+		boolean approx = conf.getBooleanValue(DMLConfig.STRASSEN_APPROX);
+		return isDenseFP64(m1) && isDenseFP64(m2) && isDenseFP64(ret)
+			&& fitsArray(m, cd) && fitsArray(cd, n) && fitsArray(m, n)
+			&& estimateScratchSize(m, cd, n, threshold, getMaxDepth(approx), k)
+				< OptimizerUtils.getLocalMemBudget() - 8d * ((long) m * cd + (long) cd * n + (long) m * n);
+	}
+
+	/**
+	 * Computes ret = m1 %*% m2 via Strassen-Winograd with the configured threshold and
+	 * accuracy setting. The output is expected to be allocated in dense format, and the
+	 * number of non-zeros is not maintained.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @param ret output
+	 * @param k degree of parallelism
+	 */
+	public static void matrixMult(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		matrixMult(m1, m2, ret, conf.getIntValue(DMLConfig.STRASSEN_THRESHOLD),
+			conf.getBooleanValue(DMLConfig.STRASSEN_APPROX), k);
+	}
+
+	/**
+	 * Computes ret = m1 %*% m2 via Strassen-Winograd. The output is expected to be allocated
+	 * in dense format, and the number of non-zeros is not maintained.
+	 *
+	 * @param m1 left-hand-side input
+	 * @param m2 right-hand-side input
+	 * @param ret output
+	 * @param minDim minimum dimension of sub-products for further recursion
+	 * @param approx if true, recurse until minDim, otherwise use a single level
+	 * @param k degree of parallelism
+	 */
+	public static void matrixMult(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int minDim, boolean approx, int k) {
+		if( !isDenseFP64(m1) || !isDenseFP64(m2) || !isDenseFP64(ret) )
+			throw new DMLRuntimeException("Strassen-Winograd requires contiguous dense FP64 inputs and output.");
+		final int m = m1.getNumRows(), cd = m1.getNumColumns(), n = m2.getNumColumns();
+		View a = new View(m1.getDenseBlockValues(), 0, cd);
+		View b = new View(m2.getDenseBlockValues(), 0, n);
+		View c = new View(ret.getDenseBlockValues(), 0, n);
+		//fallback to the blocked kernel (no recursion) if the temporaries exceed the array size limit
+		Config cfg = (fitsArray(m, cd) && fitsArray(cd, n) && fitsArray(m, n)) ?
+			new Config(Math.max(minDim, 2), getMaxDepth(approx)) : new Config(Integer.MAX_VALUE, 0);
+
+		if( k > 1 )
+			multiplyParallel(a, b, c, m, cd, n, cfg, k);
+		else
+			multiply(a, b, c, m, cd, n, 0, cfg, new Scratch());
+	}
+
+	private static boolean fitsArray(long rows, long cols) {
+		return rows * cols <= Integer.MAX_VALUE;
+	}
+
+	private static boolean isDenseFP64(MatrixBlock mb) {
+		DenseBlock db = mb.getDenseBlock();
+		return !mb.isInSparseFormat() && db instanceof DenseBlockFP64 && db.isContiguous();
+	}
+
+	private static int getMaxDepth(boolean approx) {
+		return approx ? Integer.MAX_VALUE : 1;
+	}
+
+	private static boolean recurse(int m, int cd, int n, int depth, Config cfg) {
+		return depth < cfg.maxDepth
+			&& Math.min(m, Math.min(cd, n)) >= Math.max(cfg.minDim, 2 * MIN_LEAF);
+	}
+
+	private static long estimateScratchSize(int m, int cd, int n, int minDim, int maxDepth, int k) {
+		return estimateScratchSize(m, cd, n, 0, new Config(Math.max(minDim, 2), maxDepth), k);
+	}
+
+	private static long estimateScratchSize(int m, int cd, int n, int depth, Config cfg, int k) {
+		//sequential schedule, or operands of all sub-products of a parallel level
+		if( k <= 1 || !recurse(m, cd, n, depth, cfg) )
+			return estimateScratchSize(m, cd, n, depth, cfg);
+		long mh = m / 2, kh = cd / 2, nh = n / 2;
+		return 8 * (4 * mh * kh + 4 * kh * nh + 3 * mh * nh)
+			+ 7 * estimateScratchSize((int) mh, (int) kh, (int) nh, depth + 1, cfg, getChildParallelism(k));
+	}
+
+	private static long estimateScratchSize(int m, int cd, int n, int depth, Config cfg) {
+		long ret = 0;
+		for( ; recurse(m, cd, n, depth, cfg); m /= 2, cd /= 2, n /= 2, depth++ )
+			ret += 8 * ((long) (m / 2) * (cd / 2) + (long) (cd / 2) * (n / 2) + (long) (m / 2) * (n / 2));
+		return ret;
+	}
+
+	/**
+	 * Computes c = a %*% b with the sequential, memory-efficient schedule, which uses the
+	 * quadrants of c and three temporaries X, Y, Z of the current recursion level.
+	 */
+	private static void multiply(View a, View b, View c, int m, int cd, int n, int depth, Config cfg, Scratch s) {
+		if( !recurse(m, cd, n, depth, cfg) ) {
+			multiplyLeaf(a, b, c, 0, m, cd, n);
+			return;
+		}
+		final int mh = m / 2, kh = cd / 2, nh = n / 2;
+		final View a11 = a, a12 = a.at(0, kh), a21 = a.at(mh, 0), a22 = a.at(mh, kh);
+		final View b11 = b, b12 = b.at(0, nh), b21 = b.at(kh, 0), b22 = b.at(kh, nh);
+		final View c11 = c, c12 = c.at(0, nh), c21 = c.at(mh, 0), c22 = c.at(mh, nh);
+		final View x = s.get(depth, 0, mh, kh);
+		final View y = s.get(depth, 1, kh, nh);
+		final View z = s.get(depth, 2, mh, nh);
+
+		sub(a11, a21, x, mh, kh);                          //S3 = A11 - A21
+		sub(b22, b12, y, kh, nh);                          //T3 = B22 - B12
+		multiply(x, y, c21, mh, kh, nh, depth+1, cfg, s);  //P7 = S3 T3
+		add(a21, a22, x, mh, kh);                          //S1 = A21 + A22
+		sub(b12, b11, y, kh, nh);                          //T1 = B12 - B11
+		multiply(x, y, c22, mh, kh, nh, depth+1, cfg, s);  //P5 = S1 T1
+		sub(x, a11, x, mh, kh);                            //S2 = S1 - A11
+		sub(b22, y, y, kh, nh);                            //T2 = B22 - T1
+		multiply(x, y, c12, mh, kh, nh, depth+1, cfg, s);  //P6 = S2 T2
+		sub(a12, x, x, mh, kh);                            //S4 = A12 - S2
+		multiply(x, b22, z, mh, kh, nh, depth+1, cfg, s);  //P3 = S4 B22
+		multiply(a11, b11, c11, mh, kh, nh, depth+1, cfg, s); //P1 = A11 B11
+		add(c12, c11, c12, mh, nh);                        //U2 = P1 + P6
+		add(c21, c12, c21, mh, nh);                        //U3 = U2 + P7
+		add(c12, c22, c12, mh, nh);                        //U4 = U2 + P5
+		add(c22, c21, c22, mh, nh);                        //C22 = U3 + P5
+		add(c12, z, c12, mh, nh);                          //C12 = U4 + P3
+		sub(y, b21, y, kh, nh);                            //T4 = T2 - B21
+		multiply(a22, y, z, mh, kh, nh, depth+1, cfg, s);  //P4 = A22 T4
+		sub(c21, z, c21, mh, nh);                          //C21 = U3 - P4
+		multiply(a12, b21, z, mh, kh, nh, depth+1, cfg, s);//P2 = A12 B21
+		add(c11, z, c11, mh, nh);                          //C11 = P1 + P2
+
+		peel(a, b, c, m, cd, n);
+	}
+
+	/**
+	 * Computes c = a %*% b by computing the operands of the sub-products of all parallel
+	 * levels upfront, executing the resulting sub-products (or row ranges of leaves) in
+	 * parallel, and finally combining the sub-products bottom-up.
+	 */
+	private static void multiplyParallel(View a, View b, View c, int m, int cd, int n, Config cfg, int k) {
+		List<SubProductTask> products = new ArrayList<>();
+		List<Runnable> combines = new ArrayList<>();
+		expand(a, b, c, m, cd, n, 0, cfg, k, products, combines);
+
+		final ExecutorService pool = CommonThreadPool.get(k);
+		try {
+			List<Callable<Object>> tasks = new ArrayList<>();
+			final int rtasks = (int) Math.ceil((double) k / products.size());
+			for( SubProductTask p : products ) {
+				if( rtasks <= 1 || recurse(p._m, p._cd, p._n, p._depth, cfg) )
+					tasks.add(p);
+				else { //row ranges of leaf sub-products
+					final int blksz = (int) Math.ceil((double) p._m / rtasks);
+					for( int rl = 0; rl < p._m; rl += blksz )
+						tasks.add(new LeafTask(p, rl, Math.min(rl + blksz, p._m)));
+				}
+			}
+			for( Future<Object> f : pool.invokeAll(tasks) )
+				f.get();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		//combine sub-products of deeper levels first
+		for( int i = combines.size() - 1; i >= 0; i-- )
+			combines.get(i).run();
+	}
+
+	/**
+	 * Prepares the operands of the 7 sub-products of c = a %*% b and recursively expands
+	 * them until the given parallelism is reached, collecting the final sub-products and
+	 * the combination steps of all expanded levels (in pre-order).
+	 */
+	private static void expand(View a, View b, View c, int m, int cd, int n, int depth, Config cfg, int k,
+		List<SubProductTask> products, List<Runnable> combines)
+	{
+		if( k <= 1 || !recurse(m, cd, n, depth, cfg) ) {
+			products.add(new SubProductTask(a, b, c, m, cd, n, depth, cfg));
+			return;
+		}
+		final int mh = m / 2, kh = cd / 2, nh = n / 2;
+		final View a11 = a, a12 = a.at(0, kh), a21 = a.at(mh, 0), a22 = a.at(mh, kh);
+		final View b11 = b, b12 = b.at(0, nh), b21 = b.at(kh, 0), b22 = b.at(kh, nh);
+		final View c11 = c, c12 = c.at(0, nh), c21 = c.at(mh, 0), c22 = c.at(mh, nh);
+		final View s1 = View.allocate(mh, kh), s2 = View.allocate(mh, kh);
+		final View s3 = View.allocate(mh, kh), s4 = View.allocate(mh, kh);
+		final View t1 = View.allocate(kh, nh), t2 = View.allocate(kh, nh);
+		final View t3 = View.allocate(kh, nh), t4 = View.allocate(kh, nh);
+		final View p2 = View.allocate(mh, nh), p3 = View.allocate(mh, nh), p4 = View.allocate(mh, nh);
+
+		add(a21, a22, s1, mh, kh);
+		sub(s1, a11, s2, mh, kh);
+		sub(a11, a21, s3, mh, kh);
+		sub(a12, s2, s4, mh, kh);
+		sub(b12, b11, t1, kh, nh);
+		sub(b22, t1, t2, kh, nh);
+		sub(b22, b12, t3, kh, nh);
+		sub(t2, b21, t4, kh, nh);
+
+		combines.add(() -> {
+			add(c12, c11, c12, mh, nh); //U2 = P1 + P6
+			add(c21, c12, c21, mh, nh); //U3 = U2 + P7
+			add(c12, c22, c12, mh, nh); //U4 = U2 + P5
+			add(c22, c21, c22, mh, nh); //C22 = U3 + P5
+			add(c12, p3, c12, mh, nh);  //C12 = U4 + P3
+			sub(c21, p4, c21, mh, nh);  //C21 = U3 - P4
+			add(c11, p2, c11, mh, nh);  //C11 = P1 + P2
+			peel(a, b, c, m, cd, n);
+		});
+
+		final int k2 = getChildParallelism(k);
+		expand(a11, b11, c11, mh, kh, nh, depth+1, cfg, k2, products, combines); //P1
+		expand(a12, b21, p2, mh, kh, nh, depth+1, cfg, k2, products, combines);  //P2
+		expand(s4, b22, p3, mh, kh, nh, depth+1, cfg, k2, products, combines);   //P3
+		expand(a22, t4, p4, mh, kh, nh, depth+1, cfg, k2, products, combines);   //P4
+		expand(s1, t1, c22, mh, kh, nh, depth+1, cfg, k2, products, combines);   //P5
+		expand(s2, t2, c12, mh, kh, nh, depth+1, cfg, k2, products, combines);   //P6
+		expand(s3, t3, c21, mh, kh, nh, depth+1, cfg, k2, products, combines);   //P7
+	}
+
+	private static int getChildParallelism(int k) {
+		return (k + 6) / 7;
+	}
+
+	/**
+	 * Completes c = a %*% b for odd dimensions, given that the even part
+	 * c[0:m2, 0:n2] = a[0:m2, 0:k2] %*% b[0:k2, 0:n2] has been computed.
+	 */
+	private static void peel(View a, View b, View c, int m, int cd, int n) {
+		final int m2 = m & ~1, k2 = cd & ~1, n2 = n & ~1;
+		//rank-1 update with the last slice of the common dimension
+		if( k2 < cd ) {
+			for( int i = 0; i < m2; i++ )
+				LibMatrixMult.vectMultiplyAdd(a.get(i, k2), b.v, c.v, b.pos(k2, 0), c.pos(i, 0), n2);
+		}
+		//last column via dot products
+		if( n2 < n ) {
+			for( int i = 0; i < m; i++ ) {
+				double val = 0;
+				for( int k = 0, aix = a.pos(i, 0), bix = b.pos(0, n2); k < cd; k++, bix += b.ld )
+					val += a.v[aix + k] * b.v[bix];
+				c.v[c.pos(i, n2)] = val;
+			}
+		}
+		//last row via vector-matrix product
+		if( m2 < m ) {
+			final int cix = c.pos(m2, 0);
+			Arrays.fill(c.v, cix, cix + n2, 0);
+			for( int k = 0; k < cd; k++ )
+				LibMatrixMult.vectMultiplyAdd(a.get(m2, k), b.v, c.v, b.pos(k, 0), cix, n2);
+		}
+	}
+
+	/**
+	 * Computes c[rl:ru, :] = a[rl:ru, :] %*% b with the blocked dense kernel of
+	 * LibMatrixMult over strided views.
+	 */
+	private static void multiplyLeaf(View a, View b, View c, int rl, int ru, int cd, int n) {
+		for( int i = rl; i < ru; i++ )
+			Arrays.fill(c.v, c.pos(i, 0), c.pos(i, n), 0);
+		LibMatrixMult.matrixMultDenseDenseMM(a.toDenseBlock(ru), b.toDenseBlock(cd),
+			c.toDenseBlock(ru), b.ld, cd, rl, ru, 0, n);
+	}
+
+	private static void add(View x, View y, View z, int rows, int cols) {
+		for( int i = 0; i < rows; i++ ) {
+			final int xix = x.pos(i, 0), yix = y.pos(i, 0), zix = z.pos(i, 0);
+			for( int j = 0; j < cols; j++ )
+				z.v[zix + j] = x.v[xix + j] + y.v[yix + j];
+		}
+	}
+
+	private static void sub(View x, View y, View z, int rows, int cols) {
+		for( int i = 0; i < rows; i++ ) {
+			final int xix = x.pos(i, 0), yix = y.pos(i, 0), zix = z.pos(i, 0);
+			for( int j = 0; j < cols; j++ )
+				z.v[zix + j] = x.v[xix + j] - y.v[yix + j];
+		}
+	}
+
+	/**
+	 * Row-major view of a sub-matrix with offset and leading dimension.
+	 */
+	private static final class View {
+		private final double[] v;
+		private final int off;
+		private final int ld;
+
+		private View(double[] v, int off, int ld) {
+			this.v = v;
+			this.off = off;
+			this.ld = ld;
+		}
+
+		private static View allocate(int rows, int cols) {
+			if( !fitsArray(rows, cols) )
+				throw new DMLRuntimeException("Strassen-Winograd temporary of size "
+					+ rows + "x" + cols + " exceeds the maximum array size.");
+			return new View(new double[rows * cols], 0, cols);
+		}
+
+		private DenseBlock toDenseBlock(int rows) {
+			return new StridedDenseBlock(v, off, rows, ld);
+		}
+
+		private View at(int r, int c) {
+			return new View(v, pos(r, c), ld);
+		}
+
+		private int pos(int r, int c) {
+			return off + r * ld + c;
+		}
+
+		private double get(int r, int c) {
+			return v[pos(r, c)];
+		}
+	}
+
+	private static final class Config {
+		private final int minDim;
+		private final int maxDepth;
+
+		private Config(int minDim, int maxDepth) {
+			this.minDim = minDim;
+			this.maxDepth = maxDepth;
+		}
+	}
+
+	/**
+	 * Scratch buffers (X, Y, Z) per recursion level, owned by a single task and
+	 * reused across all sub-products of the same level.
+	 */
+	private static final class Scratch {
+		private final ArrayList<double[][]> _levels = new ArrayList<>();
+
+		private View get(int depth, int pos, int rows, int cols) {
+			while( _levels.size() <= depth )
+				_levels.add(new double[3][0]);
+			double[][] buff = _levels.get(depth);
+			if( buff[pos].length < (long) rows * cols )
+				buff[pos] = View.allocate(rows, cols).v;
+			return new View(buff[pos], 0, cols);
+		}
+	}
+
+	/**
+	 * Dense block over a strided view (row offset and leading dimension), which
+	 * allows calling the dense kernels of LibMatrixMult on quadrants.
+	 */
+	private static final class StridedDenseBlock extends DenseBlockFP64 {
+		private static final long serialVersionUID = 3856723436197415227L;
+		private final int _off;
+
+		private StridedDenseBlock(double[] v, int off, int rows, int ld) {
+			super(new int[] {rows, ld}, v);
+			_off = off;
+		}
+
+		@Override
+		public int pos(int r) {
+			return _off + super.pos(r);
+		}
+
+		@Override
+		public int pos(int r, int c) {
+			return _off + super.pos(r, c);
+		}
+	}
+
+	private static class SubProductTask implements Callable<Object> {
+		private final View _a, _b, _c;
+		private final int _m, _cd, _n, _depth;
+		private final Config _cfg;
+
+		protected SubProductTask(View a, View b, View c, int m, int cd, int n, int depth, Config cfg) {
+			_a = a;
+			_b = b;
+			_c = c;
+			_m = m;
+			_cd = cd;
+			_n = n;
+			_depth = depth;
+			_cfg = cfg;
+		}
+
+		@Override
+		public Object call() {
+			multiply(_a, _b, _c, _m, _cd, _n, _depth, _cfg, new Scratch());
+			return null;
+		}
+	}
+
+	private static class LeafTask implements Callable<Object> {
+		private final SubProductTask _p;
+		private final int _rl, _ru;
+
+		protected LeafTask(SubProductTask p, int rl, int ru) {
+			_p = p;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public Object call() {
+			multiplyLeaf(_p._a, _p._b, _p._c, _rl, _ru, _p._cd, _p._n);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+
+/**
+ * Optional family of explicitly vectorized (SIMD) dense vector primitives, which back the
+ * inner loops of the dense matrix multiplication, tsmm, and codegen primitives.
+ * <p>
+ * The vectorized implementation relies on the incubating JDK Vector API and is therefore
+ * compiled separately (src/main/java17, profile 'vector-api') and loaded reflectively.
+ * We only use it if the JVM is at least Java 17, the module jdk.incubator.vector is resolved
+ * in the boot layer (i.e., --add-modules jdk.incubator.vector), and the configuration
+ * sysds.cp.vectorapi is set to 'auto' (default 'none'). Otherwise, {@link #get()} returns
+ * null and all callers fall back to the existing unrolled scalar kernels in
+ * {@link LibMatrixMult}. The probe is deferred to the first use and repeated after
+ * {@link #reset()}, which is called when the configuration is (re)loaded.
+ */
+public abstract class LibMatrixVector
+{
+	private static final Log LOG = LogFactory.getLog(LibMatrixVector.class.getName());
+
+	public static final String VECTOR_MODULE = "jdk.incubator.vector";
+	private static final String VECTOR_IMPL = "org.apache.sysds.runtime.matrix.data.LibMatrixVectorSIMD";
+	private static final int MIN_JAVA_VERSION = 17;
+
+	private static volatile LibMatrixVector _kernels = null;
+	private static volatile boolean _probed = false;
+
+	/**
+	 * Obtains the vectorized kernels if available in the current JVM and enabled,
+	 * otherwise null. The capability probe is executed once and its result is cached.
+	 *
+	 * @return vectorized kernels or null if not available or disabled
+	 */
+	public static LibMatrixVector get() {
+		if( !_probed )
+			initKernels();
+		return _kernels;
+	}
+
+	/**
+	 * Resets the cached kernels, which are probed again according to the
+	 * configuration on the next call of {@link #get()}.
+	 */
+	public static synchronized void reset() {
+		_probed = false;
+		_kernels = null;
+	}
+
+	private static synchronized void initKernels() {
+		if( _probed )
+			return;
+		_kernels = probe();
+		_probed = true;
+	}
+
+	/**
+	 * Indicates if vectorized kernels are available and enabled.
+	 *
+	 * @return true if the vector API kernels are in use
+	 */
+	public static boolean isEnabled() {
+		return get() != null;
+	}
+
+	private static LibMatrixVector probe() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String mode = (conf == null) ? "none" :
+			conf.getTextValue(DMLConfig.VECTOR_API).trim().toLowerCase();
+		if( !mode.equals("auto") )
+			return null;
+		if( getJavaVersion() < MIN_JAVA_VERSION ) {
+			LOG.debug("Vector API kernels require Java "+MIN_JAVA_VERSION+"+, using scalar kernels.");
+			return null;
+		}
+		if( !ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent() ) {
+			LOG.debug("Module "+VECTOR_MODULE+" not resolved, using scalar kernels.");
+			return null;
+		}
+		try {
+			LibMatrixVector ret = (LibMatrixVector) Class.forName(VECTOR_IMPL)
+				.getDeclaredConstructor().newInstance();
+			LOG.info("Using vector API kernels with "+ret.getVectorLength()+" doubles per vector.");
+			return ret;
+		}
+		catch(Throwable ex) {
+			//class not compiled (profile 'vector-api' inactive) or module/species unsupported
+			LOG.warn("Failed to load vector API kernels, using scalar kernels: "+ex.getMessage());
+			return null;
+		}
+	}
+
+	private static int getJavaVersion() {
+		try {
+			String version = System.getProperty("java.specification.version");
+			return version.startsWith("1.") ?
+				Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+		}
+		catch(Exception ex) {
+			return -1;
+		}
+	}
+
+	/**
+	 * @return number of double values processed per vector instruction
+	 */
+	public abstract int getVectorLength();
+
+	/**
+	 * Computes the dot product of a[ai:ai+len] and b[bi:bi+len].
+	 *
+	 * @param a first input vector
+	 * @param b second input vector
+	 * @param ai start position in a
+	 * @param bi start position in b
+	 * @param len number of processed elements
+	 * @return dot product
+	 */
+	public abstract double dotProduct(double[] a, double[] b, int ai, int bi, int len);
+
+	/**
+	 * Computes c[ci:ci+len] += aval * b[bi:bi+len].
+	 *
+	 * @param aval scalar factor
+	 * @param b input vector
+	 * @param c output vector
+	 * @param bi start position in b
+	 * @param ci start position in c
+	 * @param len number of processed elements
+	 */
+	public abstract void vectMultiplyAdd(double aval, double[] b, double[] c, int bi, int ci, int len);
+
+	/**
+	 * Computes c[ci:ci+len] += aval1 * b[bi1:] + aval2 * b[bi2:] + aval3 * b[bi3:] + aval4 * b[bi4:],
+	 * which is the core inner loop of dense matrix multiplication and tsmm.
+	 *
+	 * @param aval1 scalar factor of first row
+	 * @param aval2 scalar factor of second row
+	 * @param aval3 scalar factor of third row
+	 * @param aval4 scalar factor of fourth row
+	 * @param b input vector
+	 * @param c output vector
+	 * @param bi1 start position of first row in b
+	 * @param bi2 start position of second row in b
+	 * @param bi3 start position of third row in b
+	 * @param bi4 start position of fourth row in b
+	 * @param ci start position in c
+	 * @param len number of processed elements
+	 */
+	public abstract void vectMultiplyAdd4(double aval1, double aval2, double aval3, double aval4,
+		double[] b, double[] c, int bi1, int bi2, int bi3, int bi4, int ci, int len);
+
+	/**
+	 * Computes c[ci:ci+len] = aval * b[bi:bi+len].
+	 *
+	 * @param aval scalar factor
+	 * @param b input vector
+	 * @param c output vector
+	 * @param bi start position in b
+	 * @param ci start position in c
+	 * @param len number of processed elements
+	 */
+	public abstract void vectMultiplyWrite(double aval, double[] b, double[] c, int bi, int ci, int len);
+
+	/**
+	 * Computes c[ci:ci+len] += a[ai:ai+len].
+	 *
+	 * @param a input vector
+	 * @param c output vector
+	 * @param ai start position in a
+	 * @param ci start position in c
+	 * @param len number of processed elements
+	 */
+	public abstract void vectAdd(double[] a, double[] c, int ai, int ci, int len);
+
+	/**
+	 * Computes sum(a[ai:ai+len]).
+	 *
+	 * @param a input vector
+	 * @param ai start position in a
+	 * @param len number of processed elements
+	 * @return sum of values
+	 */
+	public abstract double vectSum(double[] a, int ai, int len);
+}
@@ -61,6 +61,9 @@ import org.apache.sysds.runtime.compress.lib.CLALibTernaryOp;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysds.runtime.data.DenseBlock;
+import org.apache.sysds.runtime.data.DenseBlockFP32;
+import org.apache.sysds.runtime.data.DenseBlockOffHeap;
+import org.apache.sysds.runtime.data.DenseBlockQuantized;
 import org.apache.sysds.runtime.data.DenseBlockFP64;
 import org.apache.sysds.runtime.data.DenseBlockFP64DEDUP;
 import org.apache.sysds.runtime.data.DenseBlockFactory;
@@ -2358,9 +2361,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 			if( denseBlock==null || nonZeros==0 ) 
 				writeEmptyBlock(out);
 			else if( isUltraSparseSerialize(sparseDst) )
-				writeDenseToUltraSparse(out);
+				writeDenseToUltraSparse(out, getDenseBlockFP64());
 			else if( sparseDst )
-				writeDenseToSparse(out);
+				writeDenseToSparse(out, getDenseBlockFP64());
 			else if( denseBlock instanceof DenseBlockFP64DEDUP )
 				writeDedupDenseblock(out);
 			else
@@ -2423,14 +2426,22 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 		out.writeByte( BlockType.DENSE_BLOCK.ordinal() );
 		
 		DenseBlock a = getDenseBlock();
-		if( out instanceof MatrixBlockDataOutput ) { //fast serialize
+		if( a instanceof DenseBlockOffHeap ) { //row-wise copies of off-heap data
+			double[] tmp = new double[clen];
+			for(int i=0; i<rlen; i++) {
+				((DenseBlockOffHeap) a).getRow(i, tmp, 0);
+				for(int j=0; j<clen; j++)
+					out.writeDouble(tmp[j]);
+			}
+		}
+		else if( out instanceof MatrixBlockDataOutput ) { //fast serialize
 			MatrixBlockDataOutput mout = (MatrixBlockDataOutput)out;
 			for(int i=0; i<a.numBlocks(); i++)
 				mout.writeDoubleArray(a.size(i), a.valuesAt(i));
 		}
 		else { //general case (if fast serialize not supported)
 			for(int i=0; i<a.numBlocks(); i++) {
-				double[] avals = a.values(i);
+				double[] avals = a.valuesAt(i);
 				int limit = a.size(i);
 				for(int j=0; j<limit; j++)
 					out.writeDouble(avals[j]);
@@ -2568,7 +2579,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 		}
 	}
 
-	private void writeDenseToUltraSparse(DataOutput out) throws IOException 
+	/**
+	 * Gets the dense block for row-wise access via values(r) at pos(r), where
+	 * FP32 blocks (which return reused row buffers) and off-heap blocks (which
+	 * have no array access) are converted to FP64.
+	 */
+	private DenseBlock getDenseBlockFP64() {
+		return (LibMatrixFP32.isFP32(this) || LibMatrixOffHeap.isOffHeap(this)) ?
+			LibMatrixFP32.toFP64(this).getDenseBlock() : getDenseBlock();
+	}
+
+	private void writeDenseToUltraSparse(DataOutput out, DenseBlock a) throws IOException 
 	{
 		out.writeByte( BlockType.ULTRA_SPARSE_BLOCK.ordinal() );
 		writeNnzInfo( out, true );
@@ -2576,7 +2597,6 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 		long wnnz = 0;
 		if( clen > 1 ) { //ULTRA-SPARSE BLOCK
 			//block: write ijv-triples
-			DenseBlock a = getDenseBlock();
 			for( int r=0; r<rlen; r++ ) {
 				double[] avals = a.values(r);
 				int aix = a.pos(r);
@@ -2593,9 +2613,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 		}
 		else { //ULTRA-SPARSE COL
 			//col: write iv-pairs
-			double[] a = getDenseBlockValues();
+			double[] avals = a.valuesAt(0);
 			for(int r=0; r<rlen; r++) {
-				double aval = a[r];
+				double aval = avals[r];
 				if( aval != 0 ) {
 					out.writeInt(r);
 					out.writeDouble(aval);
@@ -2610,13 +2630,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 		}
 	}
 
-	private void writeDenseToSparse(DataOutput out) 
+	private void writeDenseToSparse(DataOutput out, DenseBlock a) 
 		throws IOException 
 	{	
 		out.writeByte( BlockType.SPARSE_BLOCK.ordinal() ); //block type
 		writeNnzInfo( out, false );
 		
-		DenseBlock a = getDenseBlock();
 		for( int r=0; r<rlen; r++ ) {
 			double[] avals = a.values(r);
 			int aix = a.pos(r);
@@ -2930,6 +2949,19 @@ public class MatrixBlock extends MatrixValue implements CacheBlock<MatrixBlock>,
 			double size = getHeaderSize() + ((DenseBlockFP64DEDUP) denseBlock).estimateMemory();
 			return (long) Math.min(size, Long.MAX_VALUE);
 		}
+		//single-precision dense block uses half the memory
+		if( !sparse && denseBlock instanceof DenseBlockFP32 ) {
+			double size = getHeaderSize() + DenseBlockFP32.estimateMemory(rlen, clen);
+			return (long) Math.min(size, Long.MAX_VALUE);
+		}
+		//off-heap dense block only uses heap memory for its header
+		if( !sparse && denseBlock instanceof DenseBlockOffHeap )
+			return (long) (getHeaderSize() + DenseBlock.estimateMemory(rlen, clen));
+		//quantized dense block uses 1 or 2 bytes per value
+		if( !sparse && denseBlock instanceof DenseBlockQuantized ) {
+			double size = getHeaderSize() + ((DenseBlockQuantized) denseBlock).estimateMemory();
+			return (long) Math.min(size, Long.MAX_VALUE);
+		}
 		//in-memory size of dense/sparse representation
 		return !sparse ? estimateSizeDenseInMemory(rlen, clen) :
 			estimateSizeSparseInMemory(rlen, clen, getSparsity(),
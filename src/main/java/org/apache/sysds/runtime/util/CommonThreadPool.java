@@ -146,6 +146,20 @@ public class CommonThreadPool implements ExecutorService {
 		}
 	}
 
+	/**
+	 * Get the fork/join pool backing the given executor, if any.
+	 * 
+	 * @param pool The executor obtained from this class
+	 * @return The underlying ForkJoinPool, or null if the executor is not backed by a fork/join pool
+	 */
+	public static ForkJoinPool getForkJoinPool(ExecutorService pool) {
+		if(pool instanceof ForkJoinPool)
+			return (ForkJoinPool) pool;
+		else if(pool instanceof CommonThreadPool && ((CommonThreadPool) pool)._pool instanceof ForkJoinPool)
+			return (ForkJoinPool) ((CommonThreadPool) pool)._pool;
+		return null;
+	}
+
 	/**
 	 * Invoke the collection of tasks and shutdown the pool upon job termination.
 	 * 
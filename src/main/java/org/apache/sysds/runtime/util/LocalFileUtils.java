@@ -31,6 +31,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -44,6 +45,7 @@ import org.apache.sysds.conf.DMLConfig;
 import org.apache.sysds.lops.Lop;
 import org.apache.sysds.runtime.DMLRuntimeException;
 import org.apache.sysds.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysds.runtime.controlprogram.caching.CacheMappedIO;
 import org.apache.sysds.runtime.controlprogram.parfor.util.IDSequence;
 import org.apache.sysds.runtime.frame.data.FrameBlock;
 import org.apache.sysds.runtime.io.IOUtilFunctions;
@@ -104,7 +106,8 @@ public class LocalFileUtils
 		return (FrameBlock) readWritableFromLocal(fname, new FrameBlock());
 	}
 	
-	/** Reads a matrix/frame block from local file system.
+	/** Reads a matrix/frame block from local file system, including matrix
+	 * blocks in the raw, memory-mapped eviction format.
 	 * 
 	 * @param fname file name to read
 	 * @param matrix if true, read matrix. if false, read frame.
@@ -112,7 +115,19 @@ public class LocalFileUtils
 	 * @throws IOException if IOException occurs
 	 */
 	public static CacheBlock<?> readCacheBlockFromLocal(String fname, boolean matrix) throws IOException {
-		return (CacheBlock<?>) readWritableFromLocal(fname, matrix?new MatrixBlock():new FrameBlock());
+		if( !matrix )
+			return readFrameBlockFromLocal(fname);
+		//probe the format and read from the same open file
+		FileChannel channel = FileChannel.open(Paths.get(fname), StandardOpenOption.READ);
+		try {
+			if( CacheMappedIO.isMapped(channel) )
+				return CacheMappedIO.readMatrixBlock(channel);
+			channel.position(0);
+			return readMatrixBlockFromStream(Channels.newInputStream(channel));
+		}
+		finally {
+			IOUtilFunctions.closeSilently(channel);
+		}
 	}
 	
 	/**
@@ -214,15 +229,33 @@ public class LocalFileUtils
 		writeWritableToLocal(fname, fb, fb.getInMemorySize()>=DOUBLE_BUFFERING_MIN);
 	}
 
-	/** Writes a matrix/frame block to local file system.
+	/** Writes a matrix/frame block to local file system. If enabled, dense
+	 * matrix blocks are written in the raw, memory-mapped eviction format.
 	 * 
 	 * @param fname file name to write
 	 * @param cb cache block (common interface to matrix block and frame block)
 	 * @throws IOException if IOException occurs
 	 */
 	public static void writeCacheBlockToLocal(String fname, CacheBlock<?> cb) throws IOException {
+		if( isMappedEviction() ) {
+			deleteMappedFile(fname);
+			if( CacheMappedIO.isApplicable(cb) ) {
+				CacheMappedIO.writeMatrixBlock(fname, (MatrixBlock) cb);
+				return;
+			}
+		}
 		writeWritableToLocal(fname, cb, cb.getInMemorySize()>=DOUBLE_BUFFERING_MIN);
 	}
+
+	private static boolean isMappedEviction() {
+		return ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.CACHING_MMAP);
+	}
+
+	private static void deleteMappedFile(String fname) {
+		//delete instead of truncate existing files, which might still be
+		//memory-mapped by previously restored blocks (truncate -> SIGBUS)
+		deleteFileIfExists(fname, true);
+	}
 	
 	/**
 	 * Writes an arbitrary writable to local file system, using a fused buffered writer
@@ -250,6 +283,8 @@ public class LocalFileUtils
 		throws IOException
 	{	
 		//byte array write via java.nio file channel ~10-15% faster than java.io
+		if( isMappedEviction() )
+			deleteMappedFile(fname);
 		FileChannel channel = null;
 		try {
 			Path path = Paths.get(fname);
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Nnz-aware recursive row partitioning for multi-threaded kernels over sparse inputs.
+ * <p>
+ * The default partitioning of kernels like sparse matrix multiplication or row aggregates
+ * splits the rows into a fixed number of equally-sized blocks, which leads to poor load
+ * balance for skewed inputs (e.g., power-law row lengths). Instead, this partitioner
+ * recursively splits row ranges at the median of their cumulative nnz as fork/join tasks,
+ * until a task reaches a fraction of the total nnz (or a single row). All tasks run in the
+ * fork/join pool backing the given {@link CommonThreadPool}, so idle workers steal pending
+ * subtasks of busy workers. For pools without fork/join backing, the same nnz-balanced
+ * partitions are submitted as independent tasks to the given pool.
+ */
+public class NnzRowPartitioner
+{
+	public enum PartitionType {
+		ROWS, //static partitioning by number of rows
+		NNZ,  //recursive fork/join partitioning by number of non-zeros
+		AUTO, //nnz partitioning if the row partitions would be skewed
+	}
+
+	//over-decomposition factor w.r.t. number of threads for work stealing
+	private static final int OVERDECOMPOSITION = 8;
+	//minimum nnz per leaf task to amortize task overheads
+	private static final long MIN_LEAF_NNZ = 16 * 1024;
+	//skew threshold (max partition nnz / avg partition nnz) for AUTO
+	private static final double SKEW_THRESHOLD = 2;
+
+	/**
+	 * Functional interface of leaf tasks over row ranges.
+	 *
+	 * @param <T> result type
+	 */
+	public interface RangeTask<T> {
+		T compute(int rl, int ru) throws Exception;
+	}
+
+	private NnzRowPartitioner() {
+		//prevent instantiation via private constructor
+	}
+
+	/**
+	 * Decides if nnz-aware partitioning should be used for the given sparse input.
+	 *
+	 * @param type partition type of the calling kernel
+	 * @param in input matrix block
+	 * @param k degree of parallelism
+	 * @return true if nnz-aware partitioning should be used
+	 */
+	public static boolean isNnzPartitioning(PartitionType type, MatrixBlock in, int k) {
+		if( type == PartitionType.ROWS || !in.isInSparseFormat()
+			|| in.getSparseBlock() == null || in.getNumRows() < 2 || k <= 1 )
+			return false;
+		return type == PartitionType.NNZ
+			|| isSkewed(in.getSparseBlock(), in.getNumRows(), k);
+	}
+
+	/**
+	 * Checks if a static partitioning of the rows into k equally-sized blocks
+	 * would lead to a skewed distribution of non-zeros.
+	 *
+	 * @param sb sparse block
+	 * @param m number of rows
+	 * @param k degree of parallelism
+	 * @return true if the maximum block nnz exceeds the average by the skew threshold
+	 */
+	public static boolean isSkewed(SparseBlock sb, int m, int k) {
+		final int blksz = (int) Math.ceil((double) m / k);
+		long total = 0, max = 0;
+		for( int rl = 0; rl < m; rl += blksz ) {
+			long nnz = sb.size(rl, Math.min(rl + blksz, m));
+			total += nnz;
+			max = Math.max(max, nnz);
+		}
+		int nblks = (int) Math.ceil((double) m / blksz);
+		return total > 0 && max > SKEW_THRESHOLD * total / nblks;
+	}
+
+	/**
+	 * Executes the given leaf task over nnz-balanced row partitions of [rl, ru) in the given
+	 * fork/join thread pool and aggregates the partial results.
+	 *
+	 * @param pool thread pool obtained from {@link CommonThreadPool}; if it is not backed
+	 *        by a fork/join pool, the leaf partitions are submitted to it as independent tasks
+	 * @param sb sparse block of the partitioned input
+	 * @param rl row lower bound
+	 * @param ru row upper bound (exclusive)
+	 * @param nnz number of non-zeros in [rl, ru)
+	 * @param k degree of parallelism
+	 * @param task leaf task
+	 * @param agg aggregation function of partial results
+	 * @param <T> result type
+	 * @return aggregated result
+	 */
+	public static <T> T invoke(ExecutorService pool, SparseBlock sb, int rl, int ru, long nnz,
+		int k, RangeTask<T> task, BinaryOperator<T> agg)
+	{
+		final long grain = Math.max(MIN_LEAF_NNZ, nnz / ((long) k * OVERDECOMPOSITION));
+		final ForkJoinPool fjpool = CommonThreadPool.getForkJoinPool(pool);
+		try {
+			//execute root inside the fork/join pool, which makes all forked subtasks stealable
+			//by its workers (forks from threads of other pools would go to the common pool)
+			if( fjpool != null )
+				return fjpool.invoke(new NnzSplitTask<>(sb, rl, ru, nnz, grain, task, agg));
+			//otherwise, submit the leaf partitions as independent tasks
+			List<Callable<T>> tasks = new ArrayList<>();
+			for( int[] range : getPartitions(sb, rl, ru, nnz, grain) )
+				tasks.add(() -> task.compute(range[0], range[1]));
+			T ret = null;
+			for( Future<T> f : pool.invokeAll(tasks) )
+				ret = (ret == null) ? f.get() : agg.apply(ret, f.get());
+			return ret;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Splits [rl, ru) recursively at the nnz median into row ranges of at most
+	 * the given number of non-zeros (or single rows).
+	 *
+	 * @param sb sparse block
+	 * @param rl row lower bound
+	 * @param ru row upper bound (exclusive)
+	 * @param nnz number of non-zeros in [rl, ru)
+	 * @param grain maximum number of non-zeros per partition
+	 * @return list of row ranges [rl, ru)
+	 */
+	public static List<int[]> getPartitions(SparseBlock sb, int rl, int ru, long nnz, long grain) {
+		List<int[]> ret = new ArrayList<>();
+		appendPartitions(sb, rl, ru, nnz, grain, ret);
+		return ret;
+	}
+
+	private static void appendPartitions(SparseBlock sb, int rl, int ru, long nnz, long grain, List<int[]> ret) {
+		if( nnz <= grain || ru - rl <= 1 ) {
+			ret.add(new int[] {rl, ru});
+			return;
+		}
+		int split = findMedianRow(sb, rl, ru, nnz);
+		long lnnz = sb.size(rl, split);
+		appendPartitions(sb, rl, split, lnnz, grain, ret);
+		appendPartitions(sb, split, ru, nnz - lnnz, grain, ret);
+	}
+
+	/**
+	 * Finds the split row such that [rl, split) contains roughly half of the given nnz.
+	 *
+	 * @param sb sparse block
+	 * @param rl row lower bound
+	 * @param ru row upper bound (exclusive)
+	 * @param nnz number of non-zeros in [rl, ru)
+	 * @return split row in (rl, ru)
+	 */
+	public static int findMedianRow(SparseBlock sb, int rl, int ru, long nnz) {
+		final long half = nnz / 2;
+		long cum = 0;
+		for( int i = rl; i < ru - 1; i++ ) {
+			cum += sb.size(i);
+			if( cum >= half )
+				return i + 1;
+		}
+		return ru - 1;
+	}
+
+	@SuppressWarnings("serial")
+	private static class NnzSplitTask<T> extends RecursiveTask<T> {
+		private final SparseBlock _sb;
+		private final int _rl;
+		private final int _ru;
+		private final long _nnz;
+		private final long _grain;
+		private final RangeTask<T> _task;
+		private final BinaryOperator<T> _agg;
+
+		protected NnzSplitTask(SparseBlock sb, int rl, int ru, long nnz, long grain,
+			RangeTask<T> task, BinaryOperator<T> agg)
+		{
+			_sb = sb;
+			_rl = rl;
+			_ru = ru;
+			_nnz = nnz;
+			_grain = grain;
+			_task = task;
+			_agg = agg;
+		}
+
+		@Override
+		protected T compute() {
+			if( _nnz <= _grain || _ru - _rl <= 1 ) {
+				try {
+					return _task.compute(_rl, _ru);
+				}
+				catch(Exception ex) {
+					throw new DMLRuntimeException(ex);
+				}
+			}
+			//split at nnz median, fork right half, and compute left half
+			int split = findMedianRow(_sb, _rl, _ru, _nnz);
+			long lnnz = _sb.size(_rl, split);
+			NnzSplitTask<T> right = new NnzSplitTask<>(_sb, split, _ru, _nnz - lnnz, _grain, _task, _agg);
+			NnzSplitTask<T> left = new NnzSplitTask<>(_sb, _rl, split, lnnz, _grain, _task, _agg);
+			right.fork();
+			T lret = left.compute();
+			return _agg.apply(lret, right.join());
+		}
+	}
+}
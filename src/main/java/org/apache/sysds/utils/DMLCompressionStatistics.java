@@ -19,8 +19,19 @@
 
 package org.apache.sysds.utils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
 public class DMLCompressionStatistics {
 
+	/** Maximum number of operations listed in the decompression fallback report */
+	private static final int MAX_FALLBACK_DISPLAY = 20;
+
 	private static double Phase0 = 0.0;
 	private static double Phase1 = 0.0;
 	private static double Phase2 = 0.0;
@@ -41,6 +52,9 @@ public class DMLCompressionStatistics {
 	private static int DecompressSparkCount = 0;
 	private static int DecompressCacheCount = 0;
 
+	/** Decompression fallbacks of compressed operations, by operation */
+	private static final Map<String, Fallback> Fallbacks = new HashMap<>();
+
 	public static void reset() {
 		Phase0 = 0.0;
 		Phase1 = 0.0;
@@ -58,6 +72,9 @@ public class DMLCompressionStatistics {
 		DecompressToMT = 0.0;
 		DecompressSparkCount = 0;
 		DecompressCacheCount = 0;
+		synchronized(Fallbacks) {
+			Fallbacks.clear();
+		}
 	}
 
 	public static boolean haveCompressed() {
@@ -117,6 +134,36 @@ public class DMLCompressionStatistics {
 		DecompressCacheCount++;
 	}
 
+	/**
+	 * Record that a compressed operation fell back to an uncompressed execution.
+	 * 
+	 * @param op     The operation that is not supported on compressed input
+	 * @param types  The column group types of the compressed input
+	 * @param time   The time spent decompressing in milliseconds
+	 * @param cached If the decompressed block was already cached
+	 */
+	public static void addDecompressFallback(String op, Collection<String> types, double time, boolean cached) {
+		synchronized(Fallbacks) {
+			Fallbacks.computeIfAbsent(op, x -> new Fallback()).add(types, time, cached);
+		}
+	}
+
+	public static int getDecompressFallbackCount() {
+		synchronized(Fallbacks) {
+			int count = 0;
+			for(Fallback f : Fallbacks.values())
+				count += f.count;
+			return count;
+		}
+	}
+
+	public static int getDecompressFallbackCount(String op) {
+		synchronized(Fallbacks) {
+			Fallback f = Fallbacks.get(op);
+			return f == null ? 0 : f.count;
+		}
+	}
+
 	public static int getDecompressionCount() {
 		return DecompressMTCount + DecompressSTCount + DecompressSparkCount + DecompressCacheCount + DecompressToSTCount +
 			DecompressToMTCount;
@@ -135,5 +182,41 @@ public class DMLCompressionStatistics {
 			sb.append(String.format("Decompression to block Time (Single, Multi)                 : %.3f/%.3f sec.\n",
 				DecompressToST / 1000, DecompressToMT / 1000));
 		}
+		displayFallbacks(sb);
+	}
+
+	private static void displayFallbacks(StringBuilder sb) {
+		final List<Entry<String, Fallback>> entries;
+		synchronized(Fallbacks) {
+			if(Fallbacks.isEmpty())
+				return;
+			entries = new ArrayList<>(Fallbacks.entrySet());
+		}
+		entries.sort((a, b) -> Double.compare(b.getValue().time, a.getValue().time));
+		sb.append("CLA Decompression fallbacks (count, cached, time, column groups):\n");
+		for(int i = 0; i < Math.min(entries.size(), MAX_FALLBACK_DISPLAY); i++) {
+			final Entry<String, Fallback> e = entries.get(i);
+			final Fallback f = e.getValue();
+			sb.append(String.format("  %-40s %6d/%6d %10.3f sec. %s\n", e.getKey(), f.count, f.cached, f.time / 1000,
+				f.types));
+		}
+		if(entries.size() > MAX_FALLBACK_DISPLAY)
+			sb.append(String.format("  ... %d more operations\n", entries.size() - MAX_FALLBACK_DISPLAY));
+	}
+
+	private static class Fallback {
+		private int count = 0;
+		private int cached = 0;
+		private double time = 0.0;
+		private final Map<String, Integer> types = new TreeMap<>();
+
+		private void add(Collection<String> groupTypes, double t, boolean isCached) {
+			count++;
+			if(isCached)
+				cached++;
+			time += t;
+			for(String g : groupTypes)
+				types.merge(g, 1, Integer::sum);
+		}
 	}
 }
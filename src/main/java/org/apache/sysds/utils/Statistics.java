@@ -1086,6 +1086,11 @@ public class Statistics
 			}
 
 			sb.append("Cache hits (Mem/Li/WB/FS/HDFS):\t" + CacheStatistics.displayHits() + ".\n");
+			if (CacheStatistics.getPrefetches() > 0)
+				sb.append("Cache prefetch (Num/Hit/Rate):\t" + CacheStatistics.displayPrefetches() + ".\n");
+			if (CacheStatistics.getPolicyEvictions() > 0)
+				sb.append("Cache " + CacheableData.CACHING_BUFFER_POLICY.name()
+					+ " (Hit/Miss/Evict/Rate):\t" + CacheStatistics.displayPolicy() + ".\n");
 			sb.append("Cache writes (Li/WB/FS/HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
 			if (DMLScript.JMLC_MEM_STATISTICS)
@@ -1109,6 +1114,10 @@ public class Statistics
 					sb.append("LinCache Spark (Col/Loc/Dist): \t" + LineageCacheStatistics.displaySparkHits() + ".\n");
 					sb.append("LinCache Spark (Per/Unper/Del):\t" + LineageCacheStatistics.displaySparkPersist() + ".\n");
 				}
+				if (LineageCacheStatistics.ifPersistStats())
+					sb.append("LinCache Persist (H/W/Rd/Wr):\t" + LineageCacheStatistics.displayPersistStats() + ".\n");
+				if (LineageCacheStatistics.ifSpeculationStats())
+					sb.append("LinCache Speculate (C/P/T):\t" + LineageCacheStatistics.displaySpeculationStats() + ".\n");
 				sb.append("LinCache writes (Mem/FS/Del): \t" + LineageCacheStatistics.displayWtrites() + ".\n");
 				sb.append("LinCache FStimes (Rd/Wr): \t" + LineageCacheStatistics.displayFSTime() + " sec.\n");
 				sb.append("LinCache Computetime (S/M/P): \t" + LineageCacheStatistics.displayComputeTime() + " sec.\n");
@@ -1132,7 +1141,8 @@ public class Statistics
 
 			sb.append(TransformStatistics.displayStatistics());
 
-			if(ConfigurationManager.isCompressionEnabled() || DMLCompressionStatistics.getDecompressionCount() > 0){
+			if(ConfigurationManager.isCompressionEnabled() || DMLCompressionStatistics.getDecompressionCount() > 0
+				|| DMLCompressionStatistics.getDecompressFallbackCount() > 0){
 				DMLCompressionStatistics.display(sb);
 			}
 
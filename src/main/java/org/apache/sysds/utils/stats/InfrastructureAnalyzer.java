@@ -19,7 +19,9 @@
 
 package org.apache.sysds.utils.stats;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.StringTokenizer;
 
 import org.apache.hadoop.fs.FileSystem;
@@ -49,6 +51,9 @@ public class InfrastructureAnalyzer
 	private static int  _localPar        = -1;
 	private static long _localJVMMaxMem  = -1; //mutable
 	private static long _fLocalJVMMaxMem = -1; //immutable
+	private static int  _localL1Size     = 32 * 1024; //per-core L1 data cache
+	private static int  _localL2Size     = 256 * 1024; //per-core L2 cache
+	private static int  _localL3Size     = 16 * 1024 * 1024; //shared L3 cache
 	
 	//static hadoop cluster properties
 	private static int  _remotePar       = -1;
@@ -164,6 +169,36 @@ public class InfrastructureAnalyzer
 		return ("local".equals(jobTracker) & !isYarnEnabled);
 	}
 	
+	///////
+	//methods for obtaining cache properties
+
+	/**
+	 * Gets the size [in bytes] of the L1 data cache per core.
+	 * 
+	 * @return L1 data cache size of the current node
+	 */
+	public static int getLocalL1CacheSize() {
+		return _localL1Size;
+	}
+
+	/**
+	 * Gets the size [in bytes] of the L2 cache per core.
+	 * 
+	 * @return L2 cache size of the current node
+	 */
+	public static int getLocalL2CacheSize() {
+		return _localL2Size;
+	}
+
+	/**
+	 * Gets the size [in bytes] of the shared L3 cache.
+	 * 
+	 * @return L3 cache size of the current node
+	 */
+	public static int getLocalL3CacheSize() {
+		return _localL3Size;
+	}
+
 	///////
 	//methods for obtaining constraints or respective defaults
 	
@@ -318,6 +353,51 @@ public class InfrastructureAnalyzer
 		_localPar       = Runtime.getRuntime().availableProcessors();
 		_localJVMMaxMem = Runtime.getRuntime().maxMemory();
 		_fLocalJVMMaxMem = _localJVMMaxMem;
+		
+		//step 2: cache sizes (if exposed via sysfs, otherwise common defaults)
+		analyzeLocalCaches();
+	}
+	
+	/**
+	 * Analyzes the data cache hierarchy of the local machine, which is 
+	 * currently only supported on Linux via sysfs.
+	 */
+	private static void analyzeLocalCaches() {
+		File dir = new File("/sys/devices/system/cpu/cpu0/cache");
+		File[] indexes = dir.listFiles((d, name) -> name.startsWith("index"));
+		if( indexes == null )
+			return;
+		for( File index : indexes ) {
+			try {
+				String type = readCacheProperty(index, "type");
+				if( type.equals("Instruction") )
+					continue;
+				int level = Integer.parseInt(readCacheProperty(index, "level"));
+				int size = parseCacheSize(readCacheProperty(index, "size"));
+				if( size <= 0 )
+					continue;
+				if( level == 1 )
+					_localL1Size = size;
+				else if( level == 2 )
+					_localL2Size = size;
+				else if( level == 3 )
+					_localL3Size = size;
+			}
+			catch(Exception ex) {
+				//ignore unavailable properties, keep defaults
+			}
+		}
+	}
+	
+	private static String readCacheProperty(File index, String name) throws IOException {
+		return new String(Files.readAllBytes(new File(index, name).toPath())).trim();
+	}
+	
+	private static int parseCacheSize(String size) {
+		char unit = Character.toUpperCase(size.charAt(size.length()-1));
+		long factor = (unit == 'K') ? 1024 : (unit == 'M') ? 1024 * 1024 : 1;
+		String num = Character.isDigit(unit) ? size : size.substring(0, size.length()-1);
+		return (int) Math.min(Integer.MAX_VALUE, Long.parseLong(num) * factor);
 	}
 	
 	/**
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.runtime.matrix.data;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API (jdk.incubator.vector) implementation of the dense vector primitives,
+ * using the preferred species of the underlying hardware (e.g., 8 doubles on AVX-512).
+ * This class is compiled with Java 17 and only loaded reflectively via
+ * {@link LibMatrixVector#get()} after a successful capability probe.
+ */
+public class LibMatrixVectorSIMD extends LibMatrixVector
+{
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+	private static final int VLEN = SPECIES.length();
+
+	public LibMatrixVectorSIMD() {
+		//trigger species initialization to fail early in the probe
+		DoubleVector.zero(SPECIES);
+	}
+
+	@Override
+	public int getVectorLength() {
+		return VLEN;
+	}
+
+	@Override
+	public double dotProduct(double[] a, double[] b, int ai, int bi, int len) {
+		final int ub = SPECIES.loopBound(len);
+		//two independent accumulators to hide fma latency
+		DoubleVector acc1 = DoubleVector.zero(SPECIES);
+		DoubleVector acc2 = DoubleVector.zero(SPECIES);
+		int i = 0;
+		for( ; i < ub - VLEN; i += 2*VLEN ) {
+			acc1 = DoubleVector.fromArray(SPECIES, a, ai+i)
+				.fma(DoubleVector.fromArray(SPECIES, b, bi+i), acc1);
+			acc2 = DoubleVector.fromArray(SPECIES, a, ai+i+VLEN)
+				.fma(DoubleVector.fromArray(SPECIES, b, bi+i+VLEN), acc2);
+		}
+		for( ; i < ub; i += VLEN )
+			acc1 = DoubleVector.fromArray(SPECIES, a, ai+i)
+				.fma(DoubleVector.fromArray(SPECIES, b, bi+i), acc1);
+		double val = acc1.add(acc2).reduceLanes(VectorOperators.ADD);
+		//compute rest
+		for( ; i < len; i++ )
+			val += a[ai+i] * b[bi+i];
+		return val;
+	}
+
+	@Override
+	public void vectMultiplyAdd(double aval, double[] b, double[] c, int bi, int ci, int len) {
+		final int ub = SPECIES.loopBound(len);
+		final DoubleVector va = DoubleVector.broadcast(SPECIES, aval);
+		int j = 0;
+		for( ; j < ub; j += VLEN )
+			DoubleVector.fromArray(SPECIES, b, bi+j)
+				.fma(va, DoubleVector.fromArray(SPECIES, c, ci+j))
+				.intoArray(c, ci+j);
+		for( ; j < len; j++ )
+			c[ci+j] += aval * b[bi+j];
+	}
+
+	@Override
+	public void vectMultiplyAdd4(double aval1, double aval2, double aval3, double aval4,
+		double[] b, double[] c, int bi1, int bi2, int bi3, int bi4, int ci, int len)
+	{
+		final int ub = SPECIES.loopBound(len);
+		final DoubleVector va1 = DoubleVector.broadcast(SPECIES, aval1);
+		final DoubleVector va2 = DoubleVector.broadcast(SPECIES, aval2);
+		final DoubleVector va3 = DoubleVector.broadcast(SPECIES, aval3);
+		final DoubleVector va4 = DoubleVector.broadcast(SPECIES, aval4);
+		int j = 0;
+		for( ; j < ub; j += VLEN ) {
+			DoubleVector vc = DoubleVector.fromArray(SPECIES, c, ci+j);
+			vc = DoubleVector.fromArray(SPECIES, b, bi1+j).fma(va1, vc);
+			vc = DoubleVector.fromArray(SPECIES, b, bi2+j).fma(va2, vc);
+			vc = DoubleVector.fromArray(SPECIES, b, bi3+j).fma(va3, vc);
+			vc = DoubleVector.fromArray(SPECIES, b, bi4+j).fma(va4, vc);
+			vc.intoArray(c, ci+j);
+		}
+		for( ; j < len; j++ )
+			c[ci+j] += aval1 * b[bi1+j] + aval2 * b[bi2+j] + aval3 * b[bi3+j] + aval4 * b[bi4+j];
+	}
+
+	@Override
+	public void vectMultiplyWrite(double aval, double[] b, double[] c, int bi, int ci, int len) {
+		final int ub = SPECIES.loopBound(len);
+		int j = 0;
+		for( ; j < ub; j += VLEN )
+			DoubleVector.fromArray(SPECIES, b, bi+j).mul(aval).intoArray(c, ci+j);
+		for( ; j < len; j++ )
+			c[ci+j] = aval * b[bi+j];
+	}
+
+	@Override
+	public void vectAdd(double[] a, double[] c, int ai, int ci, int len) {
+		final int ub = SPECIES.loopBound(len);
+		int j = 0;
+		for( ; j < ub; j += VLEN )
+			DoubleVector.fromArray(SPECIES, a, ai+j)
+				.add(DoubleVector.fromArray(SPECIES, c, ci+j))
+				.intoArray(c, ci+j);
+		for( ; j < len; j++ )
+			c[ci+j] += a[ai+j];
+	}
+
+	@Override
+	public double vectSum(double[] a, int ai, int len) {
+		final int ub = SPECIES.loopBound(len);
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int i = 0;
+		for( ; i < ub; i += VLEN )
+			acc = acc.add(DoubleVector.fromArray(SPECIES, a, ai+i));
+		double val = acc.reduceLanes(VectorOperators.ADD);
+		for( ; i < len; i++ )
+			val += a[ai+i];
+		return val;
+	}
+}
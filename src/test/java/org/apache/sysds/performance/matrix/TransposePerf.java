@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.performance.matrix;
+
+import org.apache.sysds.performance.compression.APerfTest;
+import org.apache.sysds.performance.generators.ConstMatrix;
+import org.apache.sysds.performance.generators.IGenerate;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
+
+public class TransposePerf extends APerfTest<Object, MatrixBlock> {
+
+	private final int k;
+
+	public TransposePerf(int N, IGenerate<MatrixBlock> gen, int k) {
+		super(N, gen);
+		this.k = k;
+	}
+
+	public void run() throws Exception {
+		MatrixBlock mb = gen.take();
+		String info = String.format("rows: %8d cols: %5d sp: %5.3f %s par: %2d", mb.getNumRows(),
+			mb.getNumColumns(), mb.getSparsity(), mb.isInSparseFormat() ?
+				mb.getSparseBlock().getClass().getSimpleName() : "Dense", k);
+		warmup(() -> transpose(), 5);
+		execute(() -> transpose(), info + " transpose");
+	}
+
+	private void transpose() {
+		MatrixBlock in = gen.take();
+		LibMatrixReorg.transpose(in, k, true);
+		ret.add(null);
+	}
+
+	@Override
+	protected String makeResString() {
+		return "";
+	}
+
+	public static void main(String[] args) throws Exception {
+		int k = InfrastructureAnalyzer.getLocalParallelism();
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+		// tall-skinny sparse feature matrix (MCSR and CSR)
+		MatrixBlock a = TestUtils.generateTestMatrixBlock(rows, 1000, 0, 100, 0.01, 42);
+		new TransposePerf(10, new ConstMatrix(a, -1), 1).run();
+		new TransposePerf(10, new ConstMatrix(a, -1), k).run();
+		a.setSparseBlock(new SparseBlockCSR(a.getSparseBlock()));
+		new TransposePerf(10, new ConstMatrix(a, -1), 1).run();
+		new TransposePerf(10, new ConstMatrix(a, -1), k).run();
+
+		// dense square and tall-skinny
+		MatrixBlock b = TestUtils.generateTestMatrixBlock(5000, 5000, 0, 100, 1.0, 42);
+		new TransposePerf(10, new ConstMatrix(b, -1), 1).run();
+		new TransposePerf(10, new ConstMatrix(b, -1), k).run();
+		MatrixBlock c = TestUtils.generateTestMatrixBlock(rows, 20, 0, 100, 1.0, 42);
+		new TransposePerf(10, new ConstMatrix(c, -1), 1).run();
+		new TransposePerf(10, new ConstMatrix(c, -1), k).run();
+	}
+}
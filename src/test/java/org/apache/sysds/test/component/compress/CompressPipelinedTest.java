@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.compress.CompressionSettingsBuilder;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class CompressPipelinedTest {
+
+	@Test
+	public void dense() {
+		compare(gen(1000, 20, 1.0, 5, 7));
+	}
+
+	@Test
+	public void sparse() {
+		compare(gen(1000, 20, 0.1, 5, 7));
+	}
+
+	@Test
+	public void emptyAndConstColumns() {
+		MatrixBlock mb = gen(1000, 20, 1.0, 5, 7);
+		for(int i = 0; i < 1000; i++) {
+			mb.set(i, 3, 0);
+			mb.set(i, 4, 0);
+			mb.set(i, 10, 42);
+			mb.set(i, 15, 42);
+		}
+		compare(mb);
+	}
+
+	@Test
+	public void onlyConstColumns() {
+		MatrixBlock mb = new MatrixBlock(1000, 10, false);
+		mb.allocateDenseBlock();
+		for(int i = 0; i < 1000; i++)
+			for(int j = 0; j < 10; j += 2)
+				mb.set(i, j, j + 1);
+		mb.recomputeNonZeros();
+		compare(mb);
+	}
+
+	@Test
+	public void incompressableColumns() {
+		MatrixBlock mb = gen(1000, 20, 1.0, 3, 7);
+		MatrixBlock rand = TestUtils.generateTestMatrixBlock(1000, 2, 0, 100, 1.0, 13);
+		for(int i = 0; i < 1000; i++) {
+			mb.set(i, 5, rand.get(i, 0));
+			mb.set(i, 6, rand.get(i, 1));
+		}
+		compare(mb);
+	}
+
+	@Test
+	public void sparseWideTransposed() {
+		compare(gen(200, 12000, 0.01, 3, 7));
+	}
+
+	@Test
+	public void forcedTranspose() {
+		MatrixBlock mb = gen(1000, 20, 1.0, 5, 7);
+		CompressionSettingsBuilder cs = new CompressionSettingsBuilder().setTransposeInput("true").setPipelined(true);
+		MatrixBlock seq = CompressedMatrixBlockFactory.compress(mb, 1, cs).getLeft();
+		MatrixBlock par = CompressedMatrixBlockFactory.compress(mb, 4, cs).getLeft();
+		verify(mb, seq, par);
+	}
+
+	@Test
+	public void abortReturnsInput() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(1000, 20, 0, 100, 1.0, 7);
+		MatrixBlock ret = CompressedMatrixBlockFactory.compress(mb, 4, pipelined()).getLeft();
+		assertFalse(ret instanceof CompressedMatrixBlock);
+		assertTrue(mb == ret);
+	}
+
+	@Test
+	public void optIn() {
+		assertFalse(new CompressionSettingsBuilder().create().pipelined);
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		try {
+			conf.setTextValue(DMLConfig.COMPRESSED_PIPELINED, "true");
+			assertTrue(new CompressionSettingsBuilder().create().pipelined);
+		}
+		finally {
+			conf.setTextValue(DMLConfig.COMPRESSED_PIPELINED, "false");
+		}
+	}
+
+	private static void compare(MatrixBlock mb) {
+		MatrixBlock seq = CompressedMatrixBlockFactory.compress(mb, 1, pipelined()).getLeft();
+		MatrixBlock par = CompressedMatrixBlockFactory.compress(mb, 4, pipelined()).getLeft();
+		verify(mb, seq, par);
+	}
+
+	private static CompressionSettingsBuilder pipelined() {
+		return new CompressionSettingsBuilder().setPipelined(true);
+	}
+
+	private static void verify(MatrixBlock mb, MatrixBlock seq, MatrixBlock par) {
+		assertTrue("sequential not compressed", seq instanceof CompressedMatrixBlock);
+		assertTrue("pipelined not compressed", par instanceof CompressedMatrixBlock);
+		assertEquals(mb.getNumRows(), par.getNumRows());
+		assertEquals(mb.getNumColumns(), par.getNumColumns());
+		assertEquals(mb.getNonZeros(), par.getNonZeros());
+		TestUtils.compareMatrices(mb, CompressedMatrixBlock.getUncompressed(par), 0);
+		TestUtils.compareMatrices(CompressedMatrixBlock.getUncompressed(seq),
+			CompressedMatrixBlock.getUncompressed(par), 0);
+	}
+
+	private static MatrixBlock gen(int rows, int cols, double sp, int max, int seed) {
+		return TestUtils.round(TestUtils.generateTestMatrixBlock(rows, cols, 1, max, sp, seed));
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.Random;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.compress.IncrementalCompressor;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class IncrementalCompressorTest {
+
+	@Test
+	public void appendDense() {
+		runAppend(1.0, 5, 5, 1);
+	}
+
+	@Test
+	public void appendDenseParallel() {
+		runAppend(1.0, 5, 5, 4);
+	}
+
+	@Test
+	public void appendDenseNewValues() {
+		runAppend(1.0, 5, 9, 1);
+	}
+
+	@Test
+	public void appendSparse() {
+		runAppend(0.1, 5, 5, 1);
+	}
+
+	@Test
+	public void appendSparseNewValues() {
+		runAppend(0.1, 5, 9, 4);
+	}
+
+	@Test
+	public void appendConstantColumnChanges() {
+		MatrixBlock a = gen(1000, 10, 1.0, 5, 7);
+		for(int i = 0; i < 1000; i++)
+			a.set(i, 2, 3);
+		IncrementalCompressor ic = new IncrementalCompressor(a, 1);
+		MatrixBlock b = gen(500, 10, 1.0, 5, 3);
+		ic.append(b);
+		compare(a.append(b, null, false), ic.getCompressed());
+	}
+
+	@Test
+	public void appendEmptyBatch() {
+		MatrixBlock a = gen(1000, 10, 1.0, 5, 7);
+		IncrementalCompressor ic = new IncrementalCompressor(a, 1);
+		MatrixBlock b = new MatrixBlock(300, 10, true);
+		ic.append(b);
+		ic.append(gen(200, 10, 1.0, 5, 3));
+		assertEquals(1500, ic.getNumRows());
+		compare(a.append(b, null, false).append(gen(200, 10, 1.0, 5, 3), null, false), ic.getCompressed());
+	}
+
+	@Test
+	public void appendDefaultOnlyBatch() {
+		//mostly default values, encoded as SDC groups with a non-zero default
+		MatrixBlock a = genDefault(1000, 4, 5, 0.05, 7);
+		IncrementalCompressor ic = new IncrementalCompressor(a, 1);
+		List<AColGroup> before = ic.getCompressed().getColGroups();
+		//batch with only default values, encoded as constant groups
+		MatrixBlock b = genDefault(300, 4, 5, 0.0, 3);
+		MatrixBlock c = genDefault(200, 4, 5, 0.05, 11);
+		ic.append(b);
+		ic.append(c);
+		CompressedMatrixBlock ret = ic.getCompressed();
+		compare(a.append(b, null, false).append(c, null, false), ret);
+		//no fallback to uncompressed groups
+		List<AColGroup> after = ret.getColGroups();
+		assertEquals(before.size(), after.size());
+		for(int i = 0; i < before.size(); i++)
+			assertEquals(before.get(i).getClass(), after.get(i).getClass());
+	}
+
+	@Test
+	public void appendManySmallDense() {
+		runAppendSmall(gen(1000, 10, 1.0, 5, 7), 1.0, 9);
+	}
+
+	@Test
+	public void appendManySmallSparse() {
+		runAppendSmall(genDefault(1000, 4, 5, 0.05, 7), 0.05, 5);
+	}
+
+	@Test
+	public void recompressOnDrift() throws Exception {
+		MatrixBlock a = gen(1000, 10, 1.0, 2, 7);
+		IncrementalCompressor ic = new IncrementalCompressor(a, 1, 0.1);
+		MatrixBlock expected = a;
+		for(int i = 0; i < 5; i++) {
+			MatrixBlock b = gen(1000, 10, 1.0, 200, i);
+			ic.append(b);
+			expected = expected.append(b, null, false);
+			compare(expected, ic.getCompressed());
+		}
+		for(int i = 0; i < 1000 && ic.isRecompressing(); i++) {
+			Thread.sleep(10);
+			compare(expected, ic.getCompressed());
+		}
+		assertFalse(ic.isRecompressing());
+		MatrixBlock b = gen(100, 10, 1.0, 200, 42);
+		ic.append(b);
+		compare(expected.append(b, null, false), ic.getCompressed());
+	}
+
+	@Test(expected = DMLCompressionException.class)
+	public void invalidColumns() {
+		IncrementalCompressor ic = new IncrementalCompressor(gen(100, 10, 1.0, 5, 7), 1);
+		ic.append(gen(100, 11, 1.0, 5, 7));
+	}
+
+	private static void runAppend(double sp, int maxInitial, int maxAppend, int k) {
+		MatrixBlock a = gen(1000, 10, sp, maxInitial, 7);
+		IncrementalCompressor ic = new IncrementalCompressor(a, k);
+		MatrixBlock expected = a;
+		for(int i = 0; i < 4; i++) {
+			MatrixBlock b = gen(700, 10, sp, maxAppend, i);
+			ic.append(b);
+			expected = expected.append(b, null, false);
+			if(i % 2 == 1)
+				compare(expected, ic.getCompressed());
+		}
+		compare(expected, ic.getCompressed());
+	}
+
+	private static void runAppendSmall(MatrixBlock a, double sp, int maxAppend) {
+		//drift of 10 to avoid background recompression
+		IncrementalCompressor ic = new IncrementalCompressor(a, 1, 10);
+		MatrixBlock expected = a;
+		MatrixBlock firstExpected = null;
+		CompressedMatrixBlock first = null;
+		for(int i = 0; i < 50; i++) {
+			MatrixBlock b = sp < 1 ? genDefault(20, 4, 5, sp, i) : gen(20, 10, sp, maxAppend, i);
+			ic.append(b);
+			expected = expected.append(b, null, false);
+			CompressedMatrixBlock ret = ic.getCompressed();
+			if(first == null) {
+				first = ret;
+				firstExpected = expected;
+			}
+			if(i % 10 == 9)
+				compare(expected, ret);
+		}
+		compare(expected, ic.getCompressed());
+		//earlier results are not modified by later appends
+		compare(firstExpected, first);
+	}
+
+	private static MatrixBlock genDefault(int rows, int cols, double def, double sp, int seed) {
+		MatrixBlock ret = new MatrixBlock(rows, cols, false);
+		Random rand = new Random(seed);
+		for(int i = 0; i < rows; i++)
+			for(int j = 0; j < cols; j++)
+				ret.set(i, j, rand.nextDouble() < sp ? 1 + rand.nextInt(4) : def);
+		return ret;
+	}
+
+	private static MatrixBlock gen(int rows, int cols, double sp, int max, int seed) {
+		return TestUtils.round(TestUtils.generateTestMatrixBlock(rows, cols, 1, max, sp, seed));
+	}
+
+	private static void compare(MatrixBlock expected, CompressedMatrixBlock ret) {
+		assertEquals(expected.getNumRows(), ret.getNumRows());
+		assertEquals(expected.getNumColumns(), ret.getNumColumns());
+		TestUtils.compareMatrices(expected, CompressedMatrixBlock.getUncompressed(ret), 0);
+	}
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress.colgroup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.compress.CompressionSettingsBuilder;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup;
+import org.apache.sysds.runtime.compress.colgroup.AColGroup.CompressionType;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupConst;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupDeltaBP;
+import org.apache.sysds.runtime.compress.colgroup.ColGroupIO;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.functionobjects.Divide;
+import org.apache.sysds.runtime.functionobjects.Minus;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.LeftScalarOperator;
+import org.apache.sysds.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class ColGroupDeltaBPTest {
+
+	@Test
+	public void timestamps() {
+		verify(timestamps(10000, 7));
+	}
+
+	@Test
+	public void decreasing() {
+		final double[] v = timestamps(3001, 3);
+		for(int i = 0; i < v.length; i++)
+			v[i] = -v[i];
+		verify(v);
+	}
+
+	@Test
+	public void cumulativeSum() {
+		final Random r = new Random(13);
+		final double[] v = new double[5000];
+		for(int i = 1; i < v.length; i++)
+			v[i] = v[i - 1] + r.nextInt(100) - 30;
+		verify(v);
+	}
+
+	@Test
+	public void sequenceFewRows() {
+		final double[] v = new double[130];
+		for(int i = 0; i < v.length; i++)
+			v[i] = i + 1;
+		verify(v);
+	}
+
+	@Test
+	public void largeValues() {
+		final Random r = new Random(2);
+		final double[] v = new double[1000];
+		for(int i = 0; i < v.length; i++)
+			v[i] = (double) ((r.nextLong() >> 13) & ~0xFFL);
+		verify(v);
+	}
+
+	@Test
+	public void notIntegral() {
+		final double[] v = timestamps(1000, 3);
+		v[777] += 0.5;
+		assertNull(ColGroupDeltaBP.create(ColIndexFactory.create(1), v));
+	}
+
+	@Test
+	public void constant() {
+		final double[] v = new double[300];
+		for(int i = 0; i < v.length; i++)
+			v[i] = 42;
+		assertTrue(ColGroupDeltaBP.create(ColIndexFactory.create(1), v) instanceof ColGroupConst);
+	}
+
+	@Test
+	public void packedSmallerThanUncompressed() {
+		final double[] v = timestamps(100000, 5);
+		final ColGroupDeltaBP g = (ColGroupDeltaBP) ColGroupDeltaBP.create(ColIndexFactory.create(1), v);
+		// deltas below 2^10 need at most 10 bits each.
+		assertTrue(g.getNumPackedWords() <= v.length * 10 / 64 + ColGroupDeltaBP.getNumBlocks(v.length));
+		assertTrue(g.estimateInMemorySize() < v.length * 8 / 4);
+	}
+
+	@Test
+	public void scalarOperations() {
+		final double[] v = timestamps(2000, 9);
+		final AColGroup g = ColGroupDeltaBP.create(ColIndexFactory.create(1), v);
+		verifyScalar(g, v, new RightScalarOperator(Plus.getPlusFnObject(), 13));
+		verifyScalar(g, v, new RightScalarOperator(Minus.getMinusFnObject(), 3));
+		verifyScalar(g, v, new LeftScalarOperator(Minus.getMinusFnObject(), 3));
+		verifyScalar(g, v, new RightScalarOperator(Multiply.getMultiplyFnObject(), -2));
+		verifyScalar(g, v, new RightScalarOperator(Divide.getDivideFnObject(), 4));
+		verifyScalar(g, v, new LeftScalarOperator(Divide.getDivideFnObject(), 4));
+		assertTrue(g.scalarOperation(new RightScalarOperator(Multiply.getMultiplyFnObject(), 0)).isEmpty());
+	}
+
+	@Test
+	public void compressTimestampColumns() {
+		final int nRow = 5000;
+		final MatrixBlock mb = new MatrixBlock(nRow, 4, false);
+		mb.allocateDenseBlock();
+		final double[] t1 = timestamps(nRow, 1);
+		final double[] t2 = timestamps(nRow, 2);
+		final Random r = new Random(3);
+		for(int i = 0; i < nRow; i++) {
+			mb.set(i, 0, t1[i]);
+			mb.set(i, 1, r.nextInt(4));
+			mb.set(i, 2, t2[i]);
+			mb.set(i, 3, i);
+		}
+		mb.recomputeNonZeros();
+
+		final CompressionSettingsBuilder cs = new CompressionSettingsBuilder()
+			.setValidCompressions(EnumSet.of(CompressionType.DDC, CompressionType.DeltaBP));
+		final MatrixBlock c = CompressedMatrixBlockFactory.compress(mb, 1, cs).getLeft();
+		assertTrue(c instanceof CompressedMatrixBlock);
+		boolean containsDelta = false;
+		for(AColGroup g : ((CompressedMatrixBlock) c).getColGroups())
+			containsDelta |= g instanceof ColGroupDeltaBP;
+		assertTrue(containsDelta);
+
+		TestUtils.compareMatrices(mb, CompressedMatrixBlock.getUncompressed(c), 0);
+		assertEquals(mb.sum(), c.sum(), 1e-6);
+		assertEquals(mb.max(), c.max(), 0);
+		assertEquals(mb.min(), c.min(), 0);
+		TestUtils.compareMatrices(mb.colSum(), c.colSum(), 1e-6);
+	}
+
+	@Test
+	public void defaultSettingsDoNotUseDelta() {
+		final int nRow = 2000;
+		final MatrixBlock mb = new MatrixBlock(nRow, 1, false);
+		mb.allocateDenseBlock();
+		final double[] t = timestamps(nRow, 1);
+		for(int i = 0; i < nRow; i++)
+			mb.set(i, 0, t[i]);
+		mb.recomputeNonZeros();
+		final MatrixBlock c = CompressedMatrixBlockFactory.compress(mb, 1).getLeft();
+		if(c instanceof CompressedMatrixBlock)
+			for(AColGroup g : ((CompressedMatrixBlock) c).getColGroups())
+				assertFalse(g instanceof ColGroupDeltaBP);
+	}
+
+	private static void verify(double[] v) {
+		final int nRow = v.length;
+		final AColGroup g = ColGroupDeltaBP.create(ColIndexFactory.create(1), v);
+		assertTrue(g instanceof ColGroupDeltaBP);
+		compare(v, g);
+		compare(v, serializeAndBack(g, nRow));
+
+		double sum = 0, sumSq = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+		for(double d : v) {
+			sum += d;
+			sumSq += d * d;
+			min = Math.min(min, d);
+			max = Math.max(max, d);
+		}
+		assertEquals(sum, g.getSum(nRow), Math.abs(sum) * 1e-12);
+		assertEquals(min, g.getMin(), 0);
+		assertEquals(max, g.getMax(), 0);
+		assertTrue(g.containsValue(v[nRow / 2]));
+		assertFalse(g.containsValue(max + 1));
+		assertFalse(g.containsValue(0.5));
+
+		final double[] c = new double[1];
+		g.unaryAggregateOperations(InstructionUtils.parseBasicAggregateUnaryOperator("uasqk+", 1), c, nRow, 0, nRow);
+		assertEquals(sumSq, c[0], sumSq * 1e-12);
+
+		final double[] rowSums = new double[nRow];
+		g.unaryAggregateOperations(InstructionUtils.parseBasicAggregateUnaryOperator("uark+", 1), rowSums, nRow, 3,
+			nRow - 1);
+		final double[] rowSq = new double[nRow];
+		g.unaryAggregateOperations(InstructionUtils.parseBasicAggregateUnaryOperator("uarsqk+", 1), rowSq, nRow, 0,
+			nRow);
+		for(int i = 0; i < nRow; i++) {
+			assertEquals(i >= 3 && i < nRow - 1 ? v[i] : 0, rowSums[i], 0);
+			assertEquals(v[i] * v[i], rowSq[i], 0);
+		}
+
+		final int rl = Math.min(nRow - 2, 100);
+		final int ru = Math.min(nRow, 1000);
+		final AColGroup slice = g.sliceRows(rl, ru);
+		for(int i = rl; i < ru; i++)
+			assertEquals(v[i], slice.getIdx(i - rl, 0), 0);
+
+		final AColGroup a = g.sliceRows(0, rl).append(g.sliceRows(rl, nRow));
+		compare(v, a);
+	}
+
+	private static void verifyScalar(AColGroup g, double[] v, ScalarOperator op) {
+		final AColGroup ret = g.scalarOperation(op);
+		final double[] exp = new double[v.length];
+		for(int i = 0; i < v.length; i++)
+			exp[i] = op.executeScalar(v[i]);
+		compare(exp, ret, 1e-9);
+	}
+
+	private static void compare(double[] v, AColGroup g) {
+		compare(v, g, 0);
+	}
+
+	private static void compare(double[] v, AColGroup g, double tol) {
+		final int nRow = v.length;
+		final MatrixBlock dense = new MatrixBlock(nRow, 2, false);
+		dense.allocateDenseBlock();
+		g.copyAndSet(ColIndexFactory.create(new int[] {1})).decompressToDenseBlock(dense.getDenseBlock(), 0, nRow);
+		final MatrixBlock sparse = new MatrixBlock(nRow, 2, true);
+		sparse.allocateSparseRowsBlock();
+		g.decompressToSparseBlock(sparse.getSparseBlock(), 0, nRow);
+		for(int i = 0; i < nRow; i++) {
+			assertEquals(v[i], dense.get(i, 1), Math.abs(v[i]) * tol);
+			assertEquals(v[i], sparse.get(i, 0), Math.abs(v[i]) * tol);
+			assertEquals(v[i], g.getIdx(i, 0), Math.abs(v[i]) * tol);
+		}
+	}
+
+	private static AColGroup serializeAndBack(AColGroup g, int nRow) {
+		try {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			DataOutputStream fos = new DataOutputStream(bos);
+			ColGroupIO.writeGroups(fos, Collections.singletonList(g));
+			assertEquals(bos.size(), ColGroupIO.getExactSizeOnDisk(Collections.singletonList(g)));
+			DataInputStream fis = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+			return ColGroupIO.readGroups(fis, nRow).get(0);
+		}
+		catch(IOException e) {
+			throw new RuntimeException("Error in io", e);
+		}
+	}
+
+	private static double[] timestamps(int nRow, int seed) {
+		final Random r = new Random(seed);
+		final double[] v = new double[nRow];
+		v[0] = 1700000000000L;
+		for(int i = 1; i < nRow; i++)
+			v[i] = v[i - 1] + 1000 + r.nextInt(24) - 12;
+		return v;
+	}
+}
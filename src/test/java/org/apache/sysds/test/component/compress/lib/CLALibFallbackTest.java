@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.compress.DMLCompressionException;
+import org.apache.sysds.runtime.functionobjects.Builtin;
+import org.apache.sysds.runtime.functionobjects.Builtin.BuiltinCode;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.CTableMap;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysds.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.DMLCompressionStatistics;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class CLALibFallbackTest {
+
+	@Test
+	public void cumsum() {
+		cumAgg(BuiltinCode.CUMSUM, 1);
+	}
+
+	@Test
+	public void cumsumParallel() {
+		cumAgg(BuiltinCode.CUMSUM, 4);
+	}
+
+	@Test
+	public void cumprodParallel() {
+		cumAgg(BuiltinCode.CUMPROD, 4);
+	}
+
+	@Test
+	public void cumminParallel() {
+		cumAgg(BuiltinCode.CUMMIN, 4);
+	}
+
+	@Test
+	public void cummax() {
+		cumAgg(BuiltinCode.CUMMAX, 1);
+	}
+
+	@Test
+	public void rowIndexMax() {
+		rowAgg("uarimax", 1);
+	}
+
+	@Test
+	public void rowIndexMaxParallel() {
+		rowAgg("uarimax", 4);
+	}
+
+	@Test
+	public void rowIndexMinParallel() {
+		rowAgg("uarimin", 4);
+	}
+
+	@Test
+	public void ctableHistogram() {
+		MatrixBlock mb = gen(10000, 1, 1, 5, 7);
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock exp = new MatrixBlock(5, 2, false);
+		mb.ctableOperations(null, 2.0, 3.0, null, exp);
+		MatrixBlock ret = new MatrixBlock(5, 2, false);
+		cmb.ctableOperations(null, 2.0, 3.0, null, ret);
+		TestUtils.compareMatrices(exp, ret, 0);
+		assertEquals(exp.getNonZeros(), ret.getNonZeros());
+
+		CTableMap expMap = new CTableMap();
+		mb.ctableOperations(null, 1.0, 1.0, expMap, null);
+		CTableMap retMap = new CTableMap();
+		cmb.ctableOperations(null, 1.0, 1.0, retMap, null);
+		TestUtils.compareMatrices(expMap.toMatrixBlock(5, 1), retMap.toMatrixBlock(5, 1), 0);
+	}
+
+	@Test
+	public void ctableMatrix() {
+		MatrixBlock mb = gen(3000, 3, 1, 5, 7);
+		MatrixBlock that = gen(3000, 3, 1, 4, 3);
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock exp = new MatrixBlock(5, 4, false);
+		mb.ctableOperations(null, that, 1.0, false, null, exp);
+		MatrixBlock ret = new MatrixBlock(5, 4, false);
+		cmb.ctableOperations(null, that, 1.0, false, null, ret);
+		TestUtils.compareMatrices(exp, ret, 0);
+	}
+
+	@Test
+	public void ctableSeq() {
+		MatrixBlock mb = gen(3000, 1, 1, 5, 7);
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock exp = new MatrixBlock(3000, 5, false);
+		mb.ctableOperations(null, new MatrixIndexes(1, 1), 1.0, true, 1000, null, exp);
+		MatrixBlock ret = new MatrixBlock(3000, 5, false);
+		cmb.ctableOperations(null, new MatrixIndexes(1, 1), 1.0, true, 1000, null, ret);
+		TestUtils.compareMatrices(exp, ret, 0);
+	}
+
+	@Test
+	public void ctableWeighted() {
+		MatrixBlock mb = gen(3000, 2, 1, 5, 7);
+		MatrixBlock that = gen(3000, 2, 1, 4, 3);
+		MatrixBlock w = gen(3000, 2, 0, 9, 11);
+		CompressedMatrixBlock cmb = compress(mb);
+		MatrixBlock exp = new MatrixBlock(5, 4, false);
+		mb.ctableOperations(null, that, w, null, exp);
+		MatrixBlock ret = new MatrixBlock(5, 4, false);
+		cmb.ctableOperations(null, that, w, null, ret);
+		TestUtils.compareMatrices(exp, ret, 0);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void ctableInvalidZero() {
+		MatrixBlock mb = gen(3000, 1, 1, 5, 7);
+		mb.set(42, 0, 0);
+		compress(mb).ctableOperations(null, 1.0, 1.0, null, new MatrixBlock(5, 1, false));
+	}
+
+	@Test
+	public void fallbackStatistics() {
+		DMLCompressionStatistics.reset();
+		CompressedMatrixBlock cmb = compress(gen(1000, 5, 1, 5, 7));
+		cmb.removeEmptyOperations(null, true, false, null);
+		assertEquals(1, DMLCompressionStatistics.getDecompressFallbackCount("removeEmptyOperations"));
+		StringBuilder sb = new StringBuilder();
+		DMLCompressionStatistics.display(sb);
+		assertTrue(sb.toString(), sb.toString().contains("removeEmptyOperations"));
+		DMLCompressionStatistics.reset();
+		assertEquals(0, DMLCompressionStatistics.getDecompressFallbackCount());
+	}
+
+	@Test
+	public void fallbackFailFast() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String before = conf.getTextValue(DMLConfig.COMPRESSED_FAIL_ON_DECOMPRESS);
+		try {
+			conf.setTextValue(DMLConfig.COMPRESSED_FAIL_ON_DECOMPRESS, "true");
+			CompressedMatrixBlock cmb = compress(gen(1000, 5, 1, 5, 7));
+			// supported operations still work
+			cmb.unaryOperations(new UnaryOperator(Builtin.getBuiltinFnObject(BuiltinCode.CUMSUM)), null);
+			cmb.removeEmptyOperations(null, true, false, null);
+			fail("expected decompression to fail");
+		}
+		catch(DMLCompressionException e) {
+			assertTrue(e.getMessage().contains("removeEmptyOperations"));
+		}
+		finally {
+			conf.setTextValue(DMLConfig.COMPRESSED_FAIL_ON_DECOMPRESS, before);
+		}
+	}
+
+	private static void cumAgg(BuiltinCode code, int k) {
+		MatrixBlock mb = gen(20000, 10, -1, 1, 7);
+		CompressedMatrixBlock cmb = compress(mb);
+		UnaryOperator op = new UnaryOperator(Builtin.getBuiltinFnObject(code), k);
+		MatrixBlock exp = mb.unaryOperations(op, null);
+		MatrixBlock ret = cmb.unaryOperations(op, null);
+		assertTrue(!(ret instanceof CompressedMatrixBlock));
+		TestUtils.compareMatrices(exp, ret, 1e-10);
+	}
+
+	private static void rowAgg(String opcode, int k) {
+		MatrixBlock mb = gen(10000, 10, 1, 5, 7);
+		CompressedMatrixBlock cmb = compress(mb);
+		AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode, k);
+		MatrixBlock exp = mb.aggregateUnaryOperations(op, null, 1000, null, true);
+		MatrixBlock ret = cmb.aggregateUnaryOperations(op, null, 1000, null, true);
+		assertEquals(exp.getNumColumns(), ret.getNumColumns());
+		TestUtils.compareMatrices(exp, ret, 0);
+	}
+
+	private static MatrixBlock gen(int rows, int cols, int min, int max, int seed) {
+		return TestUtils.round(TestUtils.generateTestMatrixBlock(rows, cols, min, max, 1.0, seed));
+	}
+
+	private static CompressedMatrixBlock compress(MatrixBlock mb) {
+		MatrixBlock ret = CompressedMatrixBlockFactory.compress(mb, 1).getLeft();
+		assertTrue("input not compressed", ret instanceof CompressedMatrixBlock);
+		return (CompressedMatrixBlock) ret;
+	}
+}
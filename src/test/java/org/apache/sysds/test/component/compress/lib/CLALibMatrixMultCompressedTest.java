@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress.lib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysds.runtime.compress.CompressedMatrixBlockFactory;
+import org.apache.sysds.runtime.compress.colgroup.indexes.ColIndexFactory;
+import org.apache.sysds.runtime.compress.lib.CLALibMatrixMult;
+import org.apache.sysds.runtime.compress.lib.CLALibRightMultBy;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class CLALibMatrixMultCompressedTest {
+
+	@Test
+	public void denseDense() {
+		compare(gen(1000, 50, 1.0, 7), gen(50, 30, 1.0, 3), 1);
+	}
+
+	@Test
+	public void denseDenseParallel() {
+		compare(gen(1000, 50, 1.0, 7), gen(50, 30, 1.0, 3), 4);
+	}
+
+	@Test
+	public void sparseLeft() {
+		compare(gen(1000, 50, 0.1, 7), gen(50, 30, 1.0, 3), 4);
+	}
+
+	@Test
+	public void sparseRight() {
+		compare(gen(1000, 50, 1.0, 7), gen(50, 30, 0.1, 3), 4);
+	}
+
+	@Test
+	public void sparseBoth() {
+		compare(gen(1000, 50, 0.1, 7), gen(50, 30, 0.1, 3), 1);
+	}
+
+	@Test
+	public void constColumns() {
+		MatrixBlock a = gen(1000, 50, 1.0, 7);
+		for(int i = 0; i < 1000; i++)
+			a.set(i, 3, 4);
+		MatrixBlock b = gen(50, 30, 1.0, 3);
+		for(int i = 0; i < 50; i++)
+			b.set(i, 7, 2);
+		compare(a, b, 4);
+	}
+
+	@Test
+	public void noOverlappingOutput() {
+		MatrixBlock a = gen(1000, 50, 1.0, 7);
+		MatrixBlock b = gen(50, 30, 1.0, 3);
+		MatrixBlock ret = CLALibRightMultBy.rightMultByMatrix(compress(a), compress(b), null, 4, false);
+		assertTrue(!(ret instanceof CompressedMatrixBlock));
+		TestUtils.compareMatrices(LibMatrixMult.matrixMult(a, b), ret, 1e-8);
+	}
+
+	@Test
+	public void bothTransposed() {
+		MatrixBlock a = gen(50, 1000, 1.0, 7);
+		MatrixBlock b = gen(30, 50, 1.0, 3);
+		MatrixBlock exp = LibMatrixMult.matrixMult(LibMatrixReorg.transpose(a), LibMatrixReorg.transpose(b));
+		MatrixBlock ret = CLALibMatrixMult.matrixMultiply(compress(b), compress(a), null, 4, true, true);
+		TestUtils.compareMatrices(exp, toUncompressed(ret), 1e-8);
+	}
+
+	@Test
+	public void sliceRows() {
+		MatrixBlock b = gen(200, 30, 0.5, 3);
+		CompressedMatrixBlock cb = compress(b);
+		int[] rows = new int[] {0, 1, 2, 7, 8, 50, 199};
+		MatrixBlock slice = CLALibRightMultBy.sliceRows(cb, ColIndexFactory.create(rows));
+		assertEquals(rows.length, slice.getNumRows());
+		for(int i = 0; i < rows.length; i++)
+			for(int j = 0; j < 30; j++)
+				assertEquals(b.get(rows[i], j), slice.get(i, j), 0);
+	}
+
+	private static void compare(MatrixBlock a, MatrixBlock b, int k) {
+		MatrixBlock exp = LibMatrixMult.matrixMult(a, b);
+		MatrixBlock ret = CLALibMatrixMult.matrixMultiply(compress(a), compress(b), null, k);
+		assertEquals(exp.getNumRows(), ret.getNumRows());
+		assertEquals(exp.getNumColumns(), ret.getNumColumns());
+		TestUtils.compareMatrices(exp, toUncompressed(ret), 1e-8);
+	}
+
+	private static MatrixBlock gen(int rows, int cols, double sp, int seed) {
+		return TestUtils.round(TestUtils.generateTestMatrixBlock(rows, cols, 1, 5, sp, seed));
+	}
+
+	private static CompressedMatrixBlock compress(MatrixBlock mb) {
+		MatrixBlock ret = CompressedMatrixBlockFactory.compress(mb, 1).getLeft();
+		assertTrue("input not compressed", ret instanceof CompressedMatrixBlock);
+		return (CompressedMatrixBlock) ret;
+	}
+
+	private static MatrixBlock toUncompressed(MatrixBlock mb) {
+		return CompressedMatrixBlock.getUncompressed(mb);
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.compress.mapping;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+import org.apache.sysds.runtime.compress.colgroup.mapping.AMapToData;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory;
+import org.apache.sysds.runtime.compress.colgroup.mapping.MapToFactory.MAP_TYPE;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(value = Parameterized.class)
+public class MappingDecompressTest {
+
+	private final AMapToData m;
+	private final int nUnique;
+	private final int rl;
+	private final int ru;
+
+	@Parameters(name = "{0} unique:{1} rows:{2}-{3}")
+	public static Collection<Object[]> data() {
+		final ArrayList<Object[]> tests = new ArrayList<>();
+		final MAP_TYPE[] types = new MAP_TYPE[] {MAP_TYPE.BIT, MAP_TYPE.UBYTE, MAP_TYPE.BYTE, MAP_TYPE.CHAR,
+			MAP_TYPE.CHAR_BYTE, MAP_TYPE.INT};
+		for(MAP_TYPE t : types) {
+			tests.add(new Object[] {t, 2, 0, 1000});
+			tests.add(new Object[] {t, 2, 3, 998});
+			tests.add(new Object[] {t, 2, 13, 14});
+			if(t != MAP_TYPE.BIT) {
+				tests.add(new Object[] {t, 100, 0, 1000});
+				tests.add(new Object[] {t, 100, 7, 503});
+			}
+		}
+		return tests;
+	}
+
+	public MappingDecompressTest(MAP_TYPE t, int nUnique, int rl, int ru) {
+		final AMapToData tmp = MappingTestUtil.createRandomMap(1000, nUnique, new Random(nUnique + rl));
+		this.m = MapToFactory.resizeForce(tmp, t);
+		this.nUnique = nUnique;
+		this.rl = rl;
+		this.ru = ru;
+	}
+
+	@Test
+	public void singleCol() {
+		final int nColOut = 5;
+		final double[] values = values(1);
+		final double[] exp = new double[1000 * nColOut];
+		final double[] act = new double[1000 * nColOut];
+		for(int i = rl; i < ru; i++)
+			exp[i * nColOut + 3] += values[m.getIndex(i)];
+		m.decompressToRangeSingleCol(act, rl, ru, rl * nColOut + 3, nColOut, values);
+		assertArrayEquals(exp, act, 0);
+	}
+
+	@Test
+	public void twoCols() {
+		final int nColOut = 7;
+		final double[] values = values(2);
+		final double[] exp = new double[1000 * nColOut];
+		final double[] act = new double[1000 * nColOut];
+		for(int i = rl; i < ru; i++) {
+			exp[i * nColOut + 1 + 2] += values[m.getIndex(i) * 2];
+			exp[i * nColOut + 1 + 5] += values[m.getIndex(i) * 2 + 1];
+		}
+		m.decompressToRangeTwoCols(act, rl, ru, rl * nColOut + 1, nColOut, 2, 5, values);
+		assertArrayEquals(exp, act, 0);
+	}
+
+	@Test
+	public void generic() {
+		final int nColOut = 10;
+		final int[] cols = new int[] {0, 3, 4, 9};
+		final double[] values = values(cols.length);
+		final double[] exp = new double[1000 * nColOut];
+		final double[] act = new double[1000 * nColOut];
+		for(int i = rl; i < ru; i++)
+			for(int j = 0; j < cols.length; j++)
+				exp[i * nColOut + cols[j]] += values[m.getIndex(i) * cols.length + j];
+		m.decompressToRangeCols(act, rl, ru, rl * nColOut, nColOut, cols, values);
+		assertArrayEquals(exp, act, 0);
+	}
+
+	@Test
+	public void allCols() {
+		final int nCol = 3;
+		final double[] values = values(nCol);
+		final double[] exp = new double[1000 * nCol];
+		final double[] act = new double[1000 * nCol];
+		for(int i = rl; i < ru; i++)
+			for(int j = 0; j < nCol; j++)
+				exp[i * nCol + j] += values[m.getIndex(i) * nCol + j];
+		m.decompressToRangeAllCols(act, rl, ru, rl * nCol, nCol, values);
+		assertArrayEquals(exp, act, 0);
+	}
+
+	private double[] values(int nCol) {
+		final Random r = new Random(42);
+		final double[] ret = new double[nUnique * nCol];
+		for(int i = 0; i < ret.length; i++)
+			ret[i] = r.nextInt(100) - 50;
+		return ret;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.lineage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.sysds.runtime.lineage.LineageBinaryReader;
+import org.apache.sysds.runtime.lineage.LineageBinaryWriter;
+import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.lineage.LineageParser;
+import org.apache.sysds.utils.Explain;
+import org.junit.Test;
+
+public class LineageBinaryFormatTest {
+
+	@Test
+	public void roundTrip() throws IOException {
+		LineageItem root = loop(20);
+		LineageItem ret = readFirst(write(root));
+		assertEquals(Explain.explain(root), Explain.explain(ret));
+		assertTrue(root.equals(ret));
+	}
+
+	@Test
+	public void roundTripPlaceholder() throws IOException {
+		LineageItem ph = new LineageItem("", "IN#7");
+		LineageItem root = new LineageItem("+", new LineageItem[] {ph, literal(3)});
+		LineageItem ret = readFirst(write(root));
+		//same representation as parsed from the text format
+		assertEquals(Explain.explain(LineageParser.parseLineageTrace(Explain.explain(root))), Explain.explain(ret));
+	}
+
+	@Test
+	public void sharedSubDag() throws IOException {
+		LineageItem x = read("X");
+		LineageItem xtx = new LineageItem("tsmm", new LineageItem[] {x, literal(0)});
+		LineageItem root = new LineageItem("+", new LineageItem[] {xtx, xtx});
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try(LineageBinaryWriter writer = new LineageBinaryWriter(bos)) {
+			writer.writeTrace("R", root);
+			assertEquals(4, writer.getNumItems());
+		}
+		LineageItem ret = readFirst(bos.toByteArray());
+		//shared inputs restored as the same object
+		assertTrue(ret.getInputs()[0] == ret.getInputs()[1]);
+	}
+
+	@Test
+	public void incrementalAppend() throws IOException {
+		LineageItem x = read("X");
+		LineageItem r1 = new LineageItem("tsmm", new LineageItem[] {x, literal(0)});
+		LineageItem r2 = new LineageItem("*", new LineageItem[] {r1, literal(2)});
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try(LineageBinaryWriter writer = new LineageBinaryWriter(bos)) {
+			writer.writeTrace("R1", r1);
+			int n1 = writer.getNumItems();
+			writer.writeTrace("R2", r2);
+			//only the new items are appended
+			assertEquals(n1 + 2, writer.getNumItems());
+		}
+		try(LineageBinaryReader reader = new LineageBinaryReader(new ByteArrayInputStream(bos.toByteArray()))) {
+			LineageItem ret2 = reader.readTrace("R2");
+			assertEquals(Explain.explain(r2), Explain.explain(ret2));
+			assertNull(reader.readTrace("R1"));
+		}
+		try(LineageBinaryReader reader = new LineageBinaryReader(new ByteArrayInputStream(bos.toByteArray()))) {
+			//lazy decoding up to the requested root
+			reader.readTrace("R1");
+			assertEquals(3, reader.getNumItems());
+		}
+	}
+
+	@Test
+	public void patches() throws IOException {
+		LineageItem x = read("X");
+		LineageItem p = new LineageItem("*", new LineageItem[] {new LineageItem("", "IN#1"), literal(2)});
+		LineageItem root = new LineageItem("+", new LineageItem[] {x, literal(1)});
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try(LineageBinaryWriter writer = new LineageBinaryWriter(bos)) {
+			writer.writeTrace("R", root);
+			writer.writePatch("patch_R_SB15_1", p);
+		}
+		try(LineageBinaryReader reader = new LineageBinaryReader(new ByteArrayInputStream(bos.toByteArray()))) {
+			assertTrue(reader.next());
+			assertFalse(reader.isPatch());
+			assertTrue(reader.next());
+			assertTrue(reader.isPatch());
+			assertEquals("patch_R_SB15_1", reader.getName());
+			assertEquals("*", reader.getRoot().getOpcode());
+			assertFalse(reader.next());
+		}
+	}
+
+	@Test
+	public void smallerThanText() throws IOException {
+		LineageItem root = loop(1000);
+		int text = Explain.explain(root).getBytes(StandardCharsets.UTF_8).length;
+		int binary = write(root).length;
+		assertTrue("binary: " + binary + ", text: " + text, binary * 3 < text);
+	}
+
+	private static LineageItem loop(int n) {
+		LineageItem x = read("X");
+		LineageItem w = new LineageItem("rand", new LineageItem[] {literal(10), literal(1)});
+		for(int i = 0; i < n; i++) {
+			LineageItem g = new LineageItem("ba+*", new LineageItem[] {x, w});
+			w = new LineageItem("-", new LineageItem[] {w, new LineageItem("*", new LineageItem[] {g, literal(0.01)})});
+		}
+		return w;
+	}
+
+	private static LineageItem read(String name) {
+		return new LineageItem("CP°createvar°pREADX°" + name + "°false°MATRIX°text°10°10°-1°-1°copy", "createvar");
+	}
+
+	private static LineageItem literal(double value) {
+		return new LineageItem(value + "·SCALAR·FP64·true");
+	}
+
+	private static byte[] write(LineageItem root) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try(LineageBinaryWriter writer = new LineageBinaryWriter(bos)) {
+			writer.writeTrace("R", root);
+		}
+		return bos.toByteArray();
+	}
+
+	private static LineageItem readFirst(byte[] bytes) throws IOException {
+		try(LineageBinaryReader reader = new LineageBinaryReader(new ByteArrayInputStream(bytes))) {
+			assertTrue(reader.next());
+			return reader.getRoot();
+		}
+	}
+}
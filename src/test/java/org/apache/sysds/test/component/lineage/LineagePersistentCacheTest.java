@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.lineage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.instructions.Instruction;
+import org.apache.sysds.runtime.instructions.cp.DoubleObject;
+import org.apache.sysds.runtime.lineage.LineageCacheEntry;
+import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.lineage.LineagePersistentCache;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LineagePersistentCacheTest {
+
+	private static final long COMPUTE_TIME = 1000000000L; // 1 sec
+
+	private Path _dir;
+	private String _oldDir;
+	private String _oldLimit;
+
+	@Before
+	public void setup() throws IOException {
+		_dir = Files.createTempDirectory("lincache");
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		_oldDir = conf.getTextValue(DMLConfig.LINEAGE_PERSIST_DIR);
+		_oldLimit = conf.getTextValue(DMLConfig.LINEAGE_PERSIST_LIMIT);
+		conf.setTextValue(DMLConfig.LINEAGE_PERSIST_DIR, _dir.toString());
+		LineagePersistentCache.reset();
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		conf.setTextValue(DMLConfig.LINEAGE_PERSIST_DIR, _oldDir);
+		conf.setTextValue(DMLConfig.LINEAGE_PERSIST_LIMIT, _oldLimit);
+		LineagePersistentCache.reset();
+		FileUtils.deleteDirectory(_dir.toFile());
+	}
+
+	@Test
+	public void digestStable() {
+		assertEquals(LineagePersistentCache.digest(tsmm("X", 3)), LineagePersistentCache.digest(tsmm("X", 3)));
+		assertNotEquals(LineagePersistentCache.digest(tsmm("X", 3)), LineagePersistentCache.digest(tsmm("X", 4)));
+		assertNotEquals(LineagePersistentCache.digest(tsmm("X", 3)), LineagePersistentCache.digest(tsmm("Y", 3)));
+	}
+
+	@Test
+	public void digestDeepDag() {
+		LineageItem a = literal(1), b = literal(1);
+		for(int i = 0; i < 100000; i++) {
+			a = new LineageItem("+", new LineageItem[] {a, literal(i)});
+			b = new LineageItem("+", new LineageItem[] {b, literal(i)});
+		}
+		assertEquals(LineagePersistentCache.digest(a), LineagePersistentCache.digest(b));
+	}
+
+	@Test
+	public void digestNotPersistable() {
+		LineageItem in = new LineageItem("CacheableData::7", "createvar");
+		assertNull(LineagePersistentCache.digest(new LineageItem("tsmm", new LineageItem[] {in})));
+	}
+
+	@Test
+	public void digestFileFingerprint() throws IOException {
+		File f = new File(_dir.toFile(), "X.csv");
+		Files.write(f.toPath(), "1,2\n3,4\n".getBytes(StandardCharsets.UTF_8));
+		String d1 = LineagePersistentCache.digest(read(f));
+		assertNotNull(d1);
+		assertEquals(d1, LineagePersistentCache.digest(read(f)));
+		Files.write(f.toPath(), "1,2\n3,4\n5,6\n".getBytes(StandardCharsets.UTF_8));
+		assertNotEquals(d1, LineagePersistentCache.digest(read(f)));
+		assertNull(LineagePersistentCache.digest(read(new File(_dir.toFile(), "missing.csv"))));
+	}
+
+	@Test
+	public void roundtripMatrix() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(100, 20, 0, 10, 0.7, 7);
+		LineagePersistentCache.get().write(tsmm("X", 3), mb, null, COMPUTE_TIME);
+		// reopen the store as a new process would do
+		LineagePersistentCache.reset();
+		LineageCacheEntry e = LineagePersistentCache.get().read(tsmm("X", 3));
+		assertNotNull(e);
+		TestUtils.compareMatrices(mb, e.getMBValue(), 0);
+		assertNull(LineagePersistentCache.get().read(tsmm("X", 4)));
+	}
+
+	@Test
+	public void roundtripScalar() {
+		LineagePersistentCache.get().write(tsmm("X", 3), null, new DoubleObject(3.5), COMPUTE_TIME);
+		LineageCacheEntry e = LineagePersistentCache.get().read(tsmm("X", 3));
+		assertNotNull(e);
+		assertEquals(3.5, e.getSOValue().getDoubleValue(), 0);
+	}
+
+	@Test
+	public void skipCheapIntermediates() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(10, 10, 0, 10, 1.0, 7);
+		LineagePersistentCache.get().write(tsmm("X", 3), mb, null, 1000);
+		assertNull(LineagePersistentCache.get().read(tsmm("X", 3)));
+	}
+
+	@Test
+	public void evictLeastRecentlyUsed() {
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.LINEAGE_PERSIST_LIMIT, "1");
+		LineagePersistentCache.reset();
+		LineagePersistentCache store = LineagePersistentCache.get();
+		// ~320KB per entry, such that at most three entries fit
+		for(int i = 0; i < 10; i++)
+			store.write(tsmm("X", i), TestUtils.generateTestMatrixBlock(200, 200, 0, 10, 1.0, i), null, COMPUTE_TIME);
+		assertTrue(store.getSize() <= 1024 * 1024);
+		// the last written entry is never evicted
+		assertNotNull(store.read(tsmm("X", 9)));
+		int found = 0;
+		for(int i = 0; i < 10; i++)
+			found += store.read(tsmm("X", i)) != null ? 1 : 0;
+		assertTrue(found >= 1 && found <= 3);
+	}
+
+	private static LineageItem tsmm(String name, int lit) {
+		LineageItem in = new LineageItem(name, "rand");
+		LineageItem mult = new LineageItem("*", new LineageItem[] {in, literal(lit)});
+		return new LineageItem("tsmm", new LineageItem[] {mult, literal(0)});
+	}
+
+	private static LineageItem literal(int val) {
+		return new LineageItem(val + Instruction.VALUETYPE_PREFIX + "SCALAR" + Instruction.VALUETYPE_PREFIX
+			+ "INT64" + Instruction.VALUETYPE_PREFIX + "true");
+	}
+
+	private static LineageItem read(File f) {
+		String d = Instruction.OPERAND_DELIM;
+		return new LineageItem("CP" + d + "createvar" + d + "pREADxxx" + d + f.getAbsolutePath() + d + "false" + d
+			+ "MATRIX" + d + "csv", "createvar");
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.CacheEvictionPolicy;
+import org.apache.sysds.runtime.controlprogram.caching.CacheEvictionPolicyARC;
+import org.apache.sysds.runtime.controlprogram.caching.CacheEvictionQueue;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer.RPolicy;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.junit.Test;
+
+public class CacheEvictionPolicyTest {
+
+	@Test
+	public void testConfiguredPolicy() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String policy = conf.getTextValue(DMLConfig.CACHING_BUFFER_POLICY);
+		try {
+			conf.setTextValue(DMLConfig.CACHING_BUFFER_POLICY, "arc");
+			DMLScript.setGlobalFlags(conf);
+			assertEquals(RPolicy.ARC, CacheableData.CACHING_BUFFER_POLICY);
+			assertTrue(new CacheEvictionQueue().getPolicy() instanceof CacheEvictionPolicyARC);
+			conf.setTextValue(DMLConfig.CACHING_BUFFER_POLICY, "lru_k");
+			DMLScript.setGlobalFlags(conf);
+			assertEquals(RPolicy.LRU_K, CacheableData.CACHING_BUFFER_POLICY);
+		}
+		finally {
+			conf.setTextValue(DMLConfig.CACHING_BUFFER_POLICY, policy);
+			DMLScript.setGlobalFlags(conf);
+		}
+		assertEquals(RPolicy.valueOf(policy.toUpperCase()), CacheableData.CACHING_BUFFER_POLICY);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testConfiguredPolicyInvalid() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String policy = conf.getTextValue(DMLConfig.CACHING_BUFFER_POLICY);
+		try {
+			conf.setTextValue(DMLConfig.CACHING_BUFFER_POLICY, "mru");
+			DMLScript.setGlobalFlags(conf);
+		}
+		finally {
+			conf.setTextValue(DMLConfig.CACHING_BUFFER_POLICY, policy);
+		}
+	}
+
+	@Test
+	public void testFIFO() {
+		CacheEvictionQueue queue = createQueue(RPolicy.FIFO, "a", "b", "c");
+		queue.access("a");
+		assertEvictionOrder(queue, "a", "b", "c");
+	}
+
+	@Test
+	public void testLRU() {
+		CacheEvictionQueue queue = createQueue(RPolicy.LRU, "a", "b", "c");
+		queue.access("a");
+		assertEvictionOrder(queue, "b", "c", "a");
+	}
+
+	@Test
+	public void testLRUK() {
+		//twice-accessed entry survives a scan over once-used entries
+		CacheEvictionQueue queue = createQueue(RPolicy.LRU_K, "a", "b");
+		queue.access("a");
+		queue.addLast("c", new ByteBuffer(10));
+		queue.addLast("d", new ByteBuffer(10));
+		assertEvictionOrder(queue, "b", "c", "d", "a");
+	}
+
+	@Test
+	public void testLRUKRetainedHistory() {
+		CacheEvictionQueue queue = createQueue(RPolicy.LRU_K, "a", "b");
+		assertEquals("a", queue.removeFirst().getKey());
+		queue.miss("a");
+		queue.addLast("a", new ByteBuffer(10));
+		queue.addLast("c", new ByteBuffer(10));
+		assertEvictionOrder(queue, "b", "c", "a");
+	}
+
+	@Test
+	public void testARCGhostHit() {
+		CacheEvictionQueue queue = createQueue(RPolicy.ARC, "a", "b");
+		CacheEvictionPolicyARC arc = (CacheEvictionPolicyARC) queue.getPolicy();
+		assertEquals("a", queue.removeFirst().getKey());
+		assertEquals(0, arc.getTargetSize(), 0);
+		//restore from ghost list promotes to frequent list and grows T1 target
+		queue.miss("a");
+		assertTrue(arc.getTargetSize() > 0);
+		queue.addLast("a", new ByteBuffer(10));
+		queue.addLast("c", new ByteBuffer(10));
+		queue.addLast("d", new ByteBuffer(10));
+		assertEquals("b", queue.removeFirst().getKey());
+		assertEquals("c", queue.removeFirst().getKey());
+		assertEquals("a", queue.removeFirst().getKey());
+	}
+
+	@Test
+	public void testCostSize() {
+		//large cheap dense entry evicted before small expensive sparse entry
+		MatrixBlock dense = MatrixBlock.randOperations(100, 100, 1.0, 0, 1, "uniform", 7);
+		MatrixBlock sparse = MatrixBlock.randOperations(100, 100, 0.01, 0, 1, "uniform", 7);
+		long dsize = dense.getInMemorySize(), ssize = sparse.getExactSerializedSize();
+		CacheEvictionQueue queue = new CacheEvictionQueue(CacheEvictionPolicy.create(RPolicy.COST));
+		queue.addLast("s", new ByteBuffer(ssize, CacheEvictionPolicy.getRestoreCost(sparse, ssize)));
+		queue.addLast("d", new ByteBuffer(dsize, CacheEvictionPolicy.getRestoreCost(dense, dsize)));
+		assertEvictionOrder(queue, "d", "s");
+	}
+
+	@Test
+	public void testCostFrequency() {
+		CacheEvictionQueue queue = createQueue(RPolicy.COST, "a", "b", "c");
+		queue.access("a");
+		queue.access("a");
+		queue.access("b");
+		assertEvictionOrder(queue, "c", "b", "a");
+	}
+
+	@Test
+	public void testPinned() {
+		for( RPolicy policy : RPolicy.values() ) {
+			CacheEvictionQueue queue = createQueue(policy, "a", "b");
+			assertEquals("b", queue.removeFirstUnpinned(Arrays.asList("a")).getKey());
+			assertNull(queue.removeFirstUnpinned(Arrays.asList("a")));
+			assertEquals(1, queue.size());
+		}
+	}
+
+	@Test
+	public void testRemove() {
+		for( RPolicy policy : RPolicy.values() ) {
+			CacheEvictionQueue queue = createQueue(policy, "a", "b", "c");
+			queue.remove("b");
+			assertEvictionOrder(queue, "a", "c");
+		}
+	}
+
+	private static CacheEvictionQueue createQueue(RPolicy policy, String... keys) {
+		CacheEvictionQueue queue = new CacheEvictionQueue(CacheEvictionPolicy.create(policy));
+		for( String key : keys )
+			queue.addLast(key, new ByteBuffer(10));
+		return queue;
+	}
+
+	private static void assertEvictionOrder(CacheEvictionQueue queue, String... keys) {
+		for( String key : keys )
+			assertEquals(key, queue.removeFirst().getKey());
+		assertTrue(queue.isEmpty());
+		assertNull(queue.removeFirst());
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.apache.sysds.api.DMLScript;
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.hops.OptimizerUtils;
+import org.apache.sysds.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysds.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysds.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class CachePrefetchTest extends AutomatedTestBase
+{
+	private final static int rows = 700;
+	private final static int cols = 300;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+	}
+
+	@Test
+	public void testPrefetchDense() {
+		runPrefetchTest(1.0);
+	}
+
+	@Test
+	public void testPrefetchSparse() {
+		runPrefetchTest(0.05);
+	}
+
+	private void runPrefetchTest(double sparsity) {
+		boolean stats = DMLScript.STATISTICS;
+		try {
+			DMLScript.STATISTICS = true;
+			CacheStatistics.reset();
+			MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 7);
+
+			//setup caching
+			CacheableData.initCaching("tmp_prefetch_test");
+			MatrixCharacteristics mc = new MatrixCharacteristics(rows, cols, -1, -1);
+			MatrixObject mo = new MatrixObject(ValueType.FP64, null, new MetaDataFormat(mc, FileFormat.BINARY));
+			mo.acquireModify(mb);
+			mo.release();
+
+			//evict matrix and clear in-memory reference
+			//(prefetching is only supported with the static buffer pool)
+			assertFalse(OptimizerUtils.isUMMEnabled());
+			LazyWriteBuffer.forceEviction();
+			Method clearCache = CacheableData.class.getDeclaredMethod("clearCache");
+			clearCache.setAccessible(true);
+			clearCache.invoke(mo);
+
+			//async restore into the soft reference cache, charged to the buffer pool
+			long size = LazyWriteBuffer.getWriteBufferSize();
+			assertTrue(mo.prefetchFromCache());
+			assertFalse(mo.prefetchFromCache());
+			assertEquals(1, CacheStatistics.getPrefetches());
+			long charged = LazyWriteBuffer.getWriteBufferSize() - size;
+			assertTrue(charged > 0);
+
+			//read through buffer pool w/o restore
+			long fsHits = CacheStatistics.getFSHits();
+			MatrixBlock mb2 = mo.acquireRead();
+			assertEquals(mb2.getInMemorySize(), charged);
+			assertEquals(size, LazyWriteBuffer.getWriteBufferSize());
+			mo.release();
+			assertEquals(fsHits, CacheStatistics.getFSHits());
+			assertEquals(1, CacheStatistics.getPrefetchHits());
+			TestUtils.compareMatrices(mb, mb2, 0);
+			mo.clearData();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			DMLScript.STATISTICS = stats;
+		}
+	}
+}
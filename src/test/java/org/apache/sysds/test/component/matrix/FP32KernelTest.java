@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class FP32KernelTest {
+	private static final double EPS = 1e-4;
+
+	@Test
+	public void testConversion() {
+		MatrixBlock mb = MatrixBlock.randOperations(100, 70, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock fp32 = LibMatrixFP32.toFP32(mb);
+		assertTrue(LibMatrixFP32.isFP32(fp32));
+		assertEquals(mb.getNonZeros(), fp32.getNonZeros());
+		//FP32 blocks are sized at half the memory
+		assertTrue(fp32.getInMemorySize() < 0.6 * mb.getInMemorySize());
+		MatrixBlock fp64 = LibMatrixFP32.toFP64(fp32);
+		assertFalse(LibMatrixFP32.isFP32(fp64));
+		TestUtils.compareMatrices(mb, fp64, 1e-7);
+	}
+
+	@Test
+	public void testMatrixMult() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(317, 253, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(253, 129, 0.7, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2);
+		for(int k : new int[] {1, 4}) {
+			MatrixBlock ret2 = LibMatrixFP32.matrixMult(LibMatrixFP32.toFP32(mb1), mb2, k);
+			assertTrue(LibMatrixFP32.isFP32(ret2));
+			TestUtils.compareMatrices(ret1, LibMatrixFP32.toFP64(ret2), EPS);
+			assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		}
+	}
+
+	@Test
+	public void testBinaryMatrixMatrix() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(300, 200, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(300, 200, 1.0, -1, 1, "uniform", 7);
+		runBinary(mb1, mb2, new BinaryOperator(Plus.getPlusFnObject(), 4));
+	}
+
+	@Test
+	public void testBinaryMatrixRowVector() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(300, 200, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(1, 200, 1.0, -1, 1, "uniform", 7);
+		runBinary(mb1, mb2, new BinaryOperator(Plus.getPlusFnObject(), 4));
+	}
+
+	@Test
+	public void testBinaryMatrixColVector() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(300, 200, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(300, 1, 1.0, -1, 1, "uniform", 7);
+		runBinary(mb1, mb2, new BinaryOperator(Multiply.getMultiplyFnObject(), 1));
+	}
+
+	@Test
+	public void testScalarMax() {
+		MatrixBlock mb = MatrixBlock.randOperations(300, 200, 1.0, -1, 1, "uniform", 3);
+		ScalarOperator op = InstructionUtils.parseScalarBinaryOperator("max", false, 0);
+		MatrixBlock ret1 = mb.scalarOperations(op, new MatrixBlock());
+		MatrixBlock ret2 = LibMatrixFP32.scalarOp(LibMatrixFP32.toFP32(mb), op);
+		assertTrue(LibMatrixFP32.isFP32(ret2));
+		TestUtils.compareMatrices(ret1, LibMatrixFP32.toFP64(ret2), EPS);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		MatrixBlock mb = LibMatrixFP32.toFP32(MatrixBlock.randOperations(50, 40, 1.0, -1, 1, "uniform", 3));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		DataOutputStream dos = new DataOutputStream(bos);
+		mb.write(dos);
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		TestUtils.compareMatrices(LibMatrixFP32.toFP64(mb), ret, 0);
+	}
+
+	@Test
+	public void testSerializationSparse() throws Exception {
+		//dense FP32 blocks serialized in sparse format
+		runSerialization(200, 100, 0.05);
+	}
+
+	@Test
+	public void testSerializationUltraSparse() throws Exception {
+		//dense FP32 blocks serialized in ultra-sparse format (nnz < rows)
+		runSerialization(200, 100, 0.002);
+		runSerialization(200, 1, 0.1);
+	}
+
+	private static void runSerialization(int rows, int cols, double sparsity) throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, sparsity, -1, 1, "uniform", 3);
+		mb.sparseToDense();
+		MatrixBlock fp32 = LibMatrixFP32.toFP32(mb);
+		assertTrue(LibMatrixFP32.isFP32(fp32));
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		fp32.write(new DataOutputStream(bos));
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		TestUtils.compareMatrices(LibMatrixFP32.toFP64(fp32), ret, 0);
+		assertEquals(fp32.getNonZeros(), ret.getNonZeros());
+	}
+
+	@Test
+	public void testConfigOpcodes() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String before = conf.getTextValue(DMLConfig.CP_FP32);
+		try {
+			LibMatrixFP32.resetEnabledOpcodes();
+			assertFalse(LibMatrixFP32.isEnabled("ba+*"));
+			conf.setTextValue(DMLConfig.CP_FP32, "ba+*, +");
+			LibMatrixFP32.resetEnabledOpcodes();
+			assertTrue(LibMatrixFP32.isEnabled("ba+*"));
+			assertTrue(LibMatrixFP32.isEnabled("+"));
+			assertFalse(LibMatrixFP32.isEnabled("*"));
+			conf.setTextValue(DMLConfig.CP_FP32, "all");
+			LibMatrixFP32.resetEnabledOpcodes();
+			assertTrue(LibMatrixFP32.isEnabled("*"));
+		}
+		finally {
+			conf.setTextValue(DMLConfig.CP_FP32, before);
+			LibMatrixFP32.resetEnabledOpcodes();
+		}
+	}
+
+	private static void runBinary(MatrixBlock mb1, MatrixBlock mb2, BinaryOperator op) {
+		MatrixBlock ret1 = mb1.binaryOperations(op, mb2, new MatrixBlock());
+		assertTrue(LibMatrixFP32.isApplicableBinary(mb1, mb2));
+		MatrixBlock ret2 = LibMatrixFP32.bincellOp(LibMatrixFP32.toFP32(mb1), mb2, op);
+		assertTrue(LibMatrixFP32.isFP32(ret2));
+		TestUtils.compareMatrices(ret1, LibMatrixFP32.toFP64(ret2), EPS);
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.controlprogram.caching.CacheMappedIO;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysds.runtime.util.LocalFileUtils;
+import org.apache.sysds.test.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedEvictionTest {
+	private String _mmap;
+	private File _file;
+
+	@Before
+	public void setup() throws Exception {
+		_mmap = ConfigurationManager.getDMLConfig().getTextValue(DMLConfig.CACHING_MMAP);
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.CACHING_MMAP, "true");
+		_file = File.createTempFile("cache", ".dat");
+	}
+
+	@After
+	public void cleanup() {
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.CACHING_MMAP, _mmap);
+		_file.delete();
+	}
+
+	@Test
+	public void testDense() throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(333, 77, 0.9, -1, 1, "uniform", 7);
+		MatrixBlock ret = writeAndRead(mb, true);
+		//restored as mapped view, w/o copy into heap arrays
+		assertTrue(LibMatrixOffHeap.isOffHeap(ret));
+		assertTrue(ret.getInMemorySize() < 1024);
+		assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		TestUtils.compareMatrices(mb, LibMatrixOffHeap.toHeap(ret), 0);
+	}
+
+	@Test
+	public void testDenseRestoreAndSlice() throws Exception {
+		//restored vectors are consumed by single-block kernels after conversion
+		MatrixBlock mb = MatrixBlock.randOperations(1000, 1, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock ret = LibMatrixFP32.toFP64(writeAndRead(mb, true));
+		assertEquals(1000, ret.getDenseBlockValues().length);
+		TestUtils.compareMatrices(mb.slice(10, 499, 0, 0), ret.slice(10, 499, 0, 0), 0);
+	}
+
+	@Test
+	public void testDenseRestoreAndOperate() throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(333, 77, 0.9, -1, 1, "uniform", 7);
+		MatrixBlock ret = writeAndRead(mb, true);
+		//off-heap kernels consume the mapped view as-is
+		TestUtils.compareMatrices(LibMatrixReorg.transpose(mb),
+			LibMatrixOffHeap.toHeap(LibMatrixOffHeap.transpose(ret, 1)), 0);
+		AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator("uack+", 1);
+		TestUtils.compareMatrices(
+			mb.aggregateUnaryOperations(op, new MatrixBlock(), 333, new MatrixIndexes(1, 1), true),
+			LibMatrixOffHeap.aggregateUnary(ret, op), 1e-10);
+		TestUtils.compareMatrices(mb.slice(100, 199, 7, 70),
+			LibMatrixFP32.toFP64(ret).slice(100, 199, 7, 70), 0);
+	}
+
+	@Test
+	public void testDenseOffHeap() throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(333, 77, 0.9, -1, 1, "uniform", 7);
+		String threshold = ConfigurationManager.getDMLConfig().getTextValue(DMLConfig.OFFHEAP_THRESHOLD);
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.OFFHEAP_THRESHOLD, "0");
+		MatrixBlock off = null;
+		try {
+			off = LibMatrixOffHeap.toOffHeap(mb);
+			assertTrue(LibMatrixOffHeap.isOffHeap(off));
+		}
+		finally {
+			ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.OFFHEAP_THRESHOLD, threshold);
+		}
+		MatrixBlock ret = writeAndRead(off, true);
+		TestUtils.compareMatrices(mb, LibMatrixOffHeap.toHeap(ret), 0);
+	}
+
+	@Test
+	public void testSparseCSRFallback() throws Exception {
+		//array-based sparse blocks cannot wrap mapped buffers
+		MatrixBlock mb = MatrixBlock.randOperations(1000, 300, 0.05, -1, 1, "uniform", 7);
+		MatrixBlock csr = new MatrixBlock(mb, SparseBlock.Type.CSR, true);
+		MatrixBlock ret = writeAndRead(csr, false);
+		assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+
+	@Test
+	public void testSparseMCSRFallback() throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(1000, 300, 0.05, -1, 1, "uniform", 7);
+		MatrixBlock ret = writeAndRead(mb, false);
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+
+	@Test
+	public void testUpdateAndOverwrite() throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(333, 77, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock ret = writeAndRead(mb, true);
+		//updates of restored blocks must not modify the file (copy-on-write)
+		ret.getDenseBlock().set(3, 5, 7);
+		assertEquals(7, ret.get(3, 5), 0);
+		MatrixBlock ret2 = (MatrixBlock) LocalFileUtils.readCacheBlockFromLocal(_file.getPath(), true);
+		assertEquals(mb.get(3, 5), ret2.get(3, 5), 0);
+		//overwriting the file must not affect restored blocks
+		MatrixBlock mb2 = MatrixBlock.randOperations(10, 10, 1.0, -1, 1, "uniform", 3);
+		LocalFileUtils.writeCacheBlockToLocal(_file.getPath(), mb2);
+		assertEquals(mb.get(300, 70), ret.get(300, 70), 0);
+		TestUtils.compareMatrices(mb2,
+			(MatrixBlock) LocalFileUtils.readCacheBlockFromLocal(_file.getPath(), true), 0);
+	}
+
+	private MatrixBlock writeAndRead(MatrixBlock mb, boolean mapped) throws Exception {
+		String fname = _file.getPath();
+		LocalFileUtils.writeCacheBlockToLocal(fname, mb);
+		assertEquals(mapped, CacheMappedIO.isMapped(fname));
+		if( !mapped )
+			assertFalse(CacheMappedIO.isApplicable(mb));
+		return (MatrixBlock) LocalFileUtils.readCacheBlockFromLocal(fname, true);
+	}
+}
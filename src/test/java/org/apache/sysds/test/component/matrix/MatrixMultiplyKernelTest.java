@@ -20,6 +20,7 @@
 package org.apache.sysds.test.component.matrix;
 
 import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMultPacked;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.test.TestUtils;
 import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
@@ -81,6 +82,48 @@ public class MatrixMultiplyKernelTest {
 		testMatrixMultiply(MIN_PAR_SQRT, MIN_PAR_SQRT, MIN_PAR_SQRT, 1, 1);
 	}
 	
+	@Test
+	public void testDenseDenseLargeMatrixMatrix() {
+		testMatrixMultiply(517, 263, 389, 1, 1);
+	}
+	
+	@Test
+	public void testDenseDensePackedKernel() {
+		//compare packed register-tiled kernel with default blocked kernel
+		MatrixBlock mb1 = MatrixBlock.randOperations(257, 1031, 1, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(1031, 131, 1, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = new MatrixBlock(257, 131, false);
+		MatrixBlock ret2 = new MatrixBlock(257, 131, false);
+		ret1.allocateDenseBlock();
+		ret2.allocateDenseBlock();
+		LibMatrixMult.matrixMultDenseDenseMM(mb1.getDenseBlock(),
+			mb2.getDenseBlock(), ret1.getDenseBlock(), 131, 1031, 0, 257, 0, 131);
+		LibMatrixMultPacked.matrixMultDenseDense(mb1.getDenseBlock(),
+			mb2.getDenseBlock(), ret2.getDenseBlock(), 1031, 0, 257, 0, 131);
+		ret1.recomputeNonZeros();
+		ret2.recomputeNonZeros();
+		TestUtils.compareMatrices(ret1, ret2, 1e-8);
+	}
+	
+	@Test
+	public void testDenseDensePackedKernelRowPartitions() {
+		//compare packed kernel over row partitions (per-task packing of B) with default blocked kernel
+		MatrixBlock mb1 = MatrixBlock.randOperations(257, 1031, 1, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(1031, 131, 1, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = new MatrixBlock(257, 131, false);
+		MatrixBlock ret2 = new MatrixBlock(257, 131, false);
+		ret1.allocateDenseBlock();
+		ret2.allocateDenseBlock();
+		LibMatrixMult.matrixMultDenseDenseMM(mb1.getDenseBlock(),
+			mb2.getDenseBlock(), ret1.getDenseBlock(), 131, 1031, 0, 257, 0, 131);
+		for( int rl = 0; rl < 257; rl += 67 )
+			LibMatrixMultPacked.matrixMultDenseDense(mb1.getDenseBlock(), mb2.getDenseBlock(),
+				ret2.getDenseBlock(), 1031, rl, Math.min(rl + 67, 257), 0, 131);
+		ret1.recomputeNonZeros();
+		ret2.recomputeNonZeros();
+		TestUtils.compareMatrices(ret1, ret2, 1e-8);
+	}
+	
 	// dense-sparse kernels
 	
 	@Test
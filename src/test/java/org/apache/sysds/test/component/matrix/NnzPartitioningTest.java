@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.sysds.common.Opcodes;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixAgg;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysds.runtime.util.CommonThreadPool;
+import org.apache.sysds.runtime.util.NnzRowPartitioner;
+import org.apache.sysds.runtime.util.NnzRowPartitioner.PartitionType;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class NnzPartitioningTest {
+	private static final int K = 8;
+
+	@Test
+	public void testSkewDetection() {
+		MatrixBlock mb = createSkewedMatrix(3000, 2000, 3);
+		assertTrue(NnzRowPartitioner.isSkewed(mb.getSparseBlock(), mb.getNumRows(), K));
+		assertTrue(NnzRowPartitioner.isNnzPartitioning(PartitionType.AUTO, mb, K));
+		MatrixBlock mb2 = MatrixBlock.randOperations(3000, 2000, 0.05, 0, 1, "uniform", 7);
+		assertTrue(!NnzRowPartitioner.isNnzPartitioning(PartitionType.ROWS, mb2, K));
+	}
+
+	@Test
+	public void testInvokeCoversAllRows() {
+		MatrixBlock mb = createSkewedMatrix(3000, 2000, 5);
+		long nnz = NnzRowPartitioner.invoke(CommonThreadPool.get(K), mb.getSparseBlock(), 0, mb.getNumRows(),
+			mb.getNonZeros(), K, (rl, ru) -> mb.getSparseBlock().size(rl, ru), Long::sum);
+		assertEquals(mb.getNonZeros(), nnz);
+		long rows = NnzRowPartitioner.invoke(CommonThreadPool.get(K), mb.getSparseBlock(), 0, mb.getNumRows(),
+			mb.getNonZeros(), K, (rl, ru) -> (long) (ru - rl), Long::sum);
+		assertEquals(mb.getNumRows(), rows);
+	}
+
+	@Test
+	public void testPartitionsContiguousAndBalanced() {
+		MatrixBlock mb = createSkewedMatrix(3000, 2000, 5);
+		long grain = mb.getNonZeros() / (K * 8);
+		int rl = 0;
+		for( int[] range : NnzRowPartitioner.getPartitions(mb.getSparseBlock(), 0, mb.getNumRows(), mb.getNonZeros(), grain) ) {
+			assertEquals(rl, range[0]);
+			assertTrue(range[1] - range[0] == 1 || mb.getSparseBlock().size(range[0], range[1]) <= grain);
+			rl = range[1];
+		}
+		assertEquals(mb.getNumRows(), rl);
+	}
+
+	@Test
+	public void testInvokeRunsInForkJoinPool() throws Exception {
+		MatrixBlock mb = createSkewedMatrix(3000, 2000, 5);
+		//forked subtasks must run in the given fork/join pool, not the common pool
+		ForkJoinPool fjpool = new ForkJoinPool(K);
+		ExecutorService fixed = Executors.newFixedThreadPool(K);
+		try {
+			long common = NnzRowPartitioner.invoke(fjpool, mb.getSparseBlock(), 0, mb.getNumRows(), mb.getNonZeros(), K,
+				(rl, ru) -> ForkJoinTask.getPool() == fjpool ? 0L : 1L, Long::sum);
+			assertEquals(0, common);
+			//from a thread of a non-fork/join pool, subtasks must not leak into the common pool
+			long nnz = fixed.submit(() -> NnzRowPartitioner.invoke(fixed, mb.getSparseBlock(), 0, mb.getNumRows(),
+				mb.getNonZeros(), K, (rl, ru) -> {
+					assertTrue(ForkJoinTask.getPool() != ForkJoinPool.commonPool());
+					return mb.getSparseBlock().size(rl, ru);
+				}, Long::sum)).get();
+			assertEquals(mb.getNonZeros(), nnz);
+		}
+		finally {
+			fjpool.shutdown();
+			fixed.shutdown();
+		}
+	}
+
+	@Test
+	public void testSparseDenseMatrixMult() {
+		MatrixBlock mb1 = createSkewedMatrix(3000, 2000, 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(2000, 40, 1.0, 0, 1, "uniform", 7);
+		testMatrixMult(mb1, mb2);
+	}
+
+	@Test
+	public void testSparseSparseMatrixMult() {
+		MatrixBlock mb1 = createSkewedMatrix(3000, 2000, 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(2000, 300, 0.05, 0, 1, "uniform", 7);
+		testMatrixMult(mb1, mb2);
+	}
+
+	@Test
+	public void testRowSums() {
+		testAggregate(Opcodes.UARKP.toString());
+	}
+
+	@Test
+	public void testColSums() {
+		testAggregate(Opcodes.UACKP.toString());
+	}
+
+	@Test
+	public void testSum() {
+		testAggregate(Opcodes.UAKP.toString());
+	}
+
+	@Test
+	public void testRowMax() {
+		testAggregate(Opcodes.UARMAX.toString());
+	}
+
+	private static void testMatrixMult(MatrixBlock mb1, MatrixBlock mb2) {
+		PartitionType old = LibMatrixMult.SPARSE_PARTITIONING;
+		try {
+			MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2);
+			LibMatrixMult.SPARSE_PARTITIONING = PartitionType.NNZ;
+			MatrixBlock ret2 = LibMatrixMult.matrixMult(mb1, mb2, K);
+			TestUtils.compareMatrices(ret1, ret2, 1e-8);
+			assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		}
+		finally {
+			LibMatrixMult.SPARSE_PARTITIONING = old;
+		}
+	}
+
+	private static void testAggregate(String opcode) {
+		PartitionType old = LibMatrixAgg.SPARSE_PARTITIONING;
+		try {
+			MatrixBlock mb = createSkewedMatrix(3000, 2000, 11);
+			AggregateUnaryOperator op1 = InstructionUtils.parseBasicAggregateUnaryOperator(opcode, 1);
+			AggregateUnaryOperator opk = InstructionUtils.parseBasicAggregateUnaryOperator(opcode, K);
+			MatrixBlock ret1 = mb.aggregateUnaryOperations(op1);
+			LibMatrixAgg.SPARSE_PARTITIONING = PartitionType.NNZ;
+			MatrixBlock ret2 = mb.aggregateUnaryOperations(opk);
+			TestUtils.compareMatrices(ret1, ret2, 1e-8);
+		}
+		finally {
+			LibMatrixAgg.SPARSE_PARTITIONING = old;
+		}
+	}
+
+	private static MatrixBlock createSkewedMatrix(int rows, int cols, int seed) {
+		//sparse background with a few dense (power-law like) rows
+		MatrixBlock mb = MatrixBlock.randOperations(rows, cols, 0.05, 0, 1, "uniform", seed);
+		for(int i : new int[] {3, 7, rows / 2})
+			for(int j = 0; j < cols; j++)
+				mb.set(i, j, j + 1);
+		mb.recomputeNonZeros();
+		return mb;
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.DMLRuntimeException;
+import org.apache.sysds.runtime.controlprogram.caching.UnifiedMemoryManager;
+import org.apache.sysds.runtime.data.DenseBlockOffHeap;
+import org.apache.sysds.runtime.functionobjects.Multiply;
+import org.apache.sysds.runtime.functionobjects.Plus;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixOffHeap;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysds.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysds.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysds.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysds.test.TestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OffHeapDenseBlockTest {
+	private static final double EPS = 1e-10;
+
+	private String _threshold;
+	private long _bufferSize;
+
+	@Before
+	public void setup() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		_threshold = conf.getTextValue(DMLConfig.OFFHEAP_THRESHOLD);
+		_bufferSize = DenseBlockOffHeap.MAX_BUFFER_SIZE;
+		conf.setTextValue(DMLConfig.OFFHEAP_THRESHOLD, "0");
+		//small buffers to test blocks w/ multiple direct buffers
+		DenseBlockOffHeap.MAX_BUFFER_SIZE = 64 * 1024;
+	}
+
+	@After
+	public void cleanup() {
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.OFFHEAP_THRESHOLD, _threshold);
+		DenseBlockOffHeap.MAX_BUFFER_SIZE = _bufferSize;
+	}
+
+	@Test
+	public void testDenseBlockAccess() {
+		DenseBlockOffHeap db = new DenseBlockOffHeap(new int[] {300, 70});
+		assertEquals(300 * 70 * 8, db.getOffHeapSize());
+		assertTrue(UnifiedMemoryManager.getOffHeapSize() >= db.getOffHeapSize());
+		db.set(7, 3, 1.5);
+		db.incr(299, 69, 2);
+		db.set(113, new double[70]);
+		assertEquals(1.5, db.get(7, 3), 0);
+		assertEquals(2, db.get(299, 69), 0);
+		double[] row = new double[70];
+		db.getRow(7, row, 0);
+		assertEquals(1.5, row[3], 0);
+		assertEquals(2, db.countNonZeros());
+		//no array access, writes into copies would be lost
+		try {
+			db.values(7);
+			fail("Expected exception on array access");
+		}
+		catch(DMLRuntimeException ex) {
+			//expected
+		}
+		db.retain();
+		assertTrue(db.release());
+		assertTrue(db.isReleased());
+	}
+
+	@Test
+	public void testSharedOwnership() {
+		MatrixBlock off = LibMatrixOffHeap.toOffHeap(
+			MatrixBlock.randOperations(500, 70, 0.9, -1, 1, "uniform", 7));
+		DenseBlockOffHeap db = (DenseBlockOffHeap) off.getDenseBlock();
+		//releases of holders that never registered are ignored
+		LibMatrixOffHeap.release(off);
+		assertFalse(db.isReleased());
+		//memory is only freed once the last owner released the block
+		LibMatrixOffHeap.retain(off);
+		LibMatrixOffHeap.retain(off);
+		LibMatrixOffHeap.release(off);
+		assertFalse(db.isReleased());
+		assertEquals(off.getNonZeros(), db.countNonZeros());
+		LibMatrixOffHeap.release(off);
+		assertTrue(db.isReleased());
+	}
+
+	@Test
+	public void testConversion() {
+		MatrixBlock mb = MatrixBlock.randOperations(500, 70, 0.9, -1, 1, "uniform", 7);
+		MatrixBlock off = LibMatrixOffHeap.toOffHeap(mb);
+		assertTrue(LibMatrixOffHeap.isOffHeap(off));
+		assertEquals(mb.getNonZeros(), off.getNonZeros());
+		//heap footprint independent of the number of cells
+		assertTrue(off.getInMemorySize() < 1024);
+		MatrixBlock ret = LibMatrixOffHeap.toHeap(off);
+		assertFalse(LibMatrixOffHeap.isOffHeap(ret));
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+
+	@Test
+	public void testDisabled() {
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.OFFHEAP_THRESHOLD, "-1");
+		MatrixBlock mb = MatrixBlock.randOperations(500, 70, 0.9, -1, 1, "uniform", 7);
+		assertFalse(LibMatrixOffHeap.isOffHeap(LibMatrixOffHeap.toOffHeap(mb)));
+		assertNull(LibMatrixOffHeap.allocate(500, 70));
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		MatrixBlock mb = MatrixBlock.randOperations(500, 70, 0.9, -1, 1, "uniform", 7);
+		MatrixBlock off = LibMatrixOffHeap.toOffHeap(mb);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		off.write(new DataOutputStream(bos));
+		MatrixBlock ret = new MatrixBlock();
+		ret.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+
+	@Test
+	public void testMatrixMult() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(700, 250, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(250, 90, 0.7, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2);
+		MatrixBlock ret2 = LibMatrixOffHeap.matrixMult(LibMatrixOffHeap.toOffHeap(mb1), mb2, 4);
+		assertTrue(LibMatrixOffHeap.isOffHeap(ret2));
+		TestUtils.compareMatrices(ret1, LibMatrixOffHeap.toHeap(ret2), EPS);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+	}
+
+	@Test
+	public void testMatrixMultHeapInput() {
+		//large outputs of heap inputs are allocated off-heap up front
+		MatrixBlock mb1 = MatrixBlock.randOperations(700, 250, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(250, 90, 1.0, -1, 1, "uniform", 7);
+		assertTrue(LibMatrixOffHeap.isApplicableMatrixMult(mb1, mb2));
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2);
+		MatrixBlock ret2 = LibMatrixOffHeap.matrixMult(mb1, mb2, 4);
+		assertTrue(LibMatrixOffHeap.isOffHeap(ret2));
+		TestUtils.compareMatrices(ret1, LibMatrixOffHeap.toHeap(ret2), EPS);
+		//sparse inputs stay on the heap
+		MatrixBlock mb3 = MatrixBlock.randOperations(700, 250, 0.01, -1, 1, "uniform", 3);
+		assertFalse(LibMatrixOffHeap.isApplicableMatrixMult(mb3, mb2));
+	}
+
+	@Test
+	public void testScalar() {
+		MatrixBlock mb = MatrixBlock.randOperations(700, 250, 0.9, -1, 1, "uniform", 3);
+		ScalarOperator op = InstructionUtils.parseScalarBinaryOperator("max", false, 0);
+		MatrixBlock ret1 = mb.scalarOperations(op, new MatrixBlock());
+		MatrixBlock ret2 = LibMatrixOffHeap.scalarOp(LibMatrixOffHeap.toOffHeap(mb), op);
+		TestUtils.compareMatrices(ret1, LibMatrixOffHeap.toHeap(ret2), EPS);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+	}
+
+	@Test
+	public void testBinaryMatrixMatrix() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(700, 250, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(700, 250, 0.5, -1, 1, "uniform", 7);
+		runBinary(mb1, LibMatrixOffHeap.toOffHeap(mb2), new BinaryOperator(Plus.getPlusFnObject()));
+	}
+
+	@Test
+	public void testBinaryMatrixRowVector() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(700, 250, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(1, 250, 1.0, -1, 1, "uniform", 7);
+		runBinary(mb1, mb2, new BinaryOperator(Plus.getPlusFnObject()));
+	}
+
+	@Test
+	public void testBinaryMatrixColVector() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(700, 250, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(700, 1, 1.0, -1, 1, "uniform", 7);
+		runBinary(mb1, mb2, new BinaryOperator(Multiply.getMultiplyFnObject()));
+	}
+
+	@Test
+	public void testAggregates() {
+		MatrixBlock mb = MatrixBlock.randOperations(700, 250, 0.9, -1, 1, "uniform", 3);
+		MatrixBlock off = LibMatrixOffHeap.toOffHeap(mb);
+		for(String opcode : new String[] {"uak+", "uack+", "uark+", "uasqk+", "uamax", "uacmin", "uarmean"}) {
+			AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode, 1);
+			assertTrue(LibMatrixOffHeap.isApplicableAggregate(op));
+			MatrixBlock ret1 = mb.aggregateUnaryOperations(op, new MatrixBlock(),
+				mb.getNumRows(), new MatrixIndexes(1, 1), true);
+			MatrixBlock ret2 = LibMatrixOffHeap.aggregateUnary(off, op);
+			TestUtils.compareMatrices(ret1, ret2, 1e-8);
+		}
+		assertFalse(LibMatrixOffHeap.isApplicableAggregate(
+			InstructionUtils.parseBasicAggregateUnaryOperator("uamean", 1)));
+		//trace does not decompose into partial traces of row panels
+		assertFalse(LibMatrixOffHeap.isApplicableAggregate(
+			InstructionUtils.parseBasicAggregateUnaryOperator("uaktrace", 1)));
+	}
+
+	@Test
+	public void testTranspose() {
+		MatrixBlock mb = MatrixBlock.randOperations(700, 250, 0.9, -1, 1, "uniform", 3);
+		MatrixBlock ret1 = LibMatrixReorg.transpose(mb);
+		MatrixBlock ret2 = LibMatrixOffHeap.transpose(LibMatrixOffHeap.toOffHeap(mb), 4);
+		assertTrue(LibMatrixOffHeap.isOffHeap(ret2));
+		TestUtils.compareMatrices(ret1, LibMatrixOffHeap.toHeap(ret2), 0);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+	}
+
+	private static void runBinary(MatrixBlock mb1, MatrixBlock mb2, BinaryOperator op) {
+		MatrixBlock ret1 = mb1.binaryOperations(op, LibMatrixOffHeap.toHeap(mb2), new MatrixBlock());
+		MatrixBlock off1 = LibMatrixOffHeap.toOffHeap(mb1);
+		assertTrue(LibMatrixOffHeap.isApplicableBinary(off1, mb2));
+		MatrixBlock ret2 = LibMatrixOffHeap.bincellOp(off1, mb2, op);
+		TestUtils.compareMatrices(ret1, LibMatrixOffHeap.toHeap(ret2), EPS);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+	}
+}
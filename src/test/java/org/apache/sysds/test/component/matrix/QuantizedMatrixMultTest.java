@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.runtime.data.DenseBlockQuantized.QuantType;
+import org.apache.sysds.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixQuantize;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class QuantizedMatrixMultTest {
+
+	@Test
+	public void testConversionINT8RowScales() {
+		runConversion(QuantType.INT8, false, 1.0 / 127, 0.2);
+	}
+
+	@Test
+	public void testConversionINT8ColScales() {
+		runConversion(QuantType.INT8, true, 1.0 / 127, 0.2);
+	}
+
+	@Test
+	public void testConversionBF16() {
+		runConversion(QuantType.BF16, false, 1.0 / 128, 0.3);
+	}
+
+	@Test
+	public void testConversionSparseInput() {
+		MatrixBlock mb = MatrixBlock.randOperations(200, 100, 0.05, -1, 1, "uniform", 7);
+		MatrixBlock q = LibMatrixQuantize.quantize(mb, QuantType.INT8, false);
+		assertTrue(LibMatrixQuantize.isQuantized(q));
+		//small values might be quantized to zero
+		assertTrue(q.getNonZeros() <= mb.getNonZeros());
+		TestUtils.compareMatrices(mb, LibMatrixFP32.toFP64(q), 1.0 / 127);
+	}
+
+	@Test
+	public void testMatrixMultINT8RowScalesDense() {
+		runMatrixMult(1.0, QuantType.INT8, false, 1);
+	}
+
+	@Test
+	public void testMatrixMultINT8ColScalesDense() {
+		runMatrixMult(1.0, QuantType.INT8, true, 1);
+	}
+
+	@Test
+	public void testMatrixMultBF16Dense() {
+		runMatrixMult(1.0, QuantType.BF16, false, 1);
+	}
+
+	@Test
+	public void testMatrixMultINT8ColScalesSparse() {
+		runMatrixMult(0.05, QuantType.INT8, true, 1);
+	}
+
+	@Test
+	public void testMatrixMultINT8RowScalesDenseParallel() {
+		runMatrixMult(1.0, QuantType.INT8, false, 4);
+	}
+
+	@Test
+	public void testMatrixMultBF16SparseParallel() {
+		runMatrixMult(0.05, QuantType.BF16, false, 4);
+	}
+
+	@Test
+	public void testMatrixMultQuantizedLhs() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(100, 300, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(300, 50, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock q1 = LibMatrixQuantize.quantize(mb1, QuantType.BF16, false);
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(LibMatrixQuantize.dequantize(q1), mb2);
+		MatrixBlock ret2 = LibMatrixMult.matrixMult(q1, mb2);
+		assertFalse(LibMatrixQuantize.isQuantized(ret2));
+		TestUtils.compareMatrices(ret1, ret2, 1e-10);
+	}
+
+	@Test
+	public void testSliceAndUpdate() {
+		MatrixBlock mb = MatrixBlock.randOperations(100, 80, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock q = LibMatrixQuantize.quantize(mb, QuantType.BF16, false);
+		MatrixBlock dq = LibMatrixQuantize.dequantize(q);
+		//row-wise array access of generic kernels (values(r) at pos(r))
+		TestUtils.compareMatrices(dq.slice(10, 59, 5, 44), q.slice(10, 59, 5, 44), 0);
+		TestUtils.compareMatrices(dq.slice(99, 99), q.slice(99, 99), 0);
+		//updates invalidate the dequantized copy
+		q.getDenseBlock().set(99, 3, 0.5);
+		assertEquals(0.5, q.getDenseBlock().values(99)[q.getDenseBlock().pos(99, 3)], 0);
+	}
+
+	private static void runConversion(QuantType type, boolean colScales, double eps, double maxSize) {
+		MatrixBlock mb = MatrixBlock.randOperations(300, 200, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock q = LibMatrixQuantize.quantize(mb, type, colScales);
+		assertTrue(LibMatrixQuantize.isQuantized(q));
+		//1 or 2 bytes per value instead of 8 bytes
+		assertTrue(q.getInMemorySize() < maxSize * mb.getInMemorySize());
+		MatrixBlock ret = LibMatrixFP32.toFP64(q);
+		assertFalse(LibMatrixQuantize.isQuantized(ret));
+		TestUtils.compareMatrices(mb, ret, eps);
+		//single-cell accessors are consistent w/ full dequantization
+		assertEquals(ret.get(17, 23), q.get(17, 23), 0);
+	}
+
+	private static void runMatrixMult(double sparsity, QuantType type, boolean colScales, int k) {
+		MatrixBlock mb1 = MatrixBlock.randOperations(300, 400, sparsity, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(400, 150, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock q2 = LibMatrixQuantize.quantize(mb2, type, colScales);
+		//exact w.r.t. the dequantized weights
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, LibMatrixQuantize.dequantize(q2), k);
+		MatrixBlock ret2 = LibMatrixMult.matrixMult(mb1, q2, k);
+		assertFalse(LibMatrixQuantize.isQuantized(ret2));
+		TestUtils.compareMatrices(ret1, ret2, 1e-10);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		//approximate w.r.t. the original weights
+		MatrixBlock ret3 = LibMatrixMult.matrixMult(mb1, mb2, k);
+		TestUtils.compareMatrices(ret3, ret2, 0.5);
+	}
+}
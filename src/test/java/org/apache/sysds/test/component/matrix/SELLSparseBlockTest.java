@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.lops.MapMultChain.ChainType;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.data.SparseBlockMCSR;
+import org.apache.sysds.runtime.data.SparseBlockSELL;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class SELLSparseBlockTest {
+	private static final double EPS = 1e-10;
+
+	@Test
+	public void testRowAccess() {
+		MatrixBlock mb = MatrixBlock.randOperations(1111, 333, 0.05, -1, 1, "uniform", 7);
+		SparseBlock a = mb.getSparseBlock();
+		SparseBlockSELL sell = new SparseBlockSELL(a);
+		assertTrue(sell.checkValidity(1111, 333, mb.getNonZeros(), true));
+		assertEquals(a.size(), sell.size());
+		for( int i = 0; i < a.numRows(); i++ ) {
+			assertEquals(a.size(i), sell.size(i));
+			for( int j = 0; j < 333; j++ )
+				assertEquals(a.get(i, j), sell.get(i, j), 0);
+			assertEquals(a.posFIndexGTE(i, 100), sell.posFIndexGTE(i, 100));
+			assertEquals(a.posFIndexLTE(i, 100), sell.posFIndexLTE(i, 100));
+		}
+		assertEquals(new SparseBlockMCSR(a).toString().split("\n").length,
+			sell.toString().split("\n").length);
+	}
+
+	@Test
+	public void testUpdates() {
+		MatrixBlock mb = MatrixBlock.randOperations(100, 50, 0.1, -1, 1, "uniform", 3);
+		SparseBlock a = new SparseBlockMCSR(mb.getSparseBlock());
+		SparseBlockSELL sell = new SparseBlockSELL(mb.getSparseBlock(), 4, 16);
+		//grow rows beyond their slice width, delete, and overwrite
+		for( int j = 0; j < 50; j += 3 ) {
+			a.set(7, j, j + 1);
+			sell.set(7, j, j + 1);
+		}
+		a.append(99, 49, 5);
+		sell.append(99, 49, 5);
+		a.add(13, 2, 3);
+		sell.add(13, 2, 3);
+		a.deleteIndexRange(42, 10, 30);
+		sell.deleteIndexRange(42, 10, 30);
+		a.set(0, 0, 0);
+		sell.set(0, 0, 0);
+		assertTrue(sell.checkValidity(100, 50, a.size(), false));
+		for( int i = 0; i < 100; i++ )
+			for( int j = 0; j < 50; j++ )
+				assertEquals(a.get(i, j), sell.get(i, j), 0);
+	}
+
+	@Test
+	public void testMatrixMultAfterUpdates() {
+		MatrixBlock mb = MatrixBlock.randOperations(400, 200, 0.02, -1, 1, "uniform", 7);
+		MatrixBlock X2 = toSELL(mb);
+		//grow rows at the end of their slices beyond the longest row
+		for( int i = 7; i < 400; i += 8 )
+			for( int j = 0; j < 100; j += 2 ) {
+				mb.set(i, j, i + j);
+				X2.set(i, j, i + j);
+			}
+		//shrink the longest rows
+		for( int i = 0; i < 400; i += 8 ) {
+			mb.getSparseBlock().deleteIndexRange(i, 0, 200);
+			X2.getSparseBlock().deleteIndexRange(i, 0, 200);
+		}
+		mb.recomputeNonZeros();
+		X2.recomputeNonZeros();
+		assertTrue(X2.getSparseBlock() instanceof SparseBlockSELL);
+		assertTrue(X2.getSparseBlock().checkValidity(400, 200, mb.getNonZeros(), false));
+		MatrixBlock B = MatrixBlock.randOperations(200, 10, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock v = MatrixBlock.randOperations(200, 1, 1.0, -1, 1, "uniform", 5);
+		TestUtils.compareMatrices(LibMatrixMult.matrixMult(mb, B, 1), LibMatrixMult.matrixMult(X2, B, 1), EPS);
+		TestUtils.compareMatrices(LibMatrixMult.matrixMult(mb, v, 1), LibMatrixMult.matrixMult(X2, v, 1), EPS);
+		TestUtils.compareMatrices(mb.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv, 1),
+			X2.chainMatrixMultOperations(v, null, new MatrixBlock(), ChainType.XtXv, 1), EPS);
+	}
+
+	@Test
+	public void testMatrixVector() {
+		runMatrixMult(3000, 2000, 1, 0.01, 1);
+	}
+
+	@Test
+	public void testMatrixVectorParallel() {
+		runMatrixMult(10000, 2000, 1, 0.005, 8);
+	}
+
+	@Test
+	public void testMatrixVectorSkewed() {
+		MatrixBlock mb = MatrixBlock.randOperations(2000, 1000, 0.01, -1, 1, "uniform", 7);
+		for( int j = 1; j < 1000; j++ ) //dense row
+			mb.set(1001, j, 1);
+		for( int i = 0; i < 2000; i++ ) //empty padding column
+			mb.set(i, 0, 0);
+		MatrixBlock v = MatrixBlock.randOperations(1000, 1, 1.0, -1, 1, "uniform", 3);
+		v.set(0, 0, Double.NaN); //must not leak via padding
+		compareMatrixMult(mb, v, 4);
+	}
+
+	@Test
+	public void testMatrixMatrixSkinny() {
+		runMatrixMult(3000, 2000, 10, 0.01, 1);
+	}
+
+	@Test
+	public void testMatrixMatrixSkinnyParallel() {
+		runMatrixMult(5000, 2000, 10, 0.01, 8);
+	}
+
+	@Test
+	public void testMMChain() {
+		MatrixBlock X = MatrixBlock.randOperations(4000, 500, 0.02, -1, 1, "uniform", 7);
+		MatrixBlock v = MatrixBlock.randOperations(500, 1, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock w = MatrixBlock.randOperations(4000, 1, 1.0, -1, 1, "uniform", 5);
+		MatrixBlock X2 = toSELL(X);
+		for( int k : new int[] {1, 8} ) {
+			for( ChainType ct : new ChainType[] {ChainType.XtXv, ChainType.XtwXv, ChainType.XtXvy} ) {
+				MatrixBlock w2 = ct.isWeighted() ? w : null;
+				MatrixBlock ret1 = X.chainMatrixMultOperations(v, w2, new MatrixBlock(), ct, k);
+				MatrixBlock ret2 = X2.chainMatrixMultOperations(v, w2, new MatrixBlock(), ct, k);
+				TestUtils.compareMatrices(ret1, ret2, EPS);
+			}
+		}
+	}
+
+	@Test
+	public void testConversionOnReuse() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String before = conf.getTextValue(DMLConfig.SPARSE_SELL);
+		try {
+			conf.setTextValue(DMLConfig.SPARSE_SELL, "true");
+			MatrixBlock mb = MatrixBlock.randOperations(2000, 1000, 0.01, -1, 1, "uniform", 7);
+			MatrixCharacteristics mc = new MatrixCharacteristics(2000, 1000, 1000, mb.getNonZeros());
+			MatrixObject mo = new MatrixObject(ValueType.FP64, null, new MetaDataFormat(mc, FileFormat.BINARY));
+			mo.registerSpMV(mb);
+			assertFalse(mb.getSparseBlock() instanceof SparseBlockSELL);
+			mo.registerSpMV(mb);
+			assertTrue(mb.getSparseBlock() instanceof SparseBlockSELL);
+			//reset on new data
+			MatrixBlock mb2 = MatrixBlock.randOperations(2000, 1000, 0.01, -1, 1, "uniform", 3);
+			mo.registerSpMV(mb2);
+			assertFalse(mb2.getSparseBlock() instanceof SparseBlockSELL);
+		}
+		finally {
+			conf.setTextValue(DMLConfig.SPARSE_SELL, before);
+		}
+	}
+
+	@Test
+	public void testNoConversionIfDisabled() {
+		MatrixBlock mb = MatrixBlock.randOperations(2000, 1000, 0.01, -1, 1, "uniform", 7);
+		MatrixCharacteristics mc = new MatrixCharacteristics(2000, 1000, 1000, mb.getNonZeros());
+		MatrixObject mo = new MatrixObject(ValueType.FP64, null, new MetaDataFormat(mc, FileFormat.BINARY));
+		for( int i = 0; i < 3; i++ )
+			mo.registerSpMV(mb);
+		assertFalse(mb.getSparseBlock() instanceof SparseBlockSELL);
+	}
+
+	@Test
+	public void testPaddingBounded() {
+		MatrixBlock mb = MatrixBlock.randOperations(2000, 1000, 0.01, -1, 1, "uniform", 7);
+		assertTrue(SparseBlockSELL.isPaddingBounded(mb.getSparseBlock(), 1.5));
+		//single dense row per slice of otherwise single-nnz rows
+		MatrixBlock mb2 = new MatrixBlock(64, 1000, true);
+		for( int i = 0; i < 64; i++ )
+			mb2.appendValue(i, i, 1);
+		for( int j = 0; j < 1000; j++ )
+			mb2.set(0, j, 1);
+		assertFalse(SparseBlockSELL.isPaddingBounded(mb2.getSparseBlock(), 1.5));
+	}
+
+	private static void runMatrixMult(int m, int cd, int n, double sp, int k) {
+		MatrixBlock mb1 = MatrixBlock.randOperations(m, cd, sp, -1, 1, "uniform", 7);
+		MatrixBlock mb2 = MatrixBlock.randOperations(cd, n, 1.0, -1, 1, "uniform", 3);
+		compareMatrixMult(mb1, mb2, k);
+	}
+
+	private static void compareMatrixMult(MatrixBlock mb1, MatrixBlock mb2, int k) {
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2, k);
+		MatrixBlock ret2 = LibMatrixMult.matrixMult(toSELL(mb1), mb2, k);
+		TestUtils.compareMatrices(ret1, ret2, EPS);
+	}
+
+	private static MatrixBlock toSELL(MatrixBlock mb) {
+		assertTrue(mb.isInSparseFormat());
+		MatrixBlock ret = new MatrixBlock(mb.getNumRows(), mb.getNumColumns(), true);
+		ret.setSparseBlock(new SparseBlockSELL(mb.getSparseBlock()));
+		ret.setNonZeros(mb.getNonZeros());
+		return ret;
+	}
+}
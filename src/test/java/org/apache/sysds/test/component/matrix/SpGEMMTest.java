@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixSpGEMM;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class SpGEMMTest {
+	private static final double EPS = 1e-10;
+
+	@Test
+	public void testHashAccumulator() {
+		runSpGEMM(200, 300, 5000, 0.01, 0.01, 1);
+	}
+
+	@Test
+	public void testESCAccumulator() {
+		runSpGEMM(200, 300, 5000, 0.003, 0.005, 1);
+	}
+
+	@Test
+	public void testDenseAccumulator() {
+		runSpGEMM(200, 300, 5000, 0.3, 0.02, 1);
+	}
+
+	@Test
+	public void testMixedAccumulatorsParallel() {
+		runSpGEMM(1000, 1000, 6000, 0.02, 0.01, 4);
+	}
+
+	@Test
+	public void testParallelEqualsSequential() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(3000, 2000, 0.01, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(2000, 10000, 0.005, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = LibMatrixSpGEMM.matrixMult(mb1, mb2, null, 1);
+		MatrixBlock ret2 = LibMatrixSpGEMM.matrixMult(mb1, mb2, null, 8);
+		assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		TestUtils.compareMatrices(ret1, ret2, 0);
+	}
+
+	@Test
+	public void testSelfProduct() {
+		MatrixBlock g = MatrixBlock.randOperations(5000, 5000, 0.001, 1, 1, "uniform", 7);
+		assertTrue(LibMatrixSpGEMM.isApplicable(g, g));
+		MatrixBlock ret = LibMatrixMult.matrixMult(g, g, 4);
+		assertTrue(ret.isInSparseFormat());
+		assertTrue(ret.getSparseBlock() instanceof SparseBlockCSR);
+		compare(reference(g, g), ret);
+	}
+
+	@Test
+	public void testMatrixMultWideSparse() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(500, 800, 0.005, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(800, 20000, 0.001, -1, 1, "uniform", 7);
+		assertTrue(LibMatrixSpGEMM.isApplicable(mb1, mb2));
+		MatrixBlock ret = LibMatrixMult.matrixMult(mb1, mb2, 1);
+		assertTrue(ret.getSparseBlock() instanceof SparseBlockCSR);
+		compare(reference(mb1, mb2), ret);
+	}
+
+	@Test
+	public void testCancellation() {
+		MatrixBlock mb1 = new MatrixBlock(3, 2, true);
+		mb1.set(0, 0, 1);
+		mb1.set(0, 1, -1);
+		mb1.set(1, 0, 2);
+		mb1.set(2, 1, 3);
+		MatrixBlock mb2 = new MatrixBlock(2, 5000, true);
+		for( int j = 0; j < 5000; j += 7 ) {
+			mb2.set(0, j, j + 1);
+			mb2.set(1, j, j + 1);
+		}
+		MatrixBlock ret = LibMatrixSpGEMM.matrixMult(mb1, mb2, null, 1);
+		assertEquals(mb2.getNonZeros(), ret.getNonZeros());
+		assertTrue(ret.getSparseBlock().isEmpty(0));
+		compare(reference(mb1, mb2), ret);
+	}
+
+	private static void runSpGEMM(int m, int cd, int n, double sp1, double sp2, int k) {
+		MatrixBlock mb1 = MatrixBlock.randOperations(m, cd, sp1, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(cd, n, sp2, -1, 1, "uniform", 7);
+		MatrixBlock ret = LibMatrixSpGEMM.matrixMult(mb1, mb2, new MatrixBlock(), k);
+		compare(reference(mb1, mb2), ret);
+	}
+
+	private static void compare(MatrixBlock expected, MatrixBlock ret) {
+		assertEquals(expected.getNonZeros(), ret.getNonZeros());
+		TestUtils.compareMatrices(expected, ret, EPS);
+	}
+
+	private static MatrixBlock reference(MatrixBlock m1, MatrixBlock m2) {
+		//naive IKJ w/ dense row accumulator and sparse output
+		final int n = m2.getNumColumns();
+		MatrixBlock ret = new MatrixBlock(m1.getNumRows(), n, true);
+		SparseBlock a = m1.getSparseBlock();
+		SparseBlock b = m2.getSparseBlock();
+		double[] tmp = new double[n];
+		for( int i = 0; i < m1.getNumRows(); i++ ) {
+			if( a.isEmpty(i) ) continue;
+			for( int k = a.pos(i); k < a.pos(i) + a.size(i); k++ ) {
+				int bk = a.indexes(i)[k];
+				if( b.isEmpty(bk) ) continue;
+				for( int j = b.pos(bk); j < b.pos(bk) + b.size(bk); j++ )
+					tmp[b.indexes(bk)[j]] += a.values(i)[k] * b.values(bk)[j];
+			}
+			for( int j = 0; j < n; j++ ) {
+				ret.appendValue(i, j, tmp[j]);
+				tmp[j] = 0;
+			}
+		}
+		ret.recomputeNonZeros();
+		return ret;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixStrassen;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class StrassenMatrixMultTest {
+	private static final double EPS = 1e-9;
+
+	@Test
+	public void testEvenSingleLevel() {
+		runStrassen(1024, 1024, 1024, false, 1);
+	}
+
+	@Test
+	public void testOddSingleLevel() {
+		runStrassen(1031, 777, 1029, false, 1);
+	}
+
+	@Test
+	public void testOddMultiLevel() {
+		runStrassen(2049, 1025, 1027, true, 1);
+	}
+
+	@Test
+	public void testOddSingleLevelParallel() {
+		runStrassen(1031, 777, 1029, false, 4);
+	}
+
+	@Test
+	public void testOddMultiLevelParallel() {
+		runStrassen(2049, 1025, 1027, true, 4);
+	}
+
+	@Test
+	public void testOddSingleLevelParallelRowLeaves() {
+		//more threads than sub-products: leaves split into row ranges
+		runStrassen(1031, 777, 1029, false, 16);
+	}
+
+	@Test
+	public void testOddMultiLevelParallelNested() {
+		//more threads than sub-products: second level expanded in parallel
+		runStrassen(2049, 1025, 1027, true, 16);
+	}
+
+	@Test
+	public void testNoRecursionParallel() {
+		//below the minimum leaf size: blocked kernel over row ranges
+		runStrassen(300, 200, 250, true, 4);
+	}
+
+	@Test
+	public void testConfigThreshold() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String before = conf.getTextValue(DMLConfig.STRASSEN_THRESHOLD);
+		try {
+			MatrixBlock mb1 = MatrixBlock.randOperations(1100, 1050, 1.0, -1, 1, "uniform", 3);
+			MatrixBlock mb2 = MatrixBlock.randOperations(1050, 1030, 1.0, -1, 1, "uniform", 7);
+			MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2, 4);
+			conf.setTextValue(DMLConfig.STRASSEN_THRESHOLD, "1000");
+			MatrixBlock ret2 = new MatrixBlock(1100, 1030, false);
+			ret2.allocateDenseBlock();
+			assertTrue(LibMatrixStrassen.isApplicable(mb1, mb2, ret2, 4));
+			ret2 = LibMatrixMult.matrixMult(mb1, mb2, 4);
+			TestUtils.compareMatrices(ret1, ret2, EPS);
+			assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			conf.setTextValue(DMLConfig.STRASSEN_THRESHOLD, "2000");
+			assertFalse(LibMatrixStrassen.isApplicable(mb1, mb2, ret2, 4));
+		}
+		finally {
+			conf.setTextValue(DMLConfig.STRASSEN_THRESHOLD, before);
+		}
+	}
+
+	private static void runStrassen(int m, int cd, int n, boolean approx, int k) {
+		MatrixBlock mb1 = MatrixBlock.randOperations(m, cd, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(cd, n, 1.0, -1, 1, "uniform", 7);
+		MatrixBlock ret1 = LibMatrixMult.matrixMult(mb1, mb2);
+		MatrixBlock ret2 = new MatrixBlock(m, n, false);
+		ret2.allocateDenseBlock();
+		LibMatrixStrassen.matrixMult(mb1, mb2, ret2, 2, approx, k);
+		ret2.recomputeNonZeros();
+		TestUtils.compareMatrices(ret1, ret2, EPS);
+	}
+}
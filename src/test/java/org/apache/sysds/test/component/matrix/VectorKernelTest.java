@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.function.Supplier;
+
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixVector;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.util.DataConverter;
+import org.apache.sysds.test.TestUtils;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the vector API kernels against scalar reference implementations and the scalar
+ * kernels of LibMatrixMult. The kernel tests are skipped if the JVM does not provide
+ * jdk.incubator.vector (see LibMatrixVector and the vector-api profile).
+ */
+public class VectorKernelTest {
+	private static final double EPS = 1e-10;
+	private static final int[] LENGTHS = new int[] {0, 1, 3, 7, 8, 9, 16, 31, 64, 1001};
+
+	private String _mode;
+
+	@Before
+	public void enableKernels() {
+		_mode = ConfigurationManager.getDMLConfig().getTextValue(DMLConfig.VECTOR_API);
+		setMode("auto");
+	}
+
+	@After
+	public void restoreKernels() {
+		setMode(_mode);
+	}
+
+	@Test
+	public void testDotProduct() {
+		LibMatrixVector simd = getKernels();
+		for(int len : LENGTHS) {
+			double[] a = TestUtils.generateTestVector(len + 3, -1, 1, 1.0, 7);
+			double[] b = TestUtils.generateTestVector(len + 5, -1, 1, 1.0, 3);
+			double ref = 0;
+			for(int i = 0; i < len; i++)
+				ref += a[i + 3] * b[i + 5];
+			assertEquals(ref, simd.dotProduct(a, b, 3, 5, len), EPS);
+		}
+	}
+
+	@Test
+	public void testVectMultiplyAdd() {
+		LibMatrixVector simd = getKernels();
+		for(int len : LENGTHS) {
+			double[] b = TestUtils.generateTestVector(len + 2, -1, 1, 1.0, 7);
+			double[] c1 = TestUtils.generateTestVector(len + 1, -1, 1, 1.0, 3);
+			double[] c2 = c1.clone();
+			for(int j = 0; j < len; j++)
+				c1[j + 1] += 0.7 * b[j + 2];
+			simd.vectMultiplyAdd(0.7, b, c2, 2, 1, len);
+			assertArrayEquals(c1, c2, EPS);
+		}
+	}
+
+	@Test
+	public void testVectMultiplyAdd4() {
+		LibMatrixVector simd = getKernels();
+		for(int len : LENGTHS) {
+			double[] b = TestUtils.generateTestVector(4 * len + 4, -1, 1, 1.0, 7);
+			double[] c1 = TestUtils.generateTestVector(len, -1, 1, 1.0, 3);
+			double[] c2 = c1.clone();
+			for(int j = 0; j < len; j++)
+				c1[j] += 1 * b[j] + 2 * b[len + j] + 3 * b[2 * len + j] + 4 * b[3 * len + j];
+			simd.vectMultiplyAdd4(1, 2, 3, 4, b, c2, 0, len, 2 * len, 3 * len, 0, len);
+			assertArrayEquals(c1, c2, EPS);
+		}
+	}
+
+	@Test
+	public void testVectMultiplyWriteAddSum() {
+		LibMatrixVector simd = getKernels();
+		for(int len : LENGTHS) {
+			double[] a = TestUtils.generateTestVector(len, -1, 1, 1.0, 7);
+			double[] c1 = new double[len];
+			double[] c2 = new double[len];
+			double ref = 0;
+			for(int j = 0; j < len; j++) {
+				c1[j] = 3 * a[j] + a[j];
+				ref += a[j];
+			}
+			simd.vectMultiplyWrite(3, a, c2, 0, 0, len);
+			simd.vectAdd(a, c2, 0, 0, len);
+			assertArrayEquals(c1, c2, EPS);
+			assertEquals(ref, simd.vectSum(a, 0, len), EPS);
+		}
+	}
+
+	@Test
+	public void testDenseMatrixMult() {
+		MatrixBlock mb1 = MatrixBlock.randOperations(317, 253, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock mb2 = MatrixBlock.randOperations(253, 129, 1.0, -1, 1, "uniform", 7);
+		//reference via dense triple loop
+		double[][] a = DataConverter.convertToDoubleMatrix(mb1);
+		double[][] b = DataConverter.convertToDoubleMatrix(mb2);
+		double[][] c = new double[a.length][b[0].length];
+		for(int i = 0; i < a.length; i++)
+			for(int k = 0; k < b.length; k++)
+				for(int j = 0; j < b[0].length; j++)
+					c[i][j] += a[i][k] * b[k][j];
+		MatrixBlock vect = LibMatrixMult.matrixMult(mb1, mb2);
+		MatrixBlock scalar = runScalar(() -> LibMatrixMult.matrixMult(mb1, mb2));
+		TestUtils.compareMatrices(c, vect, 1e-8, "vector mm");
+		TestUtils.compareMatrices(c, scalar, 1e-8, "scalar mm");
+	}
+
+	@Test
+	public void testDenseMatrixVectorAndTsmm() {
+		getKernels();
+		MatrixBlock mb1 = MatrixBlock.randOperations(513, 77, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock v = MatrixBlock.randOperations(77, 1, 1.0, -1, 1, "uniform", 7);
+		TestUtils.compareMatrices(runScalar(() -> LibMatrixMult.matrixMult(mb1, v)),
+			LibMatrixMult.matrixMult(mb1, v), EPS);
+		TestUtils.compareMatrices(runScalar(() -> tsmm(mb1)), tsmm(mb1), EPS);
+	}
+
+	private static MatrixBlock tsmm(MatrixBlock mb) {
+		MatrixBlock ret = new MatrixBlock(mb.getNumColumns(), mb.getNumColumns(), false);
+		LibMatrixMult.matrixMultTransposeSelf(mb, ret, true, 1);
+		return ret;
+	}
+
+	private static MatrixBlock runScalar(Supplier<MatrixBlock> op) {
+		try {
+			setMode("none");
+			return op.get();
+		}
+		finally {
+			setMode("auto");
+		}
+	}
+
+	private static void setMode(String mode) {
+		ConfigurationManager.getDMLConfig().setTextValue(DMLConfig.VECTOR_API, mode);
+		LibMatrixVector.reset();
+	}
+
+	private static LibMatrixVector getKernels() {
+		LibMatrixVector simd = LibMatrixVector.get();
+		Assume.assumeTrue("jdk.incubator.vector not available", simd != null);
+		return simd;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.matrix.libMatrixReorg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.common.Opcodes;
+import org.apache.sysds.common.Types.DataType;
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysds.runtime.controlprogram.context.ExecutionContextFactory;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.instructions.InstructionUtils;
+import org.apache.sysds.runtime.instructions.cp.CPOperand;
+import org.apache.sysds.runtime.instructions.cp.ReorgCPInstruction;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class TransposeParallelTest {
+
+	@Test
+	public void testSparseMCSRTallSkinny() {
+		runSparseTranspose(TestUtils.generateTestMatrixBlock(20000, 100, -10, 10, 0.05, 7), 8);
+	}
+
+	@Test
+	public void testSparseCSRTallSkinny() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(20000, 100, -10, 10, 0.05, 7);
+		mb.setSparseBlock(new SparseBlockCSR(mb.getSparseBlock()));
+		runSparseTranspose(mb, 8);
+	}
+
+	@Test
+	public void testSparseCSRWide() {
+		//column blocking in scatter (n > 4096)
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(3000, 10000, -10, 10, 0.01, 3);
+		mb.setSparseBlock(new SparseBlockCSR(mb.getSparseBlock()));
+		runSparseTranspose(mb, 5);
+	}
+
+	@Test
+	public void testSparseSkewedRows() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(10000, 200, -10, 10, 0.02, 11);
+		for( int i = 0; i < 200; i++ ) //dense rows at the beginning
+			for( int j = 0; j < 200; j++ )
+				mb.set(i, j, i + j + 1);
+		mb.recomputeNonZeros();
+		mb.setSparseBlock(new SparseBlockCSR(mb.getSparseBlock()));
+		runSparseTranspose(mb, 16);
+	}
+
+	@Test
+	public void testSparseCSRNotAllowed() {
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(20000, 100, -10, 10, 0.05, 7);
+		mb.setSparseBlock(new SparseBlockCSR(mb.getSparseBlock()));
+		MatrixBlock ret1 = LibMatrixReorg.transpose(mb, 1);
+		MatrixBlock ret2 = LibMatrixReorg.transpose(mb, 8, false);
+		assertTrue(ret2.isInSparseFormat());
+		assertFalse(ret2.getSparseBlock() instanceof SparseBlockCSR);
+		TestUtils.compareMatrices(ret1, ret2, 0);
+	}
+
+	@Test
+	public void testSparseCSRReorgInstruction() {
+		//t(X) of sparse inputs reaches the parallel CSR transpose
+		MatrixBlock mb = TestUtils.generateTestMatrixBlock(20000, 100, -10, 10, 0.05, 7);
+		ExecutionContext ec = ExecutionContextFactory.createContext();
+		MatrixObject mo = new MatrixObject(ValueType.FP64, "X", new MetaDataFormat(
+			mb.getDataCharacteristics().setBlocksize(1000), FileFormat.BINARY));
+		mo.acquireModify(mb);
+		mo.release();
+		ec.setVariable("X", mo);
+		ec.setAutoCreateVars(true);
+		ReorgCPInstruction.parseInstruction(InstructionUtils.concatOperands("CP", Opcodes.TRANSPOSE.toString(),
+			InstructionUtils.createOperand(new CPOperand("X", ValueType.FP64, DataType.MATRIX)),
+			InstructionUtils.createOperand(new CPOperand("Y", ValueType.FP64, DataType.MATRIX)), "8"))
+			.processInstruction(ec);
+		MatrixBlock ret = ec.getMatrixInput("Y");
+		assertTrue(ret.isInSparseFormat());
+		assertTrue(ret.getSparseBlock() instanceof SparseBlockCSR);
+		TestUtils.compareMatrices(LibMatrixReorg.transpose(mb, 1), ret, 0);
+		ec.releaseMatrixInput("Y");
+	}
+
+	@Test
+	public void testDenseRecursive() {
+		runDenseTranspose(TestUtils.generateTestMatrixBlock(1037, 1531, -10, 10, 1.0, 7), 1);
+	}
+
+	@Test
+	public void testDenseRecursiveTallSkinny() {
+		runDenseTranspose(TestUtils.generateTestMatrixBlock(100003, 13, -10, 10, 1.0, 7), 1);
+	}
+
+	@Test
+	public void testDenseRecursiveParallel() {
+		runDenseTranspose(TestUtils.generateTestMatrixBlock(2011, 997, -10, 10, 1.0, 7), 6);
+	}
+
+	private static void runSparseTranspose(MatrixBlock mb, int k) {
+		assertTrue(mb.isInSparseFormat());
+		MatrixBlock ret1 = LibMatrixReorg.transpose(mb, 1);
+		MatrixBlock ret2 = LibMatrixReorg.transpose(mb, k, true);
+		assertTrue(ret2.isInSparseFormat());
+		assertTrue(ret2.getSparseBlock() instanceof SparseBlockCSR);
+		assertEquals(mb.getNonZeros(), ret2.getNonZeros());
+		assertTrue(ret2.getSparseBlock().checkValidity(mb.getNumColumns(), mb.getNumRows(), mb.getNonZeros(), true));
+		TestUtils.compareMatrices(ret1, ret2, 0);
+	}
+
+	private static void runDenseTranspose(MatrixBlock mb, int k) {
+		assertTrue(!mb.isInSparseFormat());
+		MatrixBlock ret = LibMatrixReorg.transpose(mb, k);
+		for( int i = 0; i < mb.getNumRows(); i++ )
+			for( int j = 0; j < mb.getNumColumns(); j++ )
+				assertEquals(mb.get(i, j), ret.get(j, i), 0);
+	}
+}
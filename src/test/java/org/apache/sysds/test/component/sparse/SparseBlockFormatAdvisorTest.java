@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.component.sparse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.sysds.common.Types.FileFormat;
+import org.apache.sysds.common.Types.ValueType;
+import org.apache.sysds.conf.ConfigurationManager;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysds.runtime.data.SparseBlock;
+import org.apache.sysds.runtime.data.SparseBlockCSR;
+import org.apache.sysds.runtime.data.SparseBlockFactory;
+import org.apache.sysds.runtime.data.SparseBlockFormatAdvisor;
+import org.apache.sysds.runtime.data.SparseBlockFormatAdvisor.AccessType;
+import org.apache.sysds.runtime.data.SparseBlockFormatAdvisor.SparseBlockStats;
+import org.apache.sysds.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
+import org.apache.sysds.runtime.meta.MatrixCharacteristics;
+import org.apache.sysds.runtime.meta.MetaDataFormat;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Test;
+
+public class SparseBlockFormatAdvisorTest {
+
+	@Test
+	public void testStats() {
+		MatrixBlock mb = createHyperSparse(1000, 100, 10, 4);
+		SparseBlockStats stats = SparseBlockFormatAdvisor.analyze(mb.getSparseBlock(), 100);
+		assertEquals(400, stats.getNonZeros());
+		assertEquals(100, stats.getNonEmptyRows());
+		assertEquals(0.9, stats.getEmptyRowFraction(), 1e-10);
+		assertEquals(4, stats.getRowMean(), 1e-10);
+		assertEquals(0, stats.getRowVariance(), 1e-10);
+	}
+
+	@Test
+	public void testUniformRows() {
+		MatrixBlock mb = MatrixBlock.randOperations(1000, 1000, 0.05, -1, 1, "uniform", 7);
+		SparseBlock csr = new SparseBlockCSR(mb.getSparseBlock());
+		assertEquals(SparseBlock.Type.CSR,
+			SparseBlockFormatAdvisor.getRecommendedType(csr, 1000, AccessType.ROW));
+	}
+
+	@Test
+	public void testHyperSparseRows() {
+		MatrixBlock mb = createHyperSparse(20000, 1000, 20, 10);
+		assertEquals(SparseBlock.Type.MCSR, getType(mb.getSparseBlock()));
+		SparseBlock sb = SparseBlockFormatAdvisor.convert(mb.getSparseBlock(), 1000, AccessType.ROW);
+		assertEquals(SparseBlock.Type.DCSR, getType(sb));
+		assertTrue(sb.getExactSizeInMemory() < mb.getSparseBlock().getExactSizeInMemory());
+		compare(mb, sb);
+	}
+
+	@Test
+	public void testHyperSparseSingleValueRows() {
+		MatrixBlock mb = createHyperSparse(20000, 1000, 20, 1);
+		SparseBlock sb = SparseBlockFormatAdvisor.convert(mb.getSparseBlock(), 1000, AccessType.ROW);
+		assertEquals(SparseBlock.Type.COO, getType(sb));
+		compare(mb, sb);
+	}
+
+	@Test
+	public void testAccessTypes() {
+		MatrixBlock mb = MatrixBlock.randOperations(100, 100, 0.05, -1, 1, "uniform", 7);
+		assertEquals(SparseBlock.Type.MCSR,
+			SparseBlockFormatAdvisor.getRecommendedType(mb.getSparseBlock(), 100, AccessType.UPDATE));
+		assertEquals(SparseBlock.Type.CSC,
+			SparseBlockFormatAdvisor.getRecommendedType(mb.getSparseBlock(), 100, AccessType.COLUMN));
+	}
+
+	@Test
+	public void testCachedTranspose() {
+		DMLConfig conf = ConfigurationManager.getDMLConfig();
+		String before = conf.getTextValue(DMLConfig.SPARSE_ADVISOR);
+		try {
+			conf.setTextValue(DMLConfig.SPARSE_ADVISOR, "true");
+			MatrixBlock mb = MatrixBlock.randOperations(700, 300, 0.02, -1, 1, "uniform", 7);
+			MatrixObject mo = createMatrixObject(mb);
+			MatrixBlock expected = LibMatrixReorg.transpose(mb, 1);
+			assertNull(mo.getCachedTranspose(mb, true));
+			assertEquals(0, mo.getDataSize());
+			MatrixBlock prev = null;
+			for( int i = 0; i < 2; i++ ) {
+				MatrixBlock ret = mo.getCachedTranspose(mb, true);
+				assertNotNull(ret);
+				assertEquals(300, ret.getNumRows());
+				assertEquals(expected.getNonZeros(), ret.getNonZeros());
+				TestUtils.compareMatrices(expected, ret, 0);
+				//cached copy accounted and reused w/o array copies
+				assertTrue(mo.getDataSize() > 0);
+				if( prev != null )
+					assertSame(prev.getSparseBlock().values(0), ret.getSparseBlock().values(0));
+				prev = ret;
+			}
+			//deep copy for outputs, updates do not affect the cached copy
+			MatrixBlock copy = mo.getCachedTranspose(mb, false);
+			assertNotSame(prev.getSparseBlock().values(0), copy.getSparseBlock().values(0));
+			TestUtils.compareMatrices(expected, copy, 0);
+			copy.getSparseBlock().values(0)[copy.getSparseBlock().pos(0)] += 7;
+			TestUtils.compareMatrices(expected, mo.getCachedTranspose(mb, true), 0);
+			//reset on new data
+			MatrixBlock mb2 = MatrixBlock.randOperations(700, 300, 0.02, -1, 1, "uniform", 3);
+			assertNull(mo.getCachedTranspose(mb2, true));
+		}
+		finally {
+			conf.setTextValue(DMLConfig.SPARSE_ADVISOR, before);
+		}
+	}
+
+	@Test
+	public void testCachedTransposeDisabled() {
+		MatrixBlock mb = MatrixBlock.randOperations(700, 300, 0.02, -1, 1, "uniform", 7);
+		MatrixObject mo = createMatrixObject(mb);
+		for( int i = 0; i < 3; i++ )
+			assertNull(mo.getCachedTranspose(mb, true));
+	}
+
+	private static MatrixBlock createHyperSparse(int rows, int cols, int step, int rowLen) {
+		MatrixBlock mb = new MatrixBlock(rows, cols, true);
+		for( int i = 0; i < rows; i += step )
+			for( int j = 0; j < rowLen; j++ )
+				mb.appendValue(i, j * 7 % cols, i + j + 1);
+		mb.recomputeNonZeros();
+		return mb;
+	}
+
+	private static MatrixObject createMatrixObject(MatrixBlock mb) {
+		MatrixCharacteristics mc = new MatrixCharacteristics(mb.getNumRows(), mb.getNumColumns(), 1000, mb.getNonZeros());
+		return new MatrixObject(ValueType.FP64, null, new MetaDataFormat(mc, FileFormat.BINARY));
+	}
+
+	private static SparseBlock.Type getType(SparseBlock sb) {
+		return SparseBlockFactory.getSparseBlockType(sb);
+	}
+
+	private static void compare(MatrixBlock mb, SparseBlock sb) {
+		MatrixBlock ret = new MatrixBlock(mb.getNumRows(), mb.getNumColumns(), true);
+		ret.setSparseBlock(sb);
+		ret.setNonZeros(sb.size());
+		TestUtils.compareMatrices(mb, ret, 0);
+	}
+}
@@ -27,8 +27,13 @@ import java.io.PrintStream;
 import org.apache.sysds.api.DMLException;
 import org.apache.sysds.api.jmlc.Connection;
 import org.apache.sysds.api.jmlc.PreparedScript;
+import org.apache.sysds.runtime.data.DenseBlockQuantized.QuantType;
 import org.apache.sysds.runtime.instructions.cp.ScalarObject;
+import org.apache.sysds.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysds.runtime.matrix.data.LibMatrixQuantize;
+import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.test.AutomatedTestBase;
+import org.apache.sysds.test.TestUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -185,6 +190,27 @@ public class JMLCInputOutputTest extends AutomatedTestBase {
 		conn.close();
 	}
 
+	@Test
+	public void testQuantizedMatrixInput() throws DMLException {
+		Connection conn = new Connection();
+		String str = "Y = X %*% W;\nwrite(Y, './tmp/Y');";
+		PreparedScript script = conn.prepareScript(str, new String[] { "X", "W" }, new String[] { "Y" });
+		MatrixBlock X = MatrixBlock.randOperations(50, 80, 1.0, -1, 1, "uniform", 3);
+		MatrixBlock W = MatrixBlock.randOperations(80, 20, 1.0, -1, 1, "uniform", 7);
+		script.setMatrix("X", X, false);
+		script.setMatrix("W", W, QuantType.INT8, true);
+
+		//exact w.r.t. the dequantized weights over repeated calls
+		MatrixBlock expected = LibMatrixMult.matrixMult(X,
+			LibMatrixQuantize.dequantize(LibMatrixQuantize.quantize(W, QuantType.INT8, true)));
+		for(int i = 0; i < 2; i++) {
+			script.setMatrix("X", X, false);
+			MatrixBlock Y = script.executeScript().getMatrixBlock("Y");
+			TestUtils.compareMatrices(expected, Y, 1e-10);
+		}
+		conn.close();
+	}
+
 	private static ByteArrayOutputStream executeAndCatchStdOut(PreparedScript script){
 		ByteArrayOutputStream buff = new ByteArrayOutputStream();
 		PrintStream ps = new PrintStream(buff);
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.lineage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.sysds.hops.recompile.Recompiler;
+import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCache;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageCacheEntry;
+import org.apache.sysds.runtime.lineage.LineageCacheEviction;
+import org.apache.sysds.runtime.lineage.LineageItem;
+import org.apache.sysds.runtime.matrix.data.MatrixValue;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.apache.sysds.utils.stats.InfrastructureAnalyzer;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class AsyncEvictionTest extends LineageBase {
+
+	protected static final String TEST_DIR = "functions/lineage/";
+	protected static final String TEST_NAME1 = "AsyncEviction1";
+
+	protected String TEST_CLASS_DIR = TEST_DIR + AsyncEvictionTest.class.getSimpleName() + "/";
+	private final static String TEST_CONF = "SystemDS-config-async-eviction.xml";
+	private final static File   TEST_CONF_FILE = new File(SCRIPT_DIR + TEST_DIR, TEST_CONF);
+
+	private final static int iterations = 200;
+	private final static long cacheLimit = 1024 * 1024; //~12 intermediates
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1));
+	}
+
+	@Test
+	public void testConcurrentPutsSizeAccounting() {
+		runTest(TEST_NAME1);
+	}
+
+	public void runTest(String testname) {
+		long maxMem = InfrastructureAnalyzer.getLocalMaxMemory();
+		long oldLimit = LineageCacheEviction.getCacheLimit();
+		try {
+			getAndLoadTestConfiguration(testname);
+			fullDMLScriptName = getScript();
+
+			//run w/o reuse
+			List<String> proArgs = new ArrayList<>();
+			proArgs.add("-args");
+			proArgs.add(String.valueOf(iterations));
+			proArgs.add(output("R"));
+			programArgs = proArgs.toArray(new String[proArgs.size()]);
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_orig = readDMLMatrixFromOutputDir("R");
+
+			//run w/ reuse, small cache limit, and background eviction
+			Lineage.resetInternalState();
+			LineageCacheEviction.setCacheLimit((double) cacheLimit / maxMem);
+			proArgs.clear();
+			proArgs.add("-stats");
+			proArgs.add("-lineage");
+			proArgs.add(ReuseCacheType.REUSE_FULL.name().toLowerCase());
+			proArgs.add("-args");
+			proArgs.add(String.valueOf(iterations));
+			proArgs.add(output("R"));
+			programArgs = proArgs.toArray(new String[proArgs.size()]);
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+			HashMap<MatrixValue.CellIndex, Double> R_reused = readDMLMatrixFromOutputDir("R");
+			Lineage.setLinReuseNone();
+			TestUtils.compareMatrices(R_orig, R_reused, 1e-6, "Origin", "Reused");
+
+			//check size accounting against the cached entries (the monitor on
+			//the cache excludes a concurrently running background eviction)
+			Map<LineageItem, LineageCacheEntry> cache = LineageCache.getLineageCache();
+			synchronized(cache) {
+				long size = 0;
+				for(LineageCacheEntry e : cache.values())
+					size += e.getSize();
+				long accounted = LineageCacheEviction.getCacheLimit() - LineageCacheEviction.getAvailableSpace();
+				Assert.assertEquals(size, accounted);
+				Assert.assertTrue("Cache size exceeded limit: " + accounted,
+					accounted <= LineageCacheEviction.getCacheLimit());
+			}
+		}
+		finally {
+			LineageCacheEviction.setCacheLimit((double) oldLimit / maxMem);
+			Lineage.resetInternalState();
+			Recompiler.reinitRecompiler();
+		}
+	}
+
+	/**
+	 * Override default configuration with custom test configuration to ensure
+	 * scratch space and local temporary directory locations are also updated.
+	 */
+	@Override
+	protected File getConfigTemplateFile() {
+		// Instrumentation in this test's output log to show custom configuration file used for template.
+		System.out.println("This test case overrides default configuration with " + TEST_CONF_FILE.getPath());
+		return TEST_CONF_FILE;
+	}
+}
@@ -23,9 +23,11 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.apache.sysds.hops.recompile.Recompiler;
 import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
 import org.apache.sysds.runtime.matrix.data.MatrixValue;
 import org.apache.sysds.test.AutomatedTestBase;
 import org.apache.sysds.test.TestConfiguration;
@@ -42,6 +44,9 @@ public class LineageRewriteTest extends AutomatedTestBase {
 	protected static final String TEST_NAME7 = "RewriteTest11";
 	protected static final String TEST_NAME8 = "RewriteTest12";
 	protected static final String TEST_NAME9 = "RewriteTest13";
+	protected static final String TEST_NAME10 = "RewriteTest14";
+	protected static final String TEST_NAME11 = "RewriteTest15";
+	protected static final String TEST_NAME12 = "RewriteTest16";
 	
 	protected String TEST_CLASS_DIR = TEST_DIR + LineageRewriteTest.class.getSimpleName() + "/";
 	
@@ -60,6 +65,9 @@ public class LineageRewriteTest extends AutomatedTestBase {
 		addTestConfiguration(TEST_NAME7, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME7));
 		addTestConfiguration(TEST_NAME8, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME8));
 		addTestConfiguration(TEST_NAME9, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME9));
+		addTestConfiguration(TEST_NAME10, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME10));
+		addTestConfiguration(TEST_NAME11, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME11));
+		addTestConfiguration(TEST_NAME12, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME12));
 	}
 	
 	@Test
@@ -108,7 +116,29 @@ public class LineageRewriteTest extends AutomatedTestBase {
 		testRewrite(TEST_NAME9, false, 0);
 	}
 
+	@Test
+	public void testSlidingWindow() {
+		// tsmm, colSums, matmult and exp over overlapping row windows
+		testRewrite(TEST_NAME10, false, 0, true);
+	}
+
+	@Test
+	public void testAppendGeneric() {
+		// rowSums, colSums and exp over rbind
+		testRewrite(TEST_NAME11, false, 0, true);
+	}
+
+	@Test
+	public void testSlidingWindowExpand() {
+		// tsmm and colSums over windows alternately expanding and sliding
+		testRewrite(TEST_NAME12, false, 0, true);
+	}
+
 	private void testRewrite(String testname, boolean elementwise, int classes) {
+		testRewrite(testname, elementwise, classes, false);
+	}
+
+	private void testRewrite(String testname, boolean elementwise, int classes, boolean partial) {
 		try {
 			getAndLoadTestConfiguration(testname);
 			List<String> proArgs = new ArrayList<>();
@@ -149,8 +179,11 @@ public class LineageRewriteTest extends AutomatedTestBase {
 			writeInputMatrixWithMTD("X", X, true);
 			Lineage.resetInternalState();
 			Lineage.setLinReusePartial();
+			long numRewrites = LineageCacheStatistics.getPRewrites();
 			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
 			Lineage.setLinReuseNone();
+			if (partial) //generic partial reuse applied
+				Assert.assertTrue(LineageCacheStatistics.getPRewrites() > numRewrites);
 			HashMap<MatrixValue.CellIndex, Double> R_reused = readDMLMatrixFromOutputDir("Res");
 			TestUtils.compareMatrices(R_orig, R_reused, 1e-6, "Origin", "Reused");
 		}
@@ -26,6 +26,7 @@ import org.apache.sysds.hops.recompile.Recompiler;
 import org.apache.sysds.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysds.runtime.instructions.cp.Data;
 import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageBinaryReader;
 import org.apache.sysds.runtime.lineage.LineageRecomputeUtils;
 import org.apache.sysds.runtime.matrix.data.MatrixBlock;
 import org.apache.sysds.runtime.matrix.data.MatrixValue.CellIndex;
@@ -33,6 +34,7 @@ import org.apache.sysds.test.AutomatedTestBase;
 import org.apache.sysds.test.TestConfiguration;
 import org.apache.sysds.test.TestUtils;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -120,8 +122,22 @@ public class LineageTraceDedupTest extends LineageBase
 	public void testLineageTrace11() {
 		testLineageTrace(TEST_NAME11);
 	}
+
+	@Test
+	public void testLineageTraceBinary2() {
+		testLineageTrace(TEST_NAME2, true);
+	}
+
+	@Test
+	public void testLineageTraceBinary10() {
+		testLineageTrace(TEST_NAME10, true);
+	}
 	
 	public void testLineageTrace(String testname) {
+		testLineageTrace(testname, false);
+	}
+	
+	public void testLineageTrace(String testname, boolean binary) {
 		boolean old_simplification = OptimizerUtils.ALLOW_ALGEBRAIC_SIMPLIFICATION;
 		boolean old_sum_product = OptimizerUtils.ALLOW_SUM_PRODUCT_REWRITES;
 		Types.ExecMode old_rtplatform = AutomatedTestBase.rtplatform;
@@ -143,6 +159,8 @@ public class LineageTraceDedupTest extends LineageBase
 			proArgs.add("-lineage");
 			proArgs.add("reuse_full"); //test reuse + deduplication
 			proArgs.add("dedup");
+			if (binary)
+				proArgs.add("binary");
 			proArgs.add("-args");
 			proArgs.add(output("R"));
 			programArgs = proArgs.toArray(new String[proArgs.size()]);
@@ -151,8 +169,19 @@ public class LineageTraceDedupTest extends LineageBase
 			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
 
 			//deserialize, generate program and execute
-			String Rtrace = readDMLLineageFromHDFS("R");
-			Data ret = LineageRecomputeUtils.parseNComputeLineageTrace(Rtrace);
+			Data ret = null;
+			if (binary) {
+				try (LineageBinaryReader reader = LineageBinaryReader.open(output("R") + ".lineage")) {
+					ret = LineageRecomputeUtils.parseNComputeLineageTrace(reader);
+				}
+				catch (IOException ex) {
+					throw new RuntimeException(ex);
+				}
+			}
+			else {
+				String Rtrace = readDMLLineageFromHDFS("R");
+				ret = LineageRecomputeUtils.parseNComputeLineageTrace(Rtrace);
+			}
 			
 			//match the original and recomputed results
 			HashMap<CellIndex, Double> orig = readDMLMatrixFromOutputDir("R");
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysds.test.functions.lineage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.sysds.conf.DMLConfig;
+import org.apache.sysds.runtime.lineage.Lineage;
+import org.apache.sysds.runtime.lineage.LineageCacheConfig.ReuseCacheType;
+import org.apache.sysds.runtime.lineage.LineageCacheStatistics;
+import org.apache.sysds.runtime.lineage.LineageSpeculator;
+import org.apache.sysds.runtime.matrix.data.MatrixValue;
+import org.apache.sysds.test.TestConfiguration;
+import org.apache.sysds.test.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+@net.jcip.annotations.NotThreadSafe
+public class SpeculativeReuseTest extends LineageBase {
+
+	protected static final String TEST_DIR = "functions/lineage/";
+	protected static final String TEST_NAME1 = "SpeculativeReuse1";
+	protected String TEST_CLASS_DIR = TEST_DIR + SpeculativeReuseTest.class.getSimpleName() + "/";
+
+	private static final int rows = 2000;
+	private static final int cols = 500;
+
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1));
+	}
+
+	@Test
+	public void testSpeculativeTsmm() throws IOException {
+		runTest(TEST_NAME1);
+	}
+
+	private void runTest(String testname) throws IOException {
+		getAndLoadTestConfiguration(testname);
+		fullDMLScriptName = getScript();
+		writeInputMatrixWithMTD("X", getRandomMatrix(rows, cols, 0, 1, 1.0, 7), false);
+
+		// enable the history of the most expensive intermediate
+		File history = new File(getCurLocalTempDir(), "history.bin");
+		String conf = FileUtils.readFileToString(getCurConfigFile(), "UTF-8").replace("</root>",
+			createXMLElement(DMLConfig.LINEAGE_SPECULATE_FILE, history.getPath())
+			+ createXMLElement(DMLConfig.LINEAGE_SPECULATE_TOPK, "1") + "\n</root>");
+		FileUtils.write(getCurConfigFile(), conf, "UTF-8");
+
+		// Record the history with the reuse estimator
+		programArgs = new String[] {"-stats", "-lineage", "estimate",
+			"-args", input("X"), output("R")};
+		Lineage.resetInternalState();
+		runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+		HashMap<MatrixValue.CellIndex, Double> R_orig = readDMLMatrixFromOutputDir("R");
+		Assert.assertTrue("History not written: " + history, history.length() > 0);
+
+		// Precompute the tsmm from the history before the main program runs
+		programArgs = new String[] {"-stats", "-lineage", ReuseCacheType.REUSE_FULL.name().toLowerCase(),
+			"-args", input("X"), output("R")};
+		Lineage.resetInternalState();
+		Lineage.setLinReuseFull();
+		LineageSpeculator.setSynchronous(true);
+		try {
+			runTest(true, EXCEPTION_NOT_EXPECTED, null, -1);
+		}
+		finally {
+			LineageSpeculator.setSynchronous(false);
+			Lineage.setLinReuseNone();
+		}
+		HashMap<MatrixValue.CellIndex, Double> R_spec = readDMLMatrixFromOutputDir("R");
+
+		TestUtils.compareMatrices(R_orig, R_spec, 1e-6, "Origin", "Speculative");
+		Assert.assertTrue(LineageCacheStatistics.getSpeculationsPlaced() > 0);
+		Assert.assertTrue(LineageCacheStatistics.getInstHits() > 0);
+	}
+}